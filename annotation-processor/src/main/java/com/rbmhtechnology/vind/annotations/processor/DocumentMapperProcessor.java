@@ -0,0 +1,540 @@
+package com.rbmhtechnology.vind.annotations.processor;
+
+import com.rbmhtechnology.vind.annotations.ComplexField;
+import com.rbmhtechnology.vind.annotations.Entry;
+import com.rbmhtechnology.vind.annotations.Facet;
+import com.rbmhtechnology.vind.annotations.Field;
+import com.rbmhtechnology.vind.annotations.FullText;
+import com.rbmhtechnology.vind.annotations.Id;
+import com.rbmhtechnology.vind.annotations.Ignore;
+import com.rbmhtechnology.vind.annotations.Metadata;
+import com.rbmhtechnology.vind.annotations.Operator;
+import com.rbmhtechnology.vind.annotations.Score;
+import com.rbmhtechnology.vind.annotations.Type;
+import com.rbmhtechnology.vind.annotations.id.DefaultIdGenerator;
+import com.rbmhtechnology.vind.annotations.util.FunctionHelpers;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Annotation processor generating a {@code DocumentMapper} for every class annotated with {@link Type}: the generated
+ * class (named after the annotated class with a trailing {@code _}) holds the {@code DocumentFactory} and typed
+ * {@code FieldDescriptor} constants of the class and converts its instances to documents and back without reflection.
+ * The mapping rules are the ones applied at runtime by {@code AnnotationUtil}, mapping errors are reported as
+ * compilation errors.
+ * <p>
+ * The generated code reads and writes the annotated fields directly, private fields need accessible getters and
+ * setters.
+ */
+@SupportedAnnotationTypes("com.rbmhtechnology.vind.annotations.Type")
+public class DocumentMapperProcessor extends AbstractProcessor {
+
+    private static final String LAT_LNG = "com.rbmhtechnology.vind.model.value.LatLng";
+    private static final Set<String> RESERVED = new HashSet<>(Arrays.asList("DOCUMENT_TYPE", "DOCUMENT_FACTORY", "ID_GENERATOR", "ID_FIELD"));
+
+    private Types types;
+    private Elements elements;
+    private Messager messager;
+    private boolean failed;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.types = processingEnv.getTypeUtils();
+        this.elements = processingEnv.getElementUtils();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Type.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@Type is only supported on classes");
+                continue;
+            }
+            failed = false;
+            final MappedType mapping = read((TypeElement) element);
+            if (failed) {
+                continue;
+            }
+            try {
+                new DocumentMapperWriter(mapping).write(processingEnv.getFiler(), element);
+            } catch (IOException e) {
+                error(element, "Unable to write document mapper " + mapping.getQualifiedMapperName() + ": " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private MappedType read(TypeElement clazz) {
+        final MappedType mapping = new MappedType();
+        checkAccessible(clazz);
+        if (!clazz.getTypeParameters().isEmpty()) {
+            error(clazz, "Generic @Type classes are not supported");
+        }
+
+        mapping.packageName = elements.getPackageOf(clazz).getQualifiedName().toString();
+        mapping.beanName = clazz.getQualifiedName().toString();
+        final String binaryName = elements.getBinaryName(clazz).toString();
+        mapping.mapperName = (mapping.packageName.isEmpty() ? binaryName : binaryName.substring(mapping.packageName.length() + 1)).replace('$', '_') + "_";
+
+        final Type type = clazz.getAnnotation(Type.class);
+        mapping.type = type.name().trim().isEmpty() ? clazz.getSimpleName().toString() : type.name();
+
+        final List<VariableElement> fields = getFields(clazz);
+        final Set<String> constants = new HashSet<>();
+        final Set<String> fieldNames = new HashSet<>();
+        for (VariableElement field : fields) {
+            if (field.getAnnotation(Ignore.class) != null || field.getAnnotation(Id.class) != null || field.getAnnotation(Score.class) != null) {
+                continue;
+            }
+            final MappedType.Property property = readProperty(mapping, field);
+            if (!constants.add(property.constant) || RESERVED.contains(property.constant)) {
+                error(field, "Field " + field.getSimpleName() + " clashes with the generated constant " + property.constant);
+            }
+            if (!fieldNames.add(property.fieldName)) {
+                error(field, "Duplicated field name " + property.fieldName + " in " + mapping.beanName);
+            }
+            mapping.properties.add(property);
+        }
+
+        readId(mapping, clazz, fields);
+        readScore(mapping, clazz, fields);
+
+        final boolean isAbstract = clazz.getModifiers().contains(Modifier.ABSTRACT);
+        mapping.instantiable = !isAbstract && ElementFilter.constructorsIn(clazz.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!isAbstract && !mapping.instantiable) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "Unable to instantiate class " + mapping.beanName + ": no accessible constructor without arguments", clazz);
+        }
+        return mapping;
+    }
+
+    private void checkAccessible(TypeElement clazz) {
+        for (Element element = clazz; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            final TypeElement type = (TypeElement) element;
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                error(clazz, "@Type classes have to be accessible from their package");
+            }
+            if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+                error(clazz, "Nested @Type classes have to be static");
+            }
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+                error(clazz, "Local @Type classes are not supported");
+            }
+        }
+    }
+
+    private List<VariableElement> getFields(TypeElement clazz) {
+        //same order as the runtime mapping: declared fields first, then the inherited ones
+        final List<VariableElement> fields = new ArrayList<>();
+        TypeElement current = clazz;
+        while (current != null) {
+            ElementFilter.fieldsIn(current.getEnclosedElements()).stream()
+                    .filter(f -> !f.getModifiers().contains(Modifier.STATIC))
+                    .forEach(fields::add);
+            final TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+        }
+        return fields;
+    }
+
+    private void readId(MappedType mapping, TypeElement clazz, List<VariableElement> fields) {
+        final List<VariableElement> ids = fields.stream().filter(f -> f.getAnnotation(Id.class) != null).collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            error(clazz, "No @Id-field found in " + mapping.beanName);
+            return;
+        } else if (ids.size() > 1) {
+            error(clazz, "Multiple @Id-fields found in " + mapping.beanName);
+            return;
+        }
+        final VariableElement field = ids.get(0);
+        if (!isAssignable(field.asType(), CharSequence.class.getName()) || !isAssignable(elements.getTypeElement(String.class.getName()).asType(), field.asType())) {
+            error(field, "@Id-annotated field must be CharSequence of String");
+            return;
+        }
+        mapping.id = new MappedType.Property();
+        mapping.id.name = field.getSimpleName().toString();
+        mapping.id.javaType = field.asType().toString();
+        readAccessors(mapping, mapping.id, field, true, true);
+
+        final Id id = field.getAnnotation(Id.class);
+        final TypeElement generator = classValue(id::generator);
+        if (generator == null || generator.getQualifiedName().contentEquals(DefaultIdGenerator.class.getCanonicalName())) {
+            mapping.idPrefix = id.prefix();
+            mapping.idSuffix = id.suffix();
+        } else {
+            checkInstantiable(field, generator, "id generator");
+            mapping.idGenerator = generator.getQualifiedName().toString();
+            mapping.idDeclaringClass = ((TypeElement) field.getEnclosingElement()).getQualifiedName().toString();
+        }
+    }
+
+    private void readScore(MappedType mapping, TypeElement clazz, List<VariableElement> fields) {
+        final List<VariableElement> scores = fields.stream().filter(f -> f.getAnnotation(Score.class) != null).collect(Collectors.toList());
+        if (scores.size() > 1) {
+            error(clazz, "Multiple @Score-fields found in " + mapping.beanName);
+            return;
+        } else if (scores.isEmpty()) {
+            return;
+        }
+        final VariableElement field = scores.get(0);
+        if (field.asType().getKind() != TypeKind.FLOAT && !isSame(field.asType(), Float.class.getName())) {
+            error(field, "@Score-annotated field must be of kind float");
+            return;
+        }
+        mapping.score = new MappedType.Property();
+        mapping.score.name = field.getSimpleName().toString();
+        mapping.score.javaType = Float.class.getName();
+        readAccessors(mapping, mapping.score, field, false, true);
+    }
+
+    private MappedType.Property readProperty(MappedType mapping, VariableElement field) {
+        final MappedType.Property property = new MappedType.Property();
+        property.name = field.getSimpleName().toString();
+        property.constant = constantName(property.name);
+        property.complex = field.getAnnotation(ComplexField.class) != null;
+
+        final TypeMirror fieldType = field.asType();
+        property.javaType = fieldType.getKind().isPrimitive() ?
+                types.boxedClass((PrimitiveType) fieldType).getQualifiedName().toString() : fieldType.toString();
+
+        TypeMirror valueType = boxed(fieldType);
+        if (isAssignable(fieldType, "java.util.Collection")) {
+            property.multiValue = true;
+            final List<? extends TypeMirror> arguments = ((DeclaredType) fieldType).getTypeArguments();
+            if (arguments.size() != 1 || arguments.get(0).getKind() != TypeKind.DECLARED) {
+                error(field, "Annotated collection field " + property.name + " has to declare its value type");
+                return property;
+            }
+            valueType = arguments.get(0);
+            if (!property.complex) {
+                final Element collection = types.asElement(fieldType);
+                if (collection.getKind() == ElementKind.INTERFACE || collection.getModifiers().contains(Modifier.ABSTRACT)) {
+                    error(field, "Annotated field " + property.name + " can not be abstract");
+                }
+                property.collectionType = types.erasure(fieldType).toString();
+            }
+        }
+
+        if (property.complex) {
+            readComplexDescriptor(property, field, valueType);
+        } else {
+            readDescriptor(property, field, valueType);
+        }
+        readAccessors(mapping, property, field, true, !property.complex);
+        return property;
+    }
+
+    private void readDescriptor(MappedType.Property property, VariableElement field, TypeMirror valueType) {
+        final Field annotation = field.getAnnotation(Field.class);
+        property.fieldName = annotation != null && !annotation.name().trim().isEmpty() ? annotation.name() : property.name;
+
+        final List<String> builder = property.descriptor;
+        builder.add("new FieldDescriptorBuilder<>()");
+        builder.add(".setStored(" + (annotation == null || annotation.stored()) + ")");
+        builder.add(".setIndexed(" + (annotation == null || annotation.indexed()) + ")");
+
+        final FullText fullText = field.getAnnotation(FullText.class);
+        if (fullText != null) {
+            if (!isAssignable(valueType, CharSequence.class.getName())) {
+                error(field, "@FullText only allowed on CharSequence or String fields");
+            }
+            builder.add(".setFullText(true)");
+            builder.add(".setLanguage(Language." + fullText.language().name() + ")");
+            builder.add(".setBoost(" + fullText.boost() + "f)");
+        } else {
+            builder.add(".setFullText(false)");
+        }
+
+        final Facet facet = field.getAnnotation(Facet.class);
+        if (facet != null) {
+            builder.add(".setFacet(true)");
+            builder.add(".setSuggest(" + facet.suggestion() + ")");
+        } else {
+            builder.add(".setFacet(false)");
+        }
+        addMetadata(builder, field);
+
+        final String name = literal(property.fieldName);
+        final String multi = property.multiValue ? "Multivalued" : "";
+        final String prefix = property.multiValue ? "MultiValueFieldDescriptor." : "SingleValueFieldDescriptor.";
+        if (isAssignable(valueType, Number.class.getName())) {
+            final String number = Arrays.asList(Long.class, Integer.class, Double.class).stream()
+                    .map(Class::getName)
+                    .filter(n -> isSame(valueType, n))
+                    .findFirst().orElse(null);
+            if (number != null) {
+                property.descriptorType = prefix + "NumericFieldDescriptor<" + number + ">";
+                builder.add(".build" + multi + "NumericField(" + name + ", " + number + ".class)");
+            } else {
+                property.descriptorType = prefix + "NumericFieldDescriptor<java.lang.Number>";
+                builder.add(".build" + multi + "NumericField(" + name + ")");
+            }
+        } else if (isAssignable(valueType, "java.time.ZonedDateTime")) {
+            property.descriptorType = prefix + "DateFieldDescriptor<java.time.ZonedDateTime>";
+            builder.add(".build" + multi + "DateField(" + name + ")");
+        } else if (isAssignable(valueType, "java.util.Date")) {
+            property.descriptorType = prefix + "UtilDateFieldDescriptor<java.util.Date>";
+            builder.add(".build" + multi + "UtilDateField(" + name + ")");
+        } else if (isAssignable(valueType, LAT_LNG)) {
+            property.descriptorType = prefix + "LocationFieldDescriptor<" + LAT_LNG + ">";
+            builder.add(".build" + multi + "LocationField(" + name + ")");
+        } else if (isAssignable(valueType, CharSequence.class.getName())) {
+            property.descriptorType = prefix + "TextFieldDescriptor<java.lang.String>";
+            builder.add(".build" + multi + "TextField(" + name + ")");
+        } else {
+            error(field, "Unable to build FieldDescriptor: type [" + valueType + "] is not supported by FieldDescriptors");
+        }
+    }
+
+    private void readComplexDescriptor(MappedType.Property property, VariableElement field, TypeMirror valueType) {
+        final ComplexField annotation = field.getAnnotation(ComplexField.class);
+        property.fieldName = !annotation.name().trim().isEmpty() ? annotation.name() : property.name;
+
+        final String concept = types.erasure(valueType).toString();
+        if (Arrays.asList("java.io.Serializable", "java.nio.ByteBuffer", CharSequence.class.getName(), LAT_LNG).stream().noneMatch(t -> isAssignable(valueType, t))) {
+            error(field, "Unable to build FieldDescriptor: type [" + concept + "] is not supported by FieldDescriptors, complex field values have to be Serializable");
+        }
+        final TypeElement facetFunction = operatorFunction(field, annotation.facet(), true);
+        if (facetFunction == null) {
+            error(field, "@ComplexField " + property.name + " needs a facet operator to build its FieldDescriptor");
+            return;
+        }
+        final TypeMirror facet = types.erasure(boxed(classMirror(annotation.facet()::returnType)));
+        final String facetType = facet.toString();
+        final TypeElement storeFunction = operatorFunction(field, annotation.store(), true);
+        final String storeType = storeFunction != null ? types.erasure(boxed(classMirror(annotation.store()::returnType))).toString() : "java.lang.Object";
+
+        final List<String> builder = property.descriptor;
+        builder.add("new ComplexFieldDescriptorBuilder<" + concept + ", " + facetType + ", " + storeType + ">()");
+        builder.add(".setFacet(true, " + parameterFunction(facetFunction, annotation.facet()) + ")");
+        if (storeFunction != null) {
+            builder.add(".setStored(true, " + parameterFunction(storeFunction, annotation.store()) + ")");
+        }
+        final TypeElement suggestFunction = operatorFunction(field, annotation.suggestion(), true);
+        if (suggestFunction != null) {
+            builder.add(".setSuggest(true, " + parameterFunction(suggestFunction, annotation.suggestion()) + ")");
+        }
+        final TypeElement fullTextFunction = operatorFunction(field, annotation.fullText(), true);
+        if (fullTextFunction != null) {
+            builder.add(".setFullText(true, " + parameterFunction(fullTextFunction, annotation.fullText()) + ")");
+            builder.add(".setLanguage(Language." + annotation.language().name() + ")");
+            builder.add(".setBoost(" + annotation.boost() + "f)");
+        }
+        final TypeElement filterFunction = operatorFunction(field, annotation.advanceFilter(), true);
+        if (filterFunction != null) {
+            builder.add(".setAdvanceFilter(true, " + parameterFunction(filterFunction, annotation.advanceFilter()) + ")");
+        }
+        addMetadata(builder, field);
+
+        final TypeElement sortFunction = operatorFunction(field, annotation.sort(), false);
+        final String kind;
+        if (isAssignable(facet, Number.class.getName())) {
+            kind = "Numeric";
+        } else if (isAssignable(facet, "java.time.ZonedDateTime")) {
+            kind = "Date";
+        } else if (isAssignable(facet, "java.util.Date")) {
+            kind = "UtilDate";
+        } else if (isAssignable(facet, LAT_LNG)) {
+            kind = "Location";
+        } else if (isAssignable(facet, CharSequence.class.getName())) {
+            kind = "Text";
+        } else {
+            error(field, "Unable to build FieldDescriptor: type [" + facetType + "] is not supported by FieldDescriptors");
+            return;
+        }
+
+        //location fields are not sortable
+        final boolean sortable = sortFunction != null && !"Location".equals(kind);
+        property.descriptorType = (property.multiValue ? "MultiValuedComplexField." : "SingleValuedComplexField.") +
+                ("Location".equals(kind) ? "LocationComplexFieldDescriptor" : kind + "ComplexField") +
+                "<" + concept + ", " + facetType + ", " + storeType + ">";
+        builder.add(".build" + (sortable ? "Sortable" : "") + (property.multiValue ? "Multivalued" : "") + kind + "ComplexField(" +
+                literal(property.fieldName) + ", " + concept + ".class, " + facetType + ".class, " +
+                (storeFunction != null ? storeType + ".class" : "null") +
+                (sortable ? ", (Function) new " + sortFunction.getQualifiedName() + "()" : "") + ")");
+    }
+
+    private void addMetadata(List<String> builder, VariableElement field) {
+        final Metadata metadata = field.getAnnotation(Metadata.class);
+        if (metadata != null) {
+            for (Entry entry : metadata.value()) {
+                builder.add(".putMetadata(" + literal(entry.name()) + ", " + literal(entry.value()) + ")");
+            }
+        }
+    }
+
+    private TypeElement operatorFunction(VariableElement field, Operator operator, boolean parameterized) {
+        final TypeElement function = classValue(operator::function);
+        if (function == null || isAssignable(function.asType(), ComplexField.NullFunction.class.getCanonicalName())) {
+            return null;
+        }
+        checkInstantiable(field, function, "function class");
+        if (parameterized && !isAssignable(function.asType(), FunctionHelpers.ParameterFunction.class.getCanonicalName())) {
+            error(field, "Function class [" + function.getQualifiedName() + "] has to extend FunctionHelpers.ParameterFunction");
+        }
+        return function;
+    }
+
+    private String parameterFunction(TypeElement function, Operator operator) {
+        final StringBuilder call = new StringBuilder("parameterFunction(new ").append(function.getQualifiedName()).append("()");
+        for (String parameter : operator.fieldName()) {
+            call.append(", ").append(literal(parameter));
+        }
+        return call.append(")").toString();
+    }
+
+    private void readAccessors(MappedType mapping, MappedType.Property property, VariableElement field, boolean read, boolean write) {
+        if (isAccessible(mapping, field)) {
+            if (write && field.getModifiers().contains(Modifier.FINAL)) {
+                error(field, "Annotated field " + property.name + " can not be final");
+            }
+            return;
+        }
+        final TypeElement clazz = elements.getTypeElement(mapping.beanName);
+        final List<ExecutableElement> methods = ElementFilter.methodsIn(elements.getAllMembers(clazz)).stream()
+                .filter(m -> !m.getModifiers().contains(Modifier.STATIC) && isAccessible(mapping, m))
+                .collect(Collectors.toList());
+        final String suffix = Character.toUpperCase(property.name.charAt(0)) + property.name.substring(1);
+        if (read) {
+            property.getter = methods.stream()
+                    .filter(m -> m.getSimpleName().contentEquals("get" + suffix) || m.getSimpleName().contentEquals("is" + suffix))
+                    .filter(m -> m.getParameters().isEmpty() && types.isAssignable(m.getReturnType(), field.asType()))
+                    .map(m -> m.getSimpleName().toString())
+                    .findFirst().orElse(null);
+            if (property.getter == null) {
+                error(field, "Annotated field " + property.name + " is not accessible and has no getter");
+            }
+        }
+        if (write) {
+            property.setter = methods.stream()
+                    .filter(m -> m.getSimpleName().contentEquals("set" + suffix))
+                    .filter(m -> m.getParameters().size() == 1 && types.isAssignable(field.asType(), m.getParameters().get(0).asType()))
+                    .map(m -> m.getSimpleName().toString())
+                    .findFirst().orElse(null);
+            if (property.setter == null) {
+                error(field, "Annotated field " + property.name + " is not accessible and has no setter");
+            }
+        }
+    }
+
+    private boolean isAccessible(MappedType mapping, Element member) {
+        final Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE)) {
+            return false;
+        }
+        return modifiers.contains(Modifier.PUBLIC) ||
+                elements.getPackageOf(member).getQualifiedName().contentEquals(mapping.packageName);
+    }
+
+    private void checkInstantiable(VariableElement field, TypeElement clazz, String kind) {
+        final boolean instantiable = clazz.getModifiers().contains(Modifier.PUBLIC) &&
+                !clazz.getModifiers().contains(Modifier.ABSTRACT) &&
+                (clazz.getNestingKind() == NestingKind.TOP_LEVEL || clazz.getModifiers().contains(Modifier.STATIC)) &&
+                ElementFilter.constructorsIn(clazz.getEnclosedElements()).stream()
+                        .anyMatch(c -> c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC));
+        if (!instantiable) {
+            error(field, "Unable to find/access constructor method for " + kind + " [" + clazz.getQualifiedName() + "]");
+        }
+    }
+
+    private TypeElement classValue(Supplier<Class<?>> value) {
+        final TypeMirror mirror = classMirror(value);
+        return mirror != null && mirror.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(mirror) : null;
+    }
+
+    private TypeMirror classMirror(Supplier<Class<?>> value) {
+        try {
+            final Class<?> clazz = value.get();
+            return Objects.nonNull(clazz) ? elements.getTypeElement(clazz.getCanonicalName()).asType() : null;
+        } catch (MirroredTypeException e) {
+            return e.getTypeMirror();
+        }
+    }
+
+    private TypeMirror boxed(TypeMirror type) {
+        return type.getKind().isPrimitive() ? types.boxedClass((PrimitiveType) type).asType() : type;
+    }
+
+    private boolean isAssignable(TypeMirror type, String className) {
+        final TypeElement element = elements.getTypeElement(className);
+        return element != null && types.isAssignable(types.erasure(type), types.erasure(element.asType()));
+    }
+
+    private boolean isAssignable(TypeMirror type, TypeMirror target) {
+        return types.isAssignable(type, target);
+    }
+
+    private boolean isSame(TypeMirror type, String className) {
+        final TypeElement element = elements.getTypeElement(className);
+        return element != null && types.isSameType(types.erasure(type), types.erasure(element.asType()));
+    }
+
+    private void error(Element element, String message) {
+        failed = true;
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    static String constantName(String name) {
+        final StringBuilder constant = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (i > 0 && Character.isUpperCase(c) && (Character.isLowerCase(name.charAt(i - 1)) || Character.isDigit(name.charAt(i - 1)))) {
+                constant.append('_');
+            }
+            constant.append(Character.toUpperCase(c));
+        }
+        return constant.toString();
+    }
+
+    static String literal(String value) {
+        final StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"': literal.append("\\\""); break;
+                case '\\': literal.append("\\\\"); break;
+                case '\n': literal.append("\\n"); break;
+                case '\r': literal.append("\\r"); break;
+                case '\t': literal.append("\\t"); break;
+                default: literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,219 @@
+package com.rbmhtechnology.vind.annotations.processor;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static com.rbmhtechnology.vind.annotations.processor.DocumentMapperProcessor.literal;
+
+/**
+ * Writes the source of the {@code DocumentMapper} of a {@link MappedType}.
+ */
+class DocumentMapperWriter {
+
+    private static final List<String> IMPORTS = Arrays.asList(
+            "com.rbmhtechnology.vind.annotations.DocumentMapper",
+            "com.rbmhtechnology.vind.annotations.id.IdGenerator",
+            "com.rbmhtechnology.vind.annotations.language.Language",
+            "com.rbmhtechnology.vind.annotations.util.FunctionHelpers",
+            "com.rbmhtechnology.vind.api.Document",
+            "com.rbmhtechnology.vind.model.ComplexFieldDescriptorBuilder",
+            "com.rbmhtechnology.vind.model.DocumentFactory",
+            "com.rbmhtechnology.vind.model.DocumentFactoryBuilder",
+            "com.rbmhtechnology.vind.model.FieldDescriptorBuilder",
+            "com.rbmhtechnology.vind.model.MultiValueFieldDescriptor",
+            "com.rbmhtechnology.vind.model.MultiValuedComplexField",
+            "com.rbmhtechnology.vind.model.SingleValueFieldDescriptor",
+            "com.rbmhtechnology.vind.model.SingleValuedComplexField",
+            "org.slf4j.Logger",
+            "org.slf4j.LoggerFactory",
+            "java.util.Arrays",
+            "java.util.Collection",
+            "java.util.Objects",
+            "java.util.function.Function"
+    );
+
+    private final MappedType mapping;
+    private final StringBuilder body = new StringBuilder();
+
+    DocumentMapperWriter(MappedType mapping) {
+        this.mapping = mapping;
+    }
+
+    void write(Filer filer, Element origin) throws IOException {
+        final JavaFileObject file = filer.createSourceFile(mapping.getQualifiedMapperName(), origin);
+        try (Writer writer = file.openWriter()) {
+            writer.write(generate());
+        }
+    }
+
+    String generate() {
+        writeConstants();
+        writeCreateDocument();
+        writeCreatePojo();
+        writeHelpers();
+
+        final StringBuilder source = new StringBuilder();
+        if (!mapping.packageName.isEmpty()) {
+            source.append("package ").append(mapping.packageName).append(";\n\n");
+        }
+        final String code = new StringBuilder()
+                .append("\n/**\n")
+                .append(" * {@link DocumentMapper} of {@link ").append(mapping.beanName).append("}, generated by the vind annotation\n")
+                .append(" * processor: do not edit.\n")
+                .append(" */\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(mapping.mapperName).append(" implements DocumentMapper<").append(mapping.beanName).append("> {\n\n")
+                .append(body)
+                .append("}\n")
+                .toString();
+        //only import what the generated code uses
+        for (String type : IMPORTS) {
+            final String simpleName = type.substring(type.lastIndexOf('.') + 1);
+            if (Pattern.compile("(?<![\\w.])" + simpleName + "\\b").matcher(code).find()) {
+                source.append("import ").append(type).append(";\n");
+            }
+        }
+        source.append(code);
+        return source.toString();
+    }
+
+    private void writeConstants() {
+        line(1, "private static final Logger log = LoggerFactory.getLogger(" + mapping.mapperName + ".class);");
+        line(0, "");
+        line(1, "public static final String DOCUMENT_TYPE = " + literal(mapping.type) + ";");
+        line(0, "");
+        for (MappedType.Property property : mapping.properties) {
+            line(1, "public static final " + property.descriptorType + " " + property.constant + " = " + property.descriptor.get(0));
+            for (String call : property.descriptor.subList(1, property.descriptor.size())) {
+                line(3, call);
+            }
+            body.setLength(body.length() - 1);
+            body.append(";\n\n");
+        }
+        line(1, "public static final DocumentFactory DOCUMENT_FACTORY = new DocumentFactoryBuilder(DOCUMENT_TYPE)");
+        if (!mapping.properties.isEmpty()) {
+            line(3, ".addField(" + mapping.properties.stream().map(p -> p.constant).collect(Collectors.joining(", ")) + ")");
+        }
+        line(3, ".build();");
+        line(0, "");
+
+        if (Objects.nonNull(mapping.idGenerator)) {
+            line(1, "private static final IdGenerator ID_GENERATOR = new " + mapping.idGenerator + "();");
+            line(1, "private static final java.lang.reflect.Field ID_FIELD = idField();");
+            line(0, "");
+        }
+
+        line(1, "@Override");
+        line(1, "public DocumentFactory getDocumentFactory() {");
+        line(2, "return DOCUMENT_FACTORY;");
+        line(1, "}");
+        line(0, "");
+    }
+
+    private void writeCreateDocument() {
+        final String id = mapping.id.read("pojo");
+        final String composedId;
+        if (Objects.nonNull(mapping.idGenerator)) {
+            composedId = "ID_GENERATOR.compose(Objects.toString(" + id + ", null), ID_FIELD, " + mapping.beanName + ".class)";
+        } else {
+            //inlined DefaultIdGenerator
+            composedId = literal(mapping.idPrefix) + " + " + id + (mapping.idSuffix.isEmpty() ? "" : " + " + literal(mapping.idSuffix));
+        }
+
+        line(1, "@Override");
+        line(1, "public Document createDocument(" + mapping.beanName + " pojo) {");
+        line(2, "final Document doc = DOCUMENT_FACTORY.createDoc(" + composedId + ");");
+        for (MappedType.Property property : mapping.properties) {
+            line(2, "doc." + (property.multiValue ? "setValues(" : "setValue(") + literal(property.fieldName) + ", " + property.read("pojo") + ");");
+        }
+        line(2, "return doc;");
+        line(1, "}");
+        line(0, "");
+    }
+
+    private void writeCreatePojo() {
+        line(1, "@Override");
+        line(1, "public " + mapping.beanName + " createPojo(Document doc) {");
+        line(2, "if (!DOCUMENT_TYPE.equals(doc.getType())) {");
+        line(3, "log.error(\"@Type does not match. Expected {} but found {}\", DOCUMENT_TYPE, doc.getType());");
+        line(3, "throw new IllegalArgumentException(\"@Type does not match. Expected \" + DOCUMENT_TYPE + \" but found \" + doc.getType());");
+        line(2, "}");
+        if (!mapping.instantiable) {
+            final String name = mapping.beanName.substring(mapping.beanName.lastIndexOf('.') + 1);
+            line(2, "log.error(\"Unable to instantiate class {}\", " + literal(name) + ");");
+            line(2, "throw new RuntimeException(" + literal("Unable to instantiate class " + name) + ");");
+            line(1, "}");
+            line(0, "");
+            return;
+        }
+
+        line(2, "final " + mapping.beanName + " pojo = new " + mapping.beanName + "();");
+        line(2, mapping.id.write("pojo", "doc.getId()"));
+        if (Objects.nonNull(mapping.score)) {
+            line(2, mapping.score.write("pojo", "doc.getScore()"));
+        }
+        for (MappedType.Property property : mapping.properties) {
+            //TODO: MBDN-496 check if complex field is binary stored to instantiate original value
+            if (property.complex) {
+                continue;
+            }
+            //fields excluded by the search projection keep the default value of the pojo
+            line(2, "if (doc.isLoaded(" + literal(property.fieldName) + ")) {");
+            if (property.multiValue) {
+                line(3, "final Object value = doc.getValue(" + literal(property.fieldName) + ");");
+                line(3, "if (value instanceof Collection) {");
+                line(4, "final " + property.javaType + " values = new " + property.collectionType + "<>();");
+                line(4, "values.addAll((Collection) value);");
+                line(4, property.write("pojo", "values"));
+                line(3, "} else {");
+                line(4, property.write("pojo", "(" + property.javaType + ") value"));
+                line(3, "}");
+            } else {
+                line(3, property.write("pojo", "(" + property.javaType + ") doc.getValue(" + literal(property.fieldName) + ")"));
+            }
+            line(2, "}");
+        }
+        line(2, "return pojo;");
+        line(1, "}");
+        line(0, "");
+    }
+
+    private void writeHelpers() {
+        if (mapping.properties.stream().anyMatch(p -> p.complex)) {
+            line(1, "private static Function parameterFunction(FunctionHelpers.ParameterFunction function, String... parameters) {");
+            line(2, "return function.setParameters(Arrays.asList(parameters));");
+            line(1, "}");
+            line(0, "");
+        }
+        if (Objects.nonNull(mapping.idGenerator)) {
+            line(1, "private static java.lang.reflect.Field idField() {");
+            line(2, "try {");
+            line(3, "return " + mapping.idDeclaringClass + ".class.getDeclaredField(" + literal(mapping.id.name) + ");");
+            line(2, "} catch (NoSuchFieldException e) {");
+            line(3, "throw new IllegalStateException(" + literal("Unable to find @Id-field " + mapping.id.name) + ", e);");
+            line(2, "}");
+            line(1, "}");
+            line(0, "");
+        }
+        //no trailing empty line before the closing brace
+        body.setLength(body.length() - 1);
+    }
+
+    private void line(int indent, String code) {
+        if (!code.isEmpty()) {
+            for (int i = 0; i < indent; i++) {
+                body.append("    ");
+            }
+            body.append(code);
+        }
+        body.append('\n');
+    }
+}
@@ -0,0 +1,73 @@
+package com.rbmhtechnology.vind.annotations.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Mapping of a class annotated with {@link com.rbmhtechnology.vind.annotations.Type}, as read by the
+ * {@link DocumentMapperProcessor} and written by the {@link DocumentMapperWriter}.
+ */
+final class MappedType {
+
+    String packageName;
+    /** Canonical name of the annotated class. */
+    String beanName;
+    /** Simple name of the generated mapper. */
+    String mapperName;
+    /** The document type. */
+    String type;
+
+    Property id;
+    String idPrefix = "";
+    String idSuffix = "";
+    /** Custom {@link com.rbmhtechnology.vind.annotations.id.IdGenerator}, null for the default one. */
+    String idGenerator;
+    /** Canonical name of the class declaring the id field, needed by custom id generators. */
+    String idDeclaringClass;
+
+    Property score;
+    boolean instantiable;
+
+    final List<Property> properties = new ArrayList<>();
+
+    String getQualifiedMapperName() {
+        return packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+    }
+
+    /**
+     * An annotated field of the class and its accessors.
+     */
+    static final class Property {
+
+        /** Name of the java field. */
+        String name;
+        /** Name of the typed {@code FieldDescriptor} constant. */
+        String constant;
+        /** Name of the field in the document. */
+        String fieldName;
+        /** Declared type of the java field, boxed for primitives. */
+        String javaType;
+        boolean multiValue;
+        boolean complex;
+        /** Getter method, null if the field is read directly. */
+        String getter;
+        /** Setter method, null if the field is written directly. */
+        String setter;
+        /** Collection implementation instantiated when reading multi valued fields. */
+        String collectionType;
+
+        /** Type of the {@code FieldDescriptor} constant. */
+        String descriptorType;
+        /** Builder calls creating the {@code FieldDescriptor}. */
+        final List<String> descriptor = new ArrayList<>();
+
+        String read(String target) {
+            return Objects.isNull(getter) ? target + "." + name : target + "." + getter + "()";
+        }
+
+        String write(String target, String value) {
+            return Objects.isNull(setter) ? target + "." + name + " = " + value + ";" : target + "." + setter + "(" + value + ");";
+        }
+    }
+}
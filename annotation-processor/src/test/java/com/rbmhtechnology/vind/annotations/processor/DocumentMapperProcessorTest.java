@@ -0,0 +1,176 @@
+package com.rbmhtechnology.vind.annotations.processor;
+
+import com.rbmhtechnology.vind.annotations.AnnotationUtil;
+import com.rbmhtechnology.vind.annotations.DocumentMapper;
+import com.rbmhtechnology.vind.annotations.Type;
+import com.rbmhtechnology.vind.api.Document;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.FieldDescriptor;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.Logger;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentMapperProcessorTest {
+
+    private static final String POJO = "package test.pojo;\n" +
+            "import com.rbmhtechnology.vind.annotations.*;\n" +
+            "import com.rbmhtechnology.vind.annotations.util.FunctionHelpers;\n" +
+            "import java.util.*;\n" +
+            "@Type(name = \"Pojo\")\n" +
+            "public class Pojo {\n" +
+            "    @Id(prefix = \"p-\") public String id;\n" +
+            "    @FullText @Facet public String title;\n" +
+            "    @Field(name = \"data\") public String content;\n" +
+            "    @Field(name = \"cats\") public HashSet<String> categories;\n" +
+            "    public int counter;\n" +
+            "    private Long views;\n" +
+            "    @Score public float score;\n" +
+            "    @Ignore public String internal;\n" +
+            "    @ComplexField(store = @Operator(function = FunctionHelpers.GetterFunction.class, fieldName = \"term\"),\n" +
+            "                  facet = @Operator(function = FunctionHelpers.GetterFunction.class, fieldName = \"term\"))\n" +
+            "    public Taxonomy tax;\n" +
+            "    public Long getViews() { return views; }\n" +
+            "    public void setViews(Long views) { this.views = views; }\n" +
+            "    public static class Taxonomy implements java.io.Serializable {\n" +
+            "        public String term;\n" +
+            "        public Taxonomy(String term) { this.term = term; }\n" +
+            "        public String getTerm() { return term; }\n" +
+            "    }\n" +
+            "    public static Pojo sample() {\n" +
+            "        final Pojo pojo = new Pojo();\n" +
+            "        pojo.id = \"1\"; pojo.title = \"title\"; pojo.content = \"content\"; pojo.counter = 3; pojo.views = 42L;\n" +
+            "        pojo.categories = new HashSet<>(Arrays.asList(\"a\", \"b\")); pojo.internal = \"internal\";\n" +
+            "        pojo.tax = new Taxonomy(\"term\");\n" +
+            "        return pojo;\n" +
+            "    }\n" +
+            "}\n";
+
+    private static final String INVALID = "package test.pojo;\n" +
+            "import com.rbmhtechnology.vind.annotations.*;\n" +
+            "import java.util.*;\n" +
+            "@Type\n" +
+            "public class Invalid {\n" +
+            "    @Id String id;\n" +
+            "    @Id String otherId;\n" +
+            "    @FullText int counter;\n" +
+            "    List<String> tags;\n" +
+            "    private String hidden;\n" +
+            "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testGeneratedMapper() throws Exception {
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile("test.pojo.Pojo", POJO);
+        assertThat(messages(diagnostics), diagnostics.getDiagnostics().stream().anyMatch(d -> d.getKind() == Diagnostic.Kind.ERROR), is(false));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{folder.getRoot().toURI().toURL()}, getClass().getClassLoader())) {
+            final Class<?> pojoClass = classLoader.loadClass("test.pojo.Pojo");
+            final Class<?> mapperClass = classLoader.loadClass("test.pojo.Pojo_");
+
+            //the generated mapper replaces the reflection based one
+            final DocumentMapper<Object> mapper = (DocumentMapper<Object>) AnnotationUtil.getDocumentMapper(pojoClass);
+            assertThat(mapper, instanceOf(mapperClass));
+
+            final DocumentFactory factory = mapper.getDocumentFactory();
+            assertThat(factory.getType(), is("Pojo"));
+            assertTrue(factory.hasField("data"));
+            assertTrue(factory.hasField("views"));
+            assertFalse(factory.hasField("internal"));
+            assertFalse(factory.hasField("id"));
+            final FieldDescriptor<?> title = (FieldDescriptor<?>) mapperClass.getField("TITLE").get(null);
+            assertTrue(title.isFullText());
+            assertTrue(title.isFacet());
+            assertThat(mapperClass.getField("VIEWS").get(null), is((Object) factory.getField("views")));
+
+            final Object pojo = pojoClass.getMethod("sample").invoke(null);
+            final Document doc = mapper.createDocument(pojo);
+            assertThat(doc.getId(), is("p-1"));
+            assertThat(doc.getValue("title"), is((Object) "title"));
+            assertThat(doc.getValue("data"), is((Object) "content"));
+            assertThat(doc.getValue("counter"), is((Object) 3));
+            assertThat(doc.getValue("views"), is((Object) 42L));
+            assertThat((Collection<Object>) doc.getValue("cats"), is((Collection<Object>) new java.util.HashSet<Object>(Arrays.asList("a", "b"))));
+            assertThat(doc.getValue("tax"), is(pojoClass.getDeclaredField("tax").get(pojo)));
+
+            doc.setScore(2f);
+            final Object copy = mapper.createPojo(doc);
+            assertThat(pojoClass.getDeclaredField("id").get(copy), is((Object) "p-1"));
+            assertThat(pojoClass.getDeclaredField("title").get(copy), is((Object) "title"));
+            assertThat(pojoClass.getDeclaredField("counter").get(copy), is((Object) 3));
+            assertThat(pojoClass.getMethod("getViews").invoke(copy), is((Object) 42L));
+            assertThat(pojoClass.getDeclaredField("score").get(copy), is((Object) 2f));
+            assertThat(pojoClass.getDeclaredField("categories").get(copy), is(pojoClass.getDeclaredField("categories").get(pojo)));
+            assertThat(pojoClass.getDeclaredField("internal").get(copy), nullValue());
+            assertThat(pojoClass.getDeclaredField("tax").get(copy), nullValue());
+        }
+    }
+
+    @Test
+    public void testMappingErrors() throws Exception {
+        final DiagnosticCollector<JavaFileObject> diagnostics = compile("test.pojo.Invalid", INVALID);
+        final String messages = messages(diagnostics);
+        assertThat(messages, containsString("Multiple @Id-fields found in test.pojo.Invalid"));
+        assertThat(messages, containsString("@FullText only allowed on CharSequence or String fields"));
+        assertThat(messages, containsString("Annotated field tags can not be abstract"));
+        assertThat(messages, containsString("Annotated field hidden is not accessible and has no getter"));
+        assertFalse(new File(folder.getRoot(), "test/pojo/Invalid_.java").exists());
+    }
+
+    private DiagnosticCollector<JavaFileObject> compile(String className, String source) throws Exception {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(folder.getRoot()));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singleton(folder.getRoot()));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, Arrays.asList(
+                    location(Type.class), location(AnnotationUtil.class), location(Logger.class)));
+
+            final JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return source;
+                }
+            };
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, null, null, Collections.singleton(file));
+            task.setProcessors(Collections.singleton(new DocumentMapperProcessor()));
+            task.call();
+        }
+        return diagnostics;
+    }
+
+    private static File location(Class<?> clazz) throws Exception {
+        return new File(clazz.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static String messages(DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream().map(d -> d.getMessage(null)).collect(Collectors.joining("\n"));
+    }
+}
@@ -27,7 +27,8 @@ public @interface Id {
     String suffix() default "";
 
     /**
-     * A generator to compose/decompose the ID value.
+     * A generator to compose/decompose the ID value. It is instantiated once per class and shared between threads,
+     * see {@link IdGenerator}.
      * @return {@link IdGenerator} class to automatically create the ids.
      */
     Class<? extends IdGenerator> generator() default DefaultIdGenerator.class;
@@ -4,6 +4,9 @@ import java.lang.reflect.Field;
 
 /**
  * A generator function to compose/decompose an ID-value.
+ * <p>
+ * A single generator instance is created per annotated class and used concurrently by all threads mapping instances
+ * of this class, so implementations have to be thread-safe.
  * @see DefaultIdGenerator
  */
 public interface IdGenerator {
@@ -11,7 +11,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.time.ZonedDateTime;
 import java.util.*;
@@ -28,26 +27,35 @@ public class AnnotationUtil {
 
     private static Logger log = LoggerFactory.getLogger(AnnotationUtil.class);
 
+    private static final ClassValue<DocumentMapper<?>> MAPPERS = new ClassValue<DocumentMapper<?>>() {
+        @Override
+        protected DocumentMapper<?> computeValue(Class<?> clazz) {
+            final DocumentMapper<?> generated = loadGeneratedMapper(clazz);
+            return Objects.nonNull(generated) ? generated : BeanMapper.of(clazz);
+        }
+    };
+
+    /**
+     * Gets the {@link DocumentMapper} of an annotated class: the mapper generated at compile time by the vind
+     * annotation processor if there is one, the reflection based {@link BeanMapper} otherwise.
+     * @param clazz the annotated class.
+     * @param <T> the annotated class.
+     * @return the mapper of the class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> DocumentMapper<T> getDocumentMapper(Class<T> clazz) {
+        return (DocumentMapper<T>) MAPPERS.get(clazz);
+    }
+
     /**
-     * TODO duplicate code with #createDocument
-     * Creates a DocumentFactory from a given annotated class.
+     * Creates a DocumentFactory from a given annotated class. The factory is a copy of the one cached by the
+     * {@link DocumentMapper} of the class, so changes to its field descriptors do not affect other callers.
      * @param clazz Class from which an instance of DocumentFactory will be created.
      * @param <T> class type of the document factory.
      * @return DocumentFactory based on the fields from the given Class.
      */
     public static <T> DocumentFactory createDocumentFactory(Class<T> clazz) {
-        final String typeVal = getType(clazz);
-        final DocumentFactoryBuilder docFactoryBuilder = new DocumentFactoryBuilder(typeVal);
-
-        for (Field field : getFields(clazz)) {
-            final FieldDescriptor fd = createFieldDescriptor(field);
-            if (fd == null) continue;
-
-            field.setAccessible(true);
-            docFactoryBuilder.addField(fd);
-        }
-
-        return docFactoryBuilder.build();
+        return getDocumentMapper(clazz).getDocumentFactory().copy();
     }
 
     /**
@@ -55,45 +63,30 @@ public class AnnotationUtil {
      * @param pojo Object from which values an instance of Document will be created.
      * @return Document based on the fields and values from the given pojo Object.
      */
+    @SuppressWarnings("unchecked")
     public static Document createDocument(Object pojo) {
-        try {
-            final Class<?> pojoClass = pojo.getClass();
-
-            final Field idField = getIdField(pojoClass);
-            final String typeVal = getType(pojoClass);
-
-            final DocumentFactoryBuilder docFactoryBuilder = new DocumentFactoryBuilder(typeVal);
-
-            final Map<FieldDescriptor, Object> valueCache = new HashMap<>();
-            for (Field field : getFields(pojoClass)) {
-                final FieldDescriptor fd = createFieldDescriptor(field);
-                if (fd == null) continue;
+        return ((DocumentMapper<Object>) getDocumentMapper(pojo.getClass())).createDocument(pojo);
+    }
 
-                field.setAccessible(true);
-                final Object val = field.get(pojo);
-                docFactoryBuilder.addField(fd);
-                valueCache.put(fd, val);
+    /**
+     * Loads the mapper generated at compile time for an annotated class, named after the (nested) class name with a
+     * trailing {@code _}.
+     * @param clazz the annotated class.
+     * @return the generated mapper or null if the class has not been processed.
+     */
+    private static DocumentMapper<?> loadGeneratedMapper(Class<?> clazz) {
+        final String name = clazz.getName().replace('$', '_') + "_";
+        try {
+            final Class<?> mapperClass = Class.forName(name, true, clazz.getClassLoader());
+            if (DocumentMapper.class.isAssignableFrom(mapperClass)) {
+                return (DocumentMapper<?>) mapperClass.newInstance();
             }
-
-            final DocumentFactory docFactory = docFactoryBuilder.build();
-            final Id id = idField.getAnnotation(Id.class);
-            final String composedId = id.generator().newInstance().compose((String) idField.get(pojo), idField, pojoClass);
-
-            final Document doc = docFactory.createDoc(composedId);
-
-            // FIXME: Does this work as expected with collections?
-            valueCache.forEach((key, val) -> {
-                if (key.isMultiValue())
-                    doc.setValues(key.getName(), (Collection) val);
-                else
-                    doc.setValue(key.getName(), val);
-            });
-
-            return doc;
+        } catch (ClassNotFoundException e) {
+            log.trace("No generated document mapper found for {}", clazz.getName());
         } catch (InstantiationException | IllegalAccessException e) {
-            log.error("Unable to create Document from pojo", e);
-            throw new RuntimeException("Unable to create Document from pojo", e);
+            log.warn("Unable to instantiate generated document mapper {}, falling back to reflection", name, e);
         }
+        return null;
     }
 
     /**
@@ -101,7 +94,7 @@ public class AnnotationUtil {
      * @param pojoClass  Class from which the fields are wanted to be known.
      * @return Array of Fields which belong to the given class
      */
-    private static Field[] getFields(Class<?> pojoClass) {
+    static Field[] getFields(Class<?> pojoClass) {
         if (pojoClass == null) return new Field[0];
         else return ArrayUtils.addAll(pojoClass.getDeclaredFields(), getFields(pojoClass.getSuperclass()));
     }
@@ -111,7 +104,7 @@ public class AnnotationUtil {
      * @param pojoClass  Class from which it is wanted to know the type.
      * @return String describing the type of the class if the @Type annotation empty.If not the simple name of the class
      */
-    private static String getType(Class<?> pojoClass) {
+    static String getType(Class<?> pojoClass) {
         String typeVal;
         final Type type = pojoClass.getAnnotation(Type.class);
         if (type != null && StringUtils.isNotBlank(type.name())) {
@@ -127,7 +120,7 @@ public class AnnotationUtil {
      * @param field Field a Class used as base to create a new FieldDescriptor.
      * @return new FieldDescriptor build based on the Field parameter annotations.
      */
-    private static FieldDescriptor createFieldDescriptor(Field field) {
+    static FieldDescriptor createFieldDescriptor(Field field) {
         if (field.isAnnotationPresent(Ignore.class)) return null;
         if (field.isAnnotationPresent(Id.class)) return null;
         if (field.isAnnotationPresent(Score.class)) return null;
@@ -444,7 +437,7 @@ public class AnnotationUtil {
      * @param pojoClass Class from which it is wanted to know the @Id annotated field.
      * @return the field with the @Id annotation.
      */
-    private static Field getIdField(Class<?> pojoClass) {
+    static Field getIdField(Class<?> pojoClass) {
         final List<Field> idFields = Arrays.stream(getFields(pojoClass))
                 .filter(f -> f.isAnnotationPresent(Id.class))
                 .collect(Collectors.toList());
@@ -471,7 +464,7 @@ public class AnnotationUtil {
      * @param pojoClass Class from which it is wanted to know the @Score annotated field.
      * @return the field with the @Score annotation or null if there is no such an annotation.
      */
-    private static Field getScoreField(Class<?> pojoClass) {
+    static Field getScoreField(Class<?> pojoClass) {
         final List<Field> idFields = Arrays.stream(getFields(pojoClass))
                 .filter(f -> f.isAnnotationPresent(Score.class))
                 .collect(Collectors.toList());
@@ -500,67 +493,7 @@ public class AnnotationUtil {
      * @return generated pojo from given document typed as the specified class
      */
     public static <T> T createPojo(Document doc, Class<T> clazz) {
-        try {
-            final String typeVal = getType(clazz);
-            if (!StringUtils.equals(typeVal, doc.getType())) {
-                log.error("@Type does not match. Expected {} but found {}",typeVal, doc.getType());
-                throw new IllegalArgumentException("@Type does not match. Expected " + typeVal + " but found " + doc.getType());
-            }
-
-            final Map<String, Field> fieldMap = new HashMap<>();
-            for (Field field : getFields(clazz)) {
-                final FieldDescriptor fd = createFieldDescriptor(field);
-                //TODO: MBDN-496 check if complex field is binary stored to instantiate original value
-                if (fd == null || ComplexFieldDescriptor.class.isAssignableFrom(fd.getClass())) {
-                    continue;
-                }
-                fieldMap.put(fd.getName(), field);
-            }
-            final Field idField = getIdField(clazz);
-            final Field scoreField = getScoreField(clazz);
-            final T instance ;
-
-            try {
-                instance = clazz.newInstance();
-            } catch (InstantiationException e) {
-                log.error("Unable to instantiate class {}",clazz.getSimpleName(), e);
-                throw new RuntimeException("Unable to instantiate class "+clazz.getSimpleName(), e);
-            }
-
-            idField.set(instance, doc.getId());
-            if(scoreField != null) {
-                scoreField.set(instance, doc.getScore());
-            }
-
-            for (String fName: fieldMap.keySet()) {
-                final Field f = fieldMap.get(fName);
-                f.setAccessible(true);
-
-                final Object value = doc.getValue(fName);
-                if (value instanceof Collection && Collection.class.isAssignableFrom(f.getType())) { // TODO: Improve Collection/Multi-Value detection
-                    Collection c;
-                    if (Modifier.isAbstract(f.getType().getModifiers())) {
-                        log.error("Annotated field {} can not be abstract", f.getName());
-                        throw new IllegalArgumentException("Annotated field "+f.getName()+" can not be abstract");
-                    } else {
-                        try {
-                            c = (Collection) f.getType().newInstance();
-                        } catch (InstantiationException e) {
-                            log.error("Unable to instantiate collection field {} of type [{}]",f.getName(), f.getType(), e);
-                            throw new RuntimeException("Unable to instantiate collection field "+f.getName()+" of type ["+f.getType()+"]", e);
-                        }
-                    }
-                    c.addAll((Collection) value);
-                    f.set(instance, c);
-                } else {
-                    f.set(instance, value);
-                }
-            }
-            return instance;
-        } catch (IllegalAccessException e) {
-            log.error("Unable to access pojo field",e);
-            throw new RuntimeException("Unable to access pojo field",e);
-        }
+        return getDocumentMapper(clazz).createPojo(doc);
     }
 
 }
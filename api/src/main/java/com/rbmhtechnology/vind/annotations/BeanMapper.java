@@ -0,0 +1,281 @@
+package com.rbmhtechnology.vind.annotations;
+
+import com.rbmhtechnology.vind.annotations.id.IdGenerator;
+import com.rbmhtechnology.vind.api.Document;
+import com.rbmhtechnology.vind.model.ComplexFieldDescriptor;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.DocumentFactoryBuilder;
+import com.rbmhtechnology.vind.model.FieldDescriptor;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Maps the instances of an annotated class to {@link Document}s and back. The annotations of the class are read,
+ * the {@link DocumentFactory}, the {@link IdGenerator} and the field accessors (as {@link MethodHandle}s) are built
+ * only once per class: use {@link #of(Class)} to get the cached mapper of a class. This is the reflective fallback for
+ * classes without a {@link DocumentMapper} generated at compile time.
+ * <p>
+ * The mapper is shared between threads: its factory must not be modified and its {@link IdGenerator} has to be
+ * thread-safe.
+ * @param <T> the annotated class.
+ */
+public final class BeanMapper<T> implements DocumentMapper<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(BeanMapper.class);
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class);
+
+    private static final ClassValue<BeanMapper<?>> MAPPERS = new ClassValue<BeanMapper<?>>() {
+        @Override
+        protected BeanMapper<?> computeValue(Class<?> clazz) {
+            return new BeanMapper<>(clazz);
+        }
+    };
+
+    private final Class<T> clazz;
+    private final DocumentFactory factory;
+    private final List<Property> properties = new ArrayList<>();
+
+    private final Field idField;
+    private final IllegalArgumentException idError;
+    private final MethodHandle idGetter;
+    private final MethodHandle idSetter;
+    private final Class<? extends IdGenerator> idGeneratorClass;
+    private final IdGenerator idGenerator;
+    private final MethodHandle scoreSetter;
+    private final MethodHandle constructor;
+
+    /**
+     * Gets the mapper of an annotated class, it is built on the first call for the class.
+     * @param clazz the annotated class.
+     * @param <T> the annotated class.
+     * @return the {@link BeanMapper} of the class.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanMapper<T> of(Class<T> clazz) {
+        return (BeanMapper<T>) MAPPERS.get(clazz);
+    }
+
+    private BeanMapper(Class<T> clazz) {
+        this.clazz = clazz;
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        final DocumentFactoryBuilder docFactoryBuilder = new DocumentFactoryBuilder(AnnotationUtil.getType(clazz));
+        for (Field field : AnnotationUtil.getFields(clazz)) {
+            final FieldDescriptor<?> fd = AnnotationUtil.createFieldDescriptor(field);
+            if (fd == null) continue;
+
+            field.setAccessible(true);
+            docFactoryBuilder.addField(fd);
+            properties.add(new Property(fd, field, lookup));
+        }
+        this.factory = docFactoryBuilder.build();
+
+        //classes without a valid id field can still be used for their document factory
+        Field id = null;
+        IllegalArgumentException error = null;
+        try {
+            id = AnnotationUtil.getIdField(clazz);
+        } catch (IllegalArgumentException e) {
+            error = e;
+        }
+        this.idField = id;
+        this.idError = error;
+        this.idGetter = Objects.nonNull(id) ? getter(lookup, id) : null;
+        this.idSetter = Objects.nonNull(id) ? setter(lookup, id) : null;
+        this.idGeneratorClass = Objects.nonNull(id) ? id.getAnnotation(Id.class).generator() : null;
+        IdGenerator generator = null;
+        if (Objects.nonNull(idGeneratorClass)) {
+            try {
+                generator = idGeneratorClass.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                //reported when a document is created
+            }
+        }
+        this.idGenerator = generator;
+
+        final Field scoreField = AnnotationUtil.getScoreField(clazz);
+        this.scoreSetter = Objects.nonNull(scoreField) ? setter(lookup, scoreField) : null;
+        this.constructor = constructor(lookup, clazz);
+    }
+
+    @Override
+    public DocumentFactory getDocumentFactory() {
+        return factory;
+    }
+
+    @Override
+    public Document createDocument(T pojo) {
+        checkId();
+        try {
+            final Object idValue = idGetter.invokeExact((Object) pojo);
+            final String composedId = getIdGenerator().compose((String) idValue, idField, clazz);
+            final Document doc = factory.createDoc(composedId);
+
+            for (Property property : properties) {
+                final Object val = property.getter.invokeExact((Object) pojo);
+                if (property.descriptor.isMultiValue())
+                    doc.setValues(property.descriptor.getName(), (Collection) val);
+                else
+                    doc.setValue(property.descriptor.getName(), val);
+            }
+            return doc;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            log.error("Unable to create Document from pojo", e);
+            throw new RuntimeException("Unable to create Document from pojo", e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T createPojo(Document doc) {
+        if (!StringUtils.equals(factory.getType(), doc.getType())) {
+            log.error("@Type does not match. Expected {} but found {}", factory.getType(), doc.getType());
+            throw new IllegalArgumentException("@Type does not match. Expected " + factory.getType() + " but found " + doc.getType());
+        }
+        checkId();
+        if (Objects.isNull(constructor)) {
+            log.error("Unable to instantiate class {}", clazz.getSimpleName());
+            throw new RuntimeException("Unable to instantiate class " + clazz.getSimpleName());
+        }
+
+        try {
+            final Object newInstance = constructor.invokeExact();
+            final T instance = (T) newInstance;
+
+            idSetter.invokeExact((Object) instance, (Object) doc.getId());
+            if (scoreSetter != null) {
+                scoreSetter.invokeExact((Object) instance, (Object) doc.getScore());
+            }
+
+            for (Property property : properties) {
+                //TODO: MBDN-496 check if complex field is binary stored to instantiate original value
+                //fields excluded by the search projection keep the default value of the pojo
+                if (property.complex || !doc.isLoaded(property.descriptor.getName())) {
+                    continue;
+                }
+                final Object value = doc.getValue(property.descriptor.getName());
+                if (value instanceof Collection && property.collection) {
+                    final Collection c = property.newCollection();
+                    c.addAll((Collection) value);
+                    property.setter.invokeExact((Object) instance, (Object) c);
+                } else {
+                    property.setter.invokeExact((Object) instance, value);
+                }
+            }
+            return instance;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            log.error("Unable to access pojo field", e);
+            throw new RuntimeException("Unable to access pojo field", e);
+        }
+    }
+
+    private IdGenerator getIdGenerator() {
+        //id generators failing to instantiate fail on every use, as before caching them
+        return Objects.nonNull(idGenerator) ? idGenerator : newIdGenerator(idGeneratorClass);
+    }
+
+    private void checkId() {
+        if (Objects.nonNull(idError)) {
+            log.error(idError.getMessage());
+            throw new IllegalArgumentException(idError.getMessage(), idError);
+        }
+    }
+
+    private static IdGenerator newIdGenerator(Class<? extends IdGenerator> generatorClass) {
+        try {
+            return generatorClass.newInstance();
+        } catch (InstantiationException | IllegalAccessException e) {
+            log.error("Unable to create Document from pojo", e);
+            throw new RuntimeException("Unable to create Document from pojo", e);
+        }
+    }
+
+    private static MethodHandle getter(MethodHandles.Lookup lookup, Field field) {
+        try {
+            field.setAccessible(true);
+            return lookup.unreflectGetter(field).asType(GETTER);
+        } catch (IllegalAccessException e) {
+            log.error("Unable to access pojo field {}", field.getName(), e);
+            throw new RuntimeException("Unable to access pojo field " + field.getName(), e);
+        }
+    }
+
+    private static MethodHandle setter(MethodHandles.Lookup lookup, Field field) {
+        try {
+            field.setAccessible(true);
+            return lookup.unreflectSetter(field).asType(SETTER);
+        } catch (IllegalAccessException e) {
+            log.error("Unable to access pojo field {}", field.getName(), e);
+            throw new RuntimeException("Unable to access pojo field " + field.getName(), e);
+        }
+    }
+
+    private static MethodHandle constructor(MethodHandles.Lookup lookup, Class<?> clazz) {
+        if (Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface()) {
+            return null;
+        }
+        try {
+            final Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return lookup.unreflectConstructor(constructor).asType(CONSTRUCTOR);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Accessors of an annotated field.
+     */
+    private static final class Property {
+
+        private final FieldDescriptor<?> descriptor;
+        private final Field field;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final boolean complex;
+        private final boolean collection;
+        private final MethodHandle collectionConstructor;
+
+        private Property(FieldDescriptor<?> descriptor, Field field, MethodHandles.Lookup lookup) {
+            this.descriptor = descriptor;
+            this.field = field;
+            this.getter = getter(lookup, field);
+            this.setter = setter(lookup, field);
+            this.complex = ComplexFieldDescriptor.class.isAssignableFrom(descriptor.getClass());
+            this.collection = Collection.class.isAssignableFrom(field.getType());
+            this.collectionConstructor = collection ? constructor(lookup, field.getType()) : null;
+        }
+
+        private Collection newCollection() throws Throwable {
+            if (Modifier.isAbstract(field.getType().getModifiers())) {
+                log.error("Annotated field {} can not be abstract", field.getName());
+                throw new IllegalArgumentException("Annotated field " + field.getName() + " can not be abstract");
+            }
+            if (Objects.isNull(collectionConstructor)) {
+                log.error("Unable to instantiate collection field {} of type [{}]", field.getName(), field.getType());
+                throw new RuntimeException("Unable to instantiate collection field " + field.getName() + " of type [" + field.getType() + "]");
+            }
+            final Object newCollection = collectionConstructor.invokeExact();
+            return (Collection) newCollection;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.rbmhtechnology.vind.annotations;
+
+import com.rbmhtechnology.vind.api.Document;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+
+/**
+ * Converts the instances of an annotated class to {@link Document}s and back. Mappers are either generated at compile
+ * time by the vind annotation processor (named after the annotated class with a trailing {@code _}) or built at
+ * runtime by reflection, see {@link AnnotationUtil#getDocumentMapper(Class)}.
+ * @param <T> the annotated class.
+ */
+public interface DocumentMapper<T> {
+
+    /**
+     * Gets the {@link DocumentFactory} of the annotated class. The factory is shared by all the users of the mapper
+     * and must not be modified, use {@link AnnotationUtil#createDocumentFactory(Class)} to get a modifiable copy.
+     * @return the document factory.
+     */
+    DocumentFactory getDocumentFactory();
+
+    /**
+     * Creates a new {@link Document} holding the values of a bean.
+     * @param pojo the bean.
+     * @return the document.
+     */
+    Document createDocument(T pojo);
+
+    /**
+     * Instantiates a bean holding the values of a {@link Document}.
+     * @param doc the document, its type has to match the type of the annotated class.
+     * @return the bean.
+     */
+    T createPojo(Document doc);
+}
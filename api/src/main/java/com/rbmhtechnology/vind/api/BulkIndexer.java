@@ -0,0 +1,389 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.SearchServerException;
+import com.rbmhtechnology.vind.annotations.AnnotationUtil;
+import com.rbmhtechnology.vind.api.result.BulkIndexResult;
+import com.rbmhtechnology.vind.api.result.BulkIndexResult.BatchResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Feeds a (possibly unbounded) sequence of {@link Document}s or annotated beans to a {@link SearchServer}.
+ * Documents are collected into batches which are cut by document count and by estimated size. At most
+ * {@link Options#getMaxInFlightBatches()} batches are sent concurrently; when this limit is reached the producer
+ * calling {@link #add(Document)} blocks until a batch has been finished. Failing batches do not stop the indexer,
+ * they are reported in the {@link BulkIndexResult}.
+ * <p>
+ * {@link SearchServer#commit()} should be executed after {@link #flush()} for the changes to take place on the index.
+ */
+public abstract class BulkIndexer implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkIndexer.class);
+
+    private final Options options;
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final Queue<BatchResult> results = new ConcurrentLinkedQueue<>();
+
+    private List<Document> batch = new ArrayList<>();
+    private long batchBytes = 0;
+    private long batchCount = 0;
+    private boolean closed = false;
+
+    protected BulkIndexer(Options options) {
+        this.options = options.copy();
+        this.inFlight = new Semaphore(this.options.getMaxInFlightBatches());
+        this.executor = Executors.newFixedThreadPool(this.options.getMaxInFlightBatches());
+    }
+
+    /**
+     * Sends a batch of documents to the search server. Implementations should throw an exception if the batch
+     * could not be indexed.
+     * @param batch the documents to index.
+     * @throws Exception if not possible to index the batch.
+     */
+    protected abstract void indexBatch(List<Document> batch) throws Exception;
+
+    /**
+     * Gets the options this indexer has been created with.
+     * @return {@link Options} of the indexer.
+     */
+    public Options getOptions() {
+        return options.copy();
+    }
+
+    /**
+     * Adds a {@link Document} to the current batch. Blocks if the batch has to be sent and the maximum number of
+     * in-flight batches is reached.
+     * @param doc {@link Document} to be indexed.
+     * @return this {@link BulkIndexer}.
+     * @throws SearchServerException if the indexer has been closed or the thread is interrupted while waiting.
+     */
+    public synchronized BulkIndexer add(Document doc) {
+        if (closed) {
+            log.error("BulkIndexer has already been closed");
+            throw new SearchServerException("BulkIndexer has already been closed");
+        }
+        final long size = estimateSize(doc);
+        if (!batch.isEmpty() && batchBytes + size > options.getMaxBatchBytes()) {
+            sendBatch();
+        }
+        batch.add(doc);
+        batchBytes += size;
+        if (batch.size() >= options.getBatchSize() || batchBytes >= options.getMaxBatchBytes()) {
+            sendBatch();
+        }
+        return this;
+    }
+
+    /**
+     * Adds all the {@link Document}s of the iterator.
+     * @param docs iterator of {@link Document}s to be indexed.
+     * @return this {@link BulkIndexer}.
+     */
+    public BulkIndexer addAll(Iterator<? extends Document> docs) {
+        while (docs.hasNext()) {
+            add(docs.next());
+        }
+        return this;
+    }
+
+    /**
+     * Adds all the {@link Document}s of the stream.
+     * @param docs stream of {@link Document}s to be indexed.
+     * @return this {@link BulkIndexer}.
+     */
+    public BulkIndexer addAll(Stream<? extends Document> docs) {
+        docs.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Adds an annotated bean to the current batch.
+     * @param bean annotated object to be indexed.
+     * @return this {@link BulkIndexer}.
+     */
+    public BulkIndexer addBean(Object bean) {
+        return add(AnnotationUtil.createDocument(bean));
+    }
+
+    /**
+     * Adds all the annotated beans of the iterator.
+     * @param beans iterator of annotated objects to be indexed.
+     * @return this {@link BulkIndexer}.
+     */
+    public BulkIndexer addBeans(Iterator<?> beans) {
+        while (beans.hasNext()) {
+            addBean(beans.next());
+        }
+        return this;
+    }
+
+    /**
+     * Adds all the annotated beans of the stream.
+     * @param beans stream of annotated objects to be indexed.
+     * @return this {@link BulkIndexer}.
+     */
+    public BulkIndexer addBeans(Stream<?> beans) {
+        beans.forEach(this::addBean);
+        return this;
+    }
+
+    /**
+     * Sends the current batch and waits until all the in-flight batches are finished.
+     * @return {@link BulkIndexResult} with the statistics of all batches finished so far.
+     * @throws SearchServerException if the thread is interrupted while waiting.
+     */
+    public synchronized BulkIndexResult flush() {
+        if (!batch.isEmpty()) {
+            sendBatch();
+        }
+        final int permits = options.getMaxInFlightBatches();
+        try {
+            inFlight.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while waiting for in-flight batches", e);
+            throw new SearchServerException("Interrupted while waiting for in-flight batches", e);
+        }
+        inFlight.release(permits);
+        return getResult();
+    }
+
+    /**
+     * Gets the statistics of the batches finished so far.
+     * @return {@link BulkIndexResult} with the batch statistics.
+     */
+    public BulkIndexResult getResult() {
+        return new BulkIndexResult(new ArrayList<>(results));
+    }
+
+    /**
+     * Flushes the pending documents and releases the resources of the indexer.
+     * @throws SearchServerException if the thread is interrupted while waiting.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(60, SECONDS)) {
+                    log.warn("BulkIndexer executor did not terminate within 60 seconds");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void sendBatch() {
+        final List<Document> docs = batch;
+        final long bytes = batchBytes;
+        final long number = batchCount++;
+        batch = new ArrayList<>();
+        batchBytes = 0;
+
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while waiting to send batch {}", number, e);
+            throw new SearchServerException("Interrupted while waiting to send batch " + number, e);
+        }
+        try {
+            executor.execute(() -> {
+                final long start = System.currentTimeMillis();
+                Throwable error = null;
+                try {
+                    indexBatch(docs);
+                } catch (Throwable t) {
+                    log.error("Cannot index batch {} of {} documents: {}", number, docs.size(), t.getMessage(), t);
+                    error = t;
+                } finally {
+                    results.add(new BatchResult(number, docs.size(), bytes, System.currentTimeMillis() - start, error));
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Estimates the size of a document when sent to the search server. The estimation is based on the field
+     * names and the values of all contexts, nested documents are included.
+     * @param doc the {@link Document} to estimate.
+     * @return the estimated size in bytes.
+     */
+    protected long estimateSize(Document doc) {
+        long size = doc.getId() != null ? doc.getId().length() : 0;
+        for (String field : doc.listFieldDescriptors().keySet()) {
+            if (!doc.hasValue(field)) {
+                continue;
+            }
+            for (String context : doc.getFieldContexts(field)) {
+                size += field.length() + (context != null ? context.length() : 0);
+                size += estimateSize(doc.getContextualizedValue(field, context));
+            }
+        }
+        if (doc.hasChildren()) {
+            for (Document child : doc.getChildren()) {
+                size += estimateSize(child);
+            }
+        }
+        return size;
+    }
+
+    private static long estimateSize(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof CharSequence) {
+            return ((CharSequence) value).length();
+        } else if (value instanceof Number || value instanceof Boolean) {
+            return 8;
+        } else if (value instanceof ByteBuffer) {
+            return ((ByteBuffer) value).remaining();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof Collection) {
+            long size = 0;
+            for (Object v : (Collection<?>) value) {
+                size += estimateSize(v);
+            }
+            return size;
+        } else {
+            return value.toString().length();
+        }
+    }
+
+    /**
+     * Configuration of a {@link BulkIndexer}.
+     */
+    public static class Options {
+
+        private int batchSize = 1000;
+        private long maxBatchBytes = 10 * 1024 * 1024;
+        private int maxInFlightBatches = 4;
+        private int converterThreads = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Gets the maximum number of documents of a batch, defaults to 1000.
+         * @return maximum number of documents.
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Sets the maximum number of documents of a batch.
+         * @param batchSize maximum number of documents, has to be greater than 0.
+         * @return this {@link Options}.
+         */
+        public Options setBatchSize(int batchSize) {
+            if (batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be greater than 0");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Gets the maximum estimated size of a batch in bytes, defaults to 10MB.
+         * @return maximum size in bytes.
+         */
+        public long getMaxBatchBytes() {
+            return maxBatchBytes;
+        }
+
+        /**
+         * Sets the maximum estimated size of a batch in bytes. A single document exceeding this size is sent as a
+         * batch of its own.
+         * @param maxBatchBytes maximum size in bytes, has to be greater than 0.
+         * @return this {@link Options}.
+         */
+        public Options setMaxBatchBytes(long maxBatchBytes) {
+            if (maxBatchBytes < 1) {
+                throw new IllegalArgumentException("maxBatchBytes must be greater than 0");
+            }
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        /**
+         * Gets the maximum number of batches sent concurrently, defaults to 4.
+         * @return maximum number of in-flight batches.
+         */
+        public int getMaxInFlightBatches() {
+            return maxInFlightBatches;
+        }
+
+        /**
+         * Sets the maximum number of batches sent concurrently. Producers block when this limit is reached.
+         * @param maxInFlightBatches maximum number of in-flight batches, has to be greater than 0.
+         * @return this {@link Options}.
+         */
+        public Options setMaxInFlightBatches(int maxInFlightBatches) {
+            if (maxInFlightBatches < 1) {
+                throw new IllegalArgumentException("maxInFlightBatches must be greater than 0");
+            }
+            this.maxInFlightBatches = maxInFlightBatches;
+            return this;
+        }
+
+        /**
+         * Gets the number of threads used to convert documents to the backend representation, defaults to the
+         * number of available processors.
+         * @return number of converter threads.
+         */
+        public int getConverterThreads() {
+            return converterThreads;
+        }
+
+        /**
+         * Sets the number of threads used to convert documents to the backend representation.
+         * @param converterThreads number of converter threads, has to be greater than 0.
+         * @return this {@link Options}.
+         */
+        public Options setConverterThreads(int converterThreads) {
+            if (converterThreads < 1) {
+                throw new IllegalArgumentException("converterThreads must be greater than 0");
+            }
+            this.converterThreads = converterThreads;
+            return this;
+        }
+
+        /**
+         * Creates a copy of this options.
+         * @return a new {@link Options} instance.
+         */
+        public Options copy() {
+            return new Options()
+                    .setBatchSize(batchSize)
+                    .setMaxBatchBytes(maxBatchBytes)
+                    .setMaxInFlightBatches(maxInFlightBatches)
+                    .setConverterThreads(converterThreads);
+        }
+    }
+}
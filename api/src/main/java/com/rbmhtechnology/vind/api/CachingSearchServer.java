@@ -0,0 +1,342 @@
+package com.rbmhtechnology.vind.api;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.rbmhtechnology.vind.annotations.AnnotationUtil;
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.delete.Delete;
+import com.rbmhtechnology.vind.api.query.get.RealTimeGet;
+import com.rbmhtechnology.vind.api.query.suggestion.ExecutableSuggestionSearch;
+import com.rbmhtechnology.vind.api.query.update.Update;
+import com.rbmhtechnology.vind.api.result.BeanSearchResult;
+import com.rbmhtechnology.vind.api.result.GetResult;
+import com.rbmhtechnology.vind.api.result.ScrollIterator;
+import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.api.result.SuggestionResult;
+import com.rbmhtechnology.vind.configure.SearchConfiguration;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * {@link SearchServer} decorator caching the results of fulltext searches on the client side. The cache is bounded
+ * in size (least recently used entries are evicted first) and time to live, and keyed by a normalized form of the
+ * search together with the document type.
+ * <p>
+ * All cached results are invalidated when documents are indexed, updated or deleted through this server and on
+ * commit. Documents added with a {@link BulkIndexer} get visible with the next commit, changes made by other clients
+ * only after the time to live. Single searches can bypass the cache with {@link FulltextSearch#cache(boolean)}.
+ * <p>
+ * The cache holds its own copies of the results (see {@link SearchResult#copy()}) and hands out a new copy on every
+ * hit, so callers can change the returned documents without affecting each other.
+ */
+public class CachingSearchServer extends SearchServer {
+
+    private final SearchServer backend;
+    private final Cache<String, SearchResult> cache;
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Creates a new caching decorator with size ({@link SearchConfiguration#SEARCH_CACHE_SIZE}, default 1000) and
+     * time to live in seconds ({@link SearchConfiguration#SEARCH_CACHE_TTL}, default 60) from the configuration.
+     * @param backend the {@link SearchServer} to decorate.
+     */
+    public CachingSearchServer(SearchServer backend) {
+        this(backend,
+                SearchConfiguration.get(SearchConfiguration.SEARCH_CACHE_SIZE, 1000),
+                SearchConfiguration.get(SearchConfiguration.SEARCH_CACHE_TTL, 60), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a new caching decorator.
+     * @param backend the {@link SearchServer} to decorate.
+     * @param maximumSize maximum number of cached results.
+     * @param ttl time to live of a cached result.
+     * @param unit {@link TimeUnit} of the time to live.
+     */
+    public CachingSearchServer(SearchServer backend, long maximumSize, long ttl, TimeUnit unit) {
+        this.backend = backend;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl, unit)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Gets the hit, miss and eviction statistics of the result cache.
+     * @return {@link CacheStats} of the result cache.
+     */
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Gets the number of cached results.
+     * @return number of cache entries.
+     */
+    public long getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the number of times the cache has been invalidated.
+     * @return number of invalidations.
+     */
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * Removes all the cached results.
+     */
+    public void invalidate() {
+        //results of searches started before the invalidation must not be cached
+        generation.incrementAndGet();
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /* ******** OVERRIDES ******** */
+
+    @Override
+    public SearchResult execute(FulltextSearch search, DocumentFactory factory) {
+        if (!search.isCache()) {
+            return backend.execute(search, factory);
+        }
+        final String key = SearchKeys.of(search, factory);
+        final SearchResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.copy();
+        }
+        final long started = generation.get();
+        final SearchResult result = backend.execute(search, factory);
+        //partial results of a timed out search are not cached
+        if (generation.get() == started && !result.isPartialResults()) {
+            cache.put(key, result.copy());
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<SearchResult> executeAsync(FulltextSearch search, DocumentFactory factory, Executor executor) {
+        if (!search.isCache()) {
+            return backend.executeAsync(search, factory, executor);
+        }
+        final String key = SearchKeys.of(search, factory);
+        final SearchResult cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.copy());
+        }
+        final long started = generation.get();
+        return backend.executeAsync(search, factory, executor).thenApply(result -> {
+            if (generation.get() == started && !result.isPartialResults()) {
+                cache.put(key, result.copy());
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public <T> BeanSearchResult<T> execute(FulltextSearch search, Class<T> c) {
+        if (!search.isCache()) {
+            return backend.execute(search, c);
+        }
+        final SearchResult result = execute(search, AnnotationUtil.getDocumentMapper(c).getDocumentFactory());
+        return result.toPojoResult(result, c);
+    }
+
+    @Override
+    public Object getBackend() {
+        return backend.getBackend();
+    }
+
+    @Override
+    public void index(Document ... docs) {
+        try {
+            backend.index(docs);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void index(List<Document> docs) {
+        try {
+            backend.index(docs);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void index(List<Document> docs, int commitWithin) {
+        try {
+            backend.index(docs, commitWithin);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> indexAsync(Executor executor, List<Document> docs) {
+        return backend.indexAsync(executor, docs).whenComplete((result, error) -> invalidate());
+    }
+
+    @Override
+    public BulkIndexer bulkIndexer(BulkIndexer.Options options) {
+        return backend.bulkIndexer(options);
+    }
+
+    @Override
+    public void execute(Update update, DocumentFactory factory) {
+        try {
+            backend.execute(update, factory);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void execute(Delete delete, DocumentFactory factory) {
+        try {
+            backend.execute(delete, factory);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void delete(Document doc) {
+        try {
+            backend.delete(doc);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void delete(Document doc, int commitWithin) {
+        try {
+            backend.delete(doc, commitWithin);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void commit() {
+        try {
+            backend.commit();
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void softCommit() {
+        try {
+            backend.softCommit();
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void commit(boolean optimize) {
+        try {
+            backend.commit(optimize);
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public CommitPolicy getCommitPolicy() {
+        return backend.getCommitPolicy();
+    }
+
+    @Override
+    public void setCommitPolicy(CommitPolicy commitPolicy) {
+        backend.setCommitPolicy(commitPolicy);
+    }
+
+    @Override
+    public CommitCoalescer getCommitCoalescer() {
+        return backend.getCommitCoalescer();
+    }
+
+    @Override
+    public ScrollIterator scroll(FulltextSearch search, DocumentFactory factory) {
+        return backend.scroll(search, factory);
+    }
+
+    @Override
+    public long export(FulltextSearch search, DocumentFactory factory, Consumer<Document> consumer) {
+        return backend.export(search, factory, consumer);
+    }
+
+    @Override
+    public <T> Stream<T> scroll(FulltextSearch search, Class<T> c) {
+        return backend.scroll(search, c);
+    }
+
+    @Override
+    public <T> SuggestionResult execute(ExecutableSuggestionSearch search, Class<T> c) {
+        return backend.execute(search, c);
+    }
+
+    @Override
+    public SuggestionResult execute(ExecutableSuggestionSearch search, DocumentFactory assets) {
+        return backend.execute(search, assets);
+    }
+
+    @Override
+    public CompletableFuture<SuggestionResult> executeAsync(ExecutableSuggestionSearch search, DocumentFactory assets, Executor executor) {
+        return backend.executeAsync(search, assets, executor);
+    }
+
+    @Override
+    public SuggestionResult execute(ExecutableSuggestionSearch search, DocumentFactory assets, DocumentFactory childFactory) {
+        return backend.execute(search, assets, childFactory);
+    }
+
+    @Override
+    public <T> GetResult execute(RealTimeGet search, Class<T> c) {
+        return backend.execute(search, c);
+    }
+
+    @Override
+    public GetResult execute(RealTimeGet search, DocumentFactory assets) {
+        return backend.execute(search, assets);
+    }
+
+    @Override
+    public void clearIndex() {
+        try {
+            backend.clearIndex();
+        } finally {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void close() {
+        cache.invalidateAll();
+        backend.close();
+    }
+
+    @Override
+    public Class getServiceProviderClass() {
+        return backend.getServiceProviderClass();
+    }
+}
@@ -0,0 +1,219 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.annotations.AnnotationUtil;
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.delete.Delete;
+import com.rbmhtechnology.vind.api.query.get.RealTimeGet;
+import com.rbmhtechnology.vind.api.query.suggestion.ExecutableSuggestionSearch;
+import com.rbmhtechnology.vind.api.query.update.Update;
+import com.rbmhtechnology.vind.api.result.BeanSearchResult;
+import com.rbmhtechnology.vind.api.result.GetResult;
+import com.rbmhtechnology.vind.api.result.ScrollIterator;
+import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.api.result.SuggestionResult;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * {@link SearchServer} decorator coalescing identical concurrent requests: a fulltext or suggestion search which is
+ * already in flight is not sent to the backend again, instead all callers share the result of the running request.
+ * Unlike a cache no result is served after its request has finished, so there are no stale results. Each caller of
+ * a fulltext search gets its own copy of the shared {@link SearchResult}, and searches of beans are mapped per
+ * caller from such a copy.
+ * <p>
+ * To combine it with async execution wrap it in a {@link CompletableSearchServer}:
+ * {@code new CompletableSearchServer(new CoalescingSearchServer(server))}.
+ */
+public class CoalescingSearchServer extends SearchServer {
+
+    private final SearchServer backend;
+
+    private final SingleFlight<String, SearchResult> searches = new SingleFlight<>();
+    private final SingleFlight<String, SuggestionResult> suggestions = new SingleFlight<>();
+
+    public CoalescingSearchServer(SearchServer backend) {
+        this.backend = backend;
+    }
+
+    /**
+     * Gets the number of fulltext and suggestion requests sent to the backend.
+     * @return number of executed requests.
+     */
+    public long getExecuted() {
+        return searches.getExecuted() + suggestions.getExecuted();
+    }
+
+    /**
+     * Gets the number of fulltext and suggestion requests which shared the result of an identical request in flight.
+     * @return number of coalesced requests.
+     */
+    public long getShared() {
+        return searches.getShared() + suggestions.getShared();
+    }
+
+    /* ******** OVERRIDES ******** */
+
+    @Override
+    public SearchResult execute(FulltextSearch search, DocumentFactory factory) {
+        return searches.execute(SearchKeys.of(search, factory), () -> backend.execute(search, factory)).copy();
+    }
+
+    @Override
+    public CompletableFuture<SearchResult> executeAsync(FulltextSearch search, DocumentFactory factory, Executor executor) {
+        return searches.executeAsync(SearchKeys.of(search, factory), () -> backend.executeAsync(search, factory, executor))
+                .thenApply(SearchResult::copy);
+    }
+
+    @Override
+    public <T> BeanSearchResult<T> execute(FulltextSearch search, Class<T> c) {
+        //coalesced on the document search, so each caller maps its own copy to new beans
+        final SearchResult result = execute(search, AnnotationUtil.getDocumentMapper(c).getDocumentFactory());
+        return result.toPojoResult(result, c);
+    }
+
+    @Override
+    public <T> SuggestionResult execute(ExecutableSuggestionSearch search, Class<T> c) {
+        final String key = c.getName() + "|" + SearchKeys.of(search, AnnotationUtil.getDocumentMapper(c).getDocumentFactory(), null);
+        return suggestions.execute(key, () -> backend.execute(search, c));
+    }
+
+    @Override
+    public SuggestionResult execute(ExecutableSuggestionSearch search, DocumentFactory assets) {
+        return suggestions.execute(SearchKeys.of(search, assets, null), () -> backend.execute(search, assets));
+    }
+
+    @Override
+    public CompletableFuture<SuggestionResult> executeAsync(ExecutableSuggestionSearch search, DocumentFactory assets, Executor executor) {
+        return suggestions.executeAsync(SearchKeys.of(search, assets, null), () -> backend.executeAsync(search, assets, executor));
+    }
+
+    @Override
+    public SuggestionResult execute(ExecutableSuggestionSearch search, DocumentFactory assets, DocumentFactory childFactory) {
+        return suggestions.execute(SearchKeys.of(search, assets, childFactory), () -> backend.execute(search, assets, childFactory));
+    }
+
+    @Override
+    public Object getBackend() {
+        return backend.getBackend();
+    }
+
+    @Override
+    public void index(Document ... docs) {
+        backend.index(docs);
+    }
+
+    @Override
+    public void index(List<Document> docs) {
+        backend.index(docs);
+    }
+
+    @Override
+    public CompletableFuture<Void> indexAsync(Executor executor, List<Document> docs) {
+        return backend.indexAsync(executor, docs);
+    }
+
+    @Override
+    public void index(List<Document> docs, int commitWithin) {
+        backend.index(docs, commitWithin);
+    }
+
+    @Override
+    public BulkIndexer bulkIndexer(BulkIndexer.Options options) {
+        return backend.bulkIndexer(options);
+    }
+
+    @Override
+    public void execute(Update update, DocumentFactory factory) {
+        backend.execute(update, factory);
+    }
+
+    @Override
+    public void execute(Delete delete, DocumentFactory factory) {
+        backend.execute(delete, factory);
+    }
+
+    @Override
+    public void delete(Document doc) {
+        backend.delete(doc);
+    }
+
+    @Override
+    public void delete(Document doc, int commitWithin) {
+        backend.delete(doc, commitWithin);
+    }
+
+    @Override
+    public void commit() {
+        backend.commit();
+    }
+
+    @Override
+    public void softCommit() {
+        backend.softCommit();
+    }
+
+    @Override
+    public void commit(boolean optimize) {
+        backend.commit(optimize);
+    }
+
+    @Override
+    public CommitPolicy getCommitPolicy() {
+        return backend.getCommitPolicy();
+    }
+
+    @Override
+    public void setCommitPolicy(CommitPolicy commitPolicy) {
+        backend.setCommitPolicy(commitPolicy);
+    }
+
+    @Override
+    public CommitCoalescer getCommitCoalescer() {
+        return backend.getCommitCoalescer();
+    }
+
+    @Override
+    public ScrollIterator scroll(FulltextSearch search, DocumentFactory factory) {
+        return backend.scroll(search, factory);
+    }
+
+    @Override
+    public long export(FulltextSearch search, DocumentFactory factory, Consumer<Document> consumer) {
+        return backend.export(search, factory, consumer);
+    }
+
+    @Override
+    public <T> Stream<T> scroll(FulltextSearch search, Class<T> c) {
+        return backend.scroll(search, c);
+    }
+
+    @Override
+    public <T> GetResult execute(RealTimeGet search, Class<T> c) {
+        return backend.execute(search, c);
+    }
+
+    @Override
+    public GetResult execute(RealTimeGet search, DocumentFactory assets) {
+        return backend.execute(search, assets);
+    }
+
+    @Override
+    public void clearIndex() {
+        backend.clearIndex();
+    }
+
+    @Override
+    public void close() {
+        backend.close();
+    }
+
+    @Override
+    public Class getServiceProviderClass() {
+        return backend.getServiceProviderClass();
+    }
+}
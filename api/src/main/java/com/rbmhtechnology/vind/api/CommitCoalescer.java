@@ -0,0 +1,110 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.SearchServerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Merges concurrent commit requests into a single backend commit. The first caller waits for the coalesce window
+ * and executes the commit, all callers arriving in the meantime wait for this commit instead of issuing their own.
+ * Every caller returns only after a commit which has been started after its request.
+ */
+public class CommitCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(CommitCoalescer.class);
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong merged = new AtomicLong();
+
+    private CompletableFuture<Void> pending = null;
+
+    /**
+     * Requests a commit, which is merged with the other requests within the coalesce window.
+     * @param window time in milliseconds to wait for further requests.
+     * @param commit the backend commit to execute.
+     * @throws SearchServerException if the commit failed.
+     */
+    public void commit(long window, Runnable commit) {
+        final CompletableFuture<Void> group;
+        final boolean leader;
+        synchronized (this) {
+            requested.incrementAndGet();
+            if (pending == null) {
+                pending = new CompletableFuture<>();
+                leader = true;
+            } else {
+                merged.incrementAndGet();
+                leader = false;
+            }
+            group = pending;
+        }
+
+        if (leader) {
+            try {
+                Thread.sleep(window);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                pending = null;
+            }
+            try {
+                commit.run();
+                executed.incrementAndGet();
+                group.complete(null);
+            } catch (Throwable e) {
+                //errors have to release the merged callers as well
+                group.completeExceptionally(e);
+                throw e;
+            }
+        } else {
+            try {
+                group.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while waiting for merged commit", e);
+                throw new SearchServerException("Interrupted while waiting for merged commit", e);
+            } catch (ExecutionException e) {
+                throw new SearchServerException("Cannot commit", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Gets the number of requested commits.
+     * @return number of commit requests.
+     */
+    public long getRequested() {
+        return requested.get();
+    }
+
+    /**
+     * Gets the number of commits executed on the backend.
+     * @return number of backend commits.
+     */
+    public long getExecuted() {
+        return executed.get();
+    }
+
+    /**
+     * Gets the number of commit requests which have been merged into the commit of another request.
+     * @return number of merged commit requests.
+     */
+    public long getMerged() {
+        return merged.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CommitCoalescer{" +
+                "requested=" + getRequested() +
+                ", executed=" + getExecuted() +
+                ", merged=" + getMerged() +
+                '}';
+    }
+}
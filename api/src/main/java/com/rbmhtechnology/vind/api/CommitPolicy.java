@@ -0,0 +1,98 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.configure.SearchConfiguration;
+
+/**
+ * Configures how changes are made visible on the index by a {@link SearchServer}:
+ * <ul>
+ *     <li>commitWithin: maximum time in milliseconds until index, update and delete operations are committed by
+ *     the backend itself, a negative value disables it.</li>
+ *     <li>softCommit: whether {@link SearchServer#commit()} makes the changes visible without flushing them to
+ *     stable storage.</li>
+ *     <li>coalesceWindow: time in milliseconds during which concurrent {@link SearchServer#commit()} calls are
+ *     merged into a single backend commit, 0 disables it.</li>
+ * </ul>
+ * The defaults are read from the {@link SearchConfiguration}.
+ */
+public class CommitPolicy {
+
+    private int commitWithin = SearchConfiguration.get(SearchConfiguration.SERVER_COMMIT_WITHIN, -1);
+    private boolean softCommit = SearchConfiguration.get(SearchConfiguration.SERVER_COMMIT_SOFT, false);
+    private int coalesceWindow = SearchConfiguration.get(SearchConfiguration.SERVER_COMMIT_COALESCE_WINDOW, 0);
+
+    /**
+     * Gets the default commitWithin time of index, update and delete operations.
+     * @return time in milliseconds, negative if disabled.
+     */
+    public int getCommitWithin() {
+        return commitWithin;
+    }
+
+    /**
+     * Sets the default commitWithin time of index, update and delete operations.
+     * @param commitWithin time in milliseconds, a negative value disables it.
+     * @return this {@link CommitPolicy}.
+     */
+    public CommitPolicy setCommitWithin(int commitWithin) {
+        this.commitWithin = commitWithin;
+        return this;
+    }
+
+    /**
+     * Whether {@link SearchServer#commit()} executes a soft commit.
+     * @return true for soft commits, false for hard commits.
+     */
+    public boolean isSoftCommit() {
+        return softCommit;
+    }
+
+    /**
+     * Sets whether {@link SearchServer#commit()} executes a soft commit.
+     * @param softCommit true for soft commits, false for hard commits.
+     * @return this {@link CommitPolicy}.
+     */
+    public CommitPolicy setSoftCommit(boolean softCommit) {
+        this.softCommit = softCommit;
+        return this;
+    }
+
+    /**
+     * Gets the time during which concurrent {@link SearchServer#commit()} calls are merged.
+     * @return time in milliseconds, 0 if disabled.
+     */
+    public int getCoalesceWindow() {
+        return coalesceWindow;
+    }
+
+    /**
+     * Sets the time during which concurrent {@link SearchServer#commit()} calls are merged into a single backend
+     * commit.
+     * @param coalesceWindow time in milliseconds, 0 disables merging.
+     * @return this {@link CommitPolicy}.
+     */
+    public CommitPolicy setCoalesceWindow(int coalesceWindow) {
+        if (coalesceWindow < 0) {
+            throw new IllegalArgumentException("coalesceWindow must not be negative");
+        }
+        this.coalesceWindow = coalesceWindow;
+        return this;
+    }
+
+    /**
+     * Resolves the commitWithin time of a single operation.
+     * @param commitWithin the commitWithin time requested for the operation, null to use the default.
+     * @return time in milliseconds, negative if disabled.
+     */
+    public int resolveCommitWithin(Integer commitWithin) {
+        return commitWithin != null ? commitWithin : this.commitWithin;
+    }
+
+    @Override
+    public String toString() {
+        return "CommitPolicy{" +
+                "commitWithin=" + commitWithin +
+                ", softCommit=" + softCommit +
+                ", coalesceWindow=" + coalesceWindow +
+                '}';
+    }
+}
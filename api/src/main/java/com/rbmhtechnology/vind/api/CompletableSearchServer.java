@@ -8,28 +8,41 @@ import com.rbmhtechnology.vind.api.query.suggestion.ExecutableSuggestionSearch;
 import com.rbmhtechnology.vind.api.query.update.Update;
 import com.rbmhtechnology.vind.api.result.BeanSearchResult;
 import com.rbmhtechnology.vind.api.result.GetResult;
+import com.rbmhtechnology.vind.api.result.MultiSearchResult;
+import com.rbmhtechnology.vind.api.result.PagePrefetcher;
+import com.rbmhtechnology.vind.api.result.PageResult;
+import com.rbmhtechnology.vind.api.result.PrefetchStats;
+import com.rbmhtechnology.vind.api.result.ScrollIterator;
 import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.api.result.SliceResult;
 import com.rbmhtechnology.vind.api.result.SuggestionResult;
+import com.rbmhtechnology.vind.api.result.reactive.SearchPublisher;
 import com.rbmhtechnology.vind.configure.SearchConfiguration;
 import com.rbmhtechnology.vind.model.DocumentFactory;
+import org.reactivestreams.Publisher;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
- *
+ * {@link SearchServer} decorator offering asynchronous variants of its methods. Searches, suggestions and indexing
+ * are delegated to the async methods of the backend, which send the request without blocking a thread if the
+ * backend supports it and otherwise run the blocking call on the executor; all other calls run on the executor.
  */
 public class CompletableSearchServer extends SearchServer {
 
     private final SearchServer backend;
     private final Executor executor;
     private final boolean shutdownExecutorOnClose;
+    private final PrefetchStats prefetchStats = new PrefetchStats();
 
     public CompletableSearchServer(SearchServer backend, Executor executor) {
         this(backend, executor, false);
@@ -44,8 +57,13 @@ public class CompletableSearchServer extends SearchServer {
         this.shutdownExecutorOnClose = shutdownExecutorOnClose;
     }
 
+    /**
+     * Creates a new async decorator running the blocking calls on the executor configured with
+     * {@link SearchConfiguration#APPLICATION_EXECUTOR_TYPE}, see {@link SearchExecutors#newExecutor()}.
+     * @param backend the {@link SearchServer} to decorate.
+     */
     public CompletableSearchServer(SearchServer backend) {
-        this(backend, Executors.newFixedThreadPool(SearchConfiguration.get(SearchConfiguration.APPLICATION_EXECUTOR_THREADS,16)), true);
+        this(backend, SearchExecutors.newExecutor(), true);
     }
 
     public <T> CompletableFuture<BeanSearchResult<T>> executeAsync(FulltextSearch search, Class<T> c) {
@@ -53,7 +71,8 @@ public class CompletableSearchServer extends SearchServer {
     }
 
     public <T> CompletableFuture<BeanSearchResult<T>> executeAsync(FulltextSearch search, Class<T> c, Executor executor) {
-        return CompletableFuture.supplyAsync(() -> this.execute(search, c), executor);
+        return executeAsync(search, AnnotationUtil.getDocumentMapper(c).getDocumentFactory(), executor)
+                .thenApply(result -> result.toPojoResult(result, c));
     }
 
     @Deprecated
@@ -115,15 +134,16 @@ public class CompletableSearchServer extends SearchServer {
     }
 
     public CompletableFuture<Void> indexAsync(Executor executor, Document ... docs) {
-        return CompletableFuture.runAsync(() -> this.index(docs), executor);
+        return indexAsync(executor, Arrays.asList(docs));
     }
 
     public CompletableFuture<Void> indexAsync(List<Document> docs) {
         return indexAsync(executor, docs);
     }
 
+    @Override
     public CompletableFuture<Void> indexAsync(Executor executor,List<Document> docs) {
-        return CompletableFuture.runAsync(() -> this.index(docs), executor);
+        return backend.indexAsync(executor, docs);
     }
 
     @Deprecated
@@ -180,8 +200,73 @@ public class CompletableSearchServer extends SearchServer {
         return executeAsync(search, factory, executor);
     }
 
+    @Override
     public CompletableFuture<SearchResult> executeAsync(FulltextSearch search, DocumentFactory factory, Executor executor) {
-        return CompletableFuture.supplyAsync(() -> this.execute(search, factory), executor);
+        return backend.executeAsync(search, factory, executor)
+                .thenApply(result -> prefetch(search, factory, result, executor));
+    }
+
+    /**
+     * Starts prefetching the pages following a page or slice result, if enabled for the search with
+     * {@link FulltextSearch#prefetch(int)}.
+     */
+    private SearchResult prefetch(FulltextSearch search, DocumentFactory factory, SearchResult result, Executor executor) {
+        final int pages = search.getPrefetch();
+        if (pages > 0 && (result instanceof PageResult || result instanceof SliceResult)) {
+            return new PagePrefetcher(backend, factory, executor, pages, prefetchStats).prefetch(result);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the statistics of the pages prefetched for the searches of this server.
+     * @return {@link PrefetchStats} of all the prefetched pages.
+     */
+    public PrefetchStats getPrefetchStats() {
+        return prefetchStats;
+    }
+
+    /**
+     * Publishes all the results of a search, requesting the pages of results according to the demand of the
+     * subscribers, see {@link SearchPublisher}.
+     * @param search {@link FulltextSearch} search query configuration object.
+     * @param factory {@link DocumentFactory} mapping the index documents and the result type.
+     * @return {@link Publisher} of the result documents.
+     */
+    public Publisher<Document> publish(FulltextSearch search, DocumentFactory factory) {
+        return publish(search, factory, executor);
+    }
+
+    public Publisher<Document> publish(FulltextSearch search, DocumentFactory factory, Executor executor) {
+        return SearchPublisher.of(backend, search, factory, executor);
+    }
+
+    /**
+     * Publishes all the results of a search based on an annotated class, requesting the pages of results according
+     * to the demand of the subscribers, see {@link SearchPublisher}.
+     * @param search {@link FulltextSearch} search query configuration object.
+     * @param c annotated class mapping the index documents and the result type.
+     * @param <T> annotated class type.
+     * @return {@link Publisher} of the result beans.
+     */
+    public <T> Publisher<T> publish(FulltextSearch search, Class<T> c) {
+        return publish(search, c, executor);
+    }
+
+    public <T> Publisher<T> publish(FulltextSearch search, Class<T> c, Executor executor) {
+        return SearchPublisher.of(backend, search, c, executor);
+    }
+
+    public CompletableFuture<MultiSearchResult> executeAllAsync(List<FulltextSearch> searches, DocumentFactory factory) {
+        return executeAllAsync(searches, factory, executor);
+    }
+
+    public CompletableFuture<MultiSearchResult> executeAllAsync(List<FulltextSearch> searches, DocumentFactory factory, Executor executor) {
+        return executeAllAsync(searches, factory, executor, SearchConfiguration.get(SearchConfiguration.SEARCH_MULTI_CONCURRENCY, 8));
+    }
+
+    public CompletableFuture<MultiSearchResult> executeAllAsync(List<FulltextSearch> searches, DocumentFactory factory, Executor executor, int concurrency) {
+        return MultiSearch.executeAsync(this, searches, factory, executor, concurrency);
     }
 
     public <T> CompletableFuture<SuggestionResult> executeAsync(ExecutableSuggestionSearch search, Class<T> c) {
@@ -189,15 +274,16 @@ public class CompletableSearchServer extends SearchServer {
     }
 
     public <T> CompletableFuture<SuggestionResult> executeAsync(ExecutableSuggestionSearch search, Class<T> c, Executor executor) {
-        return CompletableFuture.supplyAsync(() -> this.execute(search, c), executor);
+        return executeAsync(search, AnnotationUtil.getDocumentMapper(c).getDocumentFactory(), executor);
     }
 
     public CompletableFuture<SuggestionResult> executeAsync(ExecutableSuggestionSearch search, DocumentFactory assets) {
         return executeAsync(search, assets, executor);
     }
 
+    @Override
     public CompletableFuture<SuggestionResult> executeAsync(ExecutableSuggestionSearch search, DocumentFactory assets, Executor executor) {
-        return CompletableFuture.supplyAsync(() -> this.execute(search, assets), executor);
+        return backend.executeAsync(search, assets, executor);
     }
 
     public static CompletableSearchServer getInstance(Executor executor) {
@@ -225,6 +311,11 @@ public class CompletableSearchServer extends SearchServer {
         backend.index(docs);
     }
 
+    @Override
+    public BulkIndexer bulkIndexer(BulkIndexer.Options options) {
+        return backend.bulkIndexer(options);
+    }
+
     @Override
     public void execute(Update update, DocumentFactory factory) {
         backend.execute(update, factory);
@@ -240,6 +331,41 @@ public class CompletableSearchServer extends SearchServer {
         backend.delete(doc);
     }
 
+    @Override
+    public void index(List<Document> docs, int commitWithin) {
+        backend.index(docs, commitWithin);
+    }
+
+    @Override
+    public void delete(Document doc, int commitWithin) {
+        backend.delete(doc, commitWithin);
+    }
+
+    @Override
+    public void commit() {
+        backend.commit();
+    }
+
+    @Override
+    public void softCommit() {
+        backend.softCommit();
+    }
+
+    @Override
+    public CommitPolicy getCommitPolicy() {
+        return backend.getCommitPolicy();
+    }
+
+    @Override
+    public void setCommitPolicy(CommitPolicy commitPolicy) {
+        backend.setCommitPolicy(commitPolicy);
+    }
+
+    @Override
+    public CommitCoalescer getCommitCoalescer() {
+        return backend.getCommitCoalescer();
+    }
+
     @Override
     public void commit(boolean optimize) {
         backend.commit(optimize);
@@ -247,12 +373,36 @@ public class CompletableSearchServer extends SearchServer {
 
     @Override
     public <T> BeanSearchResult<T> execute(FulltextSearch search, Class<T> c) {
+        if (search.getPrefetch() > 0) {
+            final SearchResult result = execute(search, AnnotationUtil.getDocumentMapper(c).getDocumentFactory());
+            return result.toPojoResult(result, c);
+        }
         return backend.execute(search, c);
     }
 
     @Override
     public SearchResult execute(FulltextSearch search, DocumentFactory factory) {
-        return backend.execute(search, factory);
+        return prefetch(search, factory, backend.execute(search, factory), executor);
+    }
+
+    @Override
+    public MultiSearchResult executeAll(List<FulltextSearch> searches, DocumentFactory factory, int concurrency) {
+        return backend.executeAll(searches, factory, concurrency);
+    }
+
+    @Override
+    public ScrollIterator scroll(FulltextSearch search, DocumentFactory factory) {
+        return backend.scroll(search, factory);
+    }
+
+    @Override
+    public long export(FulltextSearch search, DocumentFactory factory, Consumer<Document> consumer) {
+        return backend.export(search, factory, consumer);
+    }
+
+    @Override
+    public <T> Stream<T> scroll(FulltextSearch search, Class<T> c) {
+        return backend.scroll(search, c);
     }
 
     @Override
@@ -414,6 +414,43 @@ public interface Document {
     <T> boolean hasValue(FieldDescriptor<T> descriptor);
 
 
+    /**
+     * Checks if the values of a field have been loaded, which is not the case for fields excluded by the field
+     * projection of a search ({@link com.rbmhtechnology.vind.api.query.FulltextSearch#fields(FieldDescriptor[])}).
+     * Documents which do not track their loaded fields report all fields as loaded.
+     * @param field Name of the field to check
+     * @return true if the field values are loaded.
+     */
+    default boolean isLoaded(String field) {
+        return true;
+    }
+
+    /**
+     * Checks if the values of a field have been loaded.
+     * @param descriptor descriptor of the field to check
+     * @return true if the field values are loaded.
+     */
+    default <T> boolean isLoaded(FieldDescriptor<T> descriptor) {
+        return isLoaded(descriptor.getName());
+    }
+
+    /**
+     * Sets the fields whose values have been loaded, all the other fields are marked as not loaded. Does nothing
+     * for documents which do not track their loaded fields.
+     * @param fields names of the loaded fields, null if all the fields are loaded.
+     */
+    default void setLoadedFields(Collection<String> fields) {
+    }
+
+    /**
+     * Creates a copy of the document whose values and children can be changed without affecting this document.
+     * Documents which do not support copies return themselves.
+     * @return a copy of the document.
+     */
+    default Document copy() {
+        return this;
+    }
+
     boolean hasChildren();
 
     Collection<Document> getChildren();
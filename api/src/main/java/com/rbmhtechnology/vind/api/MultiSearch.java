@@ -0,0 +1,67 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.result.MultiSearchResult;
+import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes a batch of fulltext searches concurrently. A bounded number of workers take the searches in order, so
+ * no more than the given number of requests are sent to the backend at the same time.
+ */
+final class MultiSearch {
+
+    private static final Logger log = LoggerFactory.getLogger(MultiSearch.class);
+
+    private static final AtomicInteger THREADS = new AtomicInteger();
+
+    /**
+     * Executor used by {@link SearchServer#executeAll(List, DocumentFactory)}, the number of threads used by a batch
+     * is bounded by its concurrency.
+     */
+    static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "vind-multi-search-" + THREADS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private MultiSearch() {
+    }
+
+    static CompletableFuture<MultiSearchResult> executeAsync(SearchServer server, List<FulltextSearch> searches,
+                                                              DocumentFactory factory, Executor executor, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be greater than 0");
+        }
+        final SearchResult[] results = new SearchResult[searches.size()];
+        final RuntimeException[] errors = new RuntimeException[searches.size()];
+        final AtomicInteger next = new AtomicInteger();
+
+        final Runnable worker = () -> {
+            int index;
+            while ((index = next.getAndIncrement()) < searches.size()) {
+                try {
+                    results[index] = server.execute(searches.get(index), factory);
+                } catch (RuntimeException e) {
+                    log.warn("Search {} of {} failed: {}", index, searches.size(), e.getMessage());
+                    errors[index] = e;
+                }
+            }
+        };
+
+        final CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(concurrency, searches.size())];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = CompletableFuture.runAsync(worker, executor);
+        }
+        return CompletableFuture.allOf(workers).thenApply(done -> new MultiSearchResult(results, errors));
+    }
+}
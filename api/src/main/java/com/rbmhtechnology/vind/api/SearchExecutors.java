@@ -0,0 +1,142 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.configure.SearchConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the executors running the blocking calls of a {@link CompletableSearchServer}. The type of executor is
+ * configured with {@link SearchConfiguration#APPLICATION_EXECUTOR_TYPE}:
+ * <ul>
+ *     <li>{@code fixed} (default): a fixed pool of {@link SearchConfiguration#APPLICATION_EXECUTOR_THREADS} (default
+ *     16) threads.</li>
+ *     <li>{@code virtual}: a new virtual thread per task, with at most
+ *     {@link SearchConfiguration#APPLICATION_EXECUTOR_CONCURRENCY} (default 256) tasks running at the same time so
+ *     the search backend is not overwhelmed. Runtimes without virtual threads (before Java 21) fall back to the fixed
+ *     pool.</li>
+ * </ul>
+ */
+public final class SearchExecutors {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchExecutors.class);
+
+    public static final String FIXED = "fixed";
+    public static final String VIRTUAL = "virtual";
+
+    private SearchExecutors() {
+    }
+
+    /**
+     * Creates the executor configured with {@link SearchConfiguration#APPLICATION_EXECUTOR_TYPE}.
+     * @return a new {@link ExecutorService}.
+     */
+    public static ExecutorService newExecutor() {
+        final String type = SearchConfiguration.get(SearchConfiguration.APPLICATION_EXECUTOR_TYPE, FIXED);
+        if (VIRTUAL.equalsIgnoreCase(type)) {
+            return newVirtualThreadExecutor(SearchConfiguration.get(SearchConfiguration.APPLICATION_EXECUTOR_CONCURRENCY, 256));
+        }
+        if (!FIXED.equalsIgnoreCase(type)) {
+            log.warn("Unknown executor type '{}', using a fixed thread pool", type);
+        }
+        return newFixedExecutor();
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task, if the runtime supports virtual threads, and otherwise
+     * a fixed thread pool of {@link SearchConfiguration#APPLICATION_EXECUTOR_THREADS} threads.
+     * @param concurrency maximum number of tasks running at the same time on virtual threads.
+     * @return a new {@link ExecutorService}.
+     */
+    public static ExecutorService newVirtualThreadExecutor(int concurrency) {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            final ExecutorService executor = (ExecutorService) factory.invoke(null);
+            log.debug("Running tasks on virtual threads, at most {} at a time", concurrency);
+            return limit(executor, concurrency);
+        } catch (NoSuchMethodException e) {
+            log.info("Virtual threads are not supported by this runtime, using a fixed thread pool");
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("Cannot create a virtual thread executor, using a fixed thread pool", e);
+        }
+        return newFixedExecutor();
+    }
+
+    /**
+     * Limits the number of tasks of an executor running at the same time. Tasks beyond the limit wait for a permit
+     * inside the task, which is cheap on virtual threads but blocks a thread of a pool: use it for executors starting
+     * a thread per task.
+     * @param executor the {@link ExecutorService} running the tasks.
+     * @param concurrency maximum number of tasks running at the same time.
+     * @return {@link ExecutorService} delegating to the executor.
+     */
+    public static ExecutorService limit(ExecutorService executor, int concurrency) {
+        if (concurrency <= 0) {
+            log.error("Concurrency must be positive, got {}", concurrency);
+            throw new IllegalArgumentException("Concurrency must be positive, got " + concurrency);
+        }
+        return new LimitedExecutorService(executor, concurrency);
+    }
+
+    private static ExecutorService newFixedExecutor() {
+        return Executors.newFixedThreadPool(SearchConfiguration.get(SearchConfiguration.APPLICATION_EXECUTOR_THREADS, 16));
+    }
+
+    /**
+     * {@link ExecutorService} running at most a given number of tasks of the delegate at the same time.
+     */
+    private static final class LimitedExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        private LimitedExecutorService(ExecutorService delegate, int concurrency) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(concurrency);
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
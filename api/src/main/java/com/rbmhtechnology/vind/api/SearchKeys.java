@@ -0,0 +1,130 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.facet.Facet;
+import com.rbmhtechnology.vind.api.query.filter.Filter;
+import com.rbmhtechnology.vind.api.query.filter.FilterNormalizer;
+import com.rbmhtechnology.vind.api.query.suggestion.DescriptorSuggestionSearch;
+import com.rbmhtechnology.vind.api.query.suggestion.ExecutableSuggestionSearch;
+import com.rbmhtechnology.vind.api.query.suggestion.StringSuggestionSearch;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.FieldDescriptor;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds normalized keys of search requests: equivalent requests (e.g. differing only in the order of facets, of
+ * suggestion fields or of the operands of AND/OR filters) get the same key. The timeout is part of the key, so a
+ * request never gets the partial results of a request with a shorter timeout.
+ */
+final class SearchKeys {
+
+    private SearchKeys() {
+    }
+
+    /**
+     * Builds the key of a fulltext search.
+     * @param search the {@link FulltextSearch} to execute.
+     * @param factory the {@link DocumentFactory} of the result documents.
+     * @return the normalized key.
+     */
+    static String of(FulltextSearch search, DocumentFactory factory) {
+        return factory.getType() + "|" + normalize(search);
+    }
+
+    /**
+     * Builds the key of a suggestion search.
+     * @param search the {@link ExecutableSuggestionSearch} to execute.
+     * @param factory the {@link DocumentFactory} of the suggested documents.
+     * @param childFactory the {@link DocumentFactory} of the nested documents, may be null.
+     * @return the normalized key.
+     */
+    static String of(ExecutableSuggestionSearch search, DocumentFactory factory, DocumentFactory childFactory) {
+        final Stream<String> fields;
+        final String context;
+        if (search instanceof StringSuggestionSearch) {
+            fields = ((StringSuggestionSearch) search).getSuggestionFields().stream();
+            context = ((StringSuggestionSearch) search).getSearchContext();
+        } else if (search instanceof DescriptorSuggestionSearch) {
+            fields = ((DescriptorSuggestionSearch) search).getSuggestionFields().stream().map(FieldDescriptor::getName);
+            context = ((DescriptorSuggestionSearch) search).getSearchContext();
+        } else {
+            fields = Stream.of(search.toString());
+            context = null;
+        }
+        return factory.getType() + "|" + (childFactory != null ? childFactory.getType() : "") + "|" +
+                "{" +
+                "suggest=" + search.getInput() +
+                ",fields=" + fields.sorted().collect(Collectors.joining(",", "[", "]")) +
+                ",fq=" + (search.hasFilter() ? normalize(search.getFilter()) : "") +
+                ",limit=" + search.getLimit() +
+                ",context=" + context +
+                ",timeout=" + Math.max(0, search.getTimeout()) +
+                "}";
+    }
+
+    private static String normalize(FulltextSearch search) {
+        return "{" +
+                "q=" + StringUtils.defaultIfBlank(StringUtils.trim(search.getSearchString()), "*") +
+                ",fq=" + (search.hasFilter() ? normalize(search.getFilter()) : "") +
+                ",sort=" + search.getSorting() +
+                ",result=" + search.getResultSet().getClass().getSimpleName() + search.getResultSet() +
+                ",facets=" + search.getFacets().values().stream()
+                        .map(SearchKeys::normalize)
+                        .sorted()
+                        .collect(Collectors.joining(",", "[", "]")) +
+                ",facetMinCount=" + search.getFacetMinCount() +
+                ",facetLimit=" + search.getFacetLimit() +
+                ",jsonFacet=" + search.isJsonFacet() +
+                ",tz=" + search.getTimeZone() +
+                ",geo=" + search.getGeoDistance() +
+                ",context=" + search.getSearchContext() +
+                ",strict=" + search.getStrict() +
+                ",fields=" + (search.hasFields() ? search.getFields().stream()
+                        .map(FieldDescriptor::getName)
+                        .sorted()
+                        .collect(Collectors.joining(",", "[", "]")) : "*") +
+                ",score=" + search.isScore() +
+                ",timeout=" + Math.max(0, search.getTimeout()) +
+                ",children=" + (search.isChildrenSearchEnabled() ?
+                        search.getChildrenSearchOperator() + ":" + search.getChildrenFactory().getType() + ":" + normalize(search.getChildrenSearchString()) : "") +
+                "}";
+    }
+
+    private static String normalize(Facet facet) {
+        //the toString of the facets leaves out the statistics and the tagged pivots
+        final StringBuilder key = new StringBuilder(facet.getClass().getSimpleName()).append(facet);
+        if (facet instanceof Facet.QueryFacet && ((Facet.QueryFacet) facet).getFilter() != null) {
+            key.append("{query=").append(normalize(((Facet.QueryFacet) facet).getFilter())).append("}");
+        }
+        if (facet instanceof Facet.StatsFacet) {
+            final Facet.StatsFacet<?> stats = (Facet.StatsFacet<?>) facet;
+            key.append("{")
+                    .append("min=").append(stats.getMin())
+                    .append(",max=").append(stats.getMax())
+                    .append(",sum=").append(stats.getSum())
+                    .append(",count=").append(stats.getCount())
+                    .append(",missing=").append(stats.getMissing())
+                    .append(",sumOfSquares=").append(stats.getSumOfSquares())
+                    .append(",mean=").append(stats.getMean())
+                    .append(",stddev=").append(stats.getStddev())
+                    .append(",percentiles=").append(Arrays.toString(stats.getPercentiles()))
+                    .append(",distinctValues=").append(stats.getDistinctValues())
+                    .append(",countDistinct=").append(stats.getCountDistinct())
+                    .append(",cardinality=").append(stats.getCardinality())
+                    .append("}");
+        }
+        final String[] pivots = facet.getTagedPivots();
+        return key.append("{pivots=")
+                .append(pivots != null ? Stream.of(pivots).sorted().collect(Collectors.joining(",", "[", "]")) : "[]")
+                .append("}")
+                .toString();
+    }
+
+    private static String normalize(Filter filter) {
+        return FilterNormalizer.key(FilterNormalizer.normalize(filter));
+    }
+}
@@ -9,6 +9,8 @@ import com.rbmhtechnology.vind.api.query.suggestion.ExecutableSuggestionSearch;
 import com.rbmhtechnology.vind.api.query.update.Update;
 import com.rbmhtechnology.vind.api.result.BeanSearchResult;
 import com.rbmhtechnology.vind.api.result.GetResult;
+import com.rbmhtechnology.vind.api.result.MultiSearchResult;
+import com.rbmhtechnology.vind.api.result.ScrollIterator;
 import com.rbmhtechnology.vind.api.result.SearchResult;
 import com.rbmhtechnology.vind.api.result.SuggestionResult;
 import com.rbmhtechnology.vind.configure.SearchConfiguration;
@@ -20,7 +22,12 @@ import java.io.Closeable;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.ServiceLoader;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Abstract class  which offers a common set of methods to be implemented by the specific server implementations
@@ -34,6 +41,9 @@ public abstract class SearchServer implements Closeable {
 
     protected static Logger log = LoggerFactory.getLogger(SearchServer.class);
 
+    private volatile CommitPolicy commitPolicy = new CommitPolicy();
+    private final CommitCoalescer commitCoalescer = new CommitCoalescer();
+
     /**
      * Gets a {@link SearchServer} implementation object defined in the classpath from the ServiceLoader.
      * @return {@link SearchServer} specific implementation.
@@ -142,6 +152,30 @@ public abstract class SearchServer implements Closeable {
         index(beanDocuments);
     }
 
+    /**
+     * Creates a {@link BulkIndexer} with default {@link BulkIndexer.Options} to feed large amounts of documents to
+     * the search server index.
+     * @return a new {@link BulkIndexer}, which should be closed after usage.
+     */
+    public BulkIndexer bulkIndexer() {
+        return bulkIndexer(new BulkIndexer.Options());
+    }
+
+    /**
+     * Creates a {@link BulkIndexer} to feed large amounts of documents to the search server index. The default
+     * implementation sends the batches via {@link #index(List)}, backends may provide a more efficient one.
+     * @param options {@link BulkIndexer.Options} configuring batch sizes and concurrency.
+     * @return a new {@link BulkIndexer}, which should be closed after usage.
+     */
+    public BulkIndexer bulkIndexer(BulkIndexer.Options options) {
+        return new BulkIndexer(options) {
+            @Override
+            protected void indexBatch(List<Document> batch) {
+                index(batch);
+            }
+        };
+    }
+
     /**
      * Remove an Object t from the search server index. The object should be annotated at list with
      * {@link com.rbmhtechnology.vind.annotations.Id}.{@link SearchServer#commit()} should be executed afterwards for
@@ -187,6 +221,38 @@ public abstract class SearchServer implements Closeable {
      */
     public abstract void index(List<Document> doc);
 
+    /**
+     * Adds a list of {@link Document}s to the search server index, which are committed by the backend within the
+     * given time. Backends not supporting commitWithin ignore it.
+     * @param doc {@link Document}s to be indexed.
+     * @param commitWithin maximum time in milliseconds until the documents are committed, negative to disable.
+     */
+    public void index(List<Document> doc, int commitWithin) {
+        index(doc);
+    }
+
+    /**
+     * Adds a list of {@link Document}s to the search server index asynchronously. Backends able to send the documents
+     * without blocking a thread override this, by default {@link #index(List)} is run on the executor.
+     * @param executor {@link Executor} running the indexing, or the completion of the request.
+     * @param doc {@link Document}s to be indexed.
+     * @return {@link CompletableFuture} completed once the documents are indexed.
+     */
+    public CompletableFuture<Void> indexAsync(Executor executor, List<Document> doc) {
+        return CompletableFuture.runAsync(() -> index(doc), executor);
+    }
+
+    /**
+     * Removes a {@link Document} from the search server index, which is committed by the backend within the given
+     * time. Backends not supporting commitWithin ignore it.
+     * @param doc {@link Document} to be removed.
+     * @param commitWithin maximum time in milliseconds until the deletion is committed, negative to disable.
+     * @throws SearchServerException if not possible to perform the deletion.
+     */
+    public void delete(Document doc, int commitWithin) {
+        delete(doc);
+    }
+
     /**
      * Removes a {@link Document} from the search server index. {@link SearchServer#commit()} should be executed afterwards for
      * this change to take place on the  index.
@@ -211,13 +277,54 @@ public abstract class SearchServer implements Closeable {
     public abstract void execute(Delete delete, DocumentFactory factory);
 
     /**
-     * Pushes to the index the modifications.
+     * Pushes to the index the modifications. Depending on the {@link CommitPolicy} a soft commit is executed and
+     * concurrent calls are merged into a single backend commit.
      * @throws SearchServerException if not possible to commit.
      */
     public void commit() {
+        final CommitPolicy policy = getCommitPolicy();
+        final Runnable commit = policy.isSoftCommit() ? this::softCommit : () -> this.commit(false);
+        if (policy.getCoalesceWindow() > 0) {
+            getCommitCoalescer().commit(policy.getCoalesceWindow(), commit);
+        } else {
+            commit.run();
+        }
+    }
+
+    /**
+     * Makes the modifications visible to searches without flushing them to stable storage. Backends not
+     * supporting soft commits execute a regular commit.
+     * @throws SearchServerException if not possible to commit.
+     */
+    public void softCommit() {
         this.commit(false);
     }
 
+    /**
+     * Gets the {@link CommitPolicy} of this server.
+     * @return the current {@link CommitPolicy}.
+     */
+    public CommitPolicy getCommitPolicy() {
+        return commitPolicy;
+    }
+
+    /**
+     * Sets the {@link CommitPolicy} of this server.
+     * @param commitPolicy the {@link CommitPolicy} to apply.
+     */
+    public void setCommitPolicy(CommitPolicy commitPolicy) {
+        this.commitPolicy = Objects.requireNonNull(commitPolicy);
+    }
+
+    /**
+     * Gets the {@link CommitCoalescer} merging the concurrent commits of this server, which holds the commit
+     * metrics.
+     * @return the {@link CommitCoalescer} of this server.
+     */
+    public CommitCoalescer getCommitCoalescer() {
+        return commitCoalescer;
+    }
+
     /**
      * Pushes to the index the modifications and optionally optimizes.
      * @param optimize boolean flag to indicate whether the core should be optimize after commit or not.
@@ -244,6 +351,89 @@ public abstract class SearchServer implements Closeable {
      */
     public abstract SearchResult execute(FulltextSearch search, DocumentFactory factory);
 
+    /**
+     * Executes a fulltext search asynchronously. Backends able to issue the request without blocking a thread
+     * override this, by default {@link #execute(FulltextSearch, DocumentFactory)} is run on the executor.
+     * @param search {@link FulltextSearch} search query configuration object.
+     * @param factory {@link DocumentFactory} mapping the index documents and the result type.
+     * @param executor {@link Executor} running the search, or the decoding of its response.
+     * @return {@link CompletableFuture} of the {@link SearchResult}.
+     */
+    public CompletableFuture<SearchResult> executeAsync(FulltextSearch search, DocumentFactory factory, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> execute(search, factory), executor);
+    }
+
+    /**
+     * Executes a batch of independent fulltext searches concurrently, with at most
+     * {@link SearchConfiguration#SEARCH_MULTI_CONCURRENCY} (default 8) searches running at the same time.
+     * @param searches {@link FulltextSearch} search query configuration objects.
+     * @param factory {@link DocumentFactory} mapping the index documents and the result type.
+     * @return {@link MultiSearchResult} with the results or errors of the searches, in the order of the searches.
+     */
+    public MultiSearchResult executeAll(List<FulltextSearch> searches, DocumentFactory factory) {
+        return executeAll(searches, factory, SearchConfiguration.get(SearchConfiguration.SEARCH_MULTI_CONCURRENCY, 8));
+    }
+
+    /**
+     * Executes a batch of independent fulltext searches concurrently.
+     * @param searches {@link FulltextSearch} search query configuration objects.
+     * @param factory {@link DocumentFactory} mapping the index documents and the result type.
+     * @param concurrency maximum number of searches running at the same time.
+     * @return {@link MultiSearchResult} with the results or errors of the searches, in the order of the searches.
+     */
+    public MultiSearchResult executeAll(List<FulltextSearch> searches, DocumentFactory factory, int concurrency) {
+        return MultiSearch.executeAsync(this, searches, factory, MultiSearch.EXECUTOR, concurrency).join();
+    }
+
+    /**
+     * Lazily iterates over all the results of a fulltext search. The results are retrieved in batches using a
+     * {@link com.rbmhtechnology.vind.api.query.division.Cursor}, with the size of the search result set, and the next
+     * batch is only requested once the current one has been consumed.
+     * @param search {@link FulltextSearch} search query configuration object.
+     * @param factory {@link DocumentFactory} mapping the index documents and the result type.
+     * @return {@link ScrollIterator} over the results, which can also be consumed as stream.
+     * @throws SearchServerException if not possible to execute the full text search.
+     */
+    public ScrollIterator scroll(FulltextSearch search, DocumentFactory factory) {
+        return new ScrollIterator(this, search, factory);
+    }
+
+    /**
+     * Exports all the results of a fulltext search, handing the documents to the consumer as they are retrieved.
+     * Only one batch of results (of size {@link SearchConfiguration#SEARCH_EXPORT_BATCHSIZE}) is held in memory
+     * at a time, the facets and the result set of the search are ignored.
+     * @param search {@link FulltextSearch} search query configuration object.
+     * @param factory {@link DocumentFactory} mapping the index documents and the result type.
+     * @param consumer {@link Consumer} receiving the result documents.
+     * @return the number of exported documents.
+     * @throws SearchServerException if not possible to execute the full text search.
+     */
+    public long export(FulltextSearch search, DocumentFactory factory, Consumer<Document> consumer) {
+        final FulltextSearch exportSearch = search.copy()
+                .clearFacets()
+                .cursor(SearchConfiguration.get(SearchConfiguration.SEARCH_EXPORT_BATCHSIZE, 1000));
+        final ScrollIterator results = scroll(exportSearch, factory);
+        long count = 0;
+        while (results.hasNext()) {
+            consumer.accept(results.next());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Lazily iterates over all the results of a fulltext search based on an annotated class.
+     * @param search {@link FulltextSearch} search query configuration object.
+     * @param c Annotated class to parse the results to.
+     * @param <T> Class of the result beans.
+     * @return A lazy stream of the results as T.
+     * @throws SearchServerException if not possible to execute the full text search.
+     */
+    public <T> Stream<T> scroll(FulltextSearch search, Class<T> c) {
+        final DocumentFactory factory = AnnotationUtil.getDocumentMapper(c).getDocumentFactory();
+        return scroll(search, factory).stream().map(document -> AnnotationUtil.createPojo(document, c));
+    }
+
     /**
      * Executes a suggestion search based on an annotated class.
      * @param search ExecutableSuggestionSearch object with the query configuration.
@@ -263,6 +453,18 @@ public abstract class SearchServer implements Closeable {
      */
     public abstract SuggestionResult execute(ExecutableSuggestionSearch search, DocumentFactory assets);
 
+    /**
+     * Executes a suggestion search asynchronously. Backends able to issue the request without blocking a thread
+     * override this, by default {@link #execute(ExecutableSuggestionSearch, DocumentFactory)} is run on the executor.
+     * @param search ExecutableSuggestionSearch object with the query configuration.
+     * @param assets {@link DocumentFactory} mapping the index documents and the result type.
+     * @param executor {@link Executor} running the search, or the decoding of its response.
+     * @return {@link CompletableFuture} of the {@link SuggestionResult}.
+     */
+    public CompletableFuture<SuggestionResult> executeAsync(ExecutableSuggestionSearch search, DocumentFactory assets, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> execute(search, assets), executor);
+    }
+
     /**
      * Executes a suggestion search based on an DocumentFactory and its nested documents of factory childFactory.
      * @param search ExecutableSuggestionSearch object with the query configuration.
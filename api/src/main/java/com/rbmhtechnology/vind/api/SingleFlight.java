@@ -0,0 +1,130 @@
+package com.rbmhtechnology.vind.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Executes at most one call per key at a time: callers requesting a key which is already in flight wait for the
+ * running call and share its result (or its exception) instead of executing their own. Results are not kept once
+ * the call has finished.
+ * @param <K> type of the request keys.
+ * @param <V> type of the results.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    /**
+     * Executes the call for the key, or waits for the call in flight for the same key.
+     * @param key the key identifying the request.
+     * @param call the call to execute.
+     * @return the result of the call.
+     */
+    public V execute(K key, Supplier<V> call) {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        final CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            shared.incrementAndGet();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        executed.incrementAndGet();
+        try {
+            final V result = call.get();
+            future.complete(result);
+            return result;
+        } catch (Throwable e) {
+            //errors have to release the waiting callers as well
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Starts the asynchronous call for the key, or shares the call in flight for the same key. Synchronous and
+     * asynchronous calls for the same key are coalesced with each other.
+     * @param key the key identifying the request.
+     * @param call the call starting the request.
+     * @return {@link CompletableFuture} of the result of the call.
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        final CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            shared.incrementAndGet();
+            //callers must not be able to complete the shared future
+            return running.thenApply(result -> result);
+        }
+
+        executed.incrementAndGet();
+        final CompletableFuture<V> started;
+        try {
+            started = call.get();
+        } catch (Throwable e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        started.whenComplete((result, error) -> {
+            inFlight.remove(key, future);
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        });
+        return started;
+    }
+
+    /**
+     * Gets the number of calls executed.
+     * @return number of executed calls.
+     */
+    public long getExecuted() {
+        return executed.get();
+    }
+
+    /**
+     * Gets the number of requests which shared the result of a call in flight.
+     * @return number of shared requests.
+     */
+    public long getShared() {
+        return shared.get();
+    }
+
+    /**
+     * Gets the number of calls currently in flight.
+     * @return number of running calls.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    @Override
+    public String toString() {
+        return "SingleFlight{" +
+                "executed=" + getExecuted() +
+                ", shared=" + getShared() +
+                ", inFlight=" + getInFlight() +
+                '}';
+    }
+}
@@ -1,6 +1,7 @@
 package com.rbmhtechnology.vind.api.query;
 
 import com.rbmhtechnology.vind.api.query.distance.Distance;
+import com.rbmhtechnology.vind.api.query.division.Cursor;
 import com.rbmhtechnology.vind.api.query.division.Page;
 import com.rbmhtechnology.vind.api.query.division.ResultSubset;
 import com.rbmhtechnology.vind.api.query.division.Slice;
@@ -18,6 +19,7 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringEscapeUtils;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 
@@ -42,6 +44,13 @@ public class FulltextSearch {
     private Distance geoDistance = null;
     private String searchContext = null;
     private boolean strict = true;
+    private Set<FieldDescriptor<?>> fields = null;
+    private Boolean score = null;
+    private boolean cache = true;
+    private long timeout = SearchConfiguration.get(SearchConfiguration.SEARCH_TIMEOUT, -1);
+    private Boolean jsonFacet = null;
+    private Boolean lazy = null;
+    private Integer prefetch = null;
 
     /**
      * Creates a new basic full text search query object.
@@ -60,9 +69,25 @@ public class FulltextSearch {
         copy.searchString = this.searchString;
         copy.resultSet = resultSet.copy();
         copy.filter = this.getFilter();
-        copy.sorting = this.getSorting();
-        copy.facets = this.getFacets();
-        //TODO there are some copy fields missing?
+        copy.sorting = new ArrayList<>(this.getSorting());
+        copy.facets = new HashMap<>(this.getFacets());
+        copy.fields = this.fields != null ? new LinkedHashSet<>(this.fields) : null;
+        copy.score = this.score;
+        copy.cache = this.cache;
+        copy.timeout = this.timeout;
+        copy.jsonFacet = this.jsonFacet;
+        copy.lazy = this.lazy;
+        copy.prefetch = this.prefetch;
+        copy.facetMinCount = this.facetMinCount;
+        copy.facetLimit = this.facetLimit;
+        copy.childrenSearch = this.childrenSearch;
+        copy.childrenSearchOperator = this.childrenSearchOperator;
+        copy.childrenSearchString = this.childrenSearchString;
+        copy.childrenFactory = this.childrenFactory;
+        copy.timeZone = this.timeZone;
+        copy.geoDistance = this.geoDistance;
+        copy.searchContext = this.searchContext;
+        copy.strict = this.strict;
         return copy;
     }
 
@@ -269,6 +294,39 @@ public class FulltextSearch {
         return this;
     }
 
+    /**
+     * Set the first batch of a cursor to be returned from the fulltext search query results. Following batches are
+     * retrieved with the cursor mark of the previous result, see
+     * {@link com.rbmhtechnology.vind.api.result.CursorResult#nextCursor()}.
+     * @param size int number of results to get in every batch.
+     * @return This {@link FulltextSearch} instance with cursor configured.
+     */
+    public FulltextSearch cursor(int size) {
+        this.resultSet = new Cursor(size);
+        return this;
+    }
+
+    /**
+     * Set the cursor batch to be returned from the fulltext search query results.
+     * @param cursorMark String cursor mark returned by the previous result.
+     * @param size int number of results to get in every batch.
+     * @return This {@link FulltextSearch} instance with cursor configured.
+     */
+    public FulltextSearch cursor(String cursorMark, int size) {
+        this.resultSet = new Cursor(cursorMark, size);
+        return this;
+    }
+
+    /**
+     * Set the cursor batch to be returned from the fulltext search query results.
+     * @param cursor {@link Cursor} object indicating the batch of results to retrieve from query.
+     * @return This {@link FulltextSearch} instance with cursor configured.
+     */
+    public FulltextSearch cursor(Cursor cursor) {
+        this.resultSet = cursor;
+        return this;
+    }
+
     /**
      * Remove all sort configurations from the search query.
      * @return This {@link FulltextSearch} instance without configured sorting.
@@ -378,6 +436,105 @@ public class FulltextSearch {
         return this;
     }
 
+    /**
+     * Restricts the fields fetched for the results to the given ones. The values of the other fields are not loaded,
+     * which is checked by {@link com.rbmhtechnology.vind.api.Document#isLoaded(String)}.
+     * @param descriptors {@link FieldDescriptor} fields to be fetched.
+     * @return This {@link FulltextSearch} instance with the field projection added.
+     */
+    public FulltextSearch fields(FieldDescriptor<?>... descriptors) {
+        if (this.fields == null) {
+            this.fields = new LinkedHashSet<>();
+        }
+        this.fields.addAll(Arrays.asList(descriptors));
+        return this;
+    }
+
+    /**
+     * Removes the field projection, so all the stored fields are fetched for the results.
+     * @return This {@link FulltextSearch} instance without field projection.
+     */
+    public FulltextSearch clearFields() {
+        this.fields = null;
+        return this;
+    }
+
+    /**
+     * Enables or disables the retrieval of the result scores for this search, overriding the configuration
+     * {@link SearchConfiguration#SEARCH_RESULT_SHOW_SCORE}.
+     * @param score true to fetch the scores, false otherwise.
+     * @return This {@link FulltextSearch} instance with the score flag set.
+     */
+    public FulltextSearch score(boolean score) {
+        this.score = score;
+        return this;
+    }
+
+    /**
+     * Sets whether the results of this search may be served from and stored in a client side result cache (see
+     * {@link com.rbmhtechnology.vind.api.CachingSearchServer}). Enabled by default.
+     * @param cache false to bypass the cache.
+     * @return This {@link FulltextSearch} instance with the cache flag set.
+     */
+    public FulltextSearch cache(boolean cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Enables or disables the translation of all the facets of this search into a single JSON Facet API request,
+     * overriding the configuration {@link SearchConfiguration#SEARCH_RESULT_FACET_JSON}. The facet results are the
+     * same as with the classic facet parameters, but pivots and stats are computed much more efficiently on fields
+     * with many distinct values.
+     * @param jsonFacet true to use the JSON Facet API.
+     * @return This {@link FulltextSearch} instance with the facet mode set.
+     */
+    public FulltextSearch jsonFacet(boolean jsonFacet) {
+        this.jsonFacet = jsonFacet;
+        return this;
+    }
+
+    /**
+     * Enables or disables lazy results for this search, overriding the configuration
+     * {@link SearchConfiguration#SEARCH_RESULT_LAZY}. Lazy result documents convert the value of a field only when it
+     * is first accessed and result beans are created only when they are first read from the result list, which
+     * saves time and memory when only a few fields or results are used.
+     * @param lazy true to materialize the results lazily.
+     * @return This {@link FulltextSearch} instance with the result mode set.
+     */
+    public FulltextSearch lazy(boolean lazy) {
+        this.lazy = lazy;
+        return this;
+    }
+
+    /**
+     * Sets the number of pages (or slices) following a result which are fetched in the background when the search is
+     * executed by a {@link com.rbmhtechnology.vind.api.CompletableSearchServer}, overriding the configuration
+     * {@link SearchConfiguration#SEARCH_RESULT_PREFETCH}.
+     * @param pages number of pages to prefetch, 0 to disable prefetching.
+     * @return This {@link FulltextSearch} instance with the prefetch set.
+     */
+    public FulltextSearch prefetch(int pages) {
+        if (pages < 0) {
+            throw new IllegalArgumentException("Number of prefetched pages should not be a negative value: " + pages);
+        }
+        this.prefetch = pages;
+        return this;
+    }
+
+    /**
+     * Sets the time the search may take. The backend stops collecting results when the time is exceeded and returns
+     * the results found so far, flagged by {@link com.rbmhtechnology.vind.api.result.SearchResult#isPartialResults()}.
+     * Defaults to {@link SearchConfiguration#SEARCH_TIMEOUT} in milliseconds.
+     * @param timeout the maximum duration of the search, 0 or less for no limit.
+     * @param unit {@link TimeUnit} of the timeout.
+     * @return This {@link FulltextSearch} instance with the timeout set.
+     */
+    public FulltextSearch timeout(long timeout, TimeUnit unit) {
+        this.timeout = unit.toMillis(timeout);
+        return this;
+    }
+
     /**
      * Gets the text of the search query.
      * @return String containing the query target.
@@ -520,6 +677,82 @@ public class FulltextSearch {
         return this.strict;
     }
 
+    /**
+     * Checks if the fetched fields are restricted by a projection.
+     * @return true if there is a field projection, false if all the fields are fetched.
+     */
+    public boolean hasFields() {
+        return fields != null;
+    }
+
+    /**
+     * Gets the fields to be fetched for the results.
+     * @return the set of {@link FieldDescriptor} of the projection, null if all the fields are fetched.
+     */
+    public Set<FieldDescriptor<?>> getFields() {
+        return fields != null ? Collections.unmodifiableSet(fields) : null;
+    }
+
+    /**
+     * Checks whether the scores of the results are fetched, falling back to the configuration
+     * {@link SearchConfiguration#SEARCH_RESULT_SHOW_SCORE} if not set for this search.
+     * @return true if the scores are fetched.
+     */
+    public boolean isScore() {
+        return score != null ? score : SearchConfiguration.get(SearchConfiguration.SEARCH_RESULT_SHOW_SCORE, true);
+    }
+
+    /**
+     * Checks whether the results of this search may be cached.
+     * @return true if the result cache is used.
+     */
+    public boolean isCache() {
+        return cache;
+    }
+
+    /**
+     * Checks whether the facets are requested by the JSON Facet API, falling back to the configuration
+     * {@link SearchConfiguration#SEARCH_RESULT_FACET_JSON} if not set for this search.
+     * @return true if the JSON Facet API is used.
+     */
+    public boolean isJsonFacet() {
+        return jsonFacet != null ? jsonFacet : SearchConfiguration.get(SearchConfiguration.SEARCH_RESULT_FACET_JSON, false);
+    }
+
+    /**
+     * Checks whether the results are materialized lazily, falling back to the configuration
+     * {@link SearchConfiguration#SEARCH_RESULT_LAZY} if not set for this search.
+     * @return true if the results are lazy.
+     */
+    public boolean isLazy() {
+        return lazy != null ? lazy : SearchConfiguration.get(SearchConfiguration.SEARCH_RESULT_LAZY, false);
+    }
+
+    /**
+     * Gets the number of pages prefetched after a result, falling back to the configuration
+     * {@link SearchConfiguration#SEARCH_RESULT_PREFETCH} if not set for this search.
+     * @return number of pages to prefetch, 0 if disabled.
+     */
+    public int getPrefetch() {
+        return prefetch != null ? prefetch : SearchConfiguration.get(SearchConfiguration.SEARCH_RESULT_PREFETCH, 0);
+    }
+
+    /**
+     * Checks whether the duration of this search is limited.
+     * @return true if a timeout is set.
+     */
+    public boolean hasTimeout() {
+        return timeout > 0;
+    }
+
+    /**
+     * Gets the maximum duration of this search.
+     * @return the timeout in milliseconds, 0 or less for no limit.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
     @Override
     public String toString(){
         String searchString = "" +
@@ -539,7 +772,10 @@ public class FulltextSearch {
                 "\"facet\":{%s}," +
                 "\"geoDistance\":%s," +
                 "\"searchContext\":\"%s\"," +
-                "\"strictFlag\":%s" +
+                "\"strictFlag\":%s," +
+                "\"fields\":%s," +
+                "\"score\":%s," +
+                "\"timeout\":%s" +
                 "}";
 
         return String.format(searchString,
@@ -558,7 +794,10 @@ public class FulltextSearch {
                 this.facets.entrySet().stream().map(e -> e.getValue().toString()).collect(Collectors.joining(",")),
                 this.geoDistance,
                 this.searchContext,
-                this.strict);
+                this.strict,
+                this.fields != null ? "[" + this.fields.stream().map(f -> "\"" + f.getName() + "\"").collect(Collectors.joining(",")) + "]" : null,
+                this.isScore(),
+                this.timeout);
     }
     public enum Operators {
         AND, OR
@@ -11,6 +11,7 @@ public class Delete {
 
     private Filter query = null;
     private String context;
+    private Integer commitWithin;
 
     /**
      * Creates an instance of the Deletion query with a given filter definition.
@@ -77,4 +78,24 @@ public class Delete {
     public String getUpdateContext() {
         return this.context;
     }
+
+    /**
+     * Sets the maximum time until the delete is committed by the backend, overriding the default of the
+     * {@link com.rbmhtechnology.vind.api.CommitPolicy}.
+     * @param commitWithin time in milliseconds, a negative value disables it.
+     * @return This {@link Delete} instance with the new commitWithin time.
+     */
+    public Delete commitWithin(int commitWithin) {
+        this.commitWithin = commitWithin;
+        return this;
+    }
+
+    /**
+     * Gets the maximum time until the delete is committed by the backend.
+     * @return time in milliseconds or null if the default of the {@link com.rbmhtechnology.vind.api.CommitPolicy}
+     * applies.
+     */
+    public Integer getCommitWithin() {
+        return this.commitWithin;
+    }
 }
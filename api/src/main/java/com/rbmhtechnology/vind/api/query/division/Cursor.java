@@ -0,0 +1,86 @@
+package com.rbmhtechnology.vind.api.query.division;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+/**
+ * API class for cursor based deep paging. Instead of an offset the cursor mark returned by the previous result is
+ * used to retrieve the next batch of documents, so the cost of a query does not grow with the depth of the results.
+ * The sorting of the search is completed with the document id to get a stable order.
+ */
+public class Cursor extends ResultSubset {
+
+    /**
+     * Cursor mark of the first batch of results.
+     */
+    public static final String START = "*";
+
+    private Logger log = LoggerFactory.getLogger(getClass());
+
+    private final String cursorMark;
+    private final int size;
+
+    /**
+     * Creates a new instance of {@link Cursor} for the first batch of results.
+     * @param size int number of documents of each batch.
+     */
+    public Cursor(int size) {
+        this(START, size);
+    }
+
+    /**
+     * Creates a new instance of {@link Cursor}.
+     * @param cursorMark String cursor mark returned by the previous result, {@link #START} for the first batch.
+     * @param size int number of documents of each batch.
+     */
+    public Cursor(String cursorMark, int size) {
+        if(size < 0) {
+            log.error("Cursor size can not be lower than 0: {}", size);
+            throw new IllegalArgumentException("Cursor size should not be a negative value: " + size);
+        }
+        this.cursorMark = Objects.requireNonNull(cursorMark, "cursorMark must not be null");
+        this.size = size;
+        type = DivisionType.cursor;
+    }
+
+    /**
+     * Gets the cursor mark of the batch.
+     * @return String cursor mark.
+     */
+    public String getCursorMark() {
+        return cursorMark;
+    }
+
+    /**
+     * Gets the configured number of documents per batch.
+     * @return int number of documents.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the configuration of the next batch.
+     * @param nextCursorMark String cursor mark returned by the current result.
+     * @return next {@link Cursor}.
+     */
+    public Cursor next(String nextCursorMark) {
+        return new Cursor(nextCursorMark, this.size);
+    }
+
+    @Override
+    public ResultSubset copy() {
+        return new Cursor(this.cursorMark, this.size);
+    }
+
+    @Override
+    public String toString(){
+        final String cursorString = "{" +
+                "\"size\":%s," +
+                "\"cursorMark\":\"%s\"" +
+                "}";
+        return String.format(cursorString,this.size,this.cursorMark);
+    }
+}
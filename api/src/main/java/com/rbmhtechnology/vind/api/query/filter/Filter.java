@@ -43,10 +43,63 @@ public abstract class Filter {
 
     private Scope filterScope;
 
+    private Boolean cache;
+    private Integer cost;
+
     public String getType() {
         return this.getClass().getSimpleName();
     }
 
+    Scope getScope() {
+        return this.filterScope;
+    }
+
+    /**
+     * Sets whether the backend should cache the result of this filter. Volatile filters (e.g. on the current time)
+     * should not be cached to avoid polluting the filter cache.
+     * @param cache false to not cache the filter.
+     * @return this {@link Filter} with the cache hint.
+     */
+    public Filter cache(boolean cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Sets the relative cost of this filter, used by the backend to order the evaluation of the filters. Expensive
+     * filters should get a higher cost to be evaluated last.
+     * @param cost the cost of the filter.
+     * @return this {@link Filter} with the cost hint.
+     */
+    public Filter cost(int cost) {
+        this.cost = cost;
+        return this;
+    }
+
+    /**
+     * Gets the cache hint of the filter.
+     * @return false if the filter should not be cached, null if not set.
+     */
+    public Boolean getCache() {
+        return cache;
+    }
+
+    /**
+     * Gets the cost hint of the filter.
+     * @return the cost of the filter, null if not set.
+     */
+    public Integer getCost() {
+        return cost;
+    }
+
+    /**
+     * Checks whether a cache or cost hint is set on the filter.
+     * @return true if the filter has hints.
+     */
+    public boolean hasHints() {
+        return Objects.nonNull(cache) || Objects.nonNull(cost);
+    }
+
     public Scope getFilterScope(String fieldname, DocumentFactory factory){
         if(this.filterScope != null) {
             return this.filterScope;
@@ -416,7 +469,7 @@ public abstract class Filter {
      * Filter Class implementing the query AND logic operation.
      */
     public static class AndFilter extends Filter {
-        private final Set<Filter> children = new HashSet<>();
+        private final Set<Filter> children = new LinkedHashSet<>();
 
         /**
          * Creates an instance of {@link AndFilter} of two given filters.
@@ -426,8 +479,6 @@ public abstract class Filter {
         public AndFilter(Filter a, Filter b) {
             Objects.requireNonNull(a);
             Objects.requireNonNull(b);
-            children.add(a);
-            children.add(b);
             addChild(a);
             addChild(b);
         }
@@ -437,7 +488,7 @@ public abstract class Filter {
          * @param f {@link Filter} to be added to the AND query.
          */
         private void addChild(Filter f) {
-            if (f instanceof AndFilter) {
+            if (f instanceof AndFilter && !f.hasHints()) {
                 children.addAll(((AndFilter) f).children);
             } else {
                 children.add(f);
@@ -494,7 +545,7 @@ public abstract class Filter {
      * Filter Class implementing the query OR logic operation.
      */
     public static class OrFilter extends Filter {
-        private final Set<Filter> children = new HashSet<>();
+        private final Set<Filter> children = new LinkedHashSet<>();
 
         /**
          * Creates an instance of {@link OrFilter} of two given filters.
@@ -513,7 +564,7 @@ public abstract class Filter {
          * @param f {@link Filter} to be added to the or query.
          */
         private void addChild(Filter f) {
-            if (f instanceof OrFilter) {
+            if (f instanceof OrFilter && !f.hasHints()) {
                 children.addAll(((OrFilter) f).children);
             } else {
                 children.add(f);
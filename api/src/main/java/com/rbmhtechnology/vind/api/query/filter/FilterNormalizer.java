@@ -0,0 +1,117 @@
+package com.rbmhtechnology.vind.api.query.filter;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Rewrites {@link Filter} trees into a canonical form, so logically equal filters are serialized to the same
+ * query string regardless of the order they have been built in:
+ * <ul>
+ *     <li>nested AND (OR) filters are flattened into their parent AND (OR) filter,</li>
+ *     <li>duplicated operands are removed and the operands are sorted by their {@link #key(Filter)},</li>
+ *     <li>double negations are removed, absorbed operands ({@code a AND (a OR b)}, {@code a OR (a AND b)}) are
+ *     dropped and AND/OR filters with a single operand are replaced by it.</li>
+ * </ul>
+ * Filters with cache or cost hints are kept as they are, as the hints apply to the filter as a whole.
+ */
+public final class FilterNormalizer {
+
+    private FilterNormalizer() {
+    }
+
+    /**
+     * Normalizes a filter. The given filter is not modified.
+     * @param filter the {@link Filter} to normalize, may be null.
+     * @return the normalized {@link Filter}.
+     */
+    public static Filter normalize(Filter filter) {
+        if (Objects.isNull(filter) || filter.hasHints()) {
+            return filter;
+        }
+        if (filter instanceof Filter.AndFilter) {
+            final Map<String, Filter> operands = new LinkedHashMap<>();
+            ((Filter.AndFilter) filter).getChildren().stream()
+                    .map(FilterNormalizer::normalize)
+                    .forEach(child -> addOperand(operands, child, Filter.AndFilter.class));
+            operands.values().removeIf(child -> isAbsorbed(child, Filter.OrFilter.class, operands.keySet()));
+            return Filter.AndFilter.fromSet(sort(operands));
+
+        } else if (filter instanceof Filter.OrFilter) {
+            final Map<String, Filter> operands = new LinkedHashMap<>();
+            ((Filter.OrFilter) filter).getChildren().stream()
+                    .map(FilterNormalizer::normalize)
+                    .forEach(child -> addOperand(operands, child, Filter.OrFilter.class));
+            operands.values().removeIf(child -> isAbsorbed(child, Filter.AndFilter.class, operands.keySet()));
+            return Filter.OrFilter.fromSet(sort(operands));
+
+        } else if (filter instanceof Filter.NotFilter) {
+            final Filter delegate = normalize(((Filter.NotFilter) filter).getDelegate());
+            if (delegate instanceof Filter.NotFilter && !delegate.hasHints()) {
+                return ((Filter.NotFilter) delegate).getDelegate();
+            }
+            return delegate == ((Filter.NotFilter) filter).getDelegate() ? filter : new Filter.NotFilter(delegate);
+        }
+        return filter;
+    }
+
+    /**
+     * Builds a canonical key of a filter: filters with the same key select the same documents.
+     * @param filter the {@link Filter}.
+     * @return the key of the filter.
+     */
+    public static String key(Filter filter) {
+        final String key;
+        if (filter instanceof Filter.AndFilter) {
+            key = key("AND", ((Filter.AndFilter) filter).getChildren());
+        } else if (filter instanceof Filter.OrFilter) {
+            key = key("OR", ((Filter.OrFilter) filter).getChildren());
+        } else if (filter instanceof Filter.NotFilter) {
+            key = "NOT(" + key(((Filter.NotFilter) filter).getDelegate()) + ")";
+        } else {
+            key = filter.getType() + "(" + filter + ")" + (Objects.nonNull(filter.getScope()) ? "@" + filter.getScope() : "");
+        }
+        return filter.hasHints() ? key + "{cache=" + filter.getCache() + ",cost=" + filter.getCost() + "}" : key;
+    }
+
+    private static String key(String operator, Set<Filter> children) {
+        return children.stream()
+                .filter(Objects::nonNull)
+                .map(FilterNormalizer::key)
+                .sorted()
+                .collect(Collectors.joining(",", operator + "(", ")"));
+    }
+
+    private static void addOperand(Map<String, Filter> operands, Filter child, Class<? extends Filter> operator) {
+        if (Objects.isNull(child)) {
+            return;
+        }
+        if (operator.isInstance(child) && !child.hasHints()) {
+            final Set<Filter> children = child instanceof Filter.AndFilter ?
+                    ((Filter.AndFilter) child).getChildren() : ((Filter.OrFilter) child).getChildren();
+            children.forEach(grandChild -> operands.putIfAbsent(key(grandChild), grandChild));
+        } else {
+            operands.putIfAbsent(key(child), child);
+        }
+    }
+
+    private static boolean isAbsorbed(Filter child, Class<? extends Filter> operator, Set<String> siblings) {
+        if (!operator.isInstance(child) || child.hasHints()) {
+            return false;
+        }
+        final Set<Filter> children = child instanceof Filter.AndFilter ?
+                ((Filter.AndFilter) child).getChildren() : ((Filter.OrFilter) child).getChildren();
+        return children.stream().map(FilterNormalizer::key).anyMatch(siblings::contains);
+    }
+
+    private static Set<Filter> sort(Map<String, Filter> operands) {
+        return operands.entrySet().stream()
+                .sorted(Comparator.comparing(Map.Entry::getKey))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
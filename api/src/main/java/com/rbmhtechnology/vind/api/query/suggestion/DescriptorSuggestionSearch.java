@@ -1,12 +1,14 @@
 package com.rbmhtechnology.vind.api.query.suggestion;
 
 import com.rbmhtechnology.vind.api.query.filter.Filter;
+import com.rbmhtechnology.vind.configure.SearchConfiguration;
 import com.rbmhtechnology.vind.model.FieldDescriptor;
 
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class to configure suggestions based on field descriptors.
@@ -21,6 +23,7 @@ public class DescriptorSuggestionSearch implements ExecutableSuggestionSearch {
     private Filter filter = null;
     private Set<FieldDescriptor> suggestionFields = new HashSet<>();
     private String searchContext = null;
+    private long timeout = SearchConfiguration.get(SearchConfiguration.SEARCH_TIMEOUT, -1);
     /**
      * Creates a new instance of {@link DescriptorSuggestionSearch}.
      * @param input String text to find suggestion for.
@@ -76,6 +79,17 @@ public class DescriptorSuggestionSearch implements ExecutableSuggestionSearch {
         return this.searchContext;
     }
 
+    @Override
+    public DescriptorSuggestionSearch timeout(long timeout, TimeUnit unit) {
+        this.timeout = unit.toMillis(timeout);
+        return this;
+    }
+
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+
     /**
      * Sets a given {@link Filter} for the suggestion search query.
      * @param filter {@link Filter} filter to apply to the suggestions search.
@@ -2,6 +2,8 @@ package com.rbmhtechnology.vind.api.query.suggestion;
 
 import com.rbmhtechnology.vind.api.query.filter.Filter;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Thomas Kurz (tkurz@apache.org)
  * @since 07.07.16.
@@ -26,4 +28,26 @@ public interface ExecutableSuggestionSearch {
     public int getLimit();
 
     String getSearchContext();
+
+    /**
+     * Sets the time solr may spend on the suggestion search. Searches which do not support a timeout ignore it.
+     * @param timeout the timeout, not positive for none.
+     * @param unit {@link TimeUnit} of the timeout.
+     * @return this search.
+     */
+    default ExecutableSuggestionSearch timeout(long timeout, TimeUnit unit) {
+        return this;
+    }
+
+    /**
+     * Gets the timeout of the suggestion search.
+     * @return the timeout in milliseconds, 0 if the search has no timeout.
+     */
+    default long getTimeout() {
+        return 0;
+    }
+
+    default boolean hasTimeout() {
+        return getTimeout() > 0;
+    }
 }
@@ -1,11 +1,13 @@
 package com.rbmhtechnology.vind.api.query.suggestion;
 
 import com.rbmhtechnology.vind.api.query.filter.Filter;
+import com.rbmhtechnology.vind.configure.SearchConfiguration;
 
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class to configure suggestions based on field String names.
@@ -20,6 +22,7 @@ public class StringSuggestionSearch implements ExecutableSuggestionSearch {
     private Filter filter = null;
     private Set<String> suggestionFields = new HashSet<>();
     private String searchContext = null;
+    private long timeout = SearchConfiguration.get(SearchConfiguration.SEARCH_TIMEOUT, -1);
 
     /**
      * Creates a new instance of {@link StringSuggestionSearch}.
@@ -65,6 +68,17 @@ public class StringSuggestionSearch implements ExecutableSuggestionSearch {
     public String getSearchContext() {
         return this.searchContext;
     }
+
+    @Override
+    public StringSuggestionSearch timeout(long timeout, TimeUnit unit) {
+        this.timeout = unit.toMillis(timeout);
+        return this;
+    }
+
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
     /**
      * Sets a basic {@link com.rbmhtechnology.vind.api.query.filter.Filter.TermFilter} for the suggestion search query.
      * @param field String name of the field to filter in.
@@ -16,6 +16,7 @@ public class Update {
     private HashMap<FieldDescriptor<?>, HashMap<String, Object>> options = new HashMap<>();
     private HashMap<FieldDescriptor<?>, HashMap<String, SortedSet<UpdateOperation>>> contextualizedOptions = new HashMap<>();
     private String context;
+    private Integer commitWithin;
 
     /**
      * Creates a new instance of {@link Update} object for an specific Document.
@@ -531,6 +532,26 @@ public class Update {
         return this.context;
     }
 
+    /**
+     * Sets the maximum time until the update is committed by the backend, overriding the default of the
+     * {@link com.rbmhtechnology.vind.api.CommitPolicy}.
+     * @param commitWithin time in milliseconds, a negative value disables it.
+     * @return This {@link Update} instance with the new commitWithin time.
+     */
+    public Update commitWithin(int commitWithin) {
+        this.commitWithin = commitWithin;
+        return this;
+    }
+
+    /**
+     * Gets the maximum time until the update is committed by the backend.
+     * @return time in milliseconds or null if the default of the {@link com.rbmhtechnology.vind.api.CommitPolicy}
+     * applies.
+     */
+    public Integer getCommitWithin() {
+        return this.commitWithin;
+    }
+
     public enum UpdateOperations {
         add, inc, remove, removeregex, set
     }
@@ -0,0 +1,69 @@
+package com.rbmhtechnology.vind.api.result;
+
+import com.rbmhtechnology.vind.SearchServerException;
+import com.rbmhtechnology.vind.api.SearchServer;
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.division.Cursor;
+import com.rbmhtechnology.vind.api.query.division.ResultSubset;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of a search configured with a {@link Cursor}, storing the documents as instances of the annotated class T.
+ */
+public class BeanCursorResult<T> extends BeanSearchResult<T> {
+
+    private final Cursor cursor;
+    private final String nextCursorMark;
+
+    /**
+     * Creates a new instance of {@link BeanCursorResult}.
+     * @param numOfResults Number of documents returned by the search server instance.
+     * @param results A list of results parsed to T.
+     * @param nextCursorMark The cursor mark to retrieve the next batch of results.
+     * @param query The fulltext query executed to retrieve this set of results.
+     * @param facetResults The different faceted results of the query.
+     * @param server A search server implementation.
+     * @param c Annotated class to parse the results to.
+     */
+    public BeanCursorResult(long numOfResults, List<T> results, String nextCursorMark, FulltextSearch query, FacetResults facetResults, SearchServer server, Class<T> c) {
+        super(numOfResults, results, query, facetResults, server, c);
+        if (query.getResultSet().getType().equals(ResultSubset.DivisionType.cursor)) {
+            this.cursor = (Cursor) query.getResultSet();
+        } else {
+            throw new RuntimeException("Search result set is not configured as cursor: Result set type is "+query.getResultSet().getType());
+        }
+        this.nextCursorMark = nextCursorMark;
+    }
+
+    /**
+     * Gets the next batch of results.
+     * @return Instance of {@link BeanSearchResult} containing the next batch of results.
+     * @throws SearchServerException thrown when the server is not able to execute the query.
+     */
+    public BeanSearchResult<T> nextCursor() {
+        try{
+            return server.execute(query.copy().cursor(this.cursor.next(nextCursorMark)), annotatedClass);
+        } catch (SearchServerException e) {
+            log.error("Unable to retrieve from search server next result", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether there are more results after this batch.
+     * @return true if there is a next batch.
+     */
+    public boolean hasNextCursor() {
+        return Objects.nonNull(nextCursorMark) && !nextCursorMark.equals(cursor.getCursorMark());
+    }
+
+    /**
+     * Gets the cursor mark to retrieve the next batch.
+     * @return String cursor mark.
+     */
+    public String getNextCursorMark() {
+        return nextCursorMark;
+    }
+}
@@ -39,7 +39,7 @@ public class BeanPageResult<T> extends BeanSearchResult<T> {
      */
     public BeanSearchResult<T> nextPage() {
         try{
-            return server.execute(query.copy().page(this.page.next()), annotatedClass);
+            return fetch(query.copy().page(this.page.next()));
         } catch (SearchServerException  e) {
             log.error("Unable to retrieve from search server next result", e);
             throw e;
@@ -53,7 +53,7 @@ public class BeanPageResult<T> extends BeanSearchResult<T> {
      */
     public BeanSearchResult<?> previousPage()  {
         try{
-            return server.execute(query.copy().page(this.page.previous()), annotatedClass);
+            return fetch(query.copy().page(this.page.previous()));
         } catch (SearchServerException  e) {
             log.error("Unable to retrieve from search server previous result", e);
             throw e;
@@ -2,6 +2,7 @@ package com.rbmhtechnology.vind.api.result;
 
 import com.rbmhtechnology.vind.api.SearchServer;
 import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.model.FieldDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,6 +22,9 @@ public class BeanSearchResult<T> {
     protected final FacetResults facetResults;
     protected final Class<T> annotatedClass;
     protected final SearchServer server;
+    protected boolean partialResults = false;
+    protected long elapsedTime = -1;
+    protected PagePrefetcher prefetcher;
 
     /**
      * Creates a new instance of {@link BeanSearchResult}.
@@ -56,11 +60,79 @@ public class BeanSearchResult<T> {
         return Collections.unmodifiableList(results);
     }
 
+    /**
+     * Checks if the values of a field have been loaded into the result beans. Fields excluded by the field projection
+     * of the query keep the default value of the bean.
+     * @param field Name of the field to check.
+     * @return true if the field values are loaded.
+     */
+    public boolean isLoaded(String field) {
+        return query == null || !query.hasFields()
+                || query.getFields().stream().anyMatch(descriptor -> descriptor.getName().equals(field));
+    }
+
+    /**
+     * Checks if the values of a field have been loaded into the result beans.
+     * @param descriptor descriptor of the field to check.
+     * @return true if the field values are loaded.
+     */
+    public boolean isLoaded(FieldDescriptor<?> descriptor) {
+        return isLoaded(descriptor.getName());
+    }
+
+    /**
+     * Checks whether the search has been stopped by its timeout, so the results (and facet counts) may be
+     * incomplete.
+     * @return true if the results are partial.
+     */
+    public boolean isPartialResults() {
+        return partialResults;
+    }
+
+    public BeanSearchResult<T> setPartialResults(boolean partialResults) {
+        this.partialResults = partialResults;
+        return this;
+    }
+
+    /**
+     * Gets the time taken by the search request, as measured by the client.
+     * @return elapsed time in milliseconds or -1 if not measured.
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    public BeanSearchResult<T> setElapsedTime(long elapsedTime) {
+        this.elapsedTime = elapsedTime;
+        return this;
+    }
+
+    /**
+     * Sets the {@link PagePrefetcher} serving the navigation from this result, only while creating the result.
+     * @param prefetcher prefetcher of the following pages, or null to request them when navigating.
+     * @return this result.
+     */
+    BeanSearchResult<T> setPrefetcher(PagePrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+        return this;
+    }
+
+    /**
+     * Gets the result of a search navigated to from this result, the prefetched one if available.
+     */
+    protected BeanSearchResult<T> fetch(FulltextSearch search) {
+        if (prefetcher != null) {
+            final SearchResult result = prefetcher.execute(search);
+            return result.toPojoResult(result, annotatedClass);
+        }
+        return server.execute(search, annotatedClass);
+    }
 
     @Override
     public String toString() {
         return "SearchResult{" +
                 "numOfResults=" + numOfResults +
+                (partialResults ? ", partialResults=true" : "") +
                 ", results=" + results +
                 '}';
     }
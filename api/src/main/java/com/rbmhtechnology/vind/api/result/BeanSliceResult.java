@@ -1,5 +1,6 @@
 package com.rbmhtechnology.vind.api.result;
 
+import com.rbmhtechnology.vind.SearchServerException;
 import com.rbmhtechnology.vind.api.SearchServer;
 import com.rbmhtechnology.vind.api.query.FulltextSearch;
 import com.rbmhtechnology.vind.api.query.division.ResultSubset;
@@ -31,6 +32,28 @@ public class BeanSliceResult<T> extends BeanSearchResult<T> {
         }
     }
 
+    /**
+     * Gets the next slice of results, with the same slice size.
+     * @return Instance of {@link BeanSearchResult} containing the next slice results.
+     * @throws {@link SearchServerException} thrown when the server is not able to execute the query.
+     */
+    public BeanSearchResult<T> nextSlice() {
+        try{
+            return fetch(query.copy().slice(this.slice.getOffset() + this.slice.getSliceSize(), this.slice.getSliceSize()));
+        } catch (SearchServerException e) {
+            log.error("Unable to retrieve from search server next result", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether there are results after this slice or not.
+     * @return true if there is a next slice.
+     */
+    public boolean hasNextSlice() {
+        return this.slice.getSliceSize() > 0 && this.slice.getOffset() + this.slice.getSliceSize() < numOfResults;
+    }
+
     /**
      * Gets the actual offeset details.
      * @return the offset details.
@@ -0,0 +1,177 @@
+package com.rbmhtechnology.vind.api.result;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class stores the statistics of a {@link com.rbmhtechnology.vind.api.BulkIndexer} run, one
+ * {@link BatchResult} for every batch sent to the search server.
+ */
+public class BulkIndexResult {
+
+    private final List<BatchResult> batches;
+
+    /**
+     * Creates a new instance of {@link BulkIndexResult}.
+     * @param batches the results of the single batches.
+     */
+    public BulkIndexResult(List<BatchResult> batches) {
+        this.batches = new ArrayList<>(batches);
+    }
+
+    /**
+     * Gets the results of the single batches in the order they have been finished.
+     * @return list of {@link BatchResult}.
+     */
+    public List<BatchResult> getBatches() {
+        return Collections.unmodifiableList(batches);
+    }
+
+    /**
+     * Gets the number of documents successfully sent to the search server.
+     * @return number of indexed documents.
+     */
+    public long getIndexed() {
+        return batches.stream().filter(BatchResult::isSuccess).mapToLong(BatchResult::getDocuments).sum();
+    }
+
+    /**
+     * Gets the number of documents which could not be sent to the search server.
+     * @return number of failed documents.
+     */
+    public long getFailed() {
+        return batches.stream().filter(b -> !b.isSuccess()).mapToLong(BatchResult::getDocuments).sum();
+    }
+
+    /**
+     * Gets the number of failed batches.
+     * @return number of failed batches.
+     */
+    public long getFailedBatches() {
+        return batches.stream().filter(b -> !b.isSuccess()).count();
+    }
+
+    /**
+     * Gets the estimated size of all the batches in bytes.
+     * @return estimated bytes sent.
+     */
+    public long getBytes() {
+        return batches.stream().mapToLong(BatchResult::getBytes).sum();
+    }
+
+    /**
+     * Gets the sum of the time spent by the single batches in milliseconds.
+     * @return batch time in milliseconds.
+     */
+    public long getTime() {
+        return batches.stream().mapToLong(BatchResult::getTime).sum();
+    }
+
+    /**
+     * Gets the average throughput of the successful batches.
+     * @return documents per second.
+     */
+    public double getThroughput() {
+        final long time = batches.stream().filter(BatchResult::isSuccess).mapToLong(BatchResult::getTime).sum();
+        return time > 0 ? getIndexed() * 1000d / time : 0d;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkIndexResult{" +
+                "batches=" + batches.size() +
+                ", indexed=" + getIndexed() +
+                ", failed=" + getFailed() +
+                ", bytes=" + getBytes() +
+                ", throughput=" + getThroughput() +
+                '}';
+    }
+
+    /**
+     * Statistics of a single batch.
+     */
+    public static class BatchResult {
+
+        private final long number;
+        private final int documents;
+        private final long bytes;
+        private final long time;
+        private final Throwable error;
+
+        public BatchResult(long number, int documents, long bytes, long time, Throwable error) {
+            this.number = number;
+            this.documents = documents;
+            this.bytes = bytes;
+            this.time = time;
+            this.error = error;
+        }
+
+        /**
+         * Gets the sequence number of the batch, starting with 0.
+         * @return batch number.
+         */
+        public long getNumber() {
+            return number;
+        }
+
+        /**
+         * Gets the number of documents in the batch.
+         * @return number of documents.
+         */
+        public int getDocuments() {
+            return documents;
+        }
+
+        /**
+         * Gets the estimated size of the batch in bytes.
+         * @return estimated bytes.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Gets the time needed to convert and send the batch in milliseconds.
+         * @return time in milliseconds.
+         */
+        public long getTime() {
+            return time;
+        }
+
+        /**
+         * Gets the throughput of this batch.
+         * @return documents per second.
+         */
+        public double getThroughput() {
+            return time > 0 ? documents * 1000d / time : 0d;
+        }
+
+        /**
+         * Whether the batch has been sent successfully.
+         * @return true if no error occurred.
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /**
+         * Gets the error which caused the batch to fail.
+         * @return the error or null if the batch succeeded.
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "BatchResult{" +
+                    "number=" + number +
+                    ", documents=" + documents +
+                    ", bytes=" + bytes +
+                    ", time=" + time +
+                    ", success=" + isSuccess() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.rbmhtechnology.vind.api.result;
+
+import com.rbmhtechnology.vind.SearchServerException;
+import com.rbmhtechnology.vind.api.Document;
+import com.rbmhtechnology.vind.api.SearchServer;
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.division.Cursor;
+import com.rbmhtechnology.vind.api.query.division.ResultSubset;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Result of a search configured with a {@link Cursor}, holding the cursor mark to retrieve the next batch.
+ */
+public class CursorResult extends SearchResult {
+
+    private final Cursor cursor;
+    private final String nextCursorMark;
+
+    /**
+     * Creates a new instance of {@link CursorResult}.
+     *
+     * @param numOfResults   Number of documents returned by the search server instance.
+     * @param results        A list of results parsed to Document.
+     * @param nextCursorMark The cursor mark to retrieve the next batch of results.
+     * @param searchQuery    The fulltext query executed to retrieve this set of results.
+     * @param facetResults   The different faceted results of the query.
+     * @param server         A search server implementation.
+     * @param docFactory     document factory holding the schema configuration of documents to parse the results to.
+     */
+    public CursorResult(long numOfResults, List<Document> results, String nextCursorMark, FulltextSearch searchQuery, FacetResults facetResults, SearchServer server, DocumentFactory docFactory) {
+        super(numOfResults, results, searchQuery, facetResults, server, docFactory);
+        if (query.getResultSet().getType().equals(ResultSubset.DivisionType.cursor)) {
+            this.cursor = (Cursor) query.getResultSet();
+        } else {
+            throw new RuntimeException("Search result set is not configured as cursor: Result set type is "+query.getResultSet().getType());
+        }
+        this.nextCursorMark = nextCursorMark;
+    }
+
+    /**
+     * Gets the next batch of results.
+     * @return Instance of {@link CursorResult} containing the next batch of results.
+     * @throws SearchServerException thrown when the server is not able to execute the query.
+     */
+    public CursorResult nextCursor() {
+        try{
+            return (CursorResult) server.execute(query.copy().cursor(this.cursor.next(nextCursorMark)), factory);
+        } catch (SearchServerException e) {
+            log.error("Unable to retrieve from search server next result", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether there are more results after this batch. The cursor is exhausted when the next cursor mark
+     * equals the current one.
+     * @return true if there is a next batch.
+     */
+    public boolean hasNextCursor() {
+        return Objects.nonNull(nextCursorMark) && !nextCursorMark.equals(cursor.getCursorMark());
+    }
+
+    /**
+     * Gets the cursor mark of this batch.
+     * @return String cursor mark.
+     */
+    public String getCursorMark() {
+        return cursor.getCursorMark();
+    }
+
+    /**
+     * Gets the cursor mark to retrieve the next batch.
+     * @return String cursor mark.
+     */
+    public String getNextCursorMark() {
+        return nextCursorMark;
+    }
+
+    /**
+     * Gets the number of results per batch.
+     * @return a number of results.
+     */
+    public int getSize() {
+        return cursor.getSize();
+    }
+
+    @Override
+    protected SearchResult copy(List<Document> results) {
+        return new CursorResult(numOfResults, results, nextCursorMark, query, facetResults, server, factory)
+                .setPartialResults(partialResults).setElapsedTime(elapsedTime);
+    }
+
+    @Override
+    public  <P> BeanSearchResult<P> toPojoResult(SearchResult searchResult, Class<P> clazz) {
+        return new BeanCursorResult<>(searchResult.numOfResults,
+                LazyBeanList.of(searchResult, clazz),
+                ((CursorResult) searchResult).nextCursorMark,
+                searchResult.query,
+                searchResult.facetResults,
+                searchResult.server,
+                clazz
+        ).setPartialResults(searchResult.partialResults).setElapsedTime(searchResult.elapsedTime);
+    }
+}
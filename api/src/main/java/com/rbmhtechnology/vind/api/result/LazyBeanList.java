@@ -0,0 +1,59 @@
+package com.rbmhtechnology.vind.api.result;
+
+import com.rbmhtechnology.vind.annotations.AnnotationUtil;
+import com.rbmhtechnology.vind.api.Document;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * Unmodifiable list of result beans which maps each {@link Document} to its bean only when it is first read. The
+ * mapped beans are kept, so every bean is created once.
+ * @param <T> type of the result beans.
+ */
+class LazyBeanList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final List<Document> documents;
+    private final Class<T> clazz;
+    private final AtomicReferenceArray<T> beans;
+
+    LazyBeanList(List<Document> documents, Class<T> clazz) {
+        this.documents = documents;
+        this.clazz = clazz;
+        this.beans = new AtomicReferenceArray<>(documents.size());
+    }
+
+    /**
+     * Maps the documents of a search result to beans, lazily if the search requested lazy results.
+     * @param searchResult the {@link SearchResult} to map.
+     * @param clazz the annotated bean class.
+     * @param <T> type of the result beans.
+     * @return the list of result beans.
+     */
+    static <T> List<T> of(SearchResult searchResult, Class<T> clazz) {
+        if (Objects.nonNull(searchResult.query) && searchResult.query.isLazy()) {
+            return new LazyBeanList<>(searchResult.results, clazz);
+        }
+        return searchResult.results.stream().map(d -> AnnotationUtil.createPojo(d, clazz)).collect(Collectors.toList());
+    }
+
+    @Override
+    public T get(int index) {
+        final T bean = beans.get(index);
+        if (bean != null) {
+            return bean;
+        }
+        //concurrent readers may both create the bean, but only the first one is kept
+        beans.compareAndSet(index, null, AnnotationUtil.createPojo(documents.get(index), clazz));
+        return beans.get(index);
+    }
+
+    @Override
+    public int size() {
+        return documents.size();
+    }
+}
@@ -0,0 +1,92 @@
+package com.rbmhtechnology.vind.api.result;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class stores the results of a batch of fulltext searches executed together, in the order of the searches.
+ * Every search either has a {@link SearchResult} or the exception it failed with.
+ */
+public class MultiSearchResult {
+
+    private final SearchResult[] results;
+    private final RuntimeException[] errors;
+
+    /**
+     * Creates a new instance of {@link MultiSearchResult}.
+     * @param results the results of the searches, null for failed searches.
+     * @param errors the exceptions of the failed searches, null for successful searches.
+     */
+    public MultiSearchResult(SearchResult[] results, RuntimeException[] errors) {
+        if (results.length != errors.length) {
+            throw new IllegalArgumentException("Number of results and errors does not match: " + results.length + ", " + errors.length);
+        }
+        this.results = results.clone();
+        this.errors = errors.clone();
+    }
+
+    /**
+     * Gets the number of searches.
+     * @return number of searches.
+     */
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * Gets the result of a search.
+     * @param index position of the search in the batch.
+     * @return the {@link SearchResult} of the search.
+     * @throws RuntimeException the exception the search failed with.
+     */
+    public SearchResult get(int index) {
+        if (errors[index] != null) {
+            throw errors[index];
+        }
+        return results[index];
+    }
+
+    /**
+     * Gets the exception a search failed with.
+     * @param index position of the search in the batch.
+     * @return the exception, null if the search succeeded.
+     */
+    public RuntimeException getError(int index) {
+        return errors[index];
+    }
+
+    /**
+     * Checks whether a search succeeded.
+     * @param index position of the search in the batch.
+     * @return true if there is a result for the search.
+     */
+    public boolean isSuccess(int index) {
+        return errors[index] == null;
+    }
+
+    /**
+     * Checks whether any search of the batch failed.
+     * @return true if at least one search failed.
+     */
+    public boolean hasErrors() {
+        return Arrays.stream(errors).anyMatch(Objects::nonNull);
+    }
+
+    /**
+     * Gets the results of all the searches in order.
+     * @return list of {@link SearchResult}, containing null for failed searches.
+     */
+    public List<SearchResult> getResults() {
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    @Override
+    public String toString() {
+        return "MultiSearchResult{" +
+                "results=" + Arrays.toString(results) +
+                ", errors=" + Arrays.toString(errors) +
+                '}';
+    }
+}
@@ -0,0 +1,133 @@
+package com.rbmhtechnology.vind.api.result;
+
+import com.rbmhtechnology.vind.api.SearchServer;
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.division.Page;
+import com.rbmhtechnology.vind.api.query.division.ResultSubset;
+import com.rbmhtechnology.vind.api.query.division.Slice;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Fetches the pages (or slices) following a {@link PageResult} or {@link SliceResult} in the background, so that
+ * navigating to the next page does not wait for the search server if the page has been fetched meanwhile. At most the
+ * configured number of pages after the last result navigated to are held, prefetched pages out of this window are
+ * dropped. A prefetcher is shared by all the results navigated to from the first result of a search, and attached
+ * to per caller copies of these results.
+ */
+public class PagePrefetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(PagePrefetcher.class);
+
+    private final SearchServer server;
+    private final DocumentFactory factory;
+    private final Executor executor;
+    private final int pages;
+    private final PrefetchStats stats;
+
+    //prefetched pages by their offset
+    private final Map<Integer, CompletableFuture<SearchResult>> buffer = new HashMap<>();
+
+    /**
+     * Creates a new prefetcher.
+     * @param server {@link SearchServer} executing the searches.
+     * @param factory {@link DocumentFactory} mapping the index documents and the result type.
+     * @param executor {@link Executor} running the prefetch requests, or the decoding of their responses.
+     * @param pages number of pages to prefetch after a result.
+     * @param stats {@link PrefetchStats} recording hits and misses.
+     */
+    public PagePrefetcher(SearchServer server, DocumentFactory factory, Executor executor, int pages, PrefetchStats stats) {
+        this.server = server;
+        this.factory = factory;
+        this.executor = executor;
+        this.pages = pages;
+        this.stats = stats;
+    }
+
+    /**
+     * Starts fetching the pages following a result, which are not prefetched yet.
+     * @param result the {@link SearchResult} navigated to.
+     * @return a copy of the result for the caller, navigating through this prefetcher.
+     */
+    public SearchResult prefetch(SearchResult result) {
+        final SearchResult navigable = result.withPrefetcher(this);
+
+        final Map<Integer, FulltextSearch> following = new HashMap<>();
+        FulltextSearch search = result.query;
+        for (int i = 0; i < pages && (search = next(search, result.numOfResults)) != null; i++) {
+            following.put(offset(search.getResultSet()), search);
+        }
+        synchronized (buffer) {
+            buffer.keySet().retainAll(following.keySet());
+            following.forEach((offset, pageSearch) -> {
+                if (!buffer.containsKey(offset)) {
+                    stats.prefetched();
+                    buffer.put(offset, server.executeAsync(pageSearch, factory, executor));
+                }
+            });
+        }
+        return navigable;
+    }
+
+    /**
+     * Gets the result of a search of the same pages, the prefetched one if available.
+     * @param search {@link FulltextSearch} of a page.
+     * @return the {@link SearchResult}, navigating through this prefetcher.
+     */
+    public SearchResult execute(FulltextSearch search) {
+        final CompletableFuture<SearchResult> prefetched;
+        synchronized (buffer) {
+            prefetched = buffer.remove(offset(search.getResultSet()));
+        }
+        if (prefetched != null) {
+            try {
+                final SearchResult result = prefetched.join();
+                stats.hit();
+                return prefetch(result);
+            } catch (CompletionException | CancellationException e) {
+                log.warn("Prefetching the page at offset {} failed, requesting it again", offset(search.getResultSet()), e);
+            }
+        }
+        stats.miss();
+        return prefetch(server.execute(search, factory));
+    }
+
+    private static FulltextSearch next(FulltextSearch search, long numOfResults) {
+        final ResultSubset resultSet = search.getResultSet();
+        switch (resultSet.getType()) {
+            case page: {
+                final Page page = (Page) resultSet;
+                return page.getPagesize() > 0 && (long) page.getPage() * page.getPagesize() < numOfResults ?
+                        search.copy().page(page.next()) : null;
+            }
+            case slice: {
+                final Slice slice = (Slice) resultSet;
+                final int nextOffset = slice.getOffset() + slice.getSliceSize();
+                return slice.getSliceSize() > 0 && nextOffset < numOfResults ?
+                        search.copy().slice(nextOffset, slice.getSliceSize()) : null;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static int offset(ResultSubset resultSet) {
+        switch (resultSet.getType()) {
+            case page:
+                return ((Page) resultSet).getOffset();
+            case slice:
+                return ((Slice) resultSet).getOffset();
+            default:
+                log.error("Unsupported result set type for prefetching: {}", resultSet.getType());
+                throw new IllegalArgumentException("Unsupported result set type for prefetching: " + resultSet.getType());
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package com.rbmhtechnology.vind.api.result;
 
 import com.rbmhtechnology.vind.SearchServerException;
-import com.rbmhtechnology.vind.annotations.AnnotationUtil;
 import com.rbmhtechnology.vind.api.Document;
 import com.rbmhtechnology.vind.api.SearchServer;
 import com.rbmhtechnology.vind.api.query.FulltextSearch;
@@ -10,7 +9,6 @@ import com.rbmhtechnology.vind.api.query.division.ResultSubset;
 import com.rbmhtechnology.vind.model.DocumentFactory;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Created by fonso on 31.03.17.
@@ -44,7 +42,7 @@ public class PageResult extends SearchResult {
      */
     public SearchResult nextPage() {
         try{
-            return server.execute(query.copy().page(this.page.next()), factory);
+            return fetch(query.copy().page(this.page.next()));
         } catch (SearchServerException e) {
             log.error("Unable to retrieve from search server next result", e);
             throw e;
@@ -58,7 +56,7 @@ public class PageResult extends SearchResult {
      */
     public SearchResult previousPage() {
         try{
-            return server.execute(query.copy().page(this.page.previous()), factory);
+            return fetch(query.copy().page(this.page.previous()));
         } catch (SearchServerException e) {
             log.error("Unable to retrieve from search server previous result", e);
             throw e;
@@ -106,14 +104,21 @@ public class PageResult extends SearchResult {
     }
 
 
+    @Override
+    protected SearchResult copy(List<Document> results) {
+        return new PageResult(numOfResults, results, query, facetResults, server, factory)
+                .setPartialResults(partialResults).setElapsedTime(elapsedTime);
+    }
+
     @Override
     public  <P> BeanSearchResult<P> toPojoResult(SearchResult searchResult, Class<P> clazz) {
         return new BeanPageResult<>(searchResult.numOfResults,
-                searchResult.results.stream().map(d -> AnnotationUtil.createPojo(d, clazz)).collect(Collectors.toList()),
+                LazyBeanList.of(searchResult, clazz),
                 searchResult.query,
                 searchResult.facetResults,
                 searchResult.server,
                 clazz
-        );
+        ).setPartialResults(searchResult.partialResults).setElapsedTime(searchResult.elapsedTime)
+                .setPrefetcher(searchResult.prefetcher);
     }
 }
@@ -0,0 +1,77 @@
+package com.rbmhtechnology.vind.api.result;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of the pages fetched in the background by {@link PagePrefetcher}s.
+ */
+public class PrefetchStats {
+
+    private final AtomicLong prefetched = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    void prefetched() {
+        prefetched.incrementAndGet();
+    }
+
+    void hit() {
+        hits.incrementAndGet();
+    }
+
+    void miss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of pages fetched in the background.
+     * @return number of prefetched pages.
+     */
+    public long getPrefetched() {
+        return prefetched.get();
+    }
+
+    /**
+     * Gets the number of page navigations served by a prefetched page.
+     * @return number of hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of page navigations which had to request the page from the search server.
+     * @return number of misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the share of the page navigations served by a prefetched page.
+     * @return hit rate between 0 and 1, 0 if there was no navigation.
+     */
+    public double getHitRate() {
+        final long hits = getHits();
+        final long requests = hits + getMisses();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * Gets the share of the prefetched pages which have not been navigated to (yet).
+     * @return waste rate between 0 and 1, 0 if no page was prefetched.
+     */
+    public double getWasteRate() {
+        final long prefetched = getPrefetched();
+        return prefetched == 0 ? 0 : (double) Math.max(prefetched - getHits(), 0) / prefetched;
+    }
+
+    @Override
+    public String toString() {
+        return "PrefetchStats{" +
+                "prefetched=" + getPrefetched() +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                '}';
+    }
+}
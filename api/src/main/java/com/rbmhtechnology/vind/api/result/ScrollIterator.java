@@ -0,0 +1,95 @@
+package com.rbmhtechnology.vind.api.result;
+
+import com.rbmhtechnology.vind.api.Document;
+import com.rbmhtechnology.vind.api.SearchServer;
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.division.Cursor;
+import com.rbmhtechnology.vind.api.query.division.Page;
+import com.rbmhtechnology.vind.api.query.division.ResultSubset;
+import com.rbmhtechnology.vind.api.query.division.Slice;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily iterates over all the results of a {@link FulltextSearch} using a {@link Cursor}. The next batch of
+ * documents is only retrieved from the {@link SearchServer} once the current one has been consumed.
+ */
+public class ScrollIterator implements Iterator<Document> {
+
+    private final SearchServer server;
+    private final DocumentFactory factory;
+
+    private CursorResult current;
+    private Iterator<Document> batch;
+
+    /**
+     * Creates a new instance of {@link ScrollIterator}. The batch size is taken from the result set of the search,
+     * which is not modified.
+     * @param server A search server implementation.
+     * @param search The fulltext query to scroll through.
+     * @param factory document factory holding the schema configuration of documents to parse the results to.
+     */
+    public ScrollIterator(SearchServer server, FulltextSearch search, DocumentFactory factory) {
+        this.server = server;
+        this.factory = factory;
+        final FulltextSearch cursorSearch = search.copy().cursor(getCursor(search.getResultSet()));
+        this.current = (CursorResult) server.execute(cursorSearch, factory);
+        this.batch = current.getResults().iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!batch.hasNext()) {
+            if (!current.hasNextCursor()) {
+                return false;
+            }
+            current = current.nextCursor();
+            batch = current.getResults().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public Document next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return batch.next();
+    }
+
+    /**
+     * Gets the total number of documents matching the search.
+     * @return Number of results.
+     */
+    public long getNumOfResults() {
+        return current.getNumOfResults();
+    }
+
+    /**
+     * Wraps this iterator in a sequential {@link Stream}. The stream is not sized, as documents may be added or
+     * deleted while scrolling.
+     * @return A lazy stream of the results.
+     */
+    public Stream<Document> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static Cursor getCursor(ResultSubset resultSet) {
+        switch (resultSet.getType()) {
+            case cursor:
+                return (Cursor) resultSet;
+            case page:
+                return new Cursor(((Page) resultSet).getPagesize());
+            case slice:
+                return new Cursor(((Slice) resultSet).getSliceSize());
+            default:
+                throw new IllegalArgumentException("Unsupported result set type: " + resultSet.getType());
+        }
+    }
+}
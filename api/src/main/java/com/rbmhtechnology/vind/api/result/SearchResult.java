@@ -7,6 +7,7 @@ import com.rbmhtechnology.vind.model.DocumentFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -23,6 +24,9 @@ public abstract class SearchResult {
     protected final FacetResults facetResults;
     protected final DocumentFactory factory;
     protected final SearchServer server;
+    protected boolean partialResults = false;
+    protected long elapsedTime = -1;
+    protected PagePrefetcher prefetcher;
     /**
      * Creates a new instance of {@link SearchResult}.
      * @param numOfResults Number of documents returned by the search server instance.
@@ -57,6 +61,76 @@ public abstract class SearchResult {
     }
 
 
+    /**
+     * Checks whether the search has been stopped by its timeout, so the results (and facet counts) may be
+     * incomplete.
+     * @return true if the results are partial.
+     */
+    public boolean isPartialResults() {
+        return partialResults;
+    }
+
+    public SearchResult setPartialResults(boolean partialResults) {
+        this.partialResults = partialResults;
+        return this;
+    }
+
+    /**
+     * Gets the time taken by the search request, as measured by the client.
+     * @return elapsed time in milliseconds or -1 if not measured.
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    public SearchResult setElapsedTime(long elapsedTime) {
+        this.elapsedTime = elapsedTime;
+        return this;
+    }
+
+    /**
+     * Creates a result for a single caller, sharing the documents of this result, whose navigation is served by a
+     * {@link PagePrefetcher}. This result is not changed, as it may be shared with other callers, e.g. by a caching
+     * or coalescing {@link SearchServer}.
+     * @param prefetcher prefetcher of the following pages.
+     * @return the result navigating through the prefetcher.
+     */
+    SearchResult withPrefetcher(PagePrefetcher prefetcher) {
+        final SearchResult result = copy(results);
+        result.prefetcher = prefetcher;
+        return result;
+    }
+
+    /**
+     * Gets the result of a search navigated to from this result, the prefetched one if available.
+     */
+    protected SearchResult fetch(FulltextSearch search) {
+        return prefetcher != null ? prefetcher.execute(search) : server.execute(search, factory);
+    }
+
+    /**
+     * Creates a copy of the result for a single caller: the documents are copied and no {@link PagePrefetcher} is
+     * attached, so the copy can be changed and navigated without affecting the results handed out to other callers,
+     * e.g. by a caching {@link SearchServer}.
+     * @return a copy of the result, or this result if its type does not support copies.
+     */
+    public SearchResult copy() {
+        final List<Document> documents = new ArrayList<>(results.size());
+        for (Document document : results) {
+            documents.add(document.copy());
+        }
+        return copy(documents);
+    }
+
+    /**
+     * Creates a result of the same type and search holding the given documents, without {@link PagePrefetcher}.
+     * @param results the documents of the new result.
+     * @return the new result, or this result if its type does not support copies.
+     */
+    protected SearchResult copy(List<Document> results) {
+        return this;
+    }
+
     public SearchResult print() {
         log.info(this.toString());
         return this;
@@ -66,6 +140,7 @@ public abstract class SearchResult {
     public String toString() {
         return "SearchResult{" +
                 "numOfResults=" + numOfResults +
+                (partialResults ? ", partialResults=true" : "") +
                 ", results=" + results +
                 '}';
     }
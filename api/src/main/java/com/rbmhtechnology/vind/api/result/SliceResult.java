@@ -1,6 +1,6 @@
 package com.rbmhtechnology.vind.api.result;
 
-import com.rbmhtechnology.vind.annotations.AnnotationUtil;
+import com.rbmhtechnology.vind.SearchServerException;
 import com.rbmhtechnology.vind.api.Document;
 import com.rbmhtechnology.vind.api.SearchServer;
 import com.rbmhtechnology.vind.api.query.FulltextSearch;
@@ -9,7 +9,6 @@ import com.rbmhtechnology.vind.api.query.division.Slice;
 import com.rbmhtechnology.vind.model.DocumentFactory;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Created by fonso on 31.03.17.
@@ -36,6 +35,28 @@ public class SliceResult extends SearchResult {
         }
     }
 
+    /**
+     * Gets the next slice of results, with the same slice size.
+     * @return Instance of {@link SearchResult} containing the next slice results.
+     * @throws {@link SearchServerException} thrown when the server is not able to execute the query.
+     */
+    public SearchResult nextSlice() {
+        try{
+            return fetch(query.copy().slice(this.slice.getOffset() + this.slice.getSliceSize(), this.slice.getSliceSize()));
+        } catch (SearchServerException e) {
+            log.error("Unable to retrieve from search server next result", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether there are results after this slice or not.
+     * @return true if there is a next slice.
+     */
+    public boolean hasNextSlice() {
+        return this.slice.getSliceSize() > 0 && this.slice.getOffset() + this.slice.getSliceSize() < numOfResults;
+    }
+
     /**
      * Gets the actual offeset details.
      * @return the offset details.
@@ -52,14 +73,21 @@ public class SliceResult extends SearchResult {
         return this.slice.getSliceSize();
     }
 
+    @Override
+    protected SearchResult copy(List<Document> results) {
+        return new SliceResult(numOfResults, results, query, facetResults, server, factory)
+                .setPartialResults(partialResults).setElapsedTime(elapsedTime);
+    }
+
     @Override
     public  <P> BeanSearchResult<P> toPojoResult(SearchResult searchResult, Class<P> clazz) {
         return new BeanSliceResult<>(searchResult.numOfResults,
-                searchResult.results.stream().map(d -> AnnotationUtil.createPojo(d, clazz)).collect(Collectors.toList()),
+                LazyBeanList.of(searchResult, clazz),
                 searchResult.query,
                 searchResult.facetResults,
                 searchResult.server,
                 clazz
-        );
+        ).setPartialResults(searchResult.partialResults).setElapsedTime(searchResult.elapsedTime)
+                .setPrefetcher(searchResult.prefetcher);
     }
 }
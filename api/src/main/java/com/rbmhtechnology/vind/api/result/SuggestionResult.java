@@ -19,6 +19,10 @@ public class SuggestionResult {
 
     private DocumentFactory factory;
 
+    private boolean partialResults = false;
+
+    private long elapsedTime = -1;
+
     public SuggestionResult(){}
 
     /**
@@ -67,6 +71,32 @@ public class SuggestionResult {
         return spellcheck;
     }
 
+    /**
+     * Checks whether the suggestion search has been stopped by its timeout, so the suggestions may be incomplete.
+     * @return true if the suggestions are partial.
+     */
+    public boolean isPartialResults() {
+        return partialResults;
+    }
+
+    public SuggestionResult setPartialResults(boolean partialResults) {
+        this.partialResults = partialResults;
+        return this;
+    }
+
+    /**
+     * Gets the time taken by the suggestion request, as measured by the client.
+     * @return elapsed time in milliseconds or -1 if not measured.
+     */
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    public SuggestionResult setElapsedTime(long elapsedTime) {
+        this.elapsedTime = elapsedTime;
+        return this;
+    }
+
     /**
      * Gets the number of suggestions from every field.
      * @return a number of suggestions.
@@ -0,0 +1,236 @@
+package com.rbmhtechnology.vind.api.result.reactive;
+
+import com.rbmhtechnology.vind.annotations.AnnotationUtil;
+import com.rbmhtechnology.vind.api.Document;
+import com.rbmhtechnology.vind.api.SearchServer;
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.division.Cursor;
+import com.rbmhtechnology.vind.api.query.division.Page;
+import com.rbmhtechnology.vind.api.query.division.ResultSubset;
+import com.rbmhtechnology.vind.api.query.division.Slice;
+import com.rbmhtechnology.vind.api.result.CursorResult;
+import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * {@link Publisher} of all the results of a {@link FulltextSearch}, page by page. The pages follow the result set of
+ * the search: pages and slices are requested with increasing offsets, cursors with the cursor mark of the previous
+ * batch. A page is only requested (with {@link SearchServer#executeAsync}) once the subscriber demands more results
+ * than the previous pages held, and no further page is requested once the subscription is cancelled.
+ * <p>
+ * Every subscriber gets its own iteration over the results, starting with the result set of the search. The
+ * publisher implements the reactive streams {@link Publisher}, so it can be consumed by any reactive library.
+ * @param <T> type of the published results.
+ */
+public class SearchPublisher<T> implements Publisher<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchPublisher.class);
+
+    private final SearchServer server;
+    private final FulltextSearch search;
+    private final DocumentFactory factory;
+    private final Executor executor;
+    private final Function<Document, T> mapper;
+
+    private SearchPublisher(SearchServer server, FulltextSearch search, DocumentFactory factory, Executor executor, Function<Document, T> mapper) {
+        this.server = server;
+        this.search = search.copy();
+        this.factory = factory;
+        this.executor = executor;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Creates a publisher of the result documents of a search.
+     * @param server {@link SearchServer} executing the search.
+     * @param search {@link FulltextSearch} search query configuration object.
+     * @param factory {@link DocumentFactory} mapping the index documents and the result type.
+     * @param executor {@link Executor} running the requests, or the decoding of their responses.
+     * @return {@link SearchPublisher} of the result documents.
+     */
+    public static SearchPublisher<Document> of(SearchServer server, FulltextSearch search, DocumentFactory factory, Executor executor) {
+        return new SearchPublisher<>(server, search, factory, executor, Function.identity());
+    }
+
+    /**
+     * Creates a publisher of the results of a search based on an annotated class.
+     * @param server {@link SearchServer} executing the search.
+     * @param search {@link FulltextSearch} search query configuration object.
+     * @param c annotated class mapping the index documents and the result type.
+     * @param executor {@link Executor} running the requests, or the decoding of their responses.
+     * @param <T> annotated class type.
+     * @return {@link SearchPublisher} of the result beans.
+     */
+    public static <T> SearchPublisher<T> of(SearchServer server, FulltextSearch search, Class<T> c, Executor executor) {
+        return new SearchPublisher<>(server, search, AnnotationUtil.getDocumentMapper(c).getDocumentFactory(), executor,
+                document -> AnnotationUtil.createPojo(document, c));
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber must not be null");
+        final SearchSubscription subscription = new SearchSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Gets the search of the page following a result, null if it was the last one.
+     */
+    static FulltextSearch nextSearch(FulltextSearch current, SearchResult result) {
+        if (result.getResults().isEmpty()) {
+            return null;
+        }
+        final ResultSubset resultSet = current.getResultSet();
+        switch (resultSet.getType()) {
+            case cursor: {
+                final CursorResult cursorResult = (CursorResult) result;
+                return cursorResult.hasNextCursor() ?
+                        current.copy().cursor(((Cursor) resultSet).next(cursorResult.getNextCursorMark())) : null;
+            }
+            case page: {
+                final Page page = (Page) resultSet;
+                return (long) page.getPage() * page.getPagesize() < result.getNumOfResults() ?
+                        current.copy().page(page.next()) : null;
+            }
+            case slice: {
+                final Slice slice = (Slice) resultSet;
+                final int nextOffset = slice.getOffset() + slice.getSliceSize();
+                return nextOffset < result.getNumOfResults() ?
+                        current.copy().slice(nextOffset, slice.getSliceSize()) : null;
+            }
+            default:
+                log.error("Unsupported result set type: {}", resultSet.getType());
+                throw new IllegalArgumentException("Unsupported result set type: " + resultSet.getType());
+        }
+    }
+
+    /**
+     * Iteration of a subscriber over the results. Signals to the subscriber are serialized by the drain loop, pages are
+     * only requested from within the drain loop and while no other request is running.
+     */
+    private final class SearchSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        //written by the completed page request before fetching is reset, read by the drain loop while not fetching
+        private volatile Iterator<Document> batch = Collections.emptyIterator();
+        private volatile FulltextSearch next = search;
+        private volatile Throwable error;
+        private volatile boolean fetching;
+        private volatile boolean cancelled;
+        private boolean done;
+
+        private SearchSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Non-positive request signals are illegal (reactive streams rule 3.9): " + n);
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                if (done) {
+                    continue;
+                }
+                if (cancelled) {
+                    terminate();
+                    continue;
+                }
+                if (fetching) {
+                    continue;
+                }
+                if (error != null) {
+                    terminate();
+                    subscriber.onError(error);
+                    continue;
+                }
+                while (requested.get() > 0 && batch.hasNext() && !cancelled) {
+                    final T element;
+                    try {
+                        element = mapper.apply(batch.next());
+                    } catch (RuntimeException e) {
+                        error = e;
+                        break;
+                    }
+                    subscriber.onNext(element);
+                    requested.decrementAndGet();
+                }
+                if (error != null || cancelled) {
+                    //handled in the next iteration of the drain loop
+                    wip.incrementAndGet();
+                } else if (!batch.hasNext()) {
+                    if (next == null) {
+                        terminate();
+                        subscriber.onComplete();
+                    } else if (requested.get() > 0) {
+                        fetch(next);
+                    }
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        private void fetch(FulltextSearch pageSearch) {
+            fetching = true;
+            try {
+                server.executeAsync(pageSearch, factory, executor).whenComplete((result, e) -> {
+                    if (e != null) {
+                        error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    } else {
+                        try {
+                            batch = result.getResults().iterator();
+                            next = nextSearch(pageSearch, result);
+                        } catch (RuntimeException re) {
+                            error = re;
+                        }
+                    }
+                    fetching = false;
+                    drain();
+                });
+            } catch (RuntimeException e) {
+                error = e;
+                fetching = false;
+                //only called by the drain loop, which has to deliver the error
+                wip.incrementAndGet();
+            }
+        }
+
+        private void terminate() {
+            done = true;
+            batch = Collections.emptyIterator();
+            next = null;
+        }
+    }
+}
@@ -28,11 +28,33 @@ public class SearchConfiguration {
     @Deprecated
     public static final String SERVER_SOLR_PROVIDER = "server.solr.provider";
 
+    public static final String SERVER_COMMIT_WITHIN = "server.commit.within";
+    public static final String SERVER_COMMIT_SOFT = "server.commit.soft";
+    public static final String SERVER_COMMIT_COALESCE_WINDOW = "server.commit.coalesceWindow";
+
+    public static final String SERVER_HEDGE_ENABLED = "server.hedge.enabled";
+    public static final String SERVER_HEDGE_REPLICAS = "server.hedge.replicas";
+    public static final String SERVER_HEDGE_PERCENTILE = "server.hedge.percentile";
+    public static final String SERVER_HEDGE_MIN_DELAY = "server.hedge.minDelay";
+
+    public static final String SERVER_ASYNC_ENABLED = "server.async.enabled";
+    public static final String SERVER_ASYNC_IO_THREADS = "server.async.ioThreads";
+
     public static final String APPLICATION_EXECUTOR_THREADS = "application.executor.threads";
+    public static final String APPLICATION_EXECUTOR_TYPE = "application.executor.type";
+    public static final String APPLICATION_EXECUTOR_CONCURRENCY = "application.executor.concurrency";
     public static final String SEARCH_RESULT_PAGESIZE = "search.result.pagesize";
     public static final String SEARCH_RESULT_SHOW_SCORE = "search.result.showScore";
     public static final String SEARCH_RESULT_FACET_INCLUDE_EMPTY = "search.result.facet.includeEmpty";
     public static final String SEARCH_RESULT_FACET_LENGTH = "search.result.facet.length";
+    public static final String SEARCH_RESULT_FACET_JSON = "search.result.facet.json";
+    public static final String SEARCH_RESULT_LAZY = "search.result.lazy";
+    public static final String SEARCH_RESULT_PREFETCH = "search.result.prefetch";
+    public static final String SEARCH_EXPORT_BATCHSIZE = "search.export.batchSize";
+    public static final String SEARCH_CACHE_SIZE = "search.cache.size";
+    public static final String SEARCH_CACHE_TTL = "search.cache.ttl";
+    public static final String SEARCH_MULTI_CONCURRENCY = "search.multi.concurrency";
+    public static final String SEARCH_TIMEOUT = "search.timeout";
 
     private static Logger log = LoggerFactory.getLogger(SearchConfiguration.class);
 
@@ -86,6 +86,17 @@ public class DocumentFactory {
         return new DocumentImpl(id, this.type);
     }
 
+    /**
+     * Creates a copy of the factory with copies of its {@link FieldDescriptor}s, so the descriptors of the copy can
+     * be modified without affecting this factory.
+     * @return a copy of the document factory.
+     */
+    public DocumentFactory copy() {
+        final Map<String, FieldDescriptor<?>> copies = new HashMap<>();
+        fields.forEach((name, descriptor) -> copies.put(name, descriptor.copy()));
+        return new DocumentFactory(this.type, this.updatable, copies);
+    }
+
     /**
      * Gets the type of the factory.
      * @return document factory type.
@@ -131,6 +142,7 @@ public class DocumentFactory {
         private float score;
         private float distance;
         private Integer childCount;
+        private Set<String> loadedFields = null;
 
         private DocumentImpl(String id, String type) {
             //this.values.put(DocumentFactory.ID, id);
@@ -724,6 +736,60 @@ public class DocumentFactory {
             return hasValue(descriptor.getName());
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isLoaded(String field) {
+            return loadedFields == null || ID.equals(field) || TYPE.equals(field) || loadedFields.contains(field);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public <T> boolean isLoaded(FieldDescriptor<T> descriptor) {
+            return isLoaded(descriptor.getName());
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void setLoadedFields(Collection<String> fields) {
+            this.loadedFields = fields != null ? new HashSet<>(fields) : null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Document copy() {
+            final DocumentImpl copy = new DocumentImpl(id, type);
+            values.forEach((field, contexts) -> {
+                final Map<String, Object> contextsCopy = new HashMap<>();
+                contexts.forEach((context, value) -> contextsCopy.put(context, copyValue(value)));
+                copy.values.put(field, contextsCopy);
+            });
+            copy.context.putAll(context);
+            children.forEach(child -> copy.children.add(child.copy()));
+            copy.score = score;
+            copy.distance = distance;
+            copy.childCount = childCount;
+            copy.loadedFields = loadedFields != null ? new HashSet<>(loadedFields) : null;
+            return copy;
+        }
+
+        private Object copyValue(Object value) {
+            if (value instanceof Set) {
+                return new LinkedHashSet<>((Set<?>) value);
+            }
+            if (value instanceof Collection) {
+                return new ArrayList<>((Collection<?>) value);
+            }
+            return value;
+        }
+
         /**
          * {@inheritDoc}
          */
@@ -16,7 +16,7 @@ import java.util.function.Function;
  * @author Thomas Kurz (tkurz@apache.org)
  * @since 15.06.16.
  */
-public abstract class FieldDescriptor<T> {
+public abstract class FieldDescriptor<T> implements Cloneable {
 
     /**
      * Class types supported as field descriptor content.
@@ -235,6 +235,21 @@ public abstract class FieldDescriptor<T> {
         this.contextualized = contextualized;
     }
 
+    /**
+     * Creates a copy of the descriptor, which can be modified without affecting this descriptor.
+     * @return a copy of the field descriptor.
+     */
+    @SuppressWarnings("unchecked")
+    protected FieldDescriptor<T> copy() {
+        try {
+            final FieldDescriptor<T> copy = (FieldDescriptor<T>) super.clone();
+            copy.metadata = new HashMap<>(metadata);
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("Unable to copy field descriptor " + name, e);
+        }
+    }
+
     /**
      * Instantiates a new {@link Filter} to checking if a field value is not empty.
      * @return A configured filter for the field.
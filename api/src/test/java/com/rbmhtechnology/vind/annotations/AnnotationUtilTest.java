@@ -106,6 +106,32 @@ public class AnnotationUtilTest {
     }
 
 
+    @Test
+    public void testBeanMapperIsCached() {
+        assertThat(BeanMapper.of(Pojo2.class), sameInstance(BeanMapper.of(Pojo2.class)));
+        assertThat(AnnotationUtil.getDocumentMapper(Pojo2.class).getDocumentFactory(), sameInstance(BeanMapper.of(Pojo2.class).getDocumentFactory()));
+
+        final Pojo2 p2 = new Pojo2();
+        p2.id = "id";
+        assertThat(AnnotationUtil.createDocument(p2).getId(), is("id"));
+        assertThat(AnnotationUtil.createDocument(p2).getValue("counter"), CoreMatchers.<Object>is(0));
+    }
+
+
+    @Test
+    public void testDocumentFactoryIsCopied() {
+        final DocumentFactory factory = AnnotationUtil.createDocumentFactory(Pojo2.class);
+        assertThat(factory, not(sameInstance(AnnotationUtil.createDocumentFactory(Pojo2.class))));
+        assertThat(factory.getType(), is(BeanMapper.of(Pojo2.class).getDocumentFactory().getType()));
+        assertThat(factory.listFields(), hasSize(BeanMapper.of(Pojo2.class).getDocumentFactory().listFields().size()));
+
+        //changes to the descriptors of a copy must not leak into the shared factory
+        factory.getField("title").setContextualized(true);
+        assertThat(BeanMapper.of(Pojo2.class).getDocumentFactory().getField("title").isContextualized(), is(false));
+        assertThat(AnnotationUtil.createDocumentFactory(Pojo2.class).getField("title").isContextualized(), is(false));
+    }
+
+
     @Type(name = "Pojo")
     @SuppressWarnings("unused")
     public static class Pojo1 {
@@ -0,0 +1,113 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.Search;
+import com.rbmhtechnology.vind.api.query.facet.Facets;
+import com.rbmhtechnology.vind.api.result.PageResult;
+import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.DocumentFactoryBuilder;
+import com.rbmhtechnology.vind.model.FieldDescriptor;
+import com.rbmhtechnology.vind.model.FieldDescriptorBuilder;
+import com.rbmhtechnology.vind.model.SingleValueFieldDescriptor;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static com.rbmhtechnology.vind.api.query.filter.Filter.and;
+import static com.rbmhtechnology.vind.api.query.filter.Filter.eq;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class CachingSearchServerTest {
+
+    private final DocumentFactory factory = new DocumentFactoryBuilder("asset").build();
+
+    @Test
+    public void testCacheKeyIsNormalized() {
+        final FulltextSearch search = Search.fulltext("hello").filter(and(eq("a", "1"), eq("b", "2"))).facet("x", "y");
+        final FulltextSearch equivalent = Search.fulltext(" hello ").filter(and(eq("b", "2"), eq("a", "1"))).facet("y", "x");
+
+        assertEquals(SearchKeys.of(search, factory), SearchKeys.of(equivalent, factory));
+        assertNotEquals(SearchKeys.of(search, factory), SearchKeys.of(search.copy().page(2), factory));
+    }
+
+    @Test
+    public void testCacheKeyContainsTimeoutAndFacetMode() {
+        final FulltextSearch search = Search.fulltext("hello");
+
+        assertNotEquals(SearchKeys.of(search, factory), SearchKeys.of(search.copy().timeout(50, TimeUnit.MILLISECONDS), factory));
+        assertNotEquals(SearchKeys.of(search.copy().jsonFacet(false), factory), SearchKeys.of(search.copy().jsonFacet(true), factory));
+        assertNotEquals(SearchKeys.of(Search.suggest("he").fields("title"), factory, null), SearchKeys.of(Search.suggest("he").fields("title").timeout(50, TimeUnit.MILLISECONDS), factory, null));
+    }
+
+    @Test
+    public void testCacheKeyContainsFacetSettings() {
+        final SingleValueFieldDescriptor.NumericFieldDescriptor<Integer> size = new FieldDescriptorBuilder<Integer>().setFacet(true).buildNumericField("size", Integer.class);
+        final FulltextSearch minimum = Search.fulltext().facet(Facets.stats("stats", size).min());
+        final FulltextSearch maximum = Search.fulltext().facet(Facets.stats("stats", size).max());
+        final FulltextSearch percentiles = Search.fulltext().facet(Facets.stats("stats", size).min().percentiles(50.0));
+        final FulltextSearch pivot = Search.fulltext().facet(Facets.stats("stats", size, "pivot").min());
+
+        assertNotEquals(SearchKeys.of(minimum, factory), SearchKeys.of(maximum, factory));
+        assertNotEquals(SearchKeys.of(minimum, factory), SearchKeys.of(percentiles, factory));
+        assertNotEquals(SearchKeys.of(minimum, factory), SearchKeys.of(pivot, factory));
+        assertEquals(SearchKeys.of(minimum, factory), SearchKeys.of(Search.fulltext().facet(Facets.stats("stats", size).min()), factory));
+
+        final TestSearchServer backend = new TestSearchServer();
+        final CachingSearchServer server = new CachingSearchServer(backend, 10, 1, TimeUnit.MINUTES);
+        server.execute(minimum, factory);
+        server.execute(maximum, factory);
+        assertEquals(2, backend.getSearches());
+        assertEquals(0, server.getCacheStats().hitCount());
+    }
+
+    @Test
+    public void testCacheHitsAndInvalidation() {
+        final TestSearchServer backend = new TestSearchServer();
+        final CachingSearchServer server = new CachingSearchServer(backend, 10, 1, TimeUnit.MINUTES);
+
+        final FulltextSearch search = Search.fulltext("hello");
+        assertEquals(server.execute(search, factory).getNumOfResults(), server.execute(search, factory).getNumOfResults());
+        assertEquals(1, backend.getSearches());
+        assertEquals(1, server.getCacheStats().hitCount());
+        assertEquals(1, server.getCacheStats().missCount());
+
+        server.execute(search.copy().cache(false), factory);
+        assertEquals(2, backend.getSearches());
+
+        server.commit();
+        assertEquals(0, server.getCacheSize());
+        server.execute(search, factory);
+        assertEquals(3, backend.getSearches());
+        assertEquals(1, server.getInvalidations());
+    }
+
+    @Test
+    public void testCachedResultsAreCopied() {
+        final FieldDescriptor<String> title = new FieldDescriptorBuilder<String>().buildTextField("title");
+        final DocumentFactory assets = new DocumentFactoryBuilder("asset").addField(title).build();
+        final TestSearchServer backend = new TestSearchServer() {
+            @Override
+            public SearchResult execute(FulltextSearch search, DocumentFactory factory) {
+                super.execute(search, factory);
+                return new PageResult(1, Collections.singletonList(factory.createDoc("1").setValue(title, "original")), search, null, this, factory);
+            }
+        };
+        final CachingSearchServer server = new CachingSearchServer(backend, 10, 1, TimeUnit.MINUTES);
+        final FulltextSearch search = Search.fulltext("hello");
+
+        final SearchResult first = server.execute(search, assets);
+        first.getResults().get(0).setValue(title, "changed");
+
+        final SearchResult second = server.execute(search, assets);
+        assertNotSame(first, second);
+        assertEquals("original", second.getResults().get(0).getValue(title));
+        second.getResults().get(0).setValue(title, "changed");
+
+        assertEquals("original", server.execute(search, assets).getResults().get(0).getValue(title));
+        assertEquals(1, backend.getSearches());
+    }
+}
@@ -0,0 +1,97 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.SearchServerException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CommitCoalescerTest {
+
+    @Test
+    public void testConcurrentCommitsAreMerged() throws Exception {
+        final CommitCoalescer coalescer = new CommitCoalescer();
+        final AtomicInteger commits = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                coalescer.commit(500, commits::incrementAndGet);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, commits.get());
+        assertEquals(8, coalescer.getRequested());
+        assertEquals(1, coalescer.getExecuted());
+        assertEquals(7, coalescer.getMerged());
+    }
+
+    @Test
+    public void testSequentialCommitsAreNotMerged() {
+        final CommitCoalescer coalescer = new CommitCoalescer();
+        final AtomicInteger commits = new AtomicInteger();
+
+        coalescer.commit(1, commits::incrementAndGet);
+        coalescer.commit(1, commits::incrementAndGet);
+
+        assertEquals(2, commits.get());
+        assertEquals(0, coalescer.getMerged());
+    }
+
+    @Test
+    public void testErrorReleasesMergedCommits() throws Exception {
+        final CommitCoalescer coalescer = new CommitCoalescer();
+        final AtomicReference<Throwable> leaderError = new AtomicReference<>();
+        final AtomicReference<Throwable> followerError = new AtomicReference<>();
+
+        final Thread leader = new Thread(() -> {
+            try {
+                coalescer.commit(500, () -> {
+                    throw new OutOfMemoryError();
+                });
+            } catch (Throwable e) {
+                leaderError.set(e);
+            }
+        });
+        leader.start();
+        while (coalescer.getRequested() < 1) {
+            Thread.sleep(5);
+        }
+        final Thread follower = new Thread(() -> {
+            try {
+                coalescer.commit(500, () -> {});
+            } catch (Throwable e) {
+                followerError.set(e);
+            }
+        });
+        follower.start();
+
+        leader.join(10000);
+        follower.join(10000);
+
+        assertFalse(follower.isAlive());
+        assertEquals(1, coalescer.getMerged());
+        assertTrue(leaderError.get() instanceof OutOfMemoryError);
+        assertTrue(followerError.get() instanceof SearchServerException);
+        assertTrue(followerError.get().getCause() instanceof OutOfMemoryError);
+    }
+}
@@ -2,12 +2,16 @@ package com.rbmhtechnology.vind.api;
 
 import com.google.common.collect.ImmutableSet;
 import com.rbmhtechnology.vind.api.query.filter.Filter;
+import com.rbmhtechnology.vind.api.query.filter.FilterNormalizer;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Set;
 
+import static com.rbmhtechnology.vind.api.query.filter.Filter.and;
 import static com.rbmhtechnology.vind.api.query.filter.Filter.eq;
+import static com.rbmhtechnology.vind.api.query.filter.Filter.not;
+import static com.rbmhtechnology.vind.api.query.filter.Filter.or;
 
 /**
  * @author Thomas Kurz (tkurz@apache.org)
@@ -33,4 +37,26 @@ public class FilterTest {
         Assert.assertEquals(4, ((Filter.AndFilter)filter).getChildren().size());
     }
 
+    @Test
+    public void testNormalizeFilters() {
+
+        final Filter a = and(eq("b", "2"), and(eq("a", "1"), eq("b", "2")), not(not(eq("c", "3"))));
+        final Filter b = and(eq("c", "3"), eq("a", "1"), or(eq("a", "1"), eq("d", "4")), eq("b", "2"));
+
+        final Filter normalizedA = FilterNormalizer.normalize(a);
+        final Filter normalizedB = FilterNormalizer.normalize(b);
+
+        Assert.assertTrue(normalizedA instanceof Filter.AndFilter);
+        Assert.assertEquals(3, ((Filter.AndFilter) normalizedA).getChildren().size());
+        Assert.assertEquals(FilterNormalizer.key(normalizedA), FilterNormalizer.key(normalizedB));
+        Assert.assertEquals(normalizedA.toString(), normalizedB.toString());
+        Assert.assertEquals("a='1' AND b='2' AND c='3'", normalizedA.toString());
+
+        //filters with hints are kept as they are
+        final Filter hinted = and(eq("a", "1"), eq("b", "2")).cache(false);
+        final Filter normalized = FilterNormalizer.normalize(and(eq("c", "3"), hinted));
+        Assert.assertEquals(2, ((Filter.AndFilter) normalized).getChildren().size());
+        Assert.assertTrue(((Filter.AndFilter) normalized).getChildren().contains(hinted));
+    }
+
 }
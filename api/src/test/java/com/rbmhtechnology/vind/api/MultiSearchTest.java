@@ -0,0 +1,68 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.Search;
+import com.rbmhtechnology.vind.SearchServerException;
+import com.rbmhtechnology.vind.api.result.MultiSearchResult;
+import com.rbmhtechnology.vind.api.result.PageResult;
+import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.DocumentFactoryBuilder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MultiSearchTest {
+
+    private final DocumentFactory factory = new DocumentFactoryBuilder("asset").build();
+
+    @Test
+    public void testExecuteAll() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        final SearchServer server = new TestSearchServer() {
+            @Override
+            public SearchResult execute(FulltextSearch search, DocumentFactory factory) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                    if ("fail".equals(search.getSearchString())) {
+                        throw new SearchServerException("failed");
+                    }
+                    super.execute(search, factory);
+                    return new PageResult(Long.parseLong(search.getSearchString()), Collections.emptyList(), search, null, this, factory);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        };
+
+        final List<FulltextSearch> searches = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            searches.add(Search.fulltext(i == 3 ? "fail" : String.valueOf(i)));
+        }
+
+        final MultiSearchResult result = server.executeAll(searches, factory, 3);
+
+        assertEquals(10, result.size());
+        assertTrue(result.hasErrors());
+        assertFalse(result.isSuccess(3));
+        assertEquals("failed", result.getError(3).getMessage());
+        for (int i = 0; i < 10; i++) {
+            if (i != 3) {
+                assertEquals(i, result.get(i).getNumOfResults());
+            }
+        }
+        assertTrue(maxRunning.get() <= 3);
+    }
+}
@@ -0,0 +1,97 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.Search;
+import com.rbmhtechnology.vind.api.query.division.Page;
+import com.rbmhtechnology.vind.api.result.FacetResults;
+import com.rbmhtechnology.vind.api.result.PageResult;
+import com.rbmhtechnology.vind.api.result.PrefetchStats;
+import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.DocumentFactoryBuilder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+
+public class PagePrefetcherTest {
+
+    private final DocumentFactory factory = new DocumentFactoryBuilder("asset").build();
+
+    //25 documents, in pages of 10
+    private final TestSearchServer backend = new TestSearchServer() {
+        @Override
+        public SearchResult execute(FulltextSearch search, DocumentFactory factory) {
+            super.execute(search, factory);
+            final Page page = (Page) search.getResultSet();
+            final List<Document> documents = new ArrayList<>();
+            for (int i = page.getOffset(); i < Math.min(page.getOffset() + page.getPagesize(), 25); i++) {
+                documents.add(factory.createDoc(String.valueOf(i)));
+            }
+            return new PageResult(25, documents, search, new FacetResults(factory, null, null, null, null, null, null, null, null), this, factory);
+        }
+    };
+
+    private final CompletableSearchServer server = new CompletableSearchServer(backend, Runnable::run);
+
+    @Test
+    public void testNextPageIsPrefetched() {
+        final PageResult first = (PageResult) server.execute(Search.fulltext().page(1, 10).prefetch(1), factory);
+        assertEquals(2, backend.getSearches());
+
+        final PageResult second = (PageResult) first.nextPage();
+        assertEquals("10", second.getResults().get(0).getId());
+        assertEquals(3, backend.getSearches());
+
+        final PageResult third = (PageResult) second.nextPage();
+        assertEquals(5, third.getResults().size());
+        assertFalse(third.hasNextPage());
+        assertEquals(3, backend.getSearches());
+
+        final PrefetchStats stats = server.getPrefetchStats();
+        assertEquals(2, stats.getPrefetched());
+        assertEquals(2, stats.getHits());
+        assertEquals(0, stats.getMisses());
+        assertEquals(1.0, stats.getHitRate(), 0.0);
+        assertEquals(0.0, stats.getWasteRate(), 0.0);
+
+        //navigating backwards is not prefetched
+        third.previousPage();
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void testPrefetchIsOptIn() {
+        final PageResult first = (PageResult) server.execute(Search.fulltext().page(1, 10), factory);
+        assertEquals(1, backend.getSearches());
+
+        first.nextPage();
+        assertEquals(2, backend.getSearches());
+        assertEquals(0, server.getPrefetchStats().getPrefetched());
+    }
+
+    @Test
+    public void testSharedResultIsNotChanged() {
+        //a result shared by the callers, as handed out by a coalescing search server
+        final SearchResult shared = backend.execute(Search.fulltext().page(1, 10), factory);
+        final TestSearchServer sharing = new TestSearchServer() {
+            @Override
+            public SearchResult execute(FulltextSearch search, DocumentFactory factory) {
+                return shared;
+            }
+        };
+        final CompletableSearchServer prefetching = new CompletableSearchServer(sharing, Runnable::run);
+
+        final PageResult first = (PageResult) prefetching.execute(Search.fulltext().page(1, 10).prefetch(1), factory);
+        assertNotSame(shared, first);
+        assertEquals(shared.getResults(), first.getResults());
+
+        //navigating from the shared result does not use the prefetcher of another caller
+        ((PageResult) shared).nextPage();
+        assertEquals(0, prefetching.getPrefetchStats().getHits());
+    }
+}
@@ -0,0 +1,56 @@
+package com.rbmhtechnology.vind.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SearchExecutorsTest {
+
+    @Test
+    public void testConcurrencyIsLimited() throws Exception {
+        final ExecutorService executor = SearchExecutors.limit(Executors.newCachedThreadPool(), 3);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        try {
+            final List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                tasks.add(executor.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            assertTrue("At most 3 tasks at a time, got " + maxRunning.get(), maxRunning.get() <= 3);
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testVirtualThreadExecutor() throws Exception {
+        //falls back to the fixed pool on runtimes without virtual threads
+        final ExecutorService executor = SearchExecutors.newVirtualThreadExecutor(2);
+        try {
+            assertEquals("done", executor.submit(() -> "done").get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
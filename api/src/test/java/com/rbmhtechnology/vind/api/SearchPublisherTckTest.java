@@ -0,0 +1,66 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.Search;
+import com.rbmhtechnology.vind.api.query.division.Page;
+import com.rbmhtechnology.vind.api.result.FacetResults;
+import com.rbmhtechnology.vind.api.result.PageResult;
+import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.api.result.reactive.SearchPublisher;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.DocumentFactoryBuilder;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.tck.PublisherVerification;
+import org.reactivestreams.tck.TestEnvironment;
+import org.testng.annotations.AfterClass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Verifies the {@link SearchPublisher} against the reactive streams TCK (run by TestNG).
+ */
+public class SearchPublisherTckTest extends PublisherVerification<Document> {
+
+    private final DocumentFactory factory = new DocumentFactoryBuilder("asset").build();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    public SearchPublisherTckTest() {
+        super(new TestEnvironment());
+    }
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public Publisher<Document> createPublisher(long elements) {
+        //the documents of a page are only created when the page is requested
+        final TestSearchServer server = new TestSearchServer() {
+            @Override
+            public SearchResult execute(FulltextSearch search, DocumentFactory factory) {
+                final Page page = (Page) search.getResultSet();
+                final List<Document> documents = new ArrayList<>();
+                for (long i = page.getOffset(); i < Math.min((long) page.getOffset() + page.getPagesize(), elements); i++) {
+                    documents.add(factory.createDoc(String.valueOf(i)));
+                }
+                return new PageResult(elements, documents, search, new FacetResults(factory, null, null, null, null, null, null, null, null), this, factory);
+            }
+        };
+        return SearchPublisher.of(server, Search.fulltext().page(1, 10), factory, executor);
+    }
+
+    @Override
+    public Publisher<Document> createFailedPublisher() {
+        //a failing search is only signalled once results are requested
+        return null;
+    }
+
+    @Override
+    public long maxElementsFromPublisher() {
+        return Integer.MAX_VALUE;
+    }
+}
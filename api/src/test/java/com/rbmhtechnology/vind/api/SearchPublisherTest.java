@@ -0,0 +1,112 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.Search;
+import com.rbmhtechnology.vind.api.query.division.Page;
+import com.rbmhtechnology.vind.api.result.FacetResults;
+import com.rbmhtechnology.vind.api.result.PageResult;
+import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.api.result.reactive.SearchPublisher;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.DocumentFactoryBuilder;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SearchPublisherTest {
+
+    private final DocumentFactory factory = new DocumentFactoryBuilder("asset").build();
+
+    //25 documents, in pages of 10
+    private final TestSearchServer server = new TestSearchServer() {
+        @Override
+        public SearchResult execute(FulltextSearch search, DocumentFactory factory) {
+            super.execute(search, factory);
+            final Page page = (Page) search.getResultSet();
+            final List<Document> documents = new ArrayList<>();
+            for (int i = page.getOffset(); i < Math.min(page.getOffset() + page.getPagesize(), 25); i++) {
+                documents.add(factory.createDoc(String.valueOf(i)));
+            }
+            return new PageResult(25, documents, search, new FacetResults(factory, null, null, null, null, null, null, null, null), this, factory);
+        }
+    };
+
+    @Test
+    public void testPagesFollowDemand() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        SearchPublisher.of(server, Search.fulltext().page(1, 10), factory, Runnable::run).subscribe(subscriber);
+        assertEquals(0, server.getSearches());
+
+        subscriber.subscription.request(5);
+        assertEquals(5, subscriber.ids.size());
+        assertEquals(1, server.getSearches());
+
+        subscriber.subscription.request(10);
+        assertEquals(15, subscriber.ids.size());
+        assertEquals("14", subscriber.ids.get(14));
+        assertEquals(2, server.getSearches());
+
+        //no further page is requested after cancelling
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+        assertEquals(15, subscriber.ids.size());
+        assertEquals(2, server.getSearches());
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    public void testAllResults() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        SearchPublisher.of(server, Search.fulltext().page(1, 10), factory, Runnable::run).subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertEquals(25, subscriber.ids.size());
+        assertEquals(3, server.getSearches());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void testInvalidRequest() {
+        final RecordingSubscriber subscriber = new RecordingSubscriber();
+        SearchPublisher.of(server, Search.fulltext(), factory, Runnable::run).subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertEquals(0, server.getSearches());
+    }
+
+    private static class RecordingSubscriber implements Subscriber<Document> {
+
+        private Subscription subscription;
+        private final List<String> ids = new ArrayList<>();
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Document document) {
+            ids.add(document.getId());
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.rbmhtechnology.vind.api;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallsAreShared() throws Exception {
+        final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Future<Object> leader = executor.submit(() -> singleFlight.execute("q", () -> {
+                calls.incrementAndGet();
+                running.countDown();
+                await(release);
+                return new Object();
+            }));
+            running.await();
+
+            final List<Future<Object>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute("q", () -> {
+                    calls.incrementAndGet();
+                    return new Object();
+                })));
+            }
+            while (singleFlight.getShared() < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<Object> follower : followers) {
+                assertSame(leader.get(), follower.get());
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.getExecuted());
+        assertEquals(3, singleFlight.getShared());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    public void testFinishedCallsAreNotReused() {
+        final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+
+        assertEquals(1, (int) singleFlight.execute("q", calls::incrementAndGet));
+        assertEquals(2, (int) singleFlight.execute("q", calls::incrementAndGet));
+
+        try {
+            singleFlight.execute("q", () -> {
+                throw new IllegalStateException("failed");
+            });
+            fail("exception expected");
+        } catch (IllegalStateException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    public void testErrorIsSharedWithWaitingCalls() throws Exception {
+        final SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<Object> leader = executor.submit(() -> singleFlight.execute("q", () -> {
+                running.countDown();
+                await(release);
+                throw new StackOverflowError();
+            }));
+            running.await();
+
+            final Future<Object> follower = executor.submit(() -> singleFlight.execute("q", Object::new));
+            while (singleFlight.getShared() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<Object> call : Arrays.asList(leader, follower)) {
+                try {
+                    call.get(10, TimeUnit.SECONDS);
+                    fail("error expected");
+                } catch (ExecutionException e) {
+                    assertTrue(e.getCause() instanceof StackOverflowError);
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
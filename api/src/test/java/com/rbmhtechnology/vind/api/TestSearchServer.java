@@ -0,0 +1,120 @@
+package com.rbmhtechnology.vind.api;
+
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.delete.Delete;
+import com.rbmhtechnology.vind.api.query.get.RealTimeGet;
+import com.rbmhtechnology.vind.api.query.suggestion.ExecutableSuggestionSearch;
+import com.rbmhtechnology.vind.api.query.update.Update;
+import com.rbmhtechnology.vind.api.result.BeanSearchResult;
+import com.rbmhtechnology.vind.api.result.FacetResults;
+import com.rbmhtechnology.vind.api.result.GetResult;
+import com.rbmhtechnology.vind.api.result.PageResult;
+import com.rbmhtechnology.vind.api.result.SearchResult;
+import com.rbmhtechnology.vind.api.result.SuggestionResult;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory {@link SearchServer} counting the executed requests, used to test the search server decorators.
+ */
+public class TestSearchServer extends SearchServer {
+
+    private final AtomicInteger searches = new AtomicInteger();
+    private final AtomicInteger writes = new AtomicInteger();
+
+    public int getSearches() {
+        return searches.get();
+    }
+
+    public int getWrites() {
+        return writes.get();
+    }
+
+    @Override
+    public Object getBackend() {
+        return null;
+    }
+
+    @Override
+    public void index(Document... doc) {
+        writes.incrementAndGet();
+    }
+
+    @Override
+    public void index(List<Document> doc) {
+        writes.incrementAndGet();
+    }
+
+    @Override
+    public void delete(Document doc) {
+        writes.incrementAndGet();
+    }
+
+    @Override
+    public void execute(Update update, DocumentFactory factory) {
+        writes.incrementAndGet();
+    }
+
+    @Override
+    public void execute(Delete delete, DocumentFactory factory) {
+        writes.incrementAndGet();
+    }
+
+    @Override
+    public void commit(boolean optimize) {
+        writes.incrementAndGet();
+    }
+
+    @Override
+    public <T> BeanSearchResult<T> execute(FulltextSearch search, Class<T> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SearchResult execute(FulltextSearch search, DocumentFactory factory) {
+        searches.incrementAndGet();
+        return new PageResult(0, Collections.emptyList(), search, new FacetResults(factory, null, null, null, null, null, null, null, null), this, factory);
+    }
+
+    @Override
+    public <T> SuggestionResult execute(ExecutableSuggestionSearch search, Class<T> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SuggestionResult execute(ExecutableSuggestionSearch search, DocumentFactory assets) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SuggestionResult execute(ExecutableSuggestionSearch search, DocumentFactory assets, DocumentFactory childFactory) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> GetResult execute(RealTimeGet search, Class<T> c) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public GetResult execute(RealTimeGet search, DocumentFactory assets) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clearIndex() {
+        writes.incrementAndGet();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public Class<ServiceProvider> getServiceProviderClass() {
+        return null;
+    }
+}
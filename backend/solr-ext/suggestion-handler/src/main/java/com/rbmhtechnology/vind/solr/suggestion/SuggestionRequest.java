@@ -0,0 +1,146 @@
+package com.rbmhtechnology.vind.solr.suggestion;
+
+import com.rbmhtechnology.vind.solr.suggestion.params.SuggestionRequestParams;
+import com.rbmhtechnology.vind.solr.suggestion.service.SuggestionService;
+import org.apache.commons.lang.ArrayUtils;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.params.SolrParams;
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.response.SolrQueryResponse;
+import org.apache.solr.search.CacheRegenerator;
+import org.apache.solr.search.SolrCache;
+import org.apache.solr.search.SolrIndexSearcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The parsed configuration of a suggestion request, used as key of the suggestion result cache. Requests are equal if
+ * their analyzed queries and their configurations are, filter queries in any order. A request can be executed
+ * again on a new searcher, which the {@link #REGENERATOR} does to autowarm the cache.
+ */
+public class SuggestionRequest {
+
+    private static final String SPELLCHECK_ACCURACY = "spellcheck.accuracy";
+
+    /**
+     * Regenerates the cached suggestions of the most recent requests for a new searcher.
+     */
+    public static final CacheRegenerator REGENERATOR = new CacheRegenerator() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean regenerateItem(SolrIndexSearcher newSearcher, SolrCache newCache, SolrCache oldCache, Object oldKey, Object oldVal) {
+            if(oldKey instanceof SuggestionRequest) {
+                newCache.put(oldKey, ((SuggestionRequest) oldKey).execute(newSearcher));
+            }
+            return true;
+        }
+    };
+
+    //not part of the key
+    private final SuggestionService suggestionService;
+    private final String q;
+
+    private final String normalizedQuery;
+    private final String df;
+    private final List<String> singleValueFields;
+    private final List<String> multiValueFields;
+    private final List<String> fqs;
+    private final int termLimit;
+    private final int limit;
+    private final SuggestionRequestHandler.LimitType limitType;
+    private final SuggestionRequestHandler.Type type;
+    private final SuggestionRequestHandler.Strategy strategy;
+    private final SuggestionRequestHandler.Method method;
+    private final String intervalField;
+    private final Map<String, Map<String, Object>> intervals;
+    //request parameters read by the suggestion service
+    private final String interval;
+    private final String spellcheckAccuracy;
+
+    SuggestionRequest(SuggestionService suggestionService, SolrParams params, String q, String normalizedQuery, String df, String[] singleValueFields, String[] multiValueFields, String[] fqs, int termLimit, int limit, SuggestionRequestHandler.LimitType limitType, SuggestionRequestHandler.Type type, SuggestionRequestHandler.Strategy strategy, SuggestionRequestHandler.Method method, String intervalField, Map<String, Map<String, Object>> intervals) {
+        this.suggestionService = suggestionService;
+        this.q = q;
+        this.normalizedQuery = normalizedQuery;
+        this.df = df;
+        this.singleValueFields = singleValueFields != null ? Arrays.asList(singleValueFields) : null;
+        this.multiValueFields = multiValueFields != null ? Arrays.asList(multiValueFields) : null;
+        if(fqs != null) {
+            final String[] sortedFqs = fqs.clone();
+            Arrays.sort(sortedFqs);
+            this.fqs = Arrays.asList(sortedFqs);
+        } else {
+            this.fqs = Collections.emptyList();
+        }
+        this.termLimit = termLimit;
+        this.limit = limit;
+        this.limitType = limitType;
+        this.type = type;
+        this.strategy = strategy;
+        this.method = method;
+        this.intervalField = intervalField;
+        this.intervals = intervals;
+        this.interval = params.get(SuggestionRequestParams.SUGGESTION_INTERVAL);
+        this.spellcheckAccuracy = params.get(SPELLCHECK_ACCURACY);
+    }
+
+    /**
+     * runs the suggestion service for this request
+     * @param searcher the searcher to get the suggestions from
+     * @return the response values written by the suggestion service
+     */
+    public NamedList<Object> execute(SolrIndexSearcher searcher) {
+        final SolrQueryResponse rsp = new SolrQueryResponse();
+        final ModifiableSolrParams params = new ModifiableSolrParams();
+        params.set(SuggestionRequestParams.SUGGESTION_INTERVAL, interval);
+        params.set(SPELLCHECK_ACCURACY, spellcheckAccuracy);
+        final String[] fields = (String[]) ArrayUtils.addAll(toArray(singleValueFields), toArray(multiValueFields));
+        suggestionService.run(rsp, params, q, df, fields, toArray(singleValueFields), toArray(multiValueFields),
+                fqs.isEmpty() ? null : toArray(fqs), termLimit, limit, limitType, type, strategy, method, intervalField, intervals, searcher);
+        return rsp.getValues();
+    }
+
+    private static String[] toArray(List<String> list) {
+        return list != null ? list.toArray(new String[list.size()]) : null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final SuggestionRequest that = (SuggestionRequest) o;
+        return termLimit == that.termLimit &&
+                limit == that.limit &&
+                Objects.equals(normalizedQuery, that.normalizedQuery) &&
+                Objects.equals(df, that.df) &&
+                Objects.equals(singleValueFields, that.singleValueFields) &&
+                Objects.equals(multiValueFields, that.multiValueFields) &&
+                Objects.equals(fqs, that.fqs) &&
+                limitType == that.limitType &&
+                type == that.type &&
+                strategy == that.strategy &&
+                method == that.method &&
+                Objects.equals(intervalField, that.intervalField) &&
+                Objects.equals(intervals, that.intervals) &&
+                Objects.equals(interval, that.interval) &&
+                Objects.equals(spellcheckAccuracy, that.spellcheckAccuracy);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(normalizedQuery, df, singleValueFields, multiValueFields, fqs, termLimit, limit, limitType, type, strategy, method, intervalField, intervals, interval, spellcheckAccuracy);
+    }
+
+    @Override
+    public String toString() {
+        return "SuggestionRequest{" +
+                "q='" + normalizedQuery + '\'' +
+                ", fields=" + singleValueFields +
+                ", multivalueFields=" + multiValueFields +
+                ", fqs=" + fqs +
+                '}';
+    }
+}
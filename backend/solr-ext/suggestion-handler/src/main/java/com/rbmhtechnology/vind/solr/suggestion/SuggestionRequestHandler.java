@@ -1,16 +1,21 @@
 package com.rbmhtechnology.vind.solr.suggestion;
 
 import com.rbmhtechnology.vind.solr.suggestion.params.SuggestionRequestParams;
+import com.rbmhtechnology.vind.solr.suggestion.service.FieldAnalyzerService;
 import com.rbmhtechnology.vind.solr.suggestion.service.SuggestionService;
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.solr.common.params.CommonParams;
 import org.apache.solr.common.params.SolrParams;
 import org.apache.solr.common.util.NamedList;
+import org.apache.solr.core.AbstractSolrEventListener;
 import org.apache.solr.core.SolrCore;
+import org.apache.solr.core.SolrEventListener;
 import org.apache.solr.handler.component.SearchHandler;
 import org.apache.solr.request.SolrQueryRequest;
 import org.apache.solr.response.SolrQueryResponse;
+import org.apache.solr.search.CacheConfig;
+import org.apache.solr.search.SolrCache;
+import org.apache.solr.search.SolrIndexSearcher;
 import org.apache.solr.util.plugin.SolrCoreAware;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +63,19 @@ public class SuggestionRequestHandler extends SearchHandler implements SolrCoreA
         }
     }
 
+    public enum Method {
+        facet,
+        fst;
+
+        public static Method parse(String s, Method def) {
+            try {
+                return valueOf(s);
+            } catch (NullPointerException | IllegalArgumentException e) {
+                return def;
+            }
+        }
+    }
+
     public enum LimitType {
         all,
         each;
@@ -76,6 +94,7 @@ public class SuggestionRequestHandler extends SearchHandler implements SolrCoreA
     private SuggestionService suggestionService;
 
     private static Strategy STRATEGY = Strategy.permutate;
+    private static Method METHOD = Method.facet;
     private static boolean SUGGESTION = true;
     private static String DF = null;
     private static String[] FIELDS = null;
@@ -84,6 +103,7 @@ public class SuggestionRequestHandler extends SearchHandler implements SolrCoreA
     private static int TERM_LIMIT = 10;
     private static int LIMIT = Integer.MAX_VALUE;
     private static LimitType LIMIT_TYPE = LimitType.all;
+    private static String CACHE = "suggestionCache";
 
     private static boolean SUGGESTION_INTERVAL = false;
     private static boolean SUGGESTION_INTERVAL_OTHER = false;
@@ -112,6 +132,9 @@ public class SuggestionRequestHandler extends SearchHandler implements SolrCoreA
         STRATEGY = args.get(SuggestionRequestParams.SUGGESTION_STRATEGY) != null ?
                 Strategy.parse((String)args.get(SuggestionRequestParams.SUGGESTION_STRATEGY), STRATEGY) :STRATEGY;
 
+        METHOD = args.get(SuggestionRequestParams.SUGGESTION_METHOD) != null ?
+                Method.parse((String)args.get(SuggestionRequestParams.SUGGESTION_METHOD), METHOD) : METHOD;
+
         List<String> fields = args.getAll(SuggestionRequestParams.SUGGESTION_FIELD) != null ?
                 args.getAll(SuggestionRequestParams.SUGGESTION_FIELD) : Collections.emptyList();
         if(!fields.isEmpty()) {
@@ -130,6 +153,30 @@ public class SuggestionRequestHandler extends SearchHandler implements SolrCoreA
             FQS = fqs.toArray(new String[fields.size()]);
         }
 
+        CACHE = args.get(SuggestionRequestParams.SUGGESTION_CACHE) != null ?
+                (String) args.get(SuggestionRequestParams.SUGGESTION_CACHE) : CACHE;
+
+        //the cached suggestions are autowarmed by executing their requests on the new searcher
+        if(core.getSolrConfig().userCacheConfigs != null) {
+            for(CacheConfig cacheConfig : core.getSolrConfig().userCacheConfigs) {
+                if(CACHE.equals(cacheConfig.getNodeName()) && cacheConfig.getRegenerator() == null) {
+                    cacheConfig.setRegenerator(SuggestionRequest.REGENERATOR);
+                }
+            }
+        }
+
+        //the analyzed values are cached and the prefix automata built per searcher
+        final SolrEventListener searcherListener = new AbstractSolrEventListener(core) {
+            @Override
+            public void newSearcher(SolrIndexSearcher newSearcher, SolrIndexSearcher currentSearcher) {
+                suggestionService.getAnalyzedValueCache().clear();
+                if(METHOD == Method.fst && FIELDS != null && DF != null) {
+                    suggestionService.warmPrefixIndex(newSearcher, FIELDS, DF);
+                }
+            }
+        };
+        core.registerFirstSearcherListener(searcherListener);
+        core.registerNewSearcherListener(searcherListener);
     }
 
     @Override
@@ -174,6 +221,8 @@ public class SuggestionRequestHandler extends SearchHandler implements SolrCoreA
 
             Strategy strategy = Strategy.parse(params.get(SuggestionRequestParams.SUGGESTION_STRATEGY, null), STRATEGY);
 
+            Method method = Method.parse(params.get(SuggestionRequestParams.SUGGESTION_METHOD, null), METHOD);
+
             LimitType limitType = LimitType.parse(params.get(SuggestionRequestParams.SUGGESTION_LIMIT_TYPE, null), LIMIT_TYPE);
 
             String[] fqs = params.getParams(CommonParams.FQ) != null ? params.getParams(CommonParams.FQ) : FQS;
@@ -191,8 +240,6 @@ public class SuggestionRequestHandler extends SearchHandler implements SolrCoreA
                 rsp.add("warning",error(410,"Multivalue suggestions are deprecated and will not be supported in further versions"));
             }
 
-            final String[] fields = (String[]) ArrayUtils.addAll(single_fields,multivalue_fields);
-
             ///////////////////////
             //Suggestion Intervals
             ///////////////////////
@@ -243,7 +290,19 @@ public class SuggestionRequestHandler extends SearchHandler implements SolrCoreA
 
             logger.debug("Get suggestions for query '{}', type: {}, fqs: {}", q, type, fqs != null ? StringUtils.join(fqs, ",") : "none");
 
-            suggestionService.run(rsp, params, q, df, fields, single_fields, multivalue_fields, fqs,termLimit, limit, limitType, type, strategy,intervalField,rangesMap);
+            final SuggestionRequest request = new SuggestionRequest(suggestionService, params, q, FieldAnalyzerService.analyzeString(req.getCore(), df, q),
+                    df, single_fields, multivalue_fields, fqs, termLimit, limit, limitType, type, strategy, method, intervalField, rangesMap);
+
+            //suggestions are cached per searcher, if the user cache is configured
+            final SolrCache<SuggestionRequest,NamedList<Object>> cache = req.getSearcher().getCache(CACHE);
+            NamedList<Object> suggestions = cache != null ? cache.get(request) : null;
+            if(suggestions == null) {
+                suggestions = request.execute(req.getSearcher());
+                if(cache != null) {
+                    cache.put(request, suggestions);
+                }
+            }
+            rsp.getValues().addAll(suggestions);
 
         } else {
             super.handleRequestBody(req,rsp);
@@ -258,6 +317,15 @@ public class SuggestionRequestHandler extends SearchHandler implements SolrCoreA
     }
 
 
+    @Override
+    public NamedList<Object> getStatistics() {
+        final NamedList<Object> statistics = super.getStatistics();
+        if(suggestionService != null) {
+            statistics.add("analyzedValueCache", suggestionService.getAnalyzedValueCache().getStatistics());
+        }
+        return statistics;
+    }
+
     @Override
     public String getDescription() {
         return "This handler creates suggestions for a faceted search";
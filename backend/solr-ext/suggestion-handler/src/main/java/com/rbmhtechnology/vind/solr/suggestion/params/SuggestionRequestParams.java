@@ -16,7 +16,10 @@ public class SuggestionRequestParams {
 
     public static final String SUGGESTION_TERM_LIMIT = "suggestion.term.limit";
     public static final String SUGGESTION_INTERNAL_LIMIT = "suggestion.internal.limit";
+    public static final String SUGGESTION_ANALYZED_CACHE_SIZE = "suggestion.analyzed.cache.size";
+    public static final String SUGGESTION_CACHE = "suggestion.cache";
     public static final String SUGGESTION_STRATEGY = "suggestion.strategy";
+    public static final String SUGGESTION_METHOD = "suggestion.method";
 
     public static final String SUGGESTION_INTERVAL = "suggestion.interval";
     public static final String SUGGESTION_INTERVAL_LABEL = "suggestion.interval.label";
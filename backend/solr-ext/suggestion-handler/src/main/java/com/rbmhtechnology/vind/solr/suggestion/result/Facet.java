@@ -1,5 +1,7 @@
 package com.rbmhtechnology.vind.solr.suggestion.result;
 
+import java.util.Objects;
+
 /**
  * Represents a simple facet POJO
  * <p/>
@@ -46,4 +48,8 @@ class Facet {
           return false;
         }
     }
+
+    public int hashCode() {
+        return Objects.hash(name, value);
+    }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package com.rbmhtechnology.vind.solr.suggestion.result;
 
 import com.rbmhtechnology.vind.solr.suggestion.SuggestionRequestHandler;
-import com.rbmhtechnology.vind.solr.suggestion.service.FieldAnalyzerService;
+import com.rbmhtechnology.vind.solr.suggestion.service.AnalyzedValueCache;
 import org.apache.solr.common.util.NamedList;
 import org.apache.solr.common.util.SimpleOrderedMap;
 import org.apache.solr.core.SolrCore;
@@ -20,9 +20,13 @@ import java.util.regex.Pattern;
  */
 public class SuggestionResultFactory {
 
+    //upper bound of the multi suggestions computed, if no lower limit is requested
+    private static final int MAX_MULTI_SUGGESTIONS = 100;
+
     /**
      * create a multi suggestion result
      * @param core
+     * @param cache cache of the analyzed facet values
      * @param rsp
      * @param fields
      * @param query
@@ -30,7 +34,7 @@ public class SuggestionResultFactory {
      * @param limit
      * @return a multi suggestion result
      */
-    public static SuggestionResult createMultiValueResult(SolrCore core, SolrQueryResponse rsp, String[] fields, String query, String df, int termLimit, int limit, SuggestionRequestHandler.LimitType limitType) {
+    public static SuggestionResult createMultiValueResult(SolrCore core, AnalyzedValueCache cache, SolrQueryResponse rsp, String[] fields, String query, String df, int termLimit, int limit, SuggestionRequestHandler.LimitType limitType) {
         SuggestionResultMulti result = new SuggestionResultMulti(limit, limitType);
 
         SimpleOrderedMap facets = (SimpleOrderedMap)((SimpleOrderedMap)rsp.getValues().get("facet_counts")).get("facet_fields");
@@ -45,7 +49,7 @@ public class SuggestionResultFactory {
                 Iterator<Map.Entry> iter = ((NamedList)facets.get(field)).iterator();
                 while(iter.hasNext()) {
                     Map.Entry<String, NamedList<Object>> entry = iter.next();
-                    String s = " "+FieldAnalyzerService.analyzeString(core, df, entry.getKey());
+                    String s = " "+cache.analyzeString(core, df, entry.getKey());
                     //try if it maps to current fields
                     if(s.toLowerCase().contains(" "+qps[i].toLowerCase())) {
                         Object o = entry.getValue();
@@ -57,7 +61,12 @@ public class SuggestionResultFactory {
 
         if(list_of_facet_lists.isEmpty()) return result;
 
-        getMultiSuggestions(result,list_of_facet_lists,0,new ArrayList<Facet>());
+        for(List<Facet> suggestion : getMultiSuggestions(list_of_facet_lists, Math.min(limit, MAX_MULTI_SUGGESTIONS))) {
+            SuggestionResultMulti.MultiFacet mf = result.createMultiFacet();
+            for(Facet f : suggestion) {
+                mf.add(f.getName(),f.getValue(),f.getCount());
+            }
+        }
 
         //SuggestionResultMulti.MultiFacet facet = result.createMultiFacet();
         //facet.add("who","Sebastian Vettel",2);
@@ -67,32 +76,85 @@ public class SuggestionResultFactory {
     }
 
     /**
-     * create multi suggestions recursively
-     * @param result
-     * @param all
-     * @param i
-     * @param list
+     * create the top multi suggestions by a beam search over the query terms: the combinations of the facets of the
+     * previous terms are extended by every facet of the next term, keeping only the limit combinations with the highest
+     * count. The count of a combination is the minimum count of its facets, so it never grows when extended and the
+     * kept combinations lead to the top ones. The cost is bounded by terms * limit * facets per term.
+     * @param all the facets matching each query term
+     * @param limit the number of suggestions
+     * @return the combinations of facets, by descending count
      */
-    private static void getMultiSuggestions(SuggestionResultMulti result, List<List<Facet>> all,int i, List<Facet> list) {
-        if(i < all.size()) {
-            for(Facet facet : all.get(i)){
-                List<Facet> fl = new ArrayList<Facet>(list);
-                if(!fl.contains(facet))fl.add(facet);
-                getMultiSuggestions(result,all,++i,fl);
-            }
-        } else {
-            if(!list.isEmpty()) {
-                SuggestionResultMulti.MultiFacet mf = result.createMultiFacet();
-                for(Facet f : list) {
-                    mf.add(f.getName(),f.getValue(),f.getCount());
+    static List<List<Facet>> getMultiSuggestions(List<List<Facet>> all, int limit) {
+        if(limit <= 0) return Collections.emptyList();
+
+        List<Combination> beam = Collections.singletonList(new Combination());
+        for(List<Facet> facets : all) {
+            final List<Facet> sorted = new ArrayList<>(facets);
+            sorted.sort(Comparator.comparingInt(Facet::getCount).reversed());
+
+            final PriorityQueue<Combination> top = new PriorityQueue<>(Comparator.comparingInt(Combination::getCount));
+            final Set<Set<Facet>> seen = new HashSet<>();
+            for(Combination combination : beam) {
+                for(Facet facet : sorted) {
+                    //the facets are sorted, so no further extension makes it into the top
+                    if(top.size() >= limit && Math.min(combination.count, facet.getCount()) <= top.peek().count) break;
+                    final Combination extended = combination.extend(facet);
+                    if(seen.add(extended.key)) {
+                        top.add(extended);
+                        if(top.size() > limit) top.poll();
+                    }
                 }
             }
+            if(top.isEmpty()) return Collections.emptyList();
+            beam = new ArrayList<>(top);
+        }
+
+        beam.sort(Comparator.comparingInt(Combination::getCount).reversed());
+        final List<List<Facet>> suggestions = new ArrayList<>(beam.size());
+        for(Combination combination : beam) {
+            if(!combination.facets.isEmpty()) suggestions.add(combination.facets);
+        }
+        return suggestions;
+    }
+
+    /**
+     * facets chosen for the query terms so far
+     */
+    private static final class Combination {
+        private final List<Facet> facets;
+        private final Set<Facet> key;
+        private final int count;
+
+        private Combination() {
+            this(Collections.emptyList(), Collections.emptySet(), Integer.MAX_VALUE);
+        }
+
+        private Combination(List<Facet> facets, Set<Facet> key, int count) {
+            this.facets = facets;
+            this.key = key;
+            this.count = count;
+        }
+
+        private Combination extend(Facet facet) {
+            //a facet matching several terms is suggested once
+            if(key.contains(facet)) return this;
+            final List<Facet> extendedFacets = new ArrayList<>(facets.size() + 1);
+            extendedFacets.addAll(facets);
+            extendedFacets.add(facet);
+            final Set<Facet> extendedKey = new HashSet<>(key);
+            extendedKey.add(facet);
+            return new Combination(extendedFacets, extendedKey, Math.min(count, facet.getCount()));
+        }
+
+        private int getCount() {
+            return count;
         }
     }
 
     /**
      * create single suggestion result
      * @param core
+     * @param cache cache of the analyzed facet values
      * @param rsp
      * @param fields
      * @param q
@@ -100,33 +162,13 @@ public class SuggestionResultFactory {
      * @param limit
      * @return a single suggestion result
      */
-    public static SuggestionResult createSingleValueResult(SolrCore core, SolrQueryResponse rsp, String[] fields, String q, String df, int termLimit, int limit, SuggestionRequestHandler.LimitType limitType, SuggestionRequestHandler.Strategy strategy, String suggestionField, Map<String, Map<String,Object>> intervals) {
+    public static SuggestionResult createSingleValueResult(SolrCore core, AnalyzedValueCache cache, SolrQueryResponse rsp, String[] fields, String q, String df, int termLimit, int limit, SuggestionRequestHandler.LimitType limitType, SuggestionRequestHandler.Strategy strategy, String suggestionField, Map<String, Map<String,Object>> intervals) {
         SuggesionResultSingle result = new SuggesionResultSingle(limit, limitType);
 
         SimpleOrderedMap facets = (SimpleOrderedMap)rsp.getValues().get("facets");
 
         //get results
-        Pattern pattern = null;
-        switch(strategy) {
-            case exact:
-                pattern = Pattern.compile("^" + Pattern.quote(q.trim()) + "\\S*|\\s" + Pattern.quote(q.trim()) + "\\S*"); break;
-            case permutate:
-                String split[] = q.trim().split(" |\\+");
-                String w = "^";
-
-                final int maxLength = split.length > termLimit ? termLimit : split.length;
-                for(int i = 0; i < maxLength; i++) {
-                    if(i+1 == maxLength) {
-                        w += "(?=.*\\b"+Pattern.quote(split[i])+"\\S*\\b)";
-                    } else {
-                        w += "(?=.*\\b"+Pattern.quote(split[i])+"\\S*\\b)";
-                    }
-                }
-                pattern = Pattern.compile(w += ".+", Pattern.CASE_INSENSITIVE);
-                break;
-        }
-
-        final Pattern word = pattern;
+        final Pattern word = createPattern(q, termLimit, strategy);
         if(intervals!=null && !intervals.isEmpty()) {
             SuggesionResultInterval intervalResult = new SuggesionResultInterval(limit, limitType);
             for (String intervalName : intervals.keySet()) {
@@ -146,7 +188,7 @@ public class SuggestionResultFactory {
                             List<NamedList> fieldValues = (List) (((NamedList) fieldResults.get(fieldName)).get("buckets"));
                             fieldValues.forEach(
                                     value -> {
-                                        Matcher matcher = word.matcher(FieldAnalyzerService.analyzeString(core, df, value.get("val").toString()));
+                                        Matcher matcher = word.matcher(cache.analyzeString(core, df, value.get("val").toString()));
                                         if (matcher.find()) {
                                             intervalResult.addFacet(intervalName,fieldName, value.get("val").toString(), (Integer) value.get("count"), matcher.start());
                                         }
@@ -166,7 +208,7 @@ public class SuggestionResultFactory {
                     List<NamedList> fieldValues = (List) (((NamedList) fieldResults.get(fieldName)).get("buckets"));
                     fieldValues.forEach(
                             value -> {
-                                Matcher matcher = word.matcher(FieldAnalyzerService.analyzeString(core, df, value.get("val").toString()));
+                                Matcher matcher = word.matcher(cache.analyzeString(core, df, value.get("val").toString()));
                                 if (matcher.find()) {
                                     result.addFacet(fieldName, value.get("val").toString(), (Integer) value.get("count"), matcher.start());
                                 }
@@ -180,4 +222,34 @@ public class SuggestionResultFactory {
         return result;
     }
 
+    /**
+     * create the pattern an analyzed facet value has to match to be suggested
+     * @param q the analyzed query
+     * @param termLimit maximal number of query terms considered
+     * @param strategy the suggestion strategy
+     * @return the pattern
+     */
+    public static Pattern createPattern(String q, int termLimit, SuggestionRequestHandler.Strategy strategy) {
+        Pattern pattern = null;
+        switch(strategy) {
+            case exact:
+                pattern = Pattern.compile("^" + Pattern.quote(q.trim()) + "\\S*|\\s" + Pattern.quote(q.trim()) + "\\S*"); break;
+            case permutate:
+                String split[] = q.trim().split(" |\\+");
+                String w = "^";
+
+                final int maxLength = split.length > termLimit ? termLimit : split.length;
+                for(int i = 0; i < maxLength; i++) {
+                    if(i+1 == maxLength) {
+                        w += "(?=.*\\b"+Pattern.quote(split[i])+"\\S*\\b)";
+                    } else {
+                        w += "(?=.*\\b"+Pattern.quote(split[i])+"\\S*\\b)";
+                    }
+                }
+                pattern = Pattern.compile(w += ".+", Pattern.CASE_INSENSITIVE);
+                break;
+        }
+        return pattern;
+    }
+
 }
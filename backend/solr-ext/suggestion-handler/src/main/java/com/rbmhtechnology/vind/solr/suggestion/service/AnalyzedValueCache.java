@@ -0,0 +1,66 @@
+package com.rbmhtechnology.vind.solr.suggestion.service;
+
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.common.util.SimpleOrderedMap;
+import org.apache.solr.core.SolrCore;
+import org.apache.solr.util.ConcurrentLRUCache;
+
+/**
+ * Bounded cache of facet values analyzed like a field, see {@link FieldAnalyzerService#analyzeString}. The values are
+ * keyed by the field type of the analyzing field, so fields of the same type share the analyzed values. The cache is
+ * cleared whenever a new searcher opens; a size below 2 disables it.
+ */
+public class AnalyzedValueCache {
+
+    private final ConcurrentLRUCache<String, String> cache;
+
+    public AnalyzedValueCache(int size) {
+        //evicts down to 90% of the size once full
+        this.cache = size > 1 ? new ConcurrentLRUCache<>(size, Math.min(size * 9 / 10, size - 1)) : null;
+    }
+
+    /**
+     * analyzes string like the given field, if not cached yet
+     * @param core the core of the field
+     * @param field the name of the field
+     * @param value the string to analyze
+     * @return the analyzed string
+     */
+    public String analyzeString(SolrCore core, String field, String value) {
+        if(cache == null) {
+            return FieldAnalyzerService.analyzeString(core, field, value);
+        }
+        final String key = core.getLatestSchema().getFieldType(field).getTypeName() + '\u0000' + value;
+        String analyzed = cache.get(key);
+        if(analyzed == null) {
+            analyzed = FieldAnalyzerService.analyzeString(core, field, value);
+            cache.put(key, analyzed);
+        }
+        return analyzed;
+    }
+
+    /**
+     * removes all analyzed values, keeping the statistics
+     */
+    public void clear() {
+        if(cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the cumulative lookups, hits and hit ratio, the evictions and the current size
+     */
+    public NamedList<Object> getStatistics() {
+        final NamedList<Object> statistics = new SimpleOrderedMap<>();
+        final ConcurrentLRUCache.Stats stats = cache != null ? cache.getStats() : new ConcurrentLRUCache.Stats();
+        final long lookups = stats.getCumulativeLookups();
+        final long hits = stats.getCumulativeHits();
+        statistics.add("lookups", lookups);
+        statistics.add("hits", hits);
+        statistics.add("hitratio", lookups == 0 ? 0f : (float) hits / lookups);
+        statistics.add("evictions", stats.getCumulativeEvictions());
+        statistics.add("size", stats.getCurrentSize());
+        return statistics;
+    }
+}
@@ -0,0 +1,269 @@
+package com.rbmhtechnology.vind.solr.suggestion.service;
+
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.CharsRefBuilder;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.lucene.util.IntsRefBuilder;
+import org.apache.lucene.util.StringHelper;
+import org.apache.lucene.util.fst.Builder;
+import org.apache.lucene.util.fst.BytesRefFSTEnum;
+import org.apache.lucene.util.fst.FST;
+import org.apache.lucene.util.fst.PositiveIntOutputs;
+import org.apache.lucene.util.fst.Util;
+import org.apache.solr.common.SolrException;
+import org.apache.solr.schema.FieldType;
+import org.apache.solr.search.SolrIndexSearcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix automaton over the values of the suggestion fields of one searcher. The values are analyzed like the
+ * default field and their words are compiled into an {@link FST}, mapping every word to the values containing it.
+ * A prefix lookup thus enumerates the words starting with the prefix, instead of matching a regex against every
+ * indexed value. The value counts are the number of live documents of the searcher.
+ * <p/>
+ * The automaton of a field is built when the searcher is warmed or on its first lookup.
+ */
+public class PrefixSuggestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PrefixSuggestionIndex.class);
+
+    private final Map<String, FieldIndex> fields = new ConcurrentHashMap<>();
+
+    /**
+     * Builds the automaton of a field, if not built yet.
+     * @param searcher the searcher this index belongs to
+     * @param field the suggestion field
+     * @param df the field whose analyzer is applied to the values
+     */
+    public void warm(SolrIndexSearcher searcher, String field, String df) {
+        getFieldIndex(searcher, field, df);
+    }
+
+    /**
+     * Looks up the values containing a word for every term prefix, which also match the pattern.
+     * @param searcher the searcher this index belongs to
+     * @param field the suggestion field
+     * @param df the field whose analyzer is applied to the values
+     * @param terms the analyzed query terms, matched as word prefixes
+     * @param pattern pattern the analyzed value has to match
+     * @param limit maximal number of candidates, the ones with the highest counts are kept
+     * @return the matching values, by descending count
+     */
+    public List<Candidate> lookup(SolrIndexSearcher searcher, String field, String df, List<String> terms, Pattern pattern, int limit) {
+        final FieldIndex index = getFieldIndex(searcher, field, df);
+
+        FixedBitSet matching = null;
+        for (String term : terms) {
+            final FixedBitSet termMatching = index.matching(term.toLowerCase(Locale.ROOT));
+            if (matching == null) {
+                matching = termMatching;
+            } else {
+                matching.and(termMatching);
+            }
+        }
+        if (matching == null) {
+            return Collections.emptyList();
+        }
+
+        final PriorityQueue<Candidate> top = new PriorityQueue<>(Comparator.comparingInt(Candidate::getCount));
+        for (int ord = 0; ord < matching.length() && (ord = matching.nextSetBit(ord)) != DocIdSetIterator.NO_MORE_DOCS; ord++) {
+            final Matcher matcher = pattern.matcher(index.analyzed[ord]);
+            if (matcher.find()) {
+                top.add(new Candidate(index.terms[ord], index.values[ord], index.counts[ord], matcher.start()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        final List<Candidate> candidates = new ArrayList<>(top);
+        candidates.sort(Comparator.comparingInt(Candidate::getCount).reversed());
+        return candidates;
+    }
+
+    private FieldIndex getFieldIndex(SolrIndexSearcher searcher, String field, String df) {
+        return fields.computeIfAbsent(field + '/' + df, key -> {
+            try {
+                final long start = System.currentTimeMillis();
+                final FieldIndex index = FieldIndex.build(searcher, field, df);
+                log.info("Built prefix automaton for field {} with {} values in {}ms", field, index.values.length, System.currentTimeMillis() - start);
+                return index;
+            } catch (IOException e) {
+                log.error("Unable to build prefix automaton for field {}", field, e);
+                throw new SolrException(SolrException.ErrorCode.SERVER_ERROR, "Unable to build prefix automaton for field " + field, e);
+            }
+        });
+    }
+
+    /**
+     * A value matching a prefix lookup.
+     */
+    public static class Candidate {
+
+        private final BytesRef term;
+        private final String value;
+        private final int count;
+        private final int position;
+
+        Candidate(BytesRef term, String value, int count, int position) {
+            this.term = term;
+            this.value = value;
+            this.count = count;
+            this.position = position;
+        }
+
+        /**
+         * @return the indexed term of the value
+         */
+        public BytesRef getTerm() {
+            return term;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return the position of the match in the analyzed value
+         */
+        public int getPosition() {
+            return position;
+        }
+    }
+
+    private static final class FieldIndex {
+
+        private final BytesRef[] terms;
+        private final String[] values;
+        private final String[] analyzed;
+        private final int[] counts;
+        //value ords by the output of the word in the automaton
+        private final int[][] postings;
+        private final FST<Long> fst;
+
+        private FieldIndex(BytesRef[] terms, String[] values, String[] analyzed, int[] counts, int[][] postings, FST<Long> fst) {
+            this.terms = terms;
+            this.values = values;
+            this.analyzed = analyzed;
+            this.counts = counts;
+            this.postings = postings;
+            this.fst = fst;
+        }
+
+        private FixedBitSet matching(String prefix) {
+            final FixedBitSet matching = new FixedBitSet(values.length);
+            if (fst == null) {
+                return matching;
+            }
+            final BytesRef prefixBytes = new BytesRef(prefix);
+            try {
+                final BytesRefFSTEnum<Long> words = new BytesRefFSTEnum<>(fst);
+                for (BytesRefFSTEnum.InputOutput<Long> word = words.seekCeil(prefixBytes);
+                     word != null && StringHelper.startsWith(word.input, prefixBytes); word = words.next()) {
+                    for (int ord : postings[word.output.intValue()]) {
+                        matching.set(ord);
+                    }
+                }
+            } catch (IOException e) {
+                //the automaton is held in memory
+                throw new UncheckedIOException(e);
+            }
+            return matching;
+        }
+
+        private static FieldIndex build(SolrIndexSearcher searcher, String field, String df) throws IOException {
+            final LeafReader reader = searcher.getLeafReader();
+            final FieldType fieldType = searcher.getSchema().getFieldType(field);
+            final Bits liveDocs = reader.getLiveDocs();
+
+            final List<BytesRef> terms = new ArrayList<>();
+            final List<String> values = new ArrayList<>();
+            final List<String> analyzed = new ArrayList<>();
+            int[] counts = new int[16];
+            final TreeMap<BytesRef, List<Integer>> words = new TreeMap<>();
+
+            final Terms fieldTerms = reader.terms(field);
+            if (fieldTerms != null) {
+                final TermsEnum termsEnum = fieldTerms.iterator();
+                final CharsRefBuilder chars = new CharsRefBuilder();
+                PostingsEnum postings = null;
+                for (BytesRef term = termsEnum.next(); term != null; term = termsEnum.next()) {
+                    int count = 0;
+                    if (liveDocs == null) {
+                        count = termsEnum.docFreq();
+                    } else {
+                        postings = termsEnum.postings(postings, PostingsEnum.NONE);
+                        for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                            if (liveDocs.get(doc)) {
+                                count++;
+                            }
+                        }
+                    }
+                    if (count == 0) {
+                        continue;
+                    }
+
+                    final int ord = values.size();
+                    final String value = fieldType.indexedToReadable(term, chars).toString();
+                    final String analyzedValue = FieldAnalyzerService.analyzeString(searcher.getCore(), df, value);
+                    terms.add(BytesRef.deepCopyOf(term));
+                    values.add(value);
+                    analyzed.add(analyzedValue);
+                    counts = ArrayUtil.grow(counts, ord + 1);
+                    counts[ord] = count;
+
+                    for (String word : analyzedValue.toLowerCase(Locale.ROOT).split(" ")) {
+                        if (!word.isEmpty()) {
+                            final List<Integer> ords = words.computeIfAbsent(new BytesRef(word), w -> new ArrayList<>());
+                            if (ords.isEmpty() || ords.get(ords.size() - 1) != ord) {
+                                ords.add(ord);
+                            }
+                        }
+                    }
+                }
+            }
+
+            final Builder<Long> builder = new Builder<>(FST.INPUT_TYPE.BYTE1, PositiveIntOutputs.getSingleton());
+            final IntsRefBuilder scratch = new IntsRefBuilder();
+            final int[][] postings = new int[words.size()][];
+            int output = 0;
+            for (Map.Entry<BytesRef, List<Integer>> word : words.entrySet()) {
+                postings[output] = word.getValue().stream().mapToInt(Integer::intValue).toArray();
+                builder.add(Util.toIntsRef(word.getKey(), scratch), (long) output);
+                output++;
+            }
+
+            return new FieldIndex(terms.toArray(new BytesRef[terms.size()]),
+                    values.toArray(new String[values.size()]),
+                    analyzed.toArray(new String[analyzed.size()]),
+                    counts,
+                    postings,
+                    builder.finish());
+        }
+    }
+}
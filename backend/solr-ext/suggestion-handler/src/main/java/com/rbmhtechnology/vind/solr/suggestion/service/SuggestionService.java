@@ -9,6 +9,9 @@ import com.rbmhtechnology.vind.solr.suggestion.result.SuggestionResult;
 import com.rbmhtechnology.vind.solr.suggestion.result.SuggestionResultFactory;
 import com.rbmhtechnology.vind.solr.suggestion.result.SuggestionResultMulti;
 import org.apache.commons.lang.StringUtils;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrException;
 import org.apache.solr.common.params.CommonParams;
@@ -22,11 +25,17 @@ import org.apache.solr.handler.component.SearchHandler;
 import org.apache.solr.request.LocalSolrQueryRequest;
 import org.apache.solr.request.SolrQueryRequest;
 import org.apache.solr.response.SolrQueryResponse;
+import org.apache.solr.search.DocSet;
+import org.apache.solr.search.QParser;
+import org.apache.solr.search.SolrIndexSearcher;
+import org.apache.solr.search.SyntaxError;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -45,12 +54,19 @@ public class SuggestionService {
 
     private String internalFacetLimit = "50";
 
+    private int analyzedValueCacheSize = 10000;
+
     private boolean spellcheck_enabled = false;
 
     private SolrCore solrCore;
 
     private SearchHandler searchHandler;
 
+    //prefix automata of the open searchers, released with their searcher
+    private final Map<SolrIndexSearcher, PrefixSuggestionIndex> prefixIndexes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final AnalyzedValueCache analyzedValueCache;
+
     public SuggestionService(SolrCore solrCore, NamedList args) {
 
         NamedList l = new NamedList();
@@ -67,13 +83,18 @@ public class SuggestionService {
             internalFacetLimit = (String)((NamedList)args.get("defaults")).get(SuggestionRequestParams.SUGGESTION_INTERNAL_LIMIT);
         }
 
+        if(args.get("defaults") != null && ((NamedList)args.get("defaults")).get(SuggestionRequestParams.SUGGESTION_ANALYZED_CACHE_SIZE) != null) {
+            analyzedValueCacheSize = Integer.parseInt((String)((NamedList)args.get("defaults")).get(SuggestionRequestParams.SUGGESTION_ANALYZED_CACHE_SIZE));
+        }
+        analyzedValueCache = new AnalyzedValueCache(analyzedValueCacheSize);
+
         this.solrCore = solrCore;
         this.searchHandler = new SearchHandler();
         this.searchHandler.init(l);
         this.searchHandler.inform(solrCore);
     }
 
-    public void run(SolrQueryResponse rsp, SolrParams params, String query, String df, String[] fields, String[] singlevalue_fields, String[] multivalue_fields, String[] fqs, int termLimit, int limit, SuggestionRequestHandler.LimitType limitType, SuggestionRequestHandler.Type type, SuggestionRequestHandler.Strategy strategy, String suggestionField, Map<String, Map<String,Object>> intervals) {
+    public void run(SolrQueryResponse rsp, SolrParams params, String query, String df, String[] fields, String[] singlevalue_fields, String[] multivalue_fields, String[] fqs, int termLimit, int limit, SuggestionRequestHandler.LimitType limitType, SuggestionRequestHandler.Type type, SuggestionRequestHandler.Strategy strategy, SuggestionRequestHandler.Method method, String suggestionField, Map<String, Map<String,Object>> intervals, SolrIndexSearcher searcher) {
 
         //analyze query in advance
         query = FieldAnalyzerService.analyzeString(solrCore, df, query);
@@ -82,7 +103,20 @@ public class SuggestionService {
 
         Object spellcheck_result;
 
-        SolrQueryResponse response = query(query,params,df,fields,fqs,termLimit,suggestionField,intervals);
+        //the prefix automata support single value suggestions without intervals
+        if(method == SuggestionRequestHandler.Method.fst && type == SuggestionRequestHandler.Type.single && (intervals == null || intervals.isEmpty())) {
+            result = createPrefixResults(query, df, singlevalue_fields, fqs, termLimit, limit, limitType, strategy, searcher);
+            //the facet query is only needed for spellchecking
+            if(result == null && !spellcheck_enabled) {
+                result = createEmptyResults(type, limit, limitType);
+            }
+            if(result != null) {
+                rsp.add(SuggestionResultParams.SUGGESTIONS, result[0].write());
+                return;
+            }
+        }
+
+        SolrQueryResponse response = query(query,params,df,fields,fqs,termLimit,suggestionField,intervals,searcher);
 
         if(response.getValues().get("facets") instanceof SimpleOrderedMap) {
             SimpleOrderedMap facets = (SimpleOrderedMap) response.getValues().get("facets");
@@ -103,7 +137,7 @@ public class SuggestionService {
 
             //query with spellchecked query
             if(spellchecked_query != null) {
-                SolrQueryResponse spellcheck_response = query(spellchecked_query,params,df,fields,fqs,termLimit,suggestionField,intervals);
+                SolrQueryResponse spellcheck_response = query(spellchecked_query,params,df,fields,fqs,termLimit,suggestionField,intervals,searcher);
                 if(spellcheck_response.getValues().get("facets") instanceof SimpleOrderedMap) {
                     SimpleOrderedMap facets = (SimpleOrderedMap) spellcheck_response.getValues().get("facets");
                     if((Integer) facets.get("count") > 0) {
@@ -149,14 +183,14 @@ public class SuggestionService {
         SuggestionResult[] result = new SuggestionResult[2];
         switch (type) {
             case single:
-                result[0] = SuggestionResultFactory.createSingleValueResult(solrCore, rsp, singlevalue_fields, query, df, termLimit, limit, limitType, strategy,sugestionField,intervals);
+                result[0] = SuggestionResultFactory.createSingleValueResult(solrCore, analyzedValueCache, rsp, singlevalue_fields, query, df, termLimit, limit, limitType, strategy,sugestionField,intervals);
                 break;
             case multi:
-                result[1] = SuggestionResultFactory.createMultiValueResult(solrCore, rsp, multivalue_fields, query, df,termLimit, limit, limitType); //TODO consider strategy
+                result[1] = SuggestionResultFactory.createMultiValueResult(solrCore, analyzedValueCache, rsp, multivalue_fields, query, df,termLimit, limit, limitType); //TODO consider strategy
                 break;
             case mixed:
-                result[0] = SuggestionResultFactory.createSingleValueResult(solrCore, rsp, singlevalue_fields, query, df,termLimit, limit, limitType, strategy,sugestionField,intervals);
-                result[1] = SuggestionResultFactory.createMultiValueResult(solrCore, rsp, multivalue_fields, query, df, termLimit, limit, limitType);
+                result[0] = SuggestionResultFactory.createSingleValueResult(solrCore, analyzedValueCache, rsp, singlevalue_fields, query, df,termLimit, limit, limitType, strategy,sugestionField,intervals);
+                result[1] = SuggestionResultFactory.createMultiValueResult(solrCore, analyzedValueCache, rsp, multivalue_fields, query, df, termLimit, limit, limitType);
         }
 
         if ((result[0] == null || result[0].getCount() ==0) && (result[1] == null || ((SuggestionResultMulti) result[1]).getCount() == 0)) {
@@ -165,6 +199,105 @@ public class SuggestionService {
         return result;
     }
 
+    /**
+     * @return the cache of the analyzed facet values of this core
+     */
+    public AnalyzedValueCache getAnalyzedValueCache() {
+        return analyzedValueCache;
+    }
+
+    /**
+     * builds the prefix automata of the fields for a new searcher
+     * @param searcher the new searcher
+     * @param fields the suggestion fields
+     * @param df the field whose analyzer is applied to the values
+     */
+    public void warmPrefixIndex(SolrIndexSearcher searcher, String[] fields, String df) {
+        final PrefixSuggestionIndex index = prefixIndexes.computeIfAbsent(searcher, s -> new PrefixSuggestionIndex());
+        for(String field : fields) {
+            try {
+                index.warm(searcher, field, df);
+            } catch (SolrException e) {
+                log.warn("Unable to warm prefix automaton for field {}", field, e);
+            }
+        }
+    }
+
+    /**
+     * looks up the query terms in the prefix automata of the current searcher; filter queries are only applied to the
+     * top candidates of each field
+     */
+    private SuggestionResult[] createPrefixResults(String query, String df, String[] fields, String[] fqs, int termLimit, int limit, SuggestionRequestHandler.LimitType limitType, SuggestionRequestHandler.Strategy strategy, SolrIndexSearcher searcher) {
+        final List<String> terms = queryTerms(query, termLimit);
+        if(terms.isEmpty()) {
+            return null;
+        }
+        final Pattern pattern = SuggestionResultFactory.createPattern(query, termLimit, strategy);
+
+        final SolrQueryRequest req = createRequest(new ModifiableSolrParams(), searcher);
+        try {
+            final PrefixSuggestionIndex index = prefixIndexes.computeIfAbsent(searcher, s -> new PrefixSuggestionIndex());
+
+            DocSet filter = null;
+            if(fqs != null && fqs.length > 0) {
+                final List<Query> filters = new ArrayList<>();
+                for(String fq : fqs) {
+                    filters.add(QParser.getParser(fq, null, req).getQuery());
+                }
+                filter = searcher.getDocSet(filters);
+            }
+
+            final SuggesionResultSingle result = new SuggesionResultSingle(limit, limitType);
+            for(String field : fields) {
+                for(PrefixSuggestionIndex.Candidate candidate : index.lookup(searcher, field, df, terms, pattern, Integer.valueOf(internalFacetLimit))) {
+                    final int count = filter != null ?
+                            searcher.numDocs(new TermQuery(new Term(field, candidate.getTerm())), filter) : candidate.getCount();
+                    if(count > 0) {
+                        result.addFacet(field, candidate.getValue(), count, candidate.getPosition());
+                    }
+                }
+            }
+            return result.getCount() > 0 ? new SuggestionResult[]{result, null} : null;
+        } catch (SyntaxError e) {
+            throw new SolrException(SolrException.ErrorCode.BAD_REQUEST, "invalid filter query", e);
+        } catch (IOException e) {
+            log.error("Unable to get prefix suggestions", e);
+            throw new SolrException(SolrException.ErrorCode.SERVER_ERROR,"internal server error");
+        } finally {
+            req.close();
+        }
+    }
+
+    /**
+     * creates an internal request on the given searcher, which may not be registered yet when warming
+     */
+    private SolrQueryRequest createRequest(SolrParams params, SolrIndexSearcher searcher) {
+        return new LocalSolrQueryRequest(solrCore, params) {
+            @Override
+            public SolrIndexSearcher getSearcher() {
+                return searcher;
+            }
+        };
+    }
+
+    /**
+     * splits the query into its terms, at most termLimit
+     */
+    private List<String> queryTerms(String query, int termLimit) {
+        //remove *
+        if(query.contains("*")) {
+            query = query.replaceAll("\\*", "");
+        }
+        //Split the query into terms separated by spaces
+        List<String> terms = Arrays.asList(query.trim().split(" |\\+"));
+
+        //Check if the number of terms in the query is bigger than the suggestion.term.limit
+        if(terms.size() > termLimit) {
+            terms = terms.subList(0,termLimit);
+        }
+        return terms.stream().filter(term -> !term.isEmpty()).collect(Collectors.toList());
+    }
+
     private String getSpellcheckedQuery(SolrQueryResponse rsp) {
 
         //check if spellcheck result exists.
@@ -181,7 +314,7 @@ public class SuggestionService {
         }
     }
 
-    private SolrQueryResponse query(String query, SolrParams original_params, String df, String[] fields, String[] fqs, int termLimit, String suggestionField, Map<String,Map<String,Object>> intervals) {
+    private SolrQueryResponse query(String query, SolrParams original_params, String df, String[] fields, String[] fqs, int termLimit, String suggestionField, Map<String,Map<String,Object>> intervals, SolrIndexSearcher searcher) {
 
         SolrQueryResponse rsp = new SolrQueryResponse();
 
@@ -220,7 +353,7 @@ public class SuggestionService {
         //params.add(original_params);
 
         //add other params
-        SolrQueryRequest req = new LocalSolrQueryRequest( solrCore, params );
+        SolrQueryRequest req = createRequest(params, searcher);
         params.set(CommonParams.Q, "*:*");
         params.set(CommonParams.DF, df);
         params.set("q.op", "AND");
@@ -5,9 +5,12 @@ import io.redlink.utils.ResourceLoaderUtils;
 import org.apache.solr.SolrTestCaseJ4;
 import org.apache.solr.common.params.CommonParams;
 import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.util.NamedList;
 import org.apache.solr.core.SolrCore;
 import org.apache.solr.request.LocalSolrQueryRequest;
 import org.apache.solr.request.SolrQueryRequest;
+import org.apache.solr.search.SolrIndexSearcher;
+import org.apache.solr.util.RefCounted;
 import org.junit.*;
 
 import org.junit.rules.TemporaryFolder;
@@ -228,6 +231,81 @@ public class SuggestionRequestHandlerTest extends SolrTestCaseJ4 {
 
     }
 
+    @Test
+    public void prefixAutomatonSuggestionTest() {
+
+        ModifiableSolrParams params = new ModifiableSolrParams();
+
+        params.add(SuggestionRequestParams.SUGGESTION,"true");
+        params.add(SuggestionRequestParams.SUGGESTION_METHOD,"fst");
+        params.add(CommonParams.QT,"/suggester");
+        params.add(CommonParams.Q,"S");
+        params.add(SuggestionRequestParams.SUGGESTION_FIELD,"dynamic_multi_stored_suggest_string_name");
+
+        SolrQueryRequest req = new LocalSolrQueryRequest( core, params );
+
+        assertQ("suggester - prefix automaton suggestion for 'S'",req,
+                "//response/lst[@name='suggestions']/int[@name='suggestion_count'][.='2']",
+                "//response/lst[@name='suggestions']/lst[@name='suggestion_facets']/lst[@name='dynamic_multi_stored_suggest_string_name']/int[@name='sebastian vettel'][.='2']",
+                "//response/lst[@name='suggestions']/lst[@name='suggestion_facets']/lst[@name='dynamic_multi_stored_suggest_string_name']/int[@name='stefan Bradl'][.='1']");
+
+        params.set(CommonParams.Q,"sebastian");
+        params.add(CommonParams.FQ,"dynamic_multi_stored_suggest_string_place:\"(1328869589310-619798898)\"");
+        req = new LocalSolrQueryRequest( core, params );
+
+        assertQ("suggester - prefix automaton suggestion for 'sebastian' with fq",req,
+                "//response/lst[@name='suggestions']/int[@name='suggestion_count'][.='1']",
+                "//response/lst[@name='suggestions']/lst[@name='suggestion_facets']/lst[@name='dynamic_multi_stored_suggest_string_name']/int[@name='sebastian vettel'][.='1']");
+
+    }
+
+    @Test
+    public void analyzedValueCacheTest() {
+
+        ModifiableSolrParams params = new ModifiableSolrParams();
+
+        params.add(SuggestionRequestParams.SUGGESTION,"true");
+        params.add(CommonParams.QT,"/suggester");
+        params.add(CommonParams.Q,"sebastian");
+        params.add(SuggestionRequestParams.SUGGESTION_FIELD,"dynamic_multi_stored_suggest_string_name");
+
+        assertQ("suggester - first suggestion for 'sebastian'", new LocalSolrQueryRequest( core, params ),
+                "//response/lst[@name='suggestions']/int[@name='suggestion_count'][.='1']");
+        assertQ("suggester - cached suggestion for 'sebastian'", new LocalSolrQueryRequest( core, params ),
+                "//response/lst[@name='suggestions']/int[@name='suggestion_count'][.='1']");
+
+        final NamedList statistics = (NamedList) core.getRequestHandler("/suggester").getStatistics().get("analyzedValueCache");
+        assertTrue((Long) statistics.get("hits") > 0);
+    }
+
+    @Test
+    public void suggestionCacheTest() {
+
+        ModifiableSolrParams params = new ModifiableSolrParams();
+
+        params.add(SuggestionRequestParams.SUGGESTION,"true");
+        params.add(CommonParams.QT,"/suggester");
+        params.add(CommonParams.Q,"Sebastian");
+        params.add(SuggestionRequestParams.SUGGESTION_FIELD,"dynamic_multi_stored_suggest_string_name");
+
+        assertQ("suggester - first suggestion for 'Sebastian'", new LocalSolrQueryRequest( core, params ),
+                "//response/lst[@name='suggestions']/int[@name='suggestion_count'][.='1']");
+
+        //same analyzed query
+        params.set(CommonParams.Q,"sebastian");
+        assertQ("suggester - cached suggestion for 'sebastian'", new LocalSolrQueryRequest( core, params ),
+                "//response/lst[@name='suggestions']/int[@name='suggestion_count'][.='1']",
+                "//response/lst[@name='suggestions']/lst[@name='suggestion_facets']/lst[@name='dynamic_multi_stored_suggest_string_name']/int[@name='sebastian vettel'][.='2']");
+
+        final RefCounted<SolrIndexSearcher> searcher = core.getSearcher();
+        try {
+            final NamedList statistics = searcher.get().getCache("suggestionCache").getStatistics();
+            assertEquals(1L, statistics.get("hits"));
+        } finally {
+            searcher.decref();
+        }
+    }
+
     @Test
     public void testCharacterMapping() {
         ModifiableSolrParams params = new ModifiableSolrParams();
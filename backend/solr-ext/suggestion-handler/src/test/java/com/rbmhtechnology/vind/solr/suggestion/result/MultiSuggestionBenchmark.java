@@ -0,0 +1,74 @@
+package com.rbmhtechnology.vind.solr.suggestion.result;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the beam search of {@link SuggestionResultFactory#getMultiSuggestions} on worst case inputs: every query
+ * term matches the full internal facet limit of 50 buckets in each of 2 fields, with distinct values and random
+ * counts. Exhaustively combining these facets would take 100^terms steps.
+ * <p>
+ * Run with {@code mvn test-compile} and {@code java -cp <test classpath> com.rbmhtechnology.vind.solr.suggestion.result.MultiSuggestionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiSuggestionBenchmark {
+
+    private static final int FIELDS = 2;
+    private static final int BUCKETS = 50;
+
+    @Param({"2", "5", "10"})
+    public int terms;
+
+    @Param({"10", "100"})
+    public int limit;
+
+    private List<List<Facet>> facets;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        facets = new ArrayList<>();
+        for (int term = 0; term < terms; term++) {
+            final List<Facet> termFacets = new ArrayList<>();
+            for (int field = 0; field < FIELDS; field++) {
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    termFacets.add(new Facet("field" + field, "value " + term + " " + bucket, 1 + random.nextInt(1000)));
+                }
+            }
+            facets.add(termFacets);
+        }
+    }
+
+    @Benchmark
+    public List<List<Facet>> multiSuggestions() {
+        return SuggestionResultFactory.getMultiSuggestions(facets, limit);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MultiSuggestionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package com.rbmhtechnology.vind.solr.suggestion.result;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SuggestionResultFactoryTest {
+
+    @Test
+    public void testTopMultiSuggestions() {
+        final Facet vettel = new Facet("name", "sebastian vettel", 10);
+        final Facet bradl = new Facet("name", "stefan Bradl", 3);
+        final Facet suzuka = new Facet("place", "suzuka", 5);
+        final Facet japan = new Facet("place", "Japan", 8);
+
+        final List<List<Facet>> suggestions = SuggestionResultFactory.getMultiSuggestions(Arrays.asList(
+                Arrays.asList(bradl, vettel),
+                Arrays.asList(suzuka, japan)), 2);
+
+        assertEquals(2, suggestions.size());
+        assertEquals(Arrays.asList(vettel, japan), suggestions.get(0));
+        assertEquals(Arrays.asList(vettel, suzuka), suggestions.get(1));
+    }
+
+    @Test
+    public void testFacetMatchingSeveralTerms() {
+        final Facet vettel = new Facet("name", "sebastian vettel", 10);
+
+        final List<List<Facet>> suggestions = SuggestionResultFactory.getMultiSuggestions(Arrays.asList(
+                Collections.singletonList(vettel),
+                Collections.singletonList(vettel)), 10);
+
+        assertEquals(Collections.singletonList(Collections.singletonList(vettel)), suggestions);
+    }
+
+    @Test
+    public void testTermWithoutFacets() {
+        final List<List<Facet>> suggestions = SuggestionResultFactory.getMultiSuggestions(Arrays.asList(
+                Collections.singletonList(new Facet("name", "sebastian vettel", 10)),
+                Collections.<Facet>emptyList()), 10);
+
+        assertTrue(suggestions.isEmpty());
+    }
+
+    @Test
+    public void testLimitWithoutSuggestions() {
+        final List<List<Facet>> facets = Arrays.asList(
+                Collections.singletonList(new Facet("name", "sebastian vettel", 10)),
+                Collections.singletonList(new Facet("place", "Japan", 8)));
+
+        assertTrue(SuggestionResultFactory.getMultiSuggestions(facets, 0).isEmpty());
+        assertTrue(SuggestionResultFactory.getMultiSuggestions(facets, -1).isEmpty());
+    }
+}
@@ -0,0 +1,467 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import com.rbmhtechnology.vind.api.Document;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.FieldDescriptor;
+import com.rbmhtechnology.vind.model.MultiValueFieldDescriptor;
+import com.rbmhtechnology.vind.model.MultiValuedComplexField;
+import org.apache.solr.common.SolrDocument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link Document} backed by the raw {@link SolrDocument} of a search result: the value of a field is converted
+ * (and contextualized) only when the field is first accessed. Once all the fields are converted the raw document is
+ * released. As reading a field may convert it, the field accessors are synchronized.
+ */
+final class LazySolrDocument implements Document {
+
+    private final Document document;
+    private final DocumentFactory factory;
+    private final SolrUtils.Result.ResultDecoder decoder;
+
+    private SolrDocument result;
+    private Map<String, List<String>> pending;
+
+    LazySolrDocument(Document document, SolrDocument result, DocumentFactory factory, SolrUtils.Result.ResultDecoder decoder) {
+        this.document = document;
+        this.result = result;
+        this.factory = factory;
+        this.decoder = decoder;
+
+        //group the solr fields by descriptor, a descriptor may be stored in several (contextualized) solr fields
+        this.pending = new HashMap<>();
+        for (String name : result.getFieldNames()) {
+            final FieldDescriptor<?> field = decoder.get(factory, name).getField();
+            if (Objects.nonNull(field)) {
+                pending.computeIfAbsent(field.getName(), f -> new ArrayList<>(1)).add(name);
+            }
+        }
+        if (pending.isEmpty()) {
+            release();
+        }
+    }
+
+    private void load(String field) {
+        if (Objects.isNull(pending) || Objects.isNull(field)) {
+            return;
+        }
+        final List<String> names = pending.remove(field);
+        if (Objects.nonNull(names)) {
+            for (String name : names) {
+                decoder.get(factory, name).decode(document, result.getFieldValue(name));
+            }
+        }
+        if (pending.isEmpty()) {
+            release();
+        }
+    }
+
+    private LazySolrDocument(LazySolrDocument original) {
+        this.document = original.document.copy();
+        this.factory = original.factory;
+        this.decoder = original.decoder;
+        this.result = original.result;
+        this.pending = Objects.nonNull(original.pending) ? new HashMap<>() : null;
+        if (Objects.nonNull(original.pending)) {
+            original.pending.forEach((field, names) -> pending.put(field, new ArrayList<>(names)));
+        }
+    }
+
+    private void load(FieldDescriptor<?> field) {
+        if (Objects.nonNull(field)) {
+            load(field.getName());
+        }
+    }
+
+    private void loadAll() {
+        if (Objects.nonNull(pending)) {
+            new ArrayList<>(pending.keySet()).forEach(this::load);
+        }
+    }
+
+    private void release() {
+        this.pending = null;
+        this.result = null;
+    }
+
+    @Override
+    public synchronized Document setValue(String field, Object value) {
+        load(field);
+        document.setValue(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized Document setContextualizedValue(String field, String context, Object value) {
+        load(field);
+        document.setContextualizedValue(field, context, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document setValue(FieldDescriptor<T> field, T value) {
+        load(field);
+        document.setValue(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document setContextualizedValue(FieldDescriptor<T> field, String context, T value) {
+        load(field);
+        document.setContextualizedValue(field, context, value);
+        return this;
+    }
+
+    @Override
+    public synchronized Document setValues(String field, Object... values) {
+        load(field);
+        document.setValues(field, values);
+        return this;
+    }
+
+    @Override
+    public synchronized Document setContextualizedValues(String field, String context, Object... values) {
+        load(field);
+        document.setContextualizedValues(field, context, values);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document setValues(MultiValueFieldDescriptor<T> field, T... value) {
+        load(field);
+        document.setValues(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document setContextualizedValues(MultiValueFieldDescriptor<T> field, String context, T... value) {
+        load(field);
+        document.setContextualizedValues(field, context, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document setContextualizedValues(MultiValuedComplexField<T, ?, ?> field, String context, T... value) {
+        load(field);
+        document.setContextualizedValues(field, context, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document setValues(MultiValuedComplexField<T, ?, ?> field, T... value) {
+        load(field);
+        document.setValues(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized Document setValues(String field, Collection<?> values) {
+        load(field);
+        document.setValues(field, values);
+        return this;
+    }
+
+    @Override
+    public synchronized Document setContextualizedValues(String field, String context, Collection<?> values) {
+        load(field);
+        document.setContextualizedValues(field, context, values);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document setValues(MultiValueFieldDescriptor<T> field, Collection<T> value) {
+        load(field);
+        document.setValues(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document setValues(MultiValuedComplexField<T, ?, ?> field, Collection<T> value) {
+        load(field);
+        document.setValues(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document setContextualizedValues(MultiValueFieldDescriptor<T> field, String context, Collection<T> value) {
+        load(field);
+        document.setContextualizedValues(field, context, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document setContextualizedValues(MultiValuedComplexField<T, ?, ?> field, String context, Collection<T> value) {
+        load(field);
+        document.setContextualizedValues(field, context, value);
+        return this;
+    }
+
+    @Override
+    public synchronized Document clear(String field) {
+        load(field);
+        document.clear(field);
+        return this;
+    }
+
+    @Override
+    public synchronized Document clear(FieldDescriptor<?> field) {
+        load(field);
+        document.clear(field);
+        return this;
+    }
+
+    @Override
+    public synchronized Document addValue(String field, Object value) {
+        load(field);
+        document.addValue(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized Document addContextualizedValue(String field, String context, Object value) {
+        load(field);
+        document.addContextualizedValue(field, context, value);
+        return this;
+    }
+
+    @Override
+    public Document addChild(Document... documents) {
+        document.addChild(documents);
+        return this;
+    }
+
+    @Override
+    @Deprecated
+    public Document setChildren(Document... documents) {
+        document.setChildren(documents);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document addValue(MultiValueFieldDescriptor<T> field, T value) {
+        load(field);
+        document.addValue(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document addValue(MultiValueFieldDescriptor<T> field, String context, T value) {
+        load(field);
+        document.addValue(field, context, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document addValue(MultiValuedComplexField<T, ?, ?> field, T value) {
+        load(field);
+        document.addValue(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document addContextualizedValue(MultiValueFieldDescriptor<T> field, String context, T value) {
+        load(field);
+        document.addContextualizedValue(field, context, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document addContextualizedValue(MultiValuedComplexField<T, ?, ?> field, String context, T value) {
+        load(field);
+        document.addContextualizedValue(field, context, value);
+        return this;
+    }
+
+    @Override
+    public synchronized Document removeValue(String field, Object value) {
+        load(field);
+        document.removeValue(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized Document removeContextualizedValue(String field, String context, Object value) {
+        load(field);
+        document.removeContextualizedValue(field, context, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document removeValue(FieldDescriptor<T> field, T value) {
+        load(field);
+        document.removeValue(field, value);
+        return this;
+    }
+
+    @Override
+    public synchronized <T> Document removeContextualizedValue(FieldDescriptor<T> field, String context, T value) {
+        load(field);
+        document.removeContextualizedValue(field, context, value);
+        return this;
+    }
+
+    @Override
+    public String getId() {
+        return document.getId();
+    }
+
+    @Override
+    public String getType() {
+        return document.getType();
+    }
+
+    @Override
+    public float getDistance() {
+        return document.getDistance();
+    }
+
+    @Override
+    public void setDistance(float distance) {
+        document.setDistance(distance);
+    }
+
+    @Override
+    public float getScore() {
+        return document.getScore();
+    }
+
+    @Override
+    public void setScore(float score) {
+        document.setScore(score);
+    }
+
+    @Override
+    public Integer getChildCount() {
+        return document.getChildCount();
+    }
+
+    @Override
+    public void setChildCount(Integer childCount) {
+        document.setChildCount(childCount);
+    }
+
+    @Override
+    public synchronized Object getValue(String field) {
+        load(field);
+        return document.getValue(field);
+    }
+
+    @Override
+    public synchronized Object getContextualizedValue(String field, String context) {
+        load(field);
+        return document.getContextualizedValue(field, context);
+    }
+
+    @Override
+    public synchronized <T> T getValue(FieldDescriptor<T> descriptor) {
+        load(descriptor);
+        return document.getValue(descriptor);
+    }
+
+    @Override
+    public synchronized <T> T getContextualizedValue(FieldDescriptor<T> descriptor, String context) {
+        load(descriptor);
+        return document.getContextualizedValue(descriptor, context);
+    }
+
+    @Override
+    public synchronized <T> T getValue(String field, Class<T> clazz) {
+        load(field);
+        return document.getValue(field, clazz);
+    }
+
+    @Override
+    public synchronized <T> T getContextualizedValue(String field, String context, Class<T> clazz) {
+        load(field);
+        return document.getContextualizedValue(field, context, clazz);
+    }
+
+    @Override
+    public synchronized Set<String> getFieldContexts(String field) {
+        load(field);
+        return document.getFieldContexts(field);
+    }
+
+    @Override
+    public synchronized Set<String> getFieldContexts(FieldDescriptor descriptor) {
+        load((FieldDescriptor<?>) descriptor);
+        return document.getFieldContexts(descriptor);
+    }
+
+    @Override
+    public synchronized boolean hasValue(String field) {
+        load(field);
+        return document.hasValue(field);
+    }
+
+    @Override
+    public synchronized <T> boolean hasValue(FieldDescriptor<T> descriptor) {
+        load(descriptor);
+        return document.hasValue(descriptor);
+    }
+
+    @Override
+    public boolean isLoaded(String field) {
+        return document.isLoaded(field);
+    }
+
+    @Override
+    public <T> boolean isLoaded(FieldDescriptor<T> descriptor) {
+        return document.isLoaded(descriptor);
+    }
+
+    @Override
+    public void setLoadedFields(Collection<String> fields) {
+        document.setLoadedFields(fields);
+    }
+
+    @Override
+    public synchronized Document copy() {
+        //fields not read yet stay pending in the copy, decoding them from the same solr result
+        return new LazySolrDocument(this);
+    }
+
+    @Override
+    public boolean hasChildren() {
+        return document.hasChildren();
+    }
+
+    @Override
+    public Collection<Document> getChildren() {
+        return document.getChildren();
+    }
+
+    @Override
+    public boolean hasField(String fieldName) {
+        return document.hasField(fieldName);
+    }
+
+    @Override
+    public FieldDescriptor<?> getFieldDescriptor(String fieldName) {
+        return document.getFieldDescriptor(fieldName);
+    }
+
+    @Override
+    public Map<String, FieldDescriptor<?>> listFieldDescriptors() {
+        return document.listFieldDescriptors();
+    }
+
+    @Override
+    public synchronized Map<String, Object> getValues() {
+        loadAll();
+        return document.getValues();
+    }
+
+    @Override
+    public synchronized String toString() {
+        loadAll();
+        return document.toString();
+    }
+}
@@ -0,0 +1,271 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.params.HttpClientParams;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.params.ConnRouteParams;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.AbstractHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.util.EntityUtils;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.impl.BinaryRequestWriter;
+import org.apache.solr.client.solrj.impl.BinaryResponseParser;
+import org.apache.solr.client.solrj.impl.HttpClientUtil;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.ModifiableSolrParams;
+import org.apache.solr.common.params.UpdateParams;
+import org.apache.solr.common.util.NamedList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking client for the request handlers of a solr core, based on the Apache {@link CloseableHttpAsyncClient}:
+ * requests are sent and responses read by a small number of IO dispatcher threads, so no thread waits while a request
+ * is in flight. Responses are requested in the javabin format and decoded on the executor given with the request.
+ * <p>
+ * The client is configured like the {@link HttpSolrClient} it is created for: socket and connection timeout, proxy,
+ * redirects and credentials are taken from its http client, https and system proxies from the system properties.
+ * Failed requests are never retried, as updates are not idempotent. Cancelling the future of a request aborts it.
+ */
+class NonBlockingSolrClient implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(NonBlockingSolrClient.class);
+
+    private static final ContentType FORM_CONTENT_TYPE = ContentType.create("application/x-www-form-urlencoded", StandardCharsets.UTF_8);
+    private static final ContentType JAVABIN_CONTENT_TYPE = ContentType.create("application/javabin");
+
+    private static final long SELECT_INTERVAL = 100;
+
+    private static final AtomicInteger IO_THREADS = new AtomicInteger();
+
+    private final String baseUrl;
+    private final RequestConfig requestConfig;
+    private final CloseableHttpAsyncClient client;
+    private final BinaryResponseParser parser = new BinaryResponseParser();
+
+    /**
+     * Creates a non-blocking client for the core of a solrj http client.
+     * @param solrClient the solrj client, whose settings are used.
+     * @param ioThreads number of threads handling the network IO.
+     */
+    @SuppressWarnings("deprecation")
+    NonBlockingSolrClient(HttpSolrClient solrClient, int ioThreads) {
+        this.baseUrl = solrClient.getBaseURL().replaceAll("/+$", "");
+
+        //the solrj http clients are configured with http params
+        final HttpClient httpClient = solrClient.getHttpClient();
+        final HttpParams params = httpClient.getParams();
+        this.requestConfig = RequestConfig.custom()
+                .setSocketTimeout(HttpConnectionParams.getSoTimeout(params))
+                .setConnectTimeout(HttpConnectionParams.getConnectionTimeout(params))
+                .setProxy(ConnRouteParams.getDefaultProxy(params))
+                .setRedirectsEnabled(HttpClientParams.isRedirecting(params))
+                .build();
+
+        final HttpAsyncClientBuilder builder = HttpAsyncClientBuilder.create()
+                .useSystemProperties()
+                .setDefaultRequestConfig(requestConfig)
+                .setDefaultIOReactorConfig(IOReactorConfig.custom()
+                        .setIoThreadCount(ioThreads)
+                        //socket timeouts are checked once per select interval, 1s by default
+                        .setSelectInterval(SELECT_INTERVAL)
+                        .setTcpNoDelay(HttpConnectionParams.getTcpNoDelay(params))
+                        .build())
+                .setThreadFactory(runnable -> {
+                    final Thread thread = new Thread(runnable, "vind-solr-io-" + IO_THREADS.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        if (httpClient instanceof AbstractHttpClient) {
+            builder.setDefaultCredentialsProvider(((AbstractHttpClient) httpClient).getCredentialsProvider());
+        }
+        if (httpClient.getConnectionManager() instanceof PoolingClientConnectionManager) {
+            final PoolingClientConnectionManager connectionManager = (PoolingClientConnectionManager) httpClient.getConnectionManager();
+            builder.setMaxConnTotal(connectionManager.getMaxTotal())
+                    .setMaxConnPerRoute(connectionManager.getDefaultMaxPerRoute());
+        }
+        if (!Boolean.parseBoolean(System.getProperty(HttpClientUtil.SYS_PROP_CHECK_PEER_NAME, "true"))) {
+            builder.setSSLHostnameVerifier(NoopHostnameVerifier.INSTANCE);
+        }
+        this.client = builder.build();
+        this.client.start();
+    }
+
+    /**
+     * Checks whether a solrj client can be replaced by a non-blocking client, which is the case for http clients.
+     * @param client the solrj client.
+     * @return true if a {@link NonBlockingSolrClient} can be created for the client.
+     */
+    static boolean supports(Object client) {
+        return client instanceof HttpSolrClient;
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Sends a query to the request handler of the query, /select by default.
+     * @param query the query.
+     * @param timeout maximum time in milliseconds to wait for the response, not positive for the socket timeout of
+     *                the solrj client.
+     * @param executor {@link Executor} decoding the response.
+     * @return {@link CompletableFuture} of the decoded response.
+     */
+    CompletableFuture<NamedList<Object>> query(SolrQuery query, long timeout, Executor executor) {
+        return query(query, null, timeout, executor);
+    }
+
+    /**
+     * Sends a query to the request handler of the query, /select by default, of a collection.
+     * @param query the query.
+     * @param collection the collection appended to the base url like the {@link HttpSolrClient} does, may be null.
+     * @param timeout maximum time in milliseconds to wait for the response, not positive for the socket timeout of
+     *                the solrj client.
+     * @param executor {@link Executor} decoding the response.
+     * @return {@link CompletableFuture} of the decoded response.
+     */
+    CompletableFuture<NamedList<Object>> query(SolrQuery query, String collection, long timeout, Executor executor) {
+        final String handler = query.getRequestHandler();
+        final String path = (Objects.nonNull(collection) ? "/" + collection : "") +
+                (Objects.nonNull(handler) && handler.startsWith("/") ? handler : "/select");
+
+        final ModifiableSolrParams params = new ModifiableSolrParams(query);
+        params.set(CommonParams.WT, parser.getWriterType());
+        params.set(CommonParams.VERSION, parser.getVersion());
+
+        final HttpPost post = new HttpPost(baseUrl + path);
+        //toQueryString starts with the '?'
+        post.setEntity(new StringEntity(params.toQueryString().substring(1), FORM_CONTENT_TYPE));
+        if (timeout > 0) {
+            post.setConfig(RequestConfig.copy(requestConfig).setSocketTimeout((int) Math.min(timeout, Integer.MAX_VALUE)).build());
+        }
+        return execute(post, executor);
+    }
+
+    /**
+     * Sends an update request in the javabin format to the /update handler.
+     * @param update the update request.
+     * @param executor {@link Executor} decoding the response.
+     * @return {@link CompletableFuture} of the decoded response.
+     */
+    CompletableFuture<NamedList<Object>> update(UpdateRequest update, Executor executor) {
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            new BinaryRequestWriter().write(update, body);
+        } catch (IOException e) {
+            final CompletableFuture<NamedList<Object>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        final ModifiableSolrParams params = new ModifiableSolrParams(update.getParams());
+        params.set(CommonParams.WT, parser.getWriterType());
+        params.set(CommonParams.VERSION, parser.getVersion());
+        if (update.getCommitWithin() > 0) {
+            params.set(UpdateParams.COMMIT_WITHIN, update.getCommitWithin());
+        }
+
+        final HttpPost post = new HttpPost(baseUrl + "/update" + params.toQueryString());
+        post.setEntity(new ByteArrayEntity(body.toByteArray(), JAVABIN_CONTENT_TYPE));
+        return execute(post, executor);
+    }
+
+    private CompletableFuture<NamedList<Object>> execute(HttpPost post, Executor executor) {
+        final CompletableFuture<NamedList<Object>> future = new CompletableFuture<>();
+        try {
+            client.execute(post, new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                    try {
+                        executor.execute(() -> {
+                            try {
+                                future.complete(decode(response));
+                            } catch (IOException | RuntimeException e) {
+                                future.completeExceptionally(e);
+                            }
+                        });
+                    } catch (RejectedExecutionException e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    future.completeExceptionally(e);
+                }
+
+                @Override
+                public void cancelled() {
+                    future.cancel(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        future.whenComplete((response, e) -> {
+            if (e instanceof CancellationException) {
+                //aborting the request closes its connection, cancelling the future of the exchange would not
+                post.abort();
+            }
+        });
+        return future;
+    }
+
+    private NamedList<Object> decode(HttpResponse response) throws IOException {
+        final int status = response.getStatusLine().getStatusCode();
+        final HttpEntity entity = response.getEntity();
+        if (Objects.isNull(entity)) {
+            throw new HttpSolrClient.RemoteSolrException(baseUrl, status, "Solr responded with status " + status + " and no content", null);
+        }
+        try (InputStream body = entity.getContent()) {
+            if (status == 200) {
+                return parser.processResponse(body, null);
+            }
+            String message = "Solr responded with status " + status;
+            try {
+                final Object error = parser.processResponse(body, null).get("error");
+                if (error instanceof NamedList && ((NamedList) error).get("msg") != null) {
+                    message = String.valueOf(((NamedList) error).get("msg"));
+                }
+            } catch (RuntimeException e) {
+                log.debug("Response with status {} is not in the javabin format", status);
+            }
+            throw new HttpSolrClient.RemoteSolrException(baseUrl, status, message, null);
+        } finally {
+            EntityUtils.consumeQuietly(entity);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+}
@@ -0,0 +1,61 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import com.rbmhtechnology.vind.api.BulkIndexer;
+import com.rbmhtechnology.vind.api.Document;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link BulkIndexer} sending the batches directly to the {@link SolrClient}. The conversion of the documents of a
+ * batch to {@link SolrInputDocument}s runs in parallel on a dedicated pool of
+ * {@link BulkIndexer.Options#getConverterThreads()} threads.
+ */
+class SolrBulkIndexer extends BulkIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(SolrBulkIndexer.class);
+    private static final Logger solrClientLogger = LoggerFactory.getLogger(SolrSearchServer.class.getName() + "#solrClient");
+
+    private final SolrClient solrClient;
+    private final Function<Document, SolrInputDocument> converter;
+    private final ForkJoinPool converterPool;
+
+    SolrBulkIndexer(SolrClient solrClient, Function<Document, SolrInputDocument> converter, Options options) {
+        super(options);
+        this.solrClient = solrClient;
+        this.converter = converter;
+        this.converterPool = new ForkJoinPool(options.getConverterThreads());
+    }
+
+    @Override
+    protected void indexBatch(List<Document> batch) throws Exception {
+        final List<SolrInputDocument> solrDocs;
+        try {
+            solrDocs = converterPool.submit(() -> batch.parallelStream()
+                    .map(converter)
+                    .collect(Collectors.toList())).get();
+        } catch (ExecutionException e) {
+            log.error("Cannot convert batch of {} documents", batch.size(), e.getCause());
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+
+        solrClientLogger.debug(">>> add({} documents)", solrDocs.size());
+        solrClient.add(solrDocs);
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            super.close();
+        } finally {
+            converterPool.shutdown();
+        }
+    }
+}
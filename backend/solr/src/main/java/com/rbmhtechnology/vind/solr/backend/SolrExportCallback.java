@@ -0,0 +1,47 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import com.rbmhtechnology.vind.api.Document;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import org.apache.solr.client.solrj.StreamingResponseCallback;
+import org.apache.solr.common.SolrDocument;
+
+import java.util.function.Consumer;
+
+/**
+ * Converts the documents of a streamed Solr response one by one and hands them to a consumer, so the result list of
+ * a batch is never materialized.
+ */
+class SolrExportCallback extends StreamingResponseCallback {
+
+    private final DocumentFactory factory;
+    private final SolrUtils.Result.ResultDecoder decoder;
+    private final Consumer<Document> consumer;
+
+    private long numFound = 0;
+    private long count = 0;
+
+    SolrExportCallback(DocumentFactory factory, String searchContext, Consumer<Document> consumer) {
+        this.factory = factory;
+        this.decoder = SolrUtils.Result.ResultDecoder.of(factory, searchContext);
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void streamSolrDocument(SolrDocument doc) {
+        consumer.accept(SolrUtils.Result.buildResult(doc, null, factory, decoder));
+        count++;
+    }
+
+    @Override
+    public void streamDocListInfo(long numFound, long start, Float maxScore) {
+        this.numFound = numFound;
+    }
+
+    long getNumFound() {
+        return numFound;
+    }
+
+    long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,154 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.rbmhtechnology.vind.model.FieldDescriptor;
+import com.rbmhtechnology.vind.model.SingleValuedComplexField;
+import com.rbmhtechnology.vind.model.value.LatLng;
+import com.rbmhtechnology.vind.solr.backend.SolrUtils.Fieldname.UseCase;
+import org.apache.solr.common.SolrInputDocument;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Precompiled conversion of the values of a {@link FieldDescriptor} into Solr fields. The plan lists the use cases
+ * the descriptor actually produces a Solr field for, together with the Solr field names per context, so indexing a
+ * document only has to apply the value conversions.
+ * <p>
+ * Plans are cached per descriptor (and so per {@link com.rbmhtechnology.vind.model.DocumentFactory}) and compiled
+ * again if the mutable flags of the descriptor (contextualized, sort) change. A plan does not reference its descriptor,
+ * which is passed to {@link #apply}, so the cached plans are collected together with their descriptors.
+ */
+final class SolrIndexPlan {
+
+    private static final Cache<FieldDescriptor<?>, SolrIndexPlan> PLANS = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
+    private final boolean contextualized;
+    private final boolean sort;
+
+    private final UseCase[] useCases;
+    private final boolean[] reuseStored;
+    private final String[] fieldnames;
+    private final ConcurrentMap<String, String[]> contextFieldnames = new ConcurrentHashMap<>();
+
+    private SolrIndexPlan(FieldDescriptor<?> descriptor) {
+        this.contextualized = descriptor.isContextualized();
+        this.sort = descriptor.isSort();
+
+        final List<UseCase> cases = new ArrayList<>();
+        for (UseCase useCase : UseCase.values()) {
+            //if the field is not stored the Stored use case falls back to the sort field which is filled by the Sort use case
+            if (useCase == UseCase.Stored && !descriptor.isStored()) {
+                continue;
+            }
+            if (Objects.nonNull(SolrUtils.Fieldname.getFieldname(descriptor, useCase, null))) {
+                cases.add(useCase);
+            }
+        }
+        this.useCases = cases.toArray(new UseCase[cases.size()]);
+
+        //a single valued complex field without sort function is sorted by its stored value
+        this.reuseStored = new boolean[useCases.length];
+        final boolean storedSort = descriptor instanceof SingleValuedComplexField
+                && ((SingleValuedComplexField) descriptor).getSortFunction() == null
+                && cases.contains(UseCase.Stored);
+        for (int i = 0; i < useCases.length; i++) {
+            reuseStored[i] = storedSort && useCases[i] == UseCase.Sort;
+        }
+
+        this.fieldnames = compileFieldnames(descriptor, null);
+    }
+
+    /**
+     * Gets the plan of a descriptor, compiling it if needed.
+     * @param descriptor the {@link FieldDescriptor} to index.
+     * @return the {@link SolrIndexPlan} of the descriptor.
+     */
+    static SolrIndexPlan of(FieldDescriptor<?> descriptor) {
+        SolrIndexPlan plan = PLANS.getIfPresent(descriptor);
+        if (plan == null || plan.contextualized != descriptor.isContextualized() || plan.sort != descriptor.isSort()) {
+            plan = new SolrIndexPlan(descriptor);
+            PLANS.put(descriptor, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Adds the Solr fields for a value of the descriptor to the document.
+     * @param document the {@link SolrInputDocument} to fill.
+     * @param descriptor the {@link FieldDescriptor} the plan has been compiled for.
+     * @param context the context of the value, may be null.
+     * @param value the value to index.
+     */
+    void apply(SolrInputDocument document, FieldDescriptor<?> descriptor, String context, Object value) {
+        final String[] names = getFieldnames(descriptor, context);
+
+        Object storedValue = null;
+        Object lastCaseValue = null;
+        Object lastSolrValue = null;
+        for (int i = 0; i < useCases.length; i++) {
+            final Object caseValue = reuseStored[i] ?
+                    storedValue : SolrUtils.FieldValue.getFieldCaseValue(value, descriptor, useCases[i]);
+            if (useCases[i] == UseCase.Stored) {
+                storedValue = caseValue;
+            }
+            if (Objects.nonNull(caseValue)) {
+                if (caseValue != lastCaseValue) {
+                    lastCaseValue = caseValue;
+                    lastSolrValue = toSolrJType(caseValue);
+                }
+                document.addField(names[i], lastSolrValue);
+            }
+        }
+    }
+
+    private String[] getFieldnames(FieldDescriptor<?> descriptor, String context) {
+        if (Objects.isNull(context) || !contextualized) {
+            return fieldnames;
+        }
+        return contextFieldnames.computeIfAbsent(context, c -> compileFieldnames(descriptor, c));
+    }
+
+    private String[] compileFieldnames(FieldDescriptor<?> descriptor, String context) {
+        final String[] names = new String[useCases.length];
+        for (int i = 0; i < useCases.length; i++) {
+            names[i] = SolrUtils.Fieldname.getFieldname(descriptor, useCases[i], context);
+        }
+        return names;
+    }
+
+    static Object toSolrJType(Object value) {
+        if(value!=null) {
+            if(Object[].class.isAssignableFrom(value.getClass())){
+                return toSolrJType(Arrays.asList((Object[])value));
+            }
+            if(Collection.class.isAssignableFrom(value.getClass())){
+                return((Collection<?>)value).stream()
+                        .map(o -> toSolrJType(o))
+                        .collect(Collectors.toList());
+            }
+            if(value instanceof ZonedDateTime) {
+                return Date.from(((ZonedDateTime) value).toInstant());
+            }
+            if(value instanceof LatLng) {
+                return value.toString();
+            }
+            if(value instanceof Date) {
+                //noinspection RedundantCast
+                return ((Date) value);
+            }
+        }
+        return value;
+    }
+}
@@ -3,11 +3,13 @@ package com.rbmhtechnology.vind.solr.backend;
 import com.google.common.io.Resources;
 import com.rbmhtechnology.vind.SearchServerException;
 import com.rbmhtechnology.vind.annotations.AnnotationUtil;
+import com.rbmhtechnology.vind.api.BulkIndexer;
 import com.rbmhtechnology.vind.api.Document;
 import com.rbmhtechnology.vind.api.SearchServer;
 import com.rbmhtechnology.vind.api.ServiceProvider;
 import com.rbmhtechnology.vind.api.query.*;
 import com.rbmhtechnology.vind.api.query.delete.Delete;
+import com.rbmhtechnology.vind.api.query.division.Cursor;
 import com.rbmhtechnology.vind.api.query.division.Page;
 import com.rbmhtechnology.vind.api.query.division.Slice;
 import com.rbmhtechnology.vind.api.query.facet.Facet;
@@ -30,6 +32,8 @@ import org.apache.http.util.Asserts;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.client.solrj.request.UpdateRequest;
 import org.apache.solr.client.solrj.request.schema.SchemaRequest;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.client.solrj.response.SolrPingResponse;
@@ -44,11 +48,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -65,8 +75,15 @@ public class SolrSearchServer extends SearchServer {
     public static final String SOLR_WILDCARD = "*";
     public static final String SUGGESTION_DF_FIELD = "suggestions";
 
+    //time granted on top of the timeAllowed of a query for the response to get back before the client gives up
+    private static final long CLIENT_TIMEOUT_GRACE = TimedHttpSolrClient.DEFAULT_GRACE;
+
     private ServiceProvider serviceProviderClass;
     private final SolrClient solrClient;
+    //client sending the queries, which waits for the response at most the timeAllowed plus a grace period if possible
+    private final SolrClient queryClient;
+    //non-blocking client used for async requests, null if the async requests run the blocking calls on the executor
+    private final NonBlockingSolrClient asyncClient;
 
     public SolrSearchServer() {
         // this is mainly used with the ServiceLoader infrastructure
@@ -86,6 +103,8 @@ public class SolrSearchServer extends SearchServer {
      */
     protected SolrSearchServer(SolrClient client, boolean check) {
         solrClient = client;
+        queryClient = TimedHttpSolrClient.supports(client) ? new TimedHttpSolrClient((HttpSolrClient) client, CLIENT_TIMEOUT_GRACE) : client;
+        asyncClient = createAsyncClient(client);
 
         //In order to perform unit tests with mocked solrClient, we do not need to do the schema check.
         if(check && client != null) {
@@ -106,6 +125,24 @@ public class SolrSearchServer extends SearchServer {
         }
     }
 
+    /**
+     * Creates the non-blocking client for async requests if enabled ({@link SearchConfiguration#SERVER_ASYNC_ENABLED})
+     * and the solr client is an http client, with the settings of the solr client.
+     */
+    private static NonBlockingSolrClient createAsyncClient(SolrClient client) {
+        if(!SearchConfiguration.get(SearchConfiguration.SERVER_ASYNC_ENABLED, false)) {
+            return null;
+        }
+        if(!NonBlockingSolrClient.supports(client)) {
+            log.warn("Non-blocking requests are only supported for http solr clients, async requests block a thread");
+            return null;
+        }
+        final NonBlockingSolrClient asyncClient = new NonBlockingSolrClient((HttpSolrClient) client,
+                SearchConfiguration.get(SearchConfiguration.SERVER_ASYNC_IO_THREADS, 2));
+        log.info("Sending async requests to {} without blocking", asyncClient.getBaseUrl());
+        return asyncClient;
+    }
+
     private void checkVersionAndSchema() {
         //check schema
         try {
@@ -133,20 +170,54 @@ public class SolrSearchServer extends SearchServer {
     public void index(Document ... docs) {
         Asserts.notNull(docs,"Document to index should not be null.");
         Asserts.check(docs.length > 0, "Should be at least one document to index.");
+        final int commitWithin = getCommitPolicy().getCommitWithin();
         for(Document doc: docs) {
-            indexSingleDocument(doc);
+            indexSingleDocument(doc, commitWithin);
         }
     }
 
     @Override
     public void index(List<Document> docs) {
+        index(docs, getCommitPolicy().getCommitWithin());
+    }
+
+    @Override
+    public void index(List<Document> docs, int commitWithin) {
+        Asserts.notNull(docs,"Document to index should not be null.");
+        Asserts.check(docs.size() > 0, "Should be at least one document to index.");
+
+        indexMultipleDocuments(docs, commitWithin);
+    }
+
+    @Override
+    public CompletableFuture<Void> indexAsync(Executor executor, List<Document> docs) {
+        if(asyncClient == null) {
+            return super.indexAsync(executor, docs);
+        }
         Asserts.notNull(docs,"Document to index should not be null.");
         Asserts.check(docs.size() > 0, "Should be at least one document to index.");
 
-        indexMultipleDocuments(docs);
+        final UpdateRequest update = new UpdateRequest();
+        final List<SolrInputDocument> solrDocs = docs.stream()
+                .map(this::createInputDocument)
+                .collect(Collectors.toList());
+        update.add(solrDocs);
+        final int commitWithin = getCommitPolicy().getCommitWithin();
+        if (commitWithin > 0) {
+            update.setCommitWithin(commitWithin);
+        }
+        solrClientLogger.debug(">>> add({})", solrDocs);
+        return asyncClient.update(update, executor)
+                .<Void>thenApply(response -> null)
+                .exceptionally(rethrow("Cannot index documents"));
+    }
+
+    @Override
+    public BulkIndexer bulkIndexer(BulkIndexer.Options options) {
+        return new SolrBulkIndexer(solrClient, this::createInputDocument, options);
     }
 
-    private void indexSingleDocument(Document doc) {
+    private void indexSingleDocument(Document doc, int commitWithin) {
         final SolrInputDocument document = createInputDocument(doc);
         try {
             if (solrClientLogger.isTraceEnabled()) {
@@ -154,14 +225,14 @@ public class SolrSearchServer extends SearchServer {
             } else {
                 solrClientLogger.debug(">>> add({})", doc.getId());
             }
-            this.solrClient.add(document);
+            add(document, commitWithin);
         } catch (SolrServerException | IOException e) {
             log.error("Cannot index document {}", document.getField(SolrUtils.Fieldname.ID) , e);
             throw new SearchServerException("Cannot index document", e);
         }
     }
 
-    private void indexMultipleDocuments(List<Document> docs) {
+    private void indexMultipleDocuments(List<Document> docs, int commitWithin) {
         final List<SolrInputDocument> solrDocs = docs.parallelStream()
                 .map(doc -> createInputDocument(doc))
                 .collect(Collectors.toList());
@@ -171,39 +242,44 @@ public class SolrSearchServer extends SearchServer {
             } else {
                 solrClientLogger.debug(">>> add({})", solrDocs);
             }
-            this.solrClient.add(solrDocs);
+            if (commitWithin > 0) {
+                this.solrClient.add(solrDocs, commitWithin);
+            } else {
+                this.solrClient.add(solrDocs);
+            }
         } catch (SolrServerException | IOException e) {
             log.error("Cannot index documents {}", solrDocs, e);
             throw new SearchServerException("Cannot index documents", e);
         }
     }
 
+    private void add(SolrInputDocument document, int commitWithin) throws SolrServerException, IOException {
+        if (commitWithin > 0) {
+            this.solrClient.add(document, commitWithin);
+        } else {
+            this.solrClient.add(document);
+        }
+    }
+
+    private void deleteByQuery(String query, int commitWithin) throws SolrServerException, IOException {
+        if (commitWithin > 0) {
+            this.solrClient.deleteByQuery(query, commitWithin);
+        } else {
+            this.solrClient.deleteByQuery(query);
+        }
+    }
+
     private SolrInputDocument createInputDocument(Document doc) {
         final SolrInputDocument document = new SolrInputDocument();
         //add fields
-        doc.listFieldDescriptors()
-                .values()
-                .stream()
-                .filter(doc::hasValue)
-                //TODO: move again to an approach where we do not go through all the use cases but based on which flags the descriptor has set to true
-                .forEach(descriptor ->
-                        doc.getFieldContexts(descriptor).stream().forEach(context ->
-                                Stream.of(SolrUtils.Fieldname.UseCase.values())
-                                        .forEach(useCase -> {
-                                                    final String fieldname = SolrUtils.Fieldname.getFieldname(descriptor, useCase, context);
-                                                    if (Objects.nonNull(fieldname)) {
-                                                        final Object value = doc.getContextualizedValue(descriptor, context);
-                                                        final Object caseValue = SolrUtils.FieldValue.getFieldCaseValue(value, descriptor, useCase);
-                                                        if(Objects.nonNull(caseValue)) {
-                                                            document.addField(
-                                                                fieldname,
-                                                                toSolrJType(caseValue)
-                                                                //,descriptor.getBoost() TODO should we have index time boost?
-                                                            );
-                                                        }
-                                                    }
-                                                }
-                                        )));
+        for (FieldDescriptor<?> descriptor : doc.listFieldDescriptors().values()) {
+            if (doc.hasValue(descriptor)) {
+                final SolrIndexPlan plan = SolrIndexPlan.of(descriptor);
+                for (String context : doc.getFieldContexts(descriptor)) {
+                    plan.apply(document, descriptor, context, doc.getContextualizedValue(descriptor, context));
+                }
+            }
+        }
 
         //add subdocuments
         if (doc.hasChildren()) {
@@ -218,30 +294,6 @@ public class SolrSearchServer extends SearchServer {
         return document;
     }
 
-    private Object toSolrJType(Object value) {
-        if(value!=null) {
-            if(Object[].class.isAssignableFrom(value.getClass())){
-                return toSolrJType(Arrays.asList((Object[])value));
-            }
-            if(Collection.class.isAssignableFrom(value.getClass())){
-                return((Collection)value).stream()
-                        .map(o -> toSolrJType(o))
-                        .collect(Collectors.toList());
-            }
-            if(value instanceof ZonedDateTime) {
-                return Date.from(((ZonedDateTime) value).toInstant());
-            }
-            if(value instanceof LatLng) {
-                return value.toString();
-            }
-            if(value instanceof Date) {
-                //noinspection RedundantCast
-                return ((Date) value);
-            }
-        }
-        return value;
-    }
-
     @Override
     public void commit(boolean optimize) {
         try {
@@ -257,9 +309,20 @@ public class SolrSearchServer extends SearchServer {
         }
     }
 
+    @Override
+    public void softCommit() {
+        try {
+            solrClientLogger.debug(">>> commit(softCommit)");
+            this.solrClient.commit(true, true, true);
+        } catch (SolrServerException | IOException e) {
+            log.error("Cannot commit", e);
+            throw new SearchServerException("Cannot commit", e);
+        }
+    }
+
     @Override
     public <T> BeanSearchResult<T> execute(FulltextSearch search, Class<T> c) {
-        final DocumentFactory factory = AnnotationUtil.createDocumentFactory(c);
+        final DocumentFactory factory = AnnotationUtil.getDocumentMapper(c).getDocumentFactory();
 
         final SearchResult docResult = this.execute(search, factory);
 
@@ -268,9 +331,18 @@ public class SolrSearchServer extends SearchServer {
 
     @Override
     public void delete(Document doc) {
+        delete(doc, getCommitPolicy().getCommitWithin());
+    }
+
+    @Override
+    public void delete(Document doc, int commitWithin) {
         try {
             solrClientLogger.debug(">>> delete({})", doc.getId());
-            solrClient.deleteById(doc.getId());
+            if (commitWithin > 0) {
+                solrClient.deleteById(doc.getId(), commitWithin);
+            } else {
+                solrClient.deleteById(doc.getId());
+            }
         } catch (SolrServerException | IOException e) {
             log.error("Cannot delete document {}", doc.getId() , e);
             throw new SearchServerException("Cannot delete document", e);
@@ -283,24 +355,10 @@ public class SolrSearchServer extends SearchServer {
         //query
         try {
             solrClientLogger.debug(">>> query({})", query.toString());
-            final QueryResponse response = solrClient.query(query);
+            final long start = System.currentTimeMillis();
+            final QueryResponse response = query(query, search.getTimeout());
             if(response!=null){
-
-                final Map<String,Integer> childCounts = SolrUtils.getChildCounts(response);
-
-                final List<Document> documents = SolrUtils.Result.buildResultList(response.getResults(), childCounts, factory, search.getSearchContext());
-                final FacetResults facetResults = SolrUtils.Result.buildFacetResult(response, factory,search.getFacets(),search.getSearchContext());
-
-                switch(search.getResultSet().getType()) {
-                    case page:{
-                        return new PageResult(response.getResults().getNumFound(), documents, search, facetResults, this, factory);
-                    }
-                    case slice: {
-                        return new SliceResult(response.getResults().getNumFound(), documents, search, facetResults, this, factory);
-                    }
-                    default:
-                        return new PageResult(response.getResults().getNumFound(), documents, search, facetResults, this, factory);
-                }
+                return buildSearchResult(response, search, factory, System.currentTimeMillis() - start);
             }else {
                 throw new SolrServerException("Null result from SolrClient");
             }
@@ -310,6 +368,135 @@ public class SolrSearchServer extends SearchServer {
         }
     }
 
+    @Override
+    public CompletableFuture<SearchResult> executeAsync(FulltextSearch search, DocumentFactory factory, Executor executor) {
+        if(asyncClient == null) {
+            return super.executeAsync(search, factory, executor);
+        }
+        final SolrQuery query;
+        try {
+            query = buildSolrQuery(search, factory);
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+        solrClientLogger.debug(">>> query({})", query.toString());
+        final long start = System.currentTimeMillis();
+        return asyncClient.query(query, clientTimeout(search.getTimeout()), executor)
+                .thenApply(response -> buildSearchResult(new QueryResponse(response, solrClient), search, factory, System.currentTimeMillis() - start))
+                .exceptionally(rethrow("Cannot issue query"));
+    }
+
+    private SearchResult buildSearchResult(QueryResponse response, FulltextSearch search, DocumentFactory factory, long elapsedTime) {
+        final boolean partialResults = SolrUtils.isPartialResults(response);
+        if(partialResults) {
+            log.warn("Query exceeded its timeout of {}ms, returning partial results", search.getTimeout());
+        }
+
+        final Map<String,Integer> childCounts = SolrUtils.getChildCounts(response);
+
+        final List<Document> documents = SolrUtils.Result.buildResultList(response.getResults(), childCounts, factory, search.getSearchContext(), search.isLazy());
+        if(search.hasFields()) {
+            final Set<String> loadedFields = search.getFields().stream()
+                    .map(FieldDescriptor::getName)
+                    .collect(Collectors.toSet());
+            documents.forEach(document -> document.setLoadedFields(loadedFields));
+        }
+        final FacetResults facetResults = search.isJsonFacet() ?
+                SolrUtils.Result.buildJsonFacetResult(response, factory, search.getFacets(), search.getSearchContext()) :
+                SolrUtils.Result.buildFacetResult(response, factory,search.getFacets(),search.getSearchContext());
+
+        final SearchResult result;
+        switch(search.getResultSet().getType()) {
+            case page:{
+                result = new PageResult(response.getResults().getNumFound(), documents, search, facetResults, this, factory);
+                break;
+            }
+            case slice: {
+                result = new SliceResult(response.getResults().getNumFound(), documents, search, facetResults, this, factory);
+                break;
+            }
+            case cursor: {
+                result = new CursorResult(response.getResults().getNumFound(), documents, response.getNextCursorMark(), search, facetResults, this, factory);
+                break;
+            }
+            default:
+                result = new PageResult(response.getResults().getNumFound(), documents, search, facetResults, this, factory);
+        }
+        return result.setPartialResults(partialResults).setElapsedTime(elapsedTime);
+    }
+
+    /**
+     * Gets the time the async client waits for the response of a query, the timeout of the query plus a grace period.
+     */
+    private static long clientTimeout(long timeout) {
+        return timeout > 0 ? timeout + CLIENT_TIMEOUT_GRACE : 0;
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    /**
+     * Reports the failure of an async request like the blocking calls do, as {@link SearchServerException}.
+     */
+    private static <T> Function<Throwable, T> rethrow(String message) {
+        return e -> {
+            final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if(cause instanceof SearchServerException) {
+                throw (SearchServerException) cause;
+            }
+            log.error(message, cause);
+            throw new SearchServerException(message, cause);
+        };
+    }
+
+    /**
+     * Sends the query to solr. If a timeout is set an http client waits at most the timeout plus a grace period for
+     * the response, using the timeout as socket timeout of the request (see {@link TimedHttpSolrClient}). Other clients
+     * rely on solr to stop the query after its timeAllowed.
+     */
+    private QueryResponse query(SolrQuery query, long timeout) throws SolrServerException, IOException {
+        try {
+            return queryClient.query(query);
+        } catch (SolrServerException e) {
+            if(timeout > 0 && e.getCause() instanceof SocketTimeoutException) {
+                log.error("No response within the query timeout of {}ms", timeout);
+                throw new SearchServerException("No response within the query timeout of " + timeout + "ms", e);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public long export(FulltextSearch search, DocumentFactory factory, Consumer<Document> consumer) {
+        final int batchSize = SearchConfiguration.get(SearchConfiguration.SEARCH_EXPORT_BATCHSIZE, 1000);
+        final FulltextSearch exportSearch = search.copy().clearFacets();
+        final SolrExportCallback callback = new SolrExportCallback(factory, search.getSearchContext(), consumer);
+
+        String cursorMark = Cursor.START;
+        try {
+            while (true) {
+                final SolrQuery query = buildSolrQuery(exportSearch.cursor(cursorMark, batchSize), factory);
+                //a timed out batch would silently drop documents from the export
+                query.remove(CommonParams.TIME_ALLOWED);
+                solrClientLogger.debug(">>> queryAndStreamResponse({})", query.toString());
+                final QueryResponse response = solrClient.queryAndStreamResponse(query, callback);
+                final String nextCursorMark = response.getNextCursorMark();
+                if (nextCursorMark == null || nextCursorMark.equals(cursorMark)) {
+                    break;
+                }
+                cursorMark = nextCursorMark;
+            }
+        } catch (SolrServerException | IOException e) {
+            log.error("Cannot export results after {} documents", callback.getCount(), e);
+            throw new SearchServerException("Cannot export results", e);
+        }
+        log.debug("Exported {} of {} documents", callback.getCount(), callback.getNumFound());
+        return callback.getCount();
+    }
+
     protected SolrQuery buildSolrQuery(FulltextSearch search, DocumentFactory factory) {
         //build query
         final SolrQuery query = new SolrQuery();
@@ -322,7 +509,13 @@ public class SolrSearchServer extends SearchServer {
         // fulltext search
         query.set(CommonParams.Q, search.getSearchString());
 
-        if(SearchConfiguration.get(SearchConfiguration.SEARCH_RESULT_SHOW_SCORE, true)) {
+        if(search.hasTimeout()) {
+            query.setTimeAllowed((int) search.getTimeout());
+        }
+
+        if(search.hasFields()) {
+            query.set(CommonParams.FL, SolrUtils.Query.buildFieldListString(search.getFields(), searchContext, search.isScore()));
+        } else if(search.isScore()) {
             query.set(CommonParams.FL, "*,score");
         } else {
             query.set(CommonParams.FL, "*");
@@ -350,7 +543,9 @@ public class SolrSearchServer extends SearchServer {
         query.add(CommonParams.FQ,"_type_:"+factory.getType());
 
         if(search.hasFilter()) {
-            SolrUtils.Query.buildFilterString(search.getFilter(), factory,search.getChildrenFactory(),query, searchContext, search.getStrict());
+            //the filter queries are joined for a children search with filters, so they are not decomposed
+            final boolean decompose = !(search.isChildrenSearchEnabled() && search.getChildrenSearchString().hasFilter());
+            SolrUtils.Query.buildFilterString(search.getFilter(), factory,search.getChildrenFactory(),query, searchContext, search.getStrict(), decompose);
         }
 
         // fulltext search deep search
@@ -377,7 +572,18 @@ public class SolrSearchServer extends SearchServer {
         }
 
 
-        if(search.hasFacet()) {
+        if(search.hasFacet() && search.isJsonFacet()) {
+            //all facets in a single json facet request
+            final String jsonFacetString = SolrUtils.Query.buildJsonFacet(search, factory, searchContext);
+            final String subdocumentFacetString = SolrUtils.Query.buildSubdocumentFacet(search, factory, searchContext);
+            if(Objects.nonNull(jsonFacetString) && Objects.nonNull(subdocumentFacetString)) {
+                query.set("json.facet", StringUtils.removeEnd(jsonFacetString, "}") + "," + StringUtils.removeStart(subdocumentFacetString, "{"));
+            } else if(Objects.nonNull(jsonFacetString)) {
+                query.set("json.facet", jsonFacetString);
+            } else if(Objects.nonNull(subdocumentFacetString)) {
+                query.set("json.facet", subdocumentFacetString);
+            }
+        } else if(search.hasFacet()) {
             query.setFacet(true);
 
             query.setFacetMinCount(search.getFacetMinCount());
@@ -504,6 +710,14 @@ public class SolrSearchServer extends SearchServer {
                 query.setRows(resultSet.getSliceSize());
                 break;
             }
+            case cursor: {
+                final Cursor resultSet = (Cursor) search.getResultSet();
+                query.setRows(resultSet.getSize());
+                query.set(CursorMarkParams.CURSOR_MARK_PARAM, resultSet.getCursorMark());
+                //cursors require a total order, so the unique key is added as tiebreak
+                query.set(CommonParams.SORT, SolrUtils.Query.buildCursorSortString(query.get(CommonParams.SORT)));
+                break;
+            }
         }
         return query;
     }
@@ -554,6 +768,7 @@ public class SolrSearchServer extends SearchServer {
         final boolean isUpdatable = factory.isUpdatable() && factory.getFields().values().stream()
                                         .allMatch( descriptor -> descriptor.isUpdate());
         if (isUpdatable) {
+            final int commitWithin = getCommitPolicy().resolveCommitWithin(update.getCommitWithin());
             final SolrInputDocument sdoc = new SolrInputDocument();
             sdoc.addField(SolrUtils.Fieldname.ID, update.getId());
             sdoc.addField(SolrUtils.Fieldname.TYPE, factory.getType());
@@ -575,7 +790,7 @@ public class SolrSearchServer extends SearchServer {
                                                 opType = Update.UpdateOperations.set;
                                             }
                                             fieldModifiers.put(opType.name(),
-                                                    toSolrJType(SolrUtils.FieldValue.getFieldCaseValue(entry.getValue(), fieldDescriptor, useCase)));
+                                                    SolrIndexPlan.toSolrJType(SolrUtils.FieldValue.getFieldCaseValue(entry.getValue(), fieldDescriptor, useCase)));
 
                                         });
                                         sdoc.addField(fieldName, fieldModifiers);
@@ -590,7 +805,7 @@ public class SolrSearchServer extends SearchServer {
                 } else {
                     solrClientLogger.debug(">>> add({})", update.getId());
                 }
-                solrClient.add(sdoc);
+                add(sdoc, commitWithin);
 
                 //Get the nested documents for the document to update
                 final NamedList<Object> paramList = new NamedList<>();
@@ -605,10 +820,10 @@ public class SolrSearchServer extends SearchServer {
                     //TODO:find a better way - non deprecated way
                     final SolrInputDocument inputDoc = ClientUtils.toSolrInputDocument(updatedDoc);
                     inputDoc.addChildDocuments(query.getResults().stream().map(nestedDoc -> ClientUtils.toSolrInputDocument(nestedDoc)).collect(Collectors.toList()));
-                    solrClient.add(inputDoc);
+                    add(inputDoc, commitWithin);
 
                     //MBDN-579: Delete the duplicated document created by solr with old _version_
-                    solrClient.deleteByQuery("_version_:" + inputDoc.getField("_version_").getValue() + " AND _id_:" + update.getId());
+                    deleteByQuery("_version_:" + inputDoc.getField("_version_").getValue() + " AND _id_:" + update.getId(), commitWithin);
                 }
 
             } catch (SolrServerException | IOException e) {
@@ -628,7 +843,7 @@ public class SolrSearchServer extends SearchServer {
         String query = SolrUtils.Query.buildFilterString(delete.getQuery(), factory, delete.getUpdateContext(),true);
         try {
             solrClientLogger.debug(">>> delete query({})", query);
-            solrClient.deleteByQuery(query);
+            deleteByQuery(query, getCommitPolicy().resolveCommitWithin(delete.getCommitWithin()));
         } catch (SolrServerException | IOException e) {
             log.error("Cannot delete with query {}", query, e);
             throw new SearchServerException("Cannot delete with query", e);
@@ -637,7 +852,7 @@ public class SolrSearchServer extends SearchServer {
 
     @Override
     public <T> SuggestionResult execute(ExecutableSuggestionSearch search, Class<T> c) {
-        DocumentFactory documentFactory = AnnotationUtil.createDocumentFactory(c);
+        DocumentFactory documentFactory = AnnotationUtil.getDocumentMapper(c).getDocumentFactory();
         return this.execute(search, documentFactory);
     }
 
@@ -652,9 +867,10 @@ public class SolrSearchServer extends SearchServer {
 
         try {
             log.debug(">>> query({})", query.toString());
-            QueryResponse response = solrClient.query(query);
+            final long start = System.currentTimeMillis();
+            QueryResponse response = query(query, search.getTimeout());
             if(response!=null){
-                return SolrUtils.Result.buildSuggestionResult(response, assets, childFactory, search.getSearchContext());
+                return buildSuggestionResult(response, search, assets, childFactory, System.currentTimeMillis() - start);
             }else {
                 log.error("Null result from SolrClient");
                 throw new SolrServerException("Null result from SolrClient");
@@ -666,6 +882,30 @@ public class SolrSearchServer extends SearchServer {
         }
     }
 
+    @Override
+    public CompletableFuture<SuggestionResult> executeAsync(ExecutableSuggestionSearch search, DocumentFactory assets, Executor executor) {
+        if(asyncClient == null) {
+            return super.executeAsync(search, assets, executor);
+        }
+        final SolrQuery query;
+        try {
+            query = buildSolrQuery(search, assets, null);
+        } catch (RuntimeException e) {
+            return failed(e);
+        }
+        log.debug(">>> query({})", query.toString());
+        final long start = System.currentTimeMillis();
+        return asyncClient.query(query, clientTimeout(search.getTimeout()), executor)
+                .thenApply(response -> buildSuggestionResult(new QueryResponse(response, solrClient), search, assets, null, System.currentTimeMillis() - start))
+                .exceptionally(rethrow("Cannot execute suggestion query"));
+    }
+
+    private SuggestionResult buildSuggestionResult(QueryResponse response, ExecutableSuggestionSearch search, DocumentFactory assets, DocumentFactory childFactory, long elapsedTime) {
+        return SolrUtils.Result.buildSuggestionResult(response, assets, childFactory, search.getSearchContext())
+                .setPartialResults(SolrUtils.isPartialResults(response))
+                .setElapsedTime(elapsedTime);
+    }
+
     protected SolrQuery buildSolrQuery(ExecutableSuggestionSearch search, DocumentFactory assets, DocumentFactory childFactory) {
         final String searchContext = search.getSearchContext();
 
@@ -704,6 +944,10 @@ public class SolrSearchServer extends SearchServer {
 
         query.setParam("suggestion.limit", String.valueOf(search.getLimit()));
 
+        if(search.hasTimeout()) {
+            query.setTimeAllowed((int) search.getTimeout());
+        }
+
 
         String parentTypeFilter = "_type_:" + assets.getType();
 
@@ -715,7 +959,7 @@ public class SolrSearchServer extends SearchServer {
 
         //filters
         if(search.hasFilter()) {
-            SolrUtils.Query.buildFilterString(search.getFilter(), assets,childFactory,query, searchContext, false);
+            SolrUtils.Query.buildFilterString(search.getFilter(), assets,childFactory,query, searchContext, false, Objects.isNull(childFactory));
             new SolrChildrenSerializerVisitor(assets,childFactory,searchContext,false);
         }
 
@@ -737,7 +981,7 @@ public class SolrSearchServer extends SearchServer {
 
     @Override
     public <T> GetResult execute(RealTimeGet search, Class<T> c) {
-        DocumentFactory documentFactory = AnnotationUtil.createDocumentFactory(c);
+        DocumentFactory documentFactory = AnnotationUtil.getDocumentMapper(c).getDocumentFactory();
         return this.execute(search,documentFactory);
     }
 
@@ -783,6 +1027,9 @@ public class SolrSearchServer extends SearchServer {
     @Override
     public void close() {
         if (solrClient != null) try {
+            if (asyncClient != null) {
+                asyncClient.close();
+            }
             solrClient.close();
         } catch (IOException e) {
             log.error("Cannot close search server", e);
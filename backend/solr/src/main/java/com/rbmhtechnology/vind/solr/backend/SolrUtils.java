@@ -1,10 +1,16 @@
 package com.rbmhtechnology.vind.solr.backend;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.rbmhtechnology.vind.api.Document;
 import com.rbmhtechnology.vind.api.query.FulltextSearch;
 import com.rbmhtechnology.vind.api.query.datemath.DateMathExpression;
 import com.rbmhtechnology.vind.api.query.facet.Facet;
+import com.rbmhtechnology.vind.api.query.facet.Interval;
 import com.rbmhtechnology.vind.api.query.filter.Filter;
+import com.rbmhtechnology.vind.api.query.filter.FilterNormalizer;
 import com.rbmhtechnology.vind.api.query.get.RealTimeGet;
 import com.rbmhtechnology.vind.api.query.sort.Sort;
 import com.rbmhtechnology.vind.api.result.FacetResults;
@@ -20,12 +26,14 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrResponse;
 import org.apache.solr.client.solrj.response.*;
+import org.apache.solr.client.solrj.util.ClientUtils;
 import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.params.CommonParams;
 import org.apache.solr.common.util.DateUtil;
 import org.apache.solr.common.util.NamedList;
 import org.apache.solr.common.util.SimpleOrderedMap;
+import org.noggit.JSONUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +46,8 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -83,6 +93,9 @@ public class SolrUtils {
 
     private static final String INTERNAL_CONTEXT_PREFIX = "(%s_)?";
 
+    //key of the nested terms facet of the next level of a pivot in the json facet api
+    private static final String JSON_PIVOT_KEY = "pivot";
+
     public static Map<String,Integer> getChildCounts(SolrResponse response) {
 
         //check if there are subdocs
@@ -106,6 +119,17 @@ public class SolrUtils {
         return null;
     }
 
+    /**
+     * Checks whether solr stopped the query because its timeAllowed was exceeded.
+     * @param response the solr response.
+     * @return true if the response only contains the results collected before the timeout.
+     */
+    public static boolean isPartialResults(SolrResponse response) {
+        final NamedList<Object> values = response.getResponse();
+        final Object header = Objects.nonNull(values) ? values.get("responseHeader") : null;
+        return header instanceof NamedList && Boolean.TRUE.equals(((NamedList) header).get("partialResults"));
+    }
+
     public static Map<Integer,Integer> getSubdocumentCounts(SolrResponse response) {
 
         //check if there are subdocs
@@ -117,8 +141,9 @@ public class SolrUtils {
                 log.debug("Parsing subdocument facet result from JSON ");
 
                 final int facetCount = (int) ((SimpleOrderedMap) subDocumentFacetResult).get("count");
-                if (facetCount > 0) {
-                    final SimpleOrderedMap parentDocs = ((SimpleOrderedMap) ((SimpleOrderedMap) subDocumentFacetResult).get("childrenCount"));
+                //in json facet mode the facets are returned even without subdocument facet
+                final SimpleOrderedMap parentDocs = ((SimpleOrderedMap) ((SimpleOrderedMap) subDocumentFacetResult).get("childrenCount"));
+                if (facetCount > 0 && Objects.nonNull(parentDocs)) {
                     final Integer childCount = (Integer) parentDocs.get("count");
                     final Integer parentCount;
                     if(childCount > 0) {
@@ -161,7 +186,7 @@ public class SolrUtils {
 
         public static String buildFilterString(Filter filter, DocumentFactory factory,DocumentFactory childFactory,String searchContext, boolean strict) {
 
-            final String serializedFilters = filter.accept(new SolrFilterSerializerVisitor(factory,childFactory,searchContext, strict));
+            final String serializedFilters = FilterNormalizer.normalize(filter).accept(new SolrFilterSerializerVisitor(factory,childFactory,searchContext, strict));
             final String typeFilterString = "+_type_:" + factory.getType();
             if(StringUtils.isNotBlank(serializedFilters)) {
                 return String.join(" +", typeFilterString, serializedFilters);
@@ -174,13 +199,81 @@ public class SolrUtils {
             buildFilterString(filter, factory, null, query, searchContext, strict);
         }
         public static void buildFilterString(Filter filter, DocumentFactory factory,DocumentFactory childFactory,SolrQuery query,String searchContext, boolean strict) {
+            buildFilterString(filter, factory, childFactory, query, searchContext, strict, true);
+        }
+
+        /**
+         * Adds the normalized filter (see {@link FilterNormalizer}) to the query. If decomposed, every operand of a top
+         * level AND filter is added as a separate filter query, so each of them is cached on its own by Solr, and the
+         * cache and cost hints of the filters are sent as local params.
+         * @param filter the {@link Filter} to add.
+         * @param factory the {@link DocumentFactory} of the searched documents.
+         * @param childFactory the {@link DocumentFactory} of the nested documents, may be null.
+         * @param query the {@link SolrQuery} to add the filter queries to.
+         * @param searchContext the search context, may be null.
+         * @param strict whether nested document fields are filtered strictly.
+         * @param decompose false to add the filter as a single filter query without hints, e.g. when the filter
+         *                  queries are combined afterwards.
+         */
+        public static void buildFilterString(Filter filter, DocumentFactory factory,DocumentFactory childFactory,SolrQuery query,String searchContext, boolean strict, boolean decompose) {
            // query.add(CommonParams.FQ,"_type_:"+factory.getType());
-            final String serialize = filter.accept(new SolrFilterSerializerVisitor(factory,childFactory,searchContext, strict));
-            if(StringUtils.isNotBlank(serialize)) {
-                query.add(CommonParams.FQ, serialize);
+            final SolrFilterSerializerVisitor serializer = new SolrFilterSerializerVisitor(factory,childFactory,searchContext, strict);
+            final Filter normalized = FilterNormalizer.normalize(filter);
+            if (!decompose) {
+                final String serialize = normalized.accept(serializer);
+                if(StringUtils.isNotBlank(serialize)) {
+                    query.add(CommonParams.FQ, serialize);
+                }
+                return;
+            }
+
+            final Collection<Filter> conjuncts = normalized instanceof Filter.AndFilter && !normalized.hasHints() ?
+                    ((Filter.AndFilter) normalized).getChildren() : Collections.singletonList(normalized);
+            for (Filter conjunct : conjuncts) {
+                final String serialize = conjunct.accept(serializer);
+                if(StringUtils.isNotBlank(serialize)) {
+                    query.add(CommonParams.FQ, addFilterLocalParams(conjunct, serialize));
+                }
             }
         }
 
+        /**
+         * Adds the cache and cost hints of a filter as local params to its serialization. Serializations which
+         * already start with local params, e.g. geo or block join filters, get the hints merged into their block,
+         * as a second block would not be parsed as such.
+         * @param filter the filter to get the hints from.
+         * @param serialize the serialized filter.
+         * @return the filter query.
+         */
+        static String addFilterLocalParams(Filter filter, String serialize) {
+            if (!filter.hasHints()) {
+                return serialize;
+            }
+            final List<String> params = new ArrayList<>();
+            if (Objects.nonNull(filter.getCache())) {
+                params.add("cache=" + filter.getCache());
+            }
+            if (Objects.nonNull(filter.getCost())) {
+                params.add("cost=" + filter.getCost());
+            }
+            final String hints = String.join(" ", params);
+
+            if (!serialize.startsWith("{!")) {
+                return "{!" + hints + "}" + serialize;
+            }
+            //the query parser type has to stay the first local param, e.g. {!geofilt cache=false sfield=...}
+            int typeEnd = 2;
+            while (typeEnd < serialize.length() && !Character.isWhitespace(serialize.charAt(typeEnd))
+                    && serialize.charAt(typeEnd) != '}') {
+                typeEnd++;
+            }
+            final String type = serialize.substring(2, typeEnd);
+            if (type.isEmpty() || type.contains("=")) {
+                return "{!" + hints + " " + serialize.substring(2);
+            }
+            return serialize.substring(0, typeEnd) + " " + hints + serialize.substring(typeEnd);
+        }
+
         public static String buildSortString(FulltextSearch search, List<Sort> sortList, DocumentFactory factory) {
             return sortList.stream().map(sort -> {
                 if (sort instanceof Sort.SimpleSort) {
@@ -217,6 +310,21 @@ public class SolrUtils {
             }).collect(Collectors.joining(", "));
         }
 
+        /**
+         * Completes a sort string with the unique key as tiebreak, as required by cursor based paging.
+         * @param sortString the sort string of the search, may be null.
+         * @return the sort string ending with the unique key.
+         */
+        public static String buildCursorSortString(String sortString) {
+            if (StringUtils.isBlank(sortString)) {
+                return "score desc, " + Fieldname.ID + " asc";
+            }
+            if (Arrays.stream(sortString.split(",")).map(String::trim).anyMatch(sort -> sort.startsWith(Fieldname.ID + " "))) {
+                return sortString;
+            }
+            return sortString + ", " + Fieldname.ID + " asc";
+        }
+
         //TODO sorting stuff is a mess
         public static String buildBoostFunction(List<Sort> sortList, String searchContext) {
             //String bf =
@@ -238,6 +346,35 @@ public class SolrUtils {
                     .collect(Collectors.joining(" "));
         }
 
+        /**
+         * Builds the Solr field list (fl) fetching the stored fields of the given descriptors, including the
+         * contextualized ones for the search context.
+         * @param fields the {@link FieldDescriptor} to fetch.
+         * @param searchContext the search context, may be null.
+         * @param score whether the score is fetched.
+         * @return the comma separated Solr field list.
+         */
+        public static String buildFieldListString(Collection<FieldDescriptor<?>> fields, String searchContext, boolean score) {
+            final Set<String> fieldList = new LinkedHashSet<>();
+            fieldList.add(Fieldname.ID);
+            fieldList.add(Fieldname.TYPE);
+            if (score) {
+                fieldList.add(Fieldname.SCORE);
+            }
+            for (FieldDescriptor<?> descriptor : fields) {
+                //the Stored use case of a not stored field falls back to its sort field
+                if (!descriptor.isStored()) {
+                    continue;
+                }
+                fieldList.add(Fieldname.getFieldname(descriptor, UseCase.Stored, null));
+                if (Objects.nonNull(searchContext) && descriptor.isContextualized()) {
+                    fieldList.add(Fieldname.getFieldname(descriptor, UseCase.Stored, searchContext));
+                }
+            }
+            fieldList.remove(null);
+            return String.join(",", fieldList);
+        }
+
         public static String[] buildFacetFieldList(Map<String, Facet> facets, DocumentFactory factory, String searchContext) {
             final List<String> termFacetQuery = facets.values().stream()
                     .filter(facet -> facet instanceof Facet.TermFacet)
@@ -415,6 +552,172 @@ public class SolrUtils {
                     }).findAny();
             return facetOptional.orElse(null);
         }
+
+        /**
+         * Translates the facets of a search into a single JSON Facet API request. Query, range and stats facets
+         * tagged with the name of a pivot are computed for every bucket of the pivot as well. The subdocument facet
+         * is not included, see {@link #buildSubdocumentFacet(FulltextSearch, DocumentFactory, String)}.
+         * @param search the {@link FulltextSearch} with the facets.
+         * @param factory the {@link DocumentFactory} of the searched documents.
+         * @param searchContext the search context, may be null.
+         * @return the json.facet parameter value, null if there is no facet to translate.
+         */
+        public static String buildJsonFacet(FulltextSearch search, DocumentFactory factory, String searchContext) {
+            final Map<String, Object> jsonFacets = new LinkedHashMap<>();
+            search.getFacets().values().forEach(facet -> {
+                final Map<String, Object> jsonFacet = buildJsonFacet(facet, search, factory, searchContext);
+                if (Objects.nonNull(jsonFacet)) {
+                    jsonFacets.put(facet.getName(), jsonFacet);
+                }
+            });
+            return jsonFacets.isEmpty() ? null : JSONUtil.toJSON(jsonFacets, -1);
+        }
+
+        private static Map<String, Object> buildJsonFacet(Facet facet, FulltextSearch search, DocumentFactory factory, String searchContext) {
+            if (facet instanceof Facet.TermFacet) {
+                final Facet.TermFacet<?> termFacet = (Facet.TermFacet<?>) facet;
+                final FieldDescriptor<?> descriptor = Objects.nonNull(termFacet.getFieldDescriptor()) ?
+                        termFacet.getFieldDescriptor() : factory.getField(termFacet.getName());
+                final String fieldName = Fieldname.getFieldname(descriptor, Facet, searchContext);
+                return Objects.nonNull(fieldName) ? buildJsonTermsFacet(fieldName, search) : null;
+
+            } else if (facet instanceof Facet.TypeFacet) {
+                return buildJsonTermsFacet(Fieldname.TYPE, search);
+
+            } else if (facet instanceof Facet.QueryFacet) {
+                final Map<String, Object> jsonFacet = new LinkedHashMap<>();
+                jsonFacet.put("type", "query");
+                jsonFacet.put("q", buildFilterString(((Facet.QueryFacet) facet).getFilter(), factory, search.getChildrenFactory(), searchContext, search.getStrict()));
+                return jsonFacet;
+
+            } else if (facet instanceof Facet.NumericRangeFacet) {
+                final Facet.NumericRangeFacet<?> rangeFacet = (Facet.NumericRangeFacet<?>) facet;
+                return buildJsonRangeFacet(Fieldname.getFieldname(rangeFacet.getFieldDescriptor(), Facet, searchContext),
+                        rangeFacet.getStart(), rangeFacet.getEnd(), rangeFacet.getGap());
+
+            } else if (facet instanceof Facet.DateRangeFacet) {
+                final Facet.DateRangeFacet<?> rangeFacet = (Facet.DateRangeFacet<?>) facet;
+                return buildJsonRangeFacet(Fieldname.getFieldname(rangeFacet.getFieldDescriptor(), Facet, searchContext),
+                        buildSolrQueryValue(rangeFacet.getStart()), buildSolrQueryValue(rangeFacet.getEnd()), buildSolrTimeGap(rangeFacet.getGap()));
+
+            } else if (facet instanceof Facet.IntervalFacet) {
+                final Facet.IntervalFacet<?> intervalFacet = (Facet.IntervalFacet<?>) facet;
+                final String fieldName = Fieldname.getFieldname(intervalFacet.getFieldDescriptor(), Facet, searchContext);
+                //the json facet api has no intervals, so every interval is counted by a query facet
+                final Map<String, Object> intervals = new LinkedHashMap<>();
+                for (Interval<?> interval : intervalFacet.getIntervals()) {
+                    final Map<String, Object> intervalQuery = new LinkedHashMap<>();
+                    intervalQuery.put("type", "query");
+                    intervalQuery.put("q", String.format("%s:%s%s TO %s%s", fieldName,
+                            interval.includesStart() ? "[" : "{",
+                            interval.getStart() == null ? "*" : ClientUtils.escapeQueryChars(buildSolrQueryValue(interval.getStart())),
+                            interval.getEnd() == null ? "*" : ClientUtils.escapeQueryChars(buildSolrQueryValue(interval.getEnd())),
+                            interval.includesEnd() ? "]" : "}"));
+                    intervals.put(interval.getName(), intervalQuery);
+                }
+                return buildJsonDomainFacet(intervals);
+
+            } else if (facet instanceof Facet.StatsFacet) {
+                return buildJsonStatsFacet((Facet.StatsFacet<?>) facet, searchContext);
+
+            } else if (facet instanceof Facet.PivotFacet) {
+                final Facet.PivotFacet pivotFacet = (Facet.PivotFacet) facet;
+                final Map<String, Object> subFacets = new LinkedHashMap<>();
+                search.getFacets().values().stream()
+                        .filter(subFacet -> subFacet instanceof Facet.QueryFacet || subFacet instanceof Facet.NumericRangeFacet
+                                || subFacet instanceof Facet.DateRangeFacet || subFacet instanceof Facet.StatsFacet)
+                        .filter(subFacet -> Arrays.asList(subFacet.getTagedPivots()).contains(pivotFacet.getName()))
+                        .forEach(subFacet -> subFacets.put(subFacet.getName(), buildJsonFacet(subFacet, search, factory, searchContext)));
+
+                //nest the pivot levels from the innermost one
+                Map<String, Object> jsonFacet = null;
+                final List<FieldDescriptor<?>> descriptors = pivotFacet.getFieldDescriptors();
+                for (int i = descriptors.size() - 1; i >= 0; i--) {
+                    final Map<String, Object> level = buildJsonTermsFacet(Fieldname.getFieldname(descriptors.get(i), Facet, searchContext), search);
+                    final Map<String, Object> levelFacets = new LinkedHashMap<>(subFacets);
+                    if (Objects.nonNull(jsonFacet)) {
+                        levelFacets.put(JSON_PIVOT_KEY, jsonFacet);
+                    }
+                    if (!levelFacets.isEmpty()) {
+                        level.put("facet", levelFacets);
+                    }
+                    jsonFacet = level;
+                }
+                return jsonFacet;
+            }
+            //subdocument facets are built separately
+            return null;
+        }
+
+        private static Map<String, Object> buildJsonTermsFacet(String fieldName, FulltextSearch search) {
+            final Map<String, Object> jsonFacet = new LinkedHashMap<>();
+            jsonFacet.put("type", "terms");
+            jsonFacet.put("field", fieldName);
+            jsonFacet.put("limit", search.getFacetLimit());
+            jsonFacet.put("mincount", search.getFacetMinCount());
+            return jsonFacet;
+        }
+
+        private static Map<String, Object> buildJsonRangeFacet(String fieldName, Object start, Object end, Object gap) {
+            final Map<String, Object> jsonFacet = new LinkedHashMap<>();
+            jsonFacet.put("type", "range");
+            jsonFacet.put("field", fieldName);
+            jsonFacet.put("start", start);
+            jsonFacet.put("end", end);
+            jsonFacet.put("gap", gap);
+            return jsonFacet;
+        }
+
+        private static Map<String, Object> buildJsonDomainFacet(Map<String, Object> subFacets) {
+            final Map<String, Object> jsonFacet = new LinkedHashMap<>();
+            jsonFacet.put("type", "query");
+            jsonFacet.put("q", "*:*");
+            jsonFacet.put("facet", subFacets);
+            return jsonFacet;
+        }
+
+        private static Map<String, Object> buildJsonStatsFacet(Facet.StatsFacet<?> stats, String searchContext) {
+            final String fieldName = Fieldname.getFieldname(stats.getField(), Facet, searchContext);
+            final Map<String, Object> functions = new LinkedHashMap<>();
+            if (stats.getMin()) {
+                functions.put("min", "min(" + fieldName + ")");
+            }
+            if (stats.getMax()) {
+                functions.put("max", "max(" + fieldName + ")");
+            }
+            if (stats.getSum() || stats.getStddev()) {
+                functions.put("sum", "sum(" + fieldName + ")");
+            }
+            if (stats.getSumOfSquares() || stats.getStddev()) {
+                functions.put("sumsq", "sumsq(" + fieldName + ")");
+            }
+            if (stats.getMean()) {
+                functions.put("mean", "avg(" + fieldName + ")");
+            }
+            if (stats.getPercentiles().length > 0) {
+                functions.put("percentiles", "percentile(" + fieldName + "," + StringUtils.join(stats.getPercentiles(), ',') + ")");
+            }
+            if (stats.getCountDistinct()) {
+                functions.put("countDistinct", "unique(" + fieldName + ")");
+            }
+            if (stats.getCardinality()) {
+                functions.put("cardinality", "hll(" + fieldName + ")");
+            }
+            if (stats.getCount() || stats.getMissing() || stats.getStddev()) {
+                final Map<String, Object> count = new LinkedHashMap<>();
+                count.put("type", "query");
+                count.put("q", fieldName + ":*");
+                functions.put("valueCount", count);
+            }
+            if (stats.getDistinctValues()) {
+                final Map<String, Object> distinctValues = new LinkedHashMap<>();
+                distinctValues.put("type", "terms");
+                distinctValues.put("field", fieldName);
+                distinctValues.put("limit", -1);
+                functions.put("distinctValues", distinctValues);
+            }
+            return buildJsonDomainFacet(functions);
+        }
     }
 
     public static final class FieldValue {
@@ -721,122 +1024,216 @@ public class SolrUtils {
 
         private static Logger log = LoggerFactory.getLogger(Result.class);
 
+        private static final Pattern INTERNAL_FIELD_PREFIX_PATTERN = Pattern.compile(INTERNAL_FIELD_PREFIX);
+
+        private static final int MAX_DECODER_CONTEXTS = 100;
+
+        private static final LoadingCache<DocumentFactory, Cache<Optional<String>, ResultDecoder>> DECODERS =
+                CacheBuilder.newBuilder()
+                        .weakKeys()
+                        .build(CacheLoader.from(factory -> CacheBuilder.newBuilder()
+                                .maximumSize(MAX_DECODER_CONTEXTS)
+                                .build()));
+
         public static List<Document> buildResultList(SolrDocumentList results, Map<String,Integer> childCounts, DocumentFactory factory, String searchContext) {
+            return buildResultList(results, childCounts, factory, searchContext, false);
+        }
 
-            return results.stream().map(result -> {
+        /**
+         * Builds the result documents of a search.
+         * @param results the solr result documents.
+         * @param childCounts the number of nested documents by parent id, may be null.
+         * @param factory the {@link DocumentFactory} of the result documents.
+         * @param searchContext the search context, may be null.
+         * @param lazy true to convert the field values only when they are first accessed.
+         * @return the result documents.
+         */
+        public static List<Document> buildResultList(SolrDocumentList results, Map<String,Integer> childCounts, DocumentFactory factory, String searchContext, boolean lazy) {
+
+            final ResultDecoder decoder = ResultDecoder.of(factory, searchContext);
+
+            return results.stream()
+                    .map(result -> lazy ?
+                            buildLazyResult(result, childCounts, factory, decoder) :
+                            buildResult(result, childCounts, factory, decoder))
+                    .collect(Collectors.toList());
+            }
 
-                Document document = factory.createDoc((String) result.getFieldValue(Fieldname.ID));
+        static Document buildResult(SolrDocument result, Map<String,Integer> childCounts, DocumentFactory factory, ResultDecoder decoder) {
 
-                if (childCounts != null) {
-                    document.setChildCount(ObjectUtils.defaultIfNull(childCounts.get(document.getId()), 0));
-                }
+            final Document document = buildEmptyResult(result, childCounts, factory);
+
+            for (Map.Entry<String, Object> field : result) {
+                decoder.get(factory, field.getKey()).decode(document, field.getValue());
+            }
+
+            return document;
+        }
 
-                if (Objects.nonNull(result.get(Fieldname.SCORE))) {
-                    document.setScore((Float) result.get(Fieldname.SCORE));
+        static Document buildLazyResult(SolrDocument result, Map<String,Integer> childCounts, DocumentFactory factory, ResultDecoder decoder) {
+            return new LazySolrDocument(buildEmptyResult(result, childCounts, factory), result, factory, decoder);
+        }
+
+        private static Document buildEmptyResult(SolrDocument result, Map<String,Integer> childCounts, DocumentFactory factory) {
+
+            Document document = factory.createDoc((String) result.getFieldValue(Fieldname.ID));
+
+            if (childCounts != null) {
+                document.setChildCount(ObjectUtils.defaultIfNull(childCounts.get(document.getId()), 0));
+            }
+
+            if (Objects.nonNull(result.get(Fieldname.SCORE))) {
+                document.setScore((Float) result.get(Fieldname.SCORE));
+            }
+
+            if (Objects.nonNull(result.get(Fieldname.DISTANCE))) {
+                document.setDistance((Float) result.get(Fieldname.DISTANCE));
+            }
+
+            return document;
+        }
+
+        /**
+         * Maps the Solr field names of a result to the descriptors of a {@link DocumentFactory} for a given search
+         * context. The mapping of each Solr field name is resolved once and cached per factory and context, for at
+         * most {@value #MAX_DECODER_CONTEXTS} contexts per factory. A decoder does not reference its factory, which is
+         * passed to {@link #get}, so the cached decoders are collected together with their factories.
+         */
+        static final class ResultDecoder {
+
+            private final String searchContext;
+            private final String contextPrefix;
+            private final ConcurrentMap<String, FieldDecoder> fields = new ConcurrentHashMap<>();
+
+            private ResultDecoder(String searchContext) {
+                this.searchContext = searchContext;
+                this.contextPrefix = searchContext != null ? searchContext + "_" : "";
+            }
+
+            static ResultDecoder of(DocumentFactory factory, String searchContext) {
+                return DECODERS.getUnchecked(factory).asMap()
+                        .computeIfAbsent(Optional.ofNullable(searchContext), context -> new ResultDecoder(searchContext));
+            }
+
+            /**
+             * Gets the decoder of a Solr field.
+             * @param factory the {@link DocumentFactory} the decoder has been created for.
+             * @param name the name of the Solr field.
+             * @return the {@link FieldDecoder} of the field.
+             */
+            FieldDecoder get(DocumentFactory factory, String name) {
+                return fields.computeIfAbsent(name, n -> compile(factory, n));
+            }
+
+            private FieldDecoder compile(DocumentFactory factory, String name) {
+                if (name.equals(Fieldname.ID) || name.equals(Fieldname.TYPE)
+                        || name.equals(Fieldname.SCORE) || name.equals(Fieldname.DISTANCE)) {
+                    return FieldDecoder.IGNORE;
                 }
+                final String contextualizedName = INTERNAL_FIELD_PREFIX_PATTERN.matcher(name).replaceFirst("");
+                final boolean contextualized = Objects.nonNull(searchContext) && contextualizedName.contains(contextPrefix);
+                final String fname = contextualizedName.replace(contextPrefix, "");
+                if (factory.hasField(fname)) {
+                    return new FieldDecoder(factory.getField(fname), contextualized ? searchContext : null);
+                } else {
+                    return FieldDecoder.IGNORE;
+                }
+            }
+        }
+
+        /**
+         * Converts the values of a Solr field and sets them on the document.
+         */
+        static class FieldDecoder {
 
-                if (Objects.nonNull(result.get(Fieldname.DISTANCE))) {
-                    document.setDistance((Float) result.get(Fieldname.DISTANCE));
+            private static final FieldDecoder IGNORE = new FieldDecoder() {
+                @Override
+                void decode(Document document, Object o) {
                 }
+            };
+
+            private final FieldDescriptor<?> field;
+            private final String context;
+            private final Class<?> type;
+            private final boolean complex;
+
+            private FieldDecoder() {
+                this.field = null;
+                this.context = null;
+                this.type = null;
+                this.complex = false;
+            }
 
-                result.getFieldNames().stream()
-                        .filter(name -> !name.equals(Fieldname.ID))
-                        .filter(name -> !name.equals(Fieldname.TYPE))
-                        .filter(name -> !name.equals(Fieldname.SCORE))
-                        .filter(name -> !name.equals(Fieldname.DISTANCE))
-                        .forEach(name -> {
-                            final Object o = result.get(name);
-                            final String contextPrefix = searchContext != null ? searchContext + "_" : "";
-                            final Matcher internalPrefixMatcher = Pattern.compile(INTERNAL_FIELD_PREFIX).matcher(name);
-                            final String contextualizedName = internalPrefixMatcher.replaceFirst("");
-                            final boolean contextualized = Objects.nonNull(searchContext) && contextualizedName.contains(contextPrefix);
-                            final String fname = contextualizedName.replace(contextPrefix, "");
-                            if (factory.hasField(fname)) {
-                                final FieldDescriptor<?> field = factory.getField(fname);
-                                Class<?> type;
-                                if (ComplexFieldDescriptor.class.isAssignableFrom(field.getClass())) {
-                                    type = ((ComplexFieldDescriptor) field).getStoreType();
-                                } else {
-                                    type = field.getType();
-                                }
-                                try {
-                                    if (o instanceof Collection) {
-                                        final Collection<Object> solrValues = new ArrayList<>();
-                                        if (ZonedDateTime.class.isAssignableFrom(type)) {
-                                            ((Collection<?>) o).forEach(ob -> solrValues.add(ZonedDateTime.ofInstant(((Date) ob).toInstant(), ZoneId.of("UTC"))));
-                                        } else if (Date.class.isAssignableFrom(type)) {
-                                            ((Collection<?>) o).forEach(ob -> {
-                                                try {
-                                                    solrValues.add(DateUtil.parseDate(ob.toString()));
-                                                } catch (ParseException e) {
-                                                    log.error("Unable to parse solr result field '{}' value '{}' to field descriptor type [{}]",
-                                                            fname, o.toString(), type);
-                                                    throw new RuntimeException(e);
-                                                }
-                                            });
-                                        } else if (LatLng.class.isAssignableFrom(type)) {
-                                            ((Collection<?>) o).forEach(ob -> {
-                                                try {
-                                                    solrValues.add(LatLng.parseLatLng(ob.toString()));
-                                                } catch (ParseException e) {
-                                                    log.error("Unable to parse solr result field '{}' value '{}' to field descriptor type [{}]",
-                                                            fname, o.toString(), type);
-                                                    throw new RuntimeException(e);
-                                                }
-                                            });
-                                        } else {
-                                            solrValues.addAll((Collection<Object>) o);
-                                        }
-
-                                        if (ComplexFieldDescriptor.class.isAssignableFrom(field.getClass())) {
-                                            if (contextualized) {
-                                                document.setContextualizedValues((MultiValuedComplexField<Object, ?, ?>) field, searchContext, solrValues);
-                                            } else {
-                                                document.setValues((MultiValuedComplexField<Object, ?, ?>) field, solrValues);
-                                            }
-
-                                        } else {
-                                            if (contextualized) {
-                                                document.setContextualizedValues((MultiValueFieldDescriptor<Object>) field, searchContext, solrValues);
-                                            } else {
-                                                document.setValues((MultiValueFieldDescriptor<Object>) field, solrValues);
-                                            }
-                                        }
-
-                                    } else {
-                                        Object solrValue;
-                                        if (ZonedDateTime.class.isAssignableFrom(type)) {
-                                            solrValue = ZonedDateTime.ofInstant(((Date) o).toInstant(), ZoneId.of("UTC"));
-                                        } else if (Date.class.isAssignableFrom(type)) {
-                                            try {
-                                                solrValue = (DateUtil.parseDate(o.toString()));
-                                            } catch (ParseException e) {
-                                                log.error("Unable to parse solr result field '{}' value '{}' to field descriptor type [{}]",
-                                                        fname, o.toString(), type);
-                                                throw new RuntimeException(e);
-                                            }
-                                        } else if (LatLng.class.isAssignableFrom(type)) {
-                                            solrValue = LatLng.parseLatLng(o.toString());
-                                        } else {
-                                            solrValue = castForDescriptor(o, field, Stored);
-                                        }
-                                        if (contextualized) {
-                                            document.setContextualizedValue((FieldDescriptor<Object>) field, searchContext, solrValue);
-                                        } else {
-                                            document.setValue((FieldDescriptor<Object>) field, solrValue);
-                                        }
-                                    }
-                                } catch (Exception e) {
-                                    log.error("Unable to parse solr result field '{}' value '{}' to field descriptor type [{}]",
-                                            fname, o.toString(), type);
-                                    throw new RuntimeException(e);
-                                }
+            private FieldDecoder(FieldDescriptor<?> field, String context) {
+                this.field = field;
+                this.context = context;
+                this.complex = ComplexFieldDescriptor.class.isAssignableFrom(field.getClass());
+                this.type = complex ? ((ComplexFieldDescriptor) field).getStoreType() : field.getType();
+            }
+
+            /**
+             * Gets the descriptor the solr field is decoded to.
+             * @return the {@link FieldDescriptor}, null if the solr field is ignored.
+             */
+            FieldDescriptor<?> getField() {
+                return field;
+            }
+
+            void decode(Document document, Object o) {
+                try {
+                    if (o instanceof Collection) {
+                        final Collection<Object> solrValues = new ArrayList<>();
+                        if (isSpecialType()) {
+                            for (Object ob : (Collection<?>) o) {
+                                solrValues.add(convert(ob));
                             }
-                        });
+                        } else {
+                            solrValues.addAll((Collection<Object>) o);
+                        }
+
+                        if (complex) {
+                            if (context != null) {
+                                document.setContextualizedValues((MultiValuedComplexField<Object, ?, ?>) field, context, solrValues);
+                            } else {
+                                document.setValues((MultiValuedComplexField<Object, ?, ?>) field, solrValues);
+                            }
+                        } else {
+                            if (context != null) {
+                                document.setContextualizedValues((MultiValueFieldDescriptor<Object>) field, context, solrValues);
+                            } else {
+                                document.setValues((MultiValueFieldDescriptor<Object>) field, solrValues);
+                            }
+                        }
+                    } else {
+                        final Object solrValue = isSpecialType() ? convert(o) : castForDescriptor(o, field, Stored);
+                        if (context != null) {
+                            document.setContextualizedValue((FieldDescriptor<Object>) field, context, solrValue);
+                        } else {
+                            document.setValue((FieldDescriptor<Object>) field, solrValue);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.error("Unable to parse solr result field '{}' value '{}' to field descriptor type [{}]",
+                            field.getName(), o, type);
+                    throw new RuntimeException(e);
+                }
+            }
+
+            private boolean isSpecialType() {
+                return ZonedDateTime.class.isAssignableFrom(type) || Date.class.isAssignableFrom(type)
+                        || LatLng.class.isAssignableFrom(type);
+            }
 
-                return document;
-            }).collect(Collectors.toList());
+            private Object convert(Object o) throws ParseException {
+                if (ZonedDateTime.class.isAssignableFrom(type)) {
+                    return ZonedDateTime.ofInstant(((Date) o).toInstant(), ZoneId.of("UTC"));
+                } else if (Date.class.isAssignableFrom(type)) {
+                    return DateUtil.parseDate(o.toString());
+                } else {
+                    return LatLng.parseLatLng(o.toString());
+                }
             }
+        }
 
         public static FacetResults buildFacetResult(QueryResponse response, DocumentFactory factory, Map<String,Facet>  facetsQuery, String searchContext) {
 
@@ -916,6 +1313,222 @@ public class SolrUtils {
             return new FacetResults(factory, facets, typeFacetResults, queryFacetResults, rangeFacetResults, intervalFacetResults, statsResults, pivotFacetResults,subDocumentFacet);
         }
 
+        /**
+         * Parses the results of the facets of a search sent as a single JSON Facet API request (see
+         * {@link Query#buildJsonFacet(FulltextSearch, DocumentFactory, String)}).
+         * @param response the solr response.
+         * @param factory the {@link DocumentFactory} of the searched documents.
+         * @param facetsQuery the facets of the search by name.
+         * @param searchContext the search context, may be null.
+         * @return the {@link FacetResults}.
+         */
+        public static FacetResults buildJsonFacetResult(QueryResponse response, DocumentFactory factory, Map<String,Facet> facetsQuery, String searchContext) {
+
+            final HashMap<FieldDescriptor, TermFacetResult<?>> facets = new HashMap<>();
+            final TermFacetResult typeFacetResults = new TermFacetResult();
+            final HashMap<String, QueryFacetResult<?>> queryFacetResults = new HashMap<>();
+            final HashMap<String, RangeFacetResult<?>> rangeFacetResults = new HashMap<>();
+            final HashMap<String, IntervalFacetResult> intervalFacetResults = new HashMap<>();
+            final HashMap<String, StatsFacetResult<?>> statsResults = new HashMap<>();
+            final HashMap<String, List<PivotFacetResult<?>>> pivotFacetResults = new HashMap<>();
+
+            final NamedList<Object> jsonFacets = Objects.nonNull(response.getResponse()) ?
+                    (NamedList<Object>) response.getResponse().get("facets") : null;
+
+            if (Objects.nonNull(jsonFacets)) {
+                facetsQuery.values().forEach(facet -> {
+                    final NamedList<Object> jsonFacet = (NamedList<Object>) jsonFacets.get(facet.getName());
+                    if (Objects.isNull(jsonFacet)) {
+                        return;
+                    }
+                    if (facet instanceof Facet.TermFacet) {
+                        final Facet.TermFacet<?> termFacet = (Facet.TermFacet<?>) facet;
+                        final FieldDescriptor<?> descriptor = Objects.nonNull(termFacet.getFieldDescriptor()) ?
+                                termFacet.getFieldDescriptor() : factory.getField(termFacet.getName());
+                        facets.put(descriptor, new TermFacetResult(getJsonBuckets(jsonFacet).stream()
+                                .map(bucket -> new FacetValue<>(castJsonValue(bucket.get("val"), descriptor), getJsonCount(bucket)))
+                                .collect(Collectors.toList())));
+
+                    } else if (facet instanceof Facet.TypeFacet) {
+                        getJsonBuckets(jsonFacet).forEach(bucket ->
+                                typeFacetResults.addFacetValue(new FacetValue<>(String.valueOf(bucket.get("val")), getJsonCount(bucket))));
+
+                    } else if (facet instanceof Facet.QueryFacet) {
+                        queryFacetResults.put(facet.getName(), buildJsonQueryFacetResult((Facet.QueryFacet) facet, jsonFacet));
+
+                    } else if (facet instanceof Facet.NumericRangeFacet || facet instanceof Facet.DateRangeFacet) {
+                        rangeFacetResults.put(facet.getName(), buildJsonRangeFacetResult(facet, jsonFacet));
+
+                    } else if (facet instanceof Facet.IntervalFacet) {
+                        final List<FacetValue<String>> values = new ArrayList<>();
+                        for (Interval<?> interval : ((Facet.IntervalFacet<?>) facet).getIntervals()) {
+                            final NamedList<Object> intervalResult = (NamedList<Object>) jsonFacet.get(interval.getName());
+                            values.add(new FacetValue<>(interval.getName(), Objects.nonNull(intervalResult) ? getJsonCount(intervalResult) : 0));
+                        }
+                        intervalFacetResults.put(facet.getName(), new IntervalFacetResult(values));
+
+                    } else if (facet instanceof Facet.StatsFacet) {
+                        statsResults.put(facet.getName(), buildJsonStatsFacetResult((Facet.StatsFacet<?>) facet, jsonFacet));
+
+                    } else if (facet instanceof Facet.PivotFacet) {
+                        pivotFacetResults.put(facet.getName(), buildJsonPivotFacetResult((Facet.PivotFacet) facet, 0, jsonFacet, facetsQuery));
+                    }
+                });
+            }
+
+            final Map<Integer, Integer> childCounts = getSubdocumentCounts(response);
+            final Collection<SubdocumentFacetResult> subDocumentFacet;
+            if (Objects.nonNull(childCounts)) {
+                subDocumentFacet = childCounts.entrySet().stream()
+                        .map(e -> new SubdocumentFacetResult(e.getKey(), e.getValue()))
+                        .collect(Collectors.toList());
+            } else {
+                subDocumentFacet = Collections.emptyList();
+            }
+
+            return new FacetResults(factory, facets, typeFacetResults, queryFacetResults, rangeFacetResults, intervalFacetResults, statsResults, pivotFacetResults,subDocumentFacet);
+        }
+
+        private static List<PivotFacetResult<?>> buildJsonPivotFacetResult(Facet.PivotFacet pivotFacet, int level, NamedList<Object> jsonFacet, Map<String, Facet> facetsQuery) {
+            final FieldDescriptor descriptor = pivotFacet.getFieldDescriptors().get(level);
+            final List<Facet> subFacets = facetsQuery.values().stream()
+                    .filter(facet -> Arrays.asList(facet.getTagedPivots()).contains(pivotFacet.getName()))
+                    .collect(Collectors.toList());
+
+            return getJsonBuckets(jsonFacet).stream()
+                    .map(bucket -> {
+                        final NamedList<Object> nextLevel = (NamedList<Object>) bucket.get(JSON_PIVOT_KEY);
+                        final List<PivotFacetResult<?>> pivot = Objects.nonNull(nextLevel) ?
+                                buildJsonPivotFacetResult(pivotFacet, level + 1, nextLevel, facetsQuery) : new ArrayList<>();
+
+                        final HashMap<String, QueryFacetResult<?>> pivotQueryResult = new HashMap<>();
+                        final HashMap<String, RangeFacetResult<?>> pivotRangeResult = new HashMap<>();
+                        final HashMap<String, StatsFacetResult<?>> pivotStatsResults = new HashMap<>();
+                        subFacets.forEach(subFacet -> {
+                            final NamedList<Object> subFacetResult = (NamedList<Object>) bucket.get(subFacet.getName());
+                            if (Objects.isNull(subFacetResult)) {
+                                return;
+                            }
+                            if (subFacet instanceof Facet.QueryFacet) {
+                                pivotQueryResult.put(subFacet.getName(), buildJsonQueryFacetResult((Facet.QueryFacet) subFacet, subFacetResult));
+                            } else if (subFacet instanceof Facet.StatsFacet) {
+                                pivotStatsResults.put(subFacet.getName(), buildJsonStatsFacetResult((Facet.StatsFacet<?>) subFacet, subFacetResult));
+                            } else if (subFacet instanceof Facet.NumericRangeFacet || subFacet instanceof Facet.DateRangeFacet) {
+                                pivotRangeResult.put(subFacet.getName(), buildJsonRangeFacetResult(subFacet, subFacetResult));
+                            }
+                        });
+                        return (PivotFacetResult<?>) new PivotFacetResult(pivot, castJsonValue(bucket.get("val"), descriptor), descriptor,
+                                (int) getJsonCount(bucket), pivotQueryResult, pivotStatsResults, pivotRangeResult);
+                    })
+                    .collect(Collectors.toList());
+        }
+
+        private static QueryFacetResult<?> buildJsonQueryFacetResult(Facet.QueryFacet facet, NamedList<Object> jsonFacet) {
+            return new QueryFacetResult<>(facet.getFilter(), (int) getJsonCount(jsonFacet));
+        }
+
+        private static RangeFacetResult<?> buildJsonRangeFacetResult(Facet facet, NamedList<Object> jsonFacet) {
+            final FieldDescriptor<?> descriptor;
+            final Object start;
+            final Object end;
+            final long gap;
+            if (facet instanceof Facet.NumericRangeFacet) {
+                final Facet.NumericRangeFacet<?> rangeFacet = (Facet.NumericRangeFacet<?>) facet;
+                descriptor = rangeFacet.getFieldDescriptor();
+                start = rangeFacet.getStart();
+                end = rangeFacet.getEnd();
+                gap = rangeFacet.getGap().longValue();
+            } else {
+                final Facet.DateRangeFacet<?> rangeFacet = (Facet.DateRangeFacet<?>) facet;
+                descriptor = rangeFacet.getFieldDescriptor();
+                start = rangeFacet.getStart();
+                end = rangeFacet.getEnd();
+                gap = rangeFacet.getGap();
+            }
+            final List<FacetValue> values = getJsonBuckets(jsonFacet).stream()
+                    .map(bucket -> new FacetValue<>(castJsonValue(bucket.get("val"), descriptor), getJsonCount(bucket)))
+                    .collect(Collectors.toList());
+            return new RangeFacetResult(values, start, end, gap);
+        }
+
+        private static StatsFacetResult<?> buildJsonStatsFacetResult(Facet.StatsFacet<?> stats, NamedList<Object> jsonFacet) {
+            final FieldDescriptor field = stats.getField();
+            final Number sum = (Number) jsonFacet.get("sum");
+            final Number sumOfSquares = (Number) jsonFacet.get("sumsq");
+            final Number mean = (Number) jsonFacet.get("mean");
+            final NamedList<Object> countResult = (NamedList<Object>) jsonFacet.get("valueCount");
+            final Long count = Objects.nonNull(countResult) ? getJsonCount(countResult) : null;
+
+            Double stddev = null;
+            if (stats.getStddev() && Objects.nonNull(count) && Objects.nonNull(sum) && Objects.nonNull(sumOfSquares)) {
+                //sample standard deviation, as computed by the solr stats component
+                stddev = count > 1 ?
+                        Math.sqrt(((count * sumOfSquares.doubleValue()) - (sum.doubleValue() * sum.doubleValue())) / (count * (count - 1.0D))) : 0.0D;
+            }
+
+            Map<Double, Double> percentiles = null;
+            final Object percentileResult = jsonFacet.get("percentiles");
+            if (Objects.nonNull(percentileResult)) {
+                final List<?> percentileValues = percentileResult instanceof List ?
+                        (List<?>) percentileResult : Collections.singletonList(percentileResult);
+                percentiles = new LinkedHashMap<>();
+                for (int i = 0; i < stats.getPercentiles().length && i < percentileValues.size(); i++) {
+                    percentiles.put(stats.getPercentiles()[i], ((Number) percentileValues.get(i)).doubleValue());
+                }
+            }
+
+            List<Object> distinctValues = null;
+            final NamedList<Object> distinctResult = (NamedList<Object>) jsonFacet.get("distinctValues");
+            if (Objects.nonNull(distinctResult)) {
+                distinctValues = getJsonBuckets(distinctResult).stream()
+                        .map(bucket -> castJsonValue(bucket.get("val"), field))
+                        .collect(Collectors.toList());
+            }
+
+            final Number countDistinct = (Number) jsonFacet.get("countDistinct");
+            final Number cardinality = (Number) jsonFacet.get("cardinality");
+
+            return new StatsFacetResult(field,
+                    castJsonValue(jsonFacet.get("min"), field),
+                    castJsonValue(jsonFacet.get("max"), field),
+                    stats.getSum() ? castJsonValue(sum, field) : null,
+                    stats.getCount() ? count : null,
+                    stats.getMissing() && Objects.nonNull(count) ? getJsonCount(jsonFacet) - count : null,
+                    stats.getSumOfSquares() && Objects.nonNull(sumOfSquares) ? sumOfSquares.doubleValue() : null,
+                    Objects.nonNull(mean) && Number.class.isAssignableFrom(field.getType()) ? mean.doubleValue() : castJsonValue(mean, field),
+                    stddev,
+                    percentiles,
+                    distinctValues,
+                    Objects.nonNull(countDistinct) ? countDistinct.longValue() : null,
+                    Objects.nonNull(cardinality) ? cardinality.longValue() : null);
+        }
+
+        private static List<NamedList<Object>> getJsonBuckets(NamedList<Object> jsonFacet) {
+            final List<NamedList<Object>> buckets = (List<NamedList<Object>>) jsonFacet.get("buckets");
+            return Objects.nonNull(buckets) ? buckets : Collections.emptyList();
+        }
+
+        private static long getJsonCount(NamedList<Object> jsonFacet) {
+            final Number count = (Number) jsonFacet.get("count");
+            return Objects.nonNull(count) ? count.longValue() : 0;
+        }
+
+        private static Object castJsonValue(Object value, FieldDescriptor<?> descriptor) {
+            if (Objects.isNull(value) || Objects.isNull(descriptor)) {
+                return value;
+            }
+            if (value instanceof String) {
+                return castForDescriptor((String) value, descriptor, Facet);
+            }
+            final Class<?> type = descriptor instanceof ComplexFieldDescriptor ?
+                    ((ComplexFieldDescriptor<?, ?, ?>) descriptor).getFacetType() : descriptor.getType();
+            //date aggregations are returned as milliseconds
+            if (value instanceof Number && (Date.class.isAssignableFrom(type) || ZonedDateTime.class.isAssignableFrom(type))) {
+                return castForDescriptor(new Date(((Number) value).longValue()), descriptor, Facet);
+            }
+            return castForDescriptor(value, descriptor, Facet);
+        }
+
         private static HashMap<String, StatsFacetResult<?>> getStatsFacetsResults(Set<Map.Entry<String, FieldStatsInfo>> entries, Map<String, Facet> facetsQuery) {
 
             HashMap<String, StatsFacetResult<?>> statsResults = new HashMap<>();
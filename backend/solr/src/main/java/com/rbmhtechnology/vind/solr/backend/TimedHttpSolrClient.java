@@ -0,0 +1,71 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.SolrParams;
+
+import java.io.IOException;
+
+/**
+ * {@link HttpSolrClient} sharing the http client of another solrj client, which waits for the response of a request
+ * with a timeAllowed at most the timeAllowed plus a grace period. The socket timeout is set on the single request,
+ * so the timeout is enforced by the connection itself and the settings of the shared http client are not changed.
+ */
+class TimedHttpSolrClient extends HttpSolrClient {
+
+    /**
+     * Default time in milliseconds granted on top of the timeAllowed of a request.
+     */
+    static final long DEFAULT_GRACE = 500;
+
+    private final long grace;
+
+    /**
+     * Creates a client sending the requests like the given client.
+     * @param client the solrj client, whose http client, parser and params are used.
+     * @param grace time in milliseconds granted on top of the timeAllowed of a request.
+     */
+    TimedHttpSolrClient(HttpSolrClient client, long grace) {
+        super(client.getBaseURL(), client.getHttpClient(), client.getParser());
+        setQueryParams(client.getQueryParams());
+        this.invariantParams = client.getInvariantParams();
+        this.grace = grace;
+    }
+
+    /**
+     * Checks whether the requests of a solrj client can be sent by a {@link TimedHttpSolrClient}, which is the case
+     * for plain http clients.
+     * @param client the solrj client.
+     * @return true if a {@link TimedHttpSolrClient} can be created for the client.
+     */
+    static boolean supports(Object client) {
+        return client != null && client.getClass() == HttpSolrClient.class;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    protected HttpRequestBase createMethod(SolrRequest request, String collection) throws IOException, SolrServerException {
+        final HttpRequestBase method = super.createMethod(request, collection);
+        final long timeout = timeout(request.getParams(), grace);
+        if (timeout > 0) {
+            //the params of the request override the ones of the http client
+            HttpConnectionParams.setSoTimeout(method.getParams(), (int) Math.min(timeout, Integer.MAX_VALUE));
+        }
+        return method;
+    }
+
+    /**
+     * Gets the time to wait for the response of a request, its timeAllowed plus a grace period.
+     * @param params the params of the request, may be null.
+     * @param grace time in milliseconds granted on top of the timeAllowed.
+     * @return the timeout in milliseconds or 0 if the request has no timeAllowed.
+     */
+    static long timeout(SolrParams params, long grace) {
+        final Long timeAllowed = params != null ? params.getLong(CommonParams.TIME_ALLOWED) : null;
+        return timeAllowed != null && timeAllowed > 0 ? timeAllowed + grace : 0;
+    }
+}
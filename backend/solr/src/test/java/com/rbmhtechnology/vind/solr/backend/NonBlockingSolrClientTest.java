@@ -0,0 +1,270 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.impl.HttpClientUtil;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.JavaBinCodec;
+import org.apache.solr.common.util.NamedList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class NonBlockingSolrClientTest {
+
+    private ServerSocket server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile Function<String, byte[]> handler;
+
+    private HttpSolrClient solrClient;
+    private NonBlockingSolrClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        final Thread acceptor = new Thread(() -> {
+            while (!server.isClosed()) {
+                try {
+                    final Socket socket = server.accept();
+                    connections.incrementAndGet();
+                    final Thread connection = new Thread(() -> serve(socket));
+                    connection.setDaemon(true);
+                    connection.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        solrClient = new HttpSolrClient("http://localhost:" + server.getLocalPort() + "/solr/core");
+        client = new NonBlockingSolrClient(solrClient, 1);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+        solrClient.close();
+        server.close();
+    }
+
+    @Test
+    public void testQuery() throws Exception {
+        final NamedList<Object> body = new NamedList<>();
+        body.add("answer", 42);
+        handler = request -> chunked(200, javabin(body));
+
+        final SolrQuery query = new SolrQuery("title:vind");
+        query.setRequestHandler("/suggester");
+        assertThat(client.query(query, 0, Runnable::run).join().get("answer"), is((Object) 42));
+        assertThat(client.query(new SolrQuery("*:*"), 0, Runnable::run).join().get("answer"), is((Object) 42));
+
+        assertThat(requests.get(0), containsString("POST /solr/core/suggester HTTP/1.1"));
+        assertThat(requests.get(0), containsString("q=title%3Avind"));
+        assertThat(requests.get(0), containsString("wt=javabin"));
+        assertThat(requests.get(1), containsString("POST /solr/core/select HTTP/1.1"));
+        //the connection is kept alive
+        assertThat(connections.get(), is(1));
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        handler = request -> response(200, javabin(new NamedList<>()));
+
+        final SolrInputDocument document = new SolrInputDocument();
+        document.addField("_id_", "1");
+        final UpdateRequest update = new UpdateRequest();
+        update.add(document);
+        update.setCommitWithin(500);
+        client.update(update, Runnable::run).join();
+
+        assertThat(requests.get(0), containsString("POST /solr/core/update?"));
+        assertThat(requests.get(0), containsString("commitWithin=500"));
+        assertThat(requests.get(0), containsString("Content-Type: application/javabin"));
+    }
+
+    @Test
+    public void testError() throws Exception {
+        final NamedList<Object> error = new NamedList<>();
+        error.add("msg", "undefined field foo");
+        error.add("code", 400);
+        final NamedList<Object> body = new NamedList<>();
+        body.add("error", error);
+        handler = request -> response(400, javabin(body));
+
+        try {
+            client.query(new SolrQuery("foo:bar"), 0, Runnable::run).join();
+            fail("Error response not reported");
+        } catch (CompletionException e) {
+            assertThat(e.getCause(), instanceOf(HttpSolrClient.RemoteSolrException.class));
+            assertThat(e.getCause().getMessage(), containsString("undefined field foo"));
+        }
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        handler = request -> {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response(200, javabin(new NamedList<>()));
+        };
+
+        try {
+            client.query(new SolrQuery("*:*"), 100, Runnable::run).join();
+            fail("Timeout not reported");
+        } catch (CompletionException e) {
+            assertThat(e.getCause(), instanceOf(SocketTimeoutException.class));
+        }
+    }
+
+    @Test
+    public void testUpdateIsNotRetried() throws Exception {
+        //the connection is dropped without a response
+        handler = request -> null;
+
+        final SolrInputDocument document = new SolrInputDocument();
+        document.addField("_id_", "1");
+        final UpdateRequest update = new UpdateRequest();
+        update.add(document);
+        try {
+            client.update(update, Runnable::run).join();
+            fail("Dropped connection not reported");
+        } catch (CompletionException e) {
+            assertThat(requests.size(), is(1));
+        }
+    }
+
+    @Test
+    public void testSettingsOfTheSolrClient() throws Exception {
+        handler = request -> {
+            if (!request.contains("Authorization: Basic")) {
+                return "HTTP/1.1 401 Unauthorized\r\nWWW-Authenticate: Basic realm=\"solr\"\r\nContent-Length: 0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+            }
+            if (request.contains("/update")) {
+                try {
+                    Thread.sleep(2000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return response(200, javabin(new NamedList<>()));
+        };
+        HttpClientUtil.setBasicAuth((DefaultHttpClient) solrClient.getHttpClient(), "vind", "secret");
+        solrClient.setSoTimeout(100);
+
+        try (NonBlockingSolrClient configured = new NonBlockingSolrClient(solrClient, 1)) {
+            configured.query(new SolrQuery("*:*"), 0, Runnable::run).join();
+            assertThat(requests.get(requests.size() - 1), containsString("Authorization: Basic"));
+
+            //updates have the socket timeout of the solr client
+            configured.update(new UpdateRequest(), Runnable::run).join();
+            fail("Timeout not reported");
+        } catch (CompletionException e) {
+            assertThat(e.getCause(), instanceOf(SocketTimeoutException.class));
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (Socket s = socket; InputStream in = s.getInputStream(); OutputStream out = s.getOutputStream()) {
+            while (true) {
+                final String head = readHead(in);
+                if (head == null) {
+                    return;
+                }
+                final int length = Integer.parseInt(head.replaceAll("(?s).*Content-Length: (\\d+).*", "$1"));
+                final byte[] body = new byte[length];
+                int read = 0;
+                while (read < length) {
+                    read += in.read(body, read, length - read);
+                }
+                final String request = head + new String(body, StandardCharsets.UTF_8);
+                requests.add(request);
+                final byte[] response = handler.apply(request);
+                if (response == null) {
+                    return;
+                }
+                out.write(response);
+                out.flush();
+            }
+        } catch (IOException e) {
+            //connection closed by the client
+        }
+    }
+
+    private static String readHead(InputStream in) throws IOException {
+        final ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int c;
+        while ((c = in.read()) >= 0) {
+            head.write(c);
+            if (head.toString("ISO-8859-1").endsWith("\r\n\r\n")) {
+                return head.toString("ISO-8859-1");
+            }
+        }
+        return null;
+    }
+
+    private static byte[] javabin(NamedList<Object> body) {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new JavaBinCodec().marshal(body, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] response(int status, byte[] body) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final String head = "HTTP/1.1 " + status + " Status\r\nContent-Type: application/octet-stream\r\nContent-Length: " + body.length + "\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.ISO_8859_1), 0, head.length());
+        out.write(body, 0, body.length);
+        return out.toByteArray();
+    }
+
+    private static byte[] chunked(int status, byte[] body) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final StringBuilder response = new StringBuilder("HTTP/1.1 " + status + " Status\r\nTransfer-Encoding: chunked\r\n\r\n");
+        out.write(response.toString().getBytes(StandardCharsets.ISO_8859_1), 0, response.length());
+        //two chunks to test the reassembly
+        final int half = body.length / 2;
+        writeChunk(out, body, 0, half);
+        writeChunk(out, body, half, body.length - half);
+        final byte[] end = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        out.write(end, 0, end.length);
+        return out.toByteArray();
+    }
+
+    private static void writeChunk(ByteArrayOutputStream out, byte[] data, int offset, int length) {
+        final byte[] size = (Integer.toHexString(length) + "\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        out.write(size, 0, size.length);
+        out.write(data, offset, length);
+        out.write('\r');
+        out.write('\n');
+    }
+}
@@ -0,0 +1,135 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.DocumentFactoryBuilder;
+import com.rbmhtechnology.vind.model.FieldDescriptor;
+import com.rbmhtechnology.vind.model.FieldDescriptorBuilder;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the resolution of Solr result field names with a regex compiled per field (as done before the
+ * {@link SolrUtils.Result.ResultDecoder} was introduced) to the cached decoder, for a page of 100 documents with
+ * 40 fields each.
+ * <p>
+ * Run with {@code mvn test-compile} and {@code java -cp <test classpath> com.rbmhtechnology.vind.solr.backend.ResultDecodingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultDecodingBenchmark {
+
+    private static final String INTERNAL_FIELD_PREFIX =
+            "dynamic_(multi_|single_)(boolean_|date_|int_|long_|float_|string_|binary_|location_)";
+
+    private static final int FIELDS = 40;
+    private static final int ROWS = 100;
+
+    @Param({"", "preview"})
+    public String context;
+
+    private DocumentFactory factory;
+    private SolrDocumentList results;
+    private String searchContext;
+
+    @Setup
+    public void setup() {
+        searchContext = context.isEmpty() ? null : context;
+
+        final DocumentFactoryBuilder builder = new DocumentFactoryBuilder("asset");
+        for (int i = 0; i < FIELDS; i++) {
+            final FieldDescriptor<?> descriptor;
+            switch (i % 3) {
+                case 0:
+                    descriptor = new FieldDescriptorBuilder<>().buildTextField("text" + i);
+                    break;
+                case 1:
+                    descriptor = new FieldDescriptorBuilder<>().buildNumericField("number" + i, Long.class);
+                    break;
+                default:
+                    descriptor = new FieldDescriptorBuilder<>().buildUtilDateField("date" + i);
+            }
+            builder.addField(descriptor);
+        }
+        factory = builder.build();
+
+        results = new SolrDocumentList();
+        for (int row = 0; row < ROWS; row++) {
+            final SolrDocument document = new SolrDocument();
+            document.setField(SolrUtils.Fieldname.ID, "doc" + row);
+            document.setField(SolrUtils.Fieldname.TYPE, "asset");
+            document.setField(SolrUtils.Fieldname.SCORE, 1f);
+            for (int i = 0; i < FIELDS; i++) {
+                switch (i % 3) {
+                    case 0:
+                        document.setField("dynamic_single_string_text" + i, "some text value " + row);
+                        break;
+                    case 1:
+                        document.setField("dynamic_single_long_number" + i, (long) row);
+                        break;
+                    default:
+                        document.setField("dynamic_single_date_date" + i, new Date());
+                }
+            }
+            results.add(document);
+        }
+    }
+
+    @Benchmark
+    public void regexFieldResolution(Blackhole blackhole) {
+        final String contextPrefix = searchContext != null ? searchContext + "_" : "";
+        for (SolrDocument result : results) {
+            for (Map.Entry<String, Object> field : result) {
+                final String contextualizedName = Pattern.compile(INTERNAL_FIELD_PREFIX).matcher(field.getKey()).replaceFirst("");
+                final boolean contextualized = searchContext != null && contextualizedName.contains(contextPrefix);
+                final String fname = contextualizedName.replace(contextPrefix, "");
+                blackhole.consume(contextualized);
+                blackhole.consume(factory.hasField(fname) ? factory.getField(fname) : null);
+            }
+        }
+    }
+
+    @Benchmark
+    public void decoderFieldResolution(Blackhole blackhole) {
+        final SolrUtils.Result.ResultDecoder decoder = SolrUtils.Result.ResultDecoder.of(factory, searchContext);
+        for (SolrDocument result : results) {
+            for (Map.Entry<String, Object> field : result) {
+                blackhole.consume(decoder.get(factory, field.getKey()));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object buildResultList() {
+        return SolrUtils.Result.buildResultList(results, null, factory, searchContext);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResultDecodingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
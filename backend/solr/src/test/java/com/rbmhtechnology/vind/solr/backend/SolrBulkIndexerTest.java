@@ -0,0 +1,99 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import com.rbmhtechnology.vind.api.BulkIndexer;
+import com.rbmhtechnology.vind.api.Document;
+import com.rbmhtechnology.vind.api.SearchServer;
+import com.rbmhtechnology.vind.api.result.BulkIndexResult;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.DocumentFactoryBuilder;
+import com.rbmhtechnology.vind.model.FieldDescriptor;
+import com.rbmhtechnology.vind.model.FieldDescriptorBuilder;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SolrBulkIndexerTest {
+
+    @Mock
+    private SolrClient solrClient;
+
+    private SearchServer server;
+
+    private DocumentFactory factory;
+    private FieldDescriptor<String> title;
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        server = new SolrSearchServer(solrClient, false);
+
+        title = new FieldDescriptorBuilder<String>().setFullText(true).buildTextField("title");
+        factory = new DocumentFactoryBuilder("asset").addField(title).build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchesByCount() throws Exception {
+        final List<Document> docs = IntStream.range(0, 25)
+                .mapToObj(i -> factory.createDoc("doc" + i).setValue(title, "title " + i))
+                .collect(Collectors.toList());
+
+        final BulkIndexResult result;
+        try (BulkIndexer indexer = server.bulkIndexer(new BulkIndexer.Options().setBatchSize(10).setMaxInFlightBatches(2))) {
+            indexer.addAll(docs.iterator());
+            result = indexer.flush();
+        }
+
+        final ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(solrClient, times(3)).add(captor.capture());
+        assertEquals(25, captor.getAllValues().stream().mapToInt(Collection::size).sum());
+
+        assertEquals(3, result.getBatches().size());
+        assertEquals(25, result.getIndexed());
+        assertEquals(0, result.getFailed());
+    }
+
+    @Test
+    public void testBatchesBySize() throws Exception {
+        final BulkIndexResult result;
+        try (BulkIndexer indexer = server.bulkIndexer(new BulkIndexer.Options().setBatchSize(100).setMaxBatchBytes(50))) {
+            indexer.addAll(IntStream.range(0, 4)
+                    .mapToObj(i -> factory.createDoc("doc" + i).setValue(title, "a title which is long enough")));
+            result = indexer.flush();
+        }
+
+        assertEquals(4, result.getBatches().size());
+        assertEquals(4, result.getIndexed());
+    }
+
+    @Test
+    public void testFailedBatch() throws Exception {
+        when(solrClient.add(anyCollectionOf(SolrInputDocument.class))).thenThrow(new SolrServerException("failed"));
+
+        final BulkIndexResult result;
+        try (BulkIndexer indexer = server.bulkIndexer(new BulkIndexer.Options().setBatchSize(5))) {
+            indexer.addAll(IntStream.range(0, 10).mapToObj(i -> factory.createDoc("doc" + i)));
+            result = indexer.flush();
+        }
+
+        assertEquals(0, result.getIndexed());
+        assertEquals(10, result.getFailed());
+        assertEquals(2, result.getFailedBatches());
+    }
+}
@@ -4,17 +4,25 @@ import com.rbmhtechnology.vind.api.Document;
 import com.rbmhtechnology.vind.api.SearchServer;
 import com.rbmhtechnology.vind.api.query.Search;
 import com.rbmhtechnology.vind.api.query.sort.Sort;
+import com.rbmhtechnology.vind.api.result.ScrollIterator;
 import com.rbmhtechnology.vind.api.result.SearchResult;
 import com.rbmhtechnology.vind.model.*;
+import com.rbmhtechnology.vind.model.value.LatLng;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.StreamingResponseCallback;
 import org.apache.solr.client.solrj.response.QueryResponse;
 import org.apache.solr.client.solrj.response.SolrPingResponse;
+import org.apache.solr.common.SolrDocument;
 import org.apache.solr.common.SolrDocumentList;
 import org.apache.solr.common.SolrInputDocument;
 import org.apache.solr.common.SolrInputField;
+import org.apache.solr.common.params.CommonParams;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.params.FacetParams;
+import org.apache.solr.common.util.NamedList;
 import org.hamcrest.*;
 import org.junit.Before;
 import org.junit.Test;
@@ -25,15 +33,25 @@ import org.mockito.MockitoAnnotations;
 import java.io.IOException;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import static com.rbmhtechnology.vind.api.query.filter.Filter.and;
 import static com.rbmhtechnology.vind.api.query.filter.Filter.eq;
+import static com.rbmhtechnology.vind.api.query.filter.Filter.hasChildrenDocuments;
 import static com.rbmhtechnology.vind.api.query.filter.Filter.or;
+import static com.rbmhtechnology.vind.api.query.filter.Filter.withinCircle;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -94,6 +112,45 @@ public class SolrSearchServerTest {
     }
 
 
+    @Test
+    public void testFilterDecomposition() throws Exception {
+
+        final DocumentFactoryBuilder docFactoryBuilder = new DocumentFactoryBuilder("asset");
+        FieldDescriptor descriptor = new FieldDescriptorBuilder().setFacet(true).buildTextField("text");
+        docFactoryBuilder.addField(descriptor);
+        DocumentFactory documents = docFactoryBuilder.build();
+
+        server.execute(Search.fulltext().filter(and(eq("text", "b"), and(eq("text", "a"), eq("text", "c").cache(false).cost(200)), eq("text", "b"))), documents);
+
+        ArgumentCaptor<SolrQuery> argument = ArgumentCaptor.forClass(SolrQuery.class);
+        verify(solrClient).query(argument.capture());
+
+        assertThat(Arrays.asList(argument.getValue().getFilterQueries()), Matchers.contains(
+                "_type_:asset",
+                "dynamic_single_facet_string_text:\"a\"",
+                "dynamic_single_facet_string_text:\"b\"",
+                "{!cache=false cost=200}dynamic_single_facet_string_text:\"c\""));
+    }
+
+    @Test
+    public void testFilterHintsAreMergedIntoLocalParams() throws Exception {
+
+        final SingleValueFieldDescriptor.LocationFieldDescriptor<LatLng> location = new FieldDescriptorBuilder<>().setFacet(true).buildLocationField("location");
+        final DocumentFactory documents = new DocumentFactoryBuilder("asset").addField(location).build();
+
+        server.execute(Search.fulltext().filter(and(
+                withinCircle("location", new LatLng(47.0, 13.0), 5).cache(false).cost(150),
+                hasChildrenDocuments("asset").cache(false))), documents);
+
+        ArgumentCaptor<SolrQuery> argument = ArgumentCaptor.forClass(SolrQuery.class);
+        verify(solrClient).query(argument.capture());
+
+        assertThat(Arrays.asList(argument.getValue().getFilterQueries()), containsInAnyOrder(
+                "_type_:asset",
+                "{!geofilt cache=false cost=150 sfield=dynamic_single_facet_location_location pt=47.0,13.0 d=5.0}",
+                "{!parent cache=false which=\"_type_:asset\"} (_id_:* AND -_type_:asset)"));
+    }
+
     @Test
     public void testIndex() throws Exception {
 
@@ -135,6 +192,115 @@ public class SolrSearchServerTest {
     }
 
 
+    @Test
+    public void testIndexContextualized() throws Exception {
+
+        FieldDescriptor<String> title = new FieldDescriptorBuilder<>().setFacet(true).buildTextField("title");
+        DocumentFactory documents = new DocumentFactoryBuilder("asset").addField(title).build();
+
+        server.index(documents.createDoc("1").setValue(title, "Hello World"));
+        server.index(documents.createDoc("2").setContextualizedValue(title, "preview", "Hello Preview"));
+
+        ArgumentCaptor<SolrInputDocument> argument = ArgumentCaptor.forClass(SolrInputDocument.class);
+        verify(solrClient, times(2)).add(argument.capture());
+
+        SolrInputDocument doc = argument.getAllValues().get(0);
+        assertThat(doc.get("dynamic_single_string_title"), solrInputField("dynamic_single_string_title", "Hello World"));
+        assertThat(doc.get("dynamic_single_facet_string_title"), solrInputField("dynamic_single_facet_string_title", "Hello World"));
+
+        doc = argument.getAllValues().get(1);
+        assertThat(doc.get("dynamic_single_string_preview_title"), solrInputField("dynamic_single_string_preview_title", "Hello Preview"));
+        assertThat(doc.get("dynamic_single_facet_string_preview_title"), solrInputField("dynamic_single_facet_string_preview_title", "Hello Preview"));
+    }
+
+    @Test
+    public void testScroll() throws Exception {
+
+        DocumentFactory documents = new DocumentFactoryBuilder("asset").build();
+
+        final QueryResponse first = mockCursorResponse("a", 3, "1", "2");
+        final QueryResponse second = mockCursorResponse("b", 3, "3");
+        final QueryResponse last = mockCursorResponse("b", 3);
+        when(solrClient.query(any())).thenAnswer(invocation -> {
+            final String cursorMark = ((SolrQuery) invocation.getArguments()[0]).get(CursorMarkParams.CURSOR_MARK_PARAM);
+            return "*".equals(cursorMark) ? first : "a".equals(cursorMark) ? second : last;
+        });
+
+        final ScrollIterator scroll = server.scroll(Search.fulltext().page(1, 2), documents);
+        assertEquals(3, scroll.getNumOfResults());
+        verify(solrClient, times(1)).query(any());
+
+        final List<String> ids = scroll.stream().map(Document::getId).collect(Collectors.toList());
+        assertEquals(Arrays.asList("1", "2", "3"), ids);
+
+        ArgumentCaptor<SolrQuery> argument = ArgumentCaptor.forClass(SolrQuery.class);
+        verify(solrClient, times(3)).query(argument.capture());
+        assertEquals(Integer.valueOf(2), argument.getValue().getRows());
+        assertEquals("score desc, _id_ asc", argument.getValue().get(CommonParams.SORT));
+    }
+
+    @Test
+    public void testExport() throws Exception {
+
+        DocumentFactory documents = new DocumentFactoryBuilder("asset").build();
+
+        final QueryResponse first = mockCursorResponse("a", 3, "1", "2");
+        final QueryResponse second = mockCursorResponse("b", 3, "3");
+        final QueryResponse last = mockCursorResponse("b", 3);
+        when(solrClient.queryAndStreamResponse(any(), any())).thenAnswer(invocation -> {
+            final String cursorMark = ((SolrQuery) invocation.getArguments()[0]).get(CursorMarkParams.CURSOR_MARK_PARAM);
+            final StreamingResponseCallback callback = (StreamingResponseCallback) invocation.getArguments()[1];
+            final QueryResponse cursorResponse = "*".equals(cursorMark) ? first : "a".equals(cursorMark) ? second : last;
+            callback.streamDocListInfo(cursorResponse.getResults().getNumFound(), 0, null);
+            cursorResponse.getResults().forEach(callback::streamSolrDocument);
+            return cursorResponse;
+        });
+
+        final List<String> ids = new ArrayList<>();
+        assertEquals(3, server.export(Search.fulltext().facet("category"), documents, document -> ids.add(document.getId())));
+        assertEquals(Arrays.asList("1", "2", "3"), ids);
+
+        ArgumentCaptor<SolrQuery> argument = ArgumentCaptor.forClass(SolrQuery.class);
+        verify(solrClient, times(3)).queryAndStreamResponse(argument.capture(), any());
+        assertEquals(null, argument.getValue().get(FacetParams.FACET));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+
+        DocumentFactory documents = new DocumentFactoryBuilder("asset").build();
+
+        final NamedList<Object> header = new NamedList<>();
+        header.add("partialResults", true);
+        final NamedList<Object> values = new NamedList<>();
+        values.add("responseHeader", header);
+        when(response.getResponse()).thenReturn(values);
+
+        final SearchResult result = server.execute(Search.fulltext("hello").timeout(200, TimeUnit.MILLISECONDS), documents);
+        assertTrue(result.isPartialResults());
+        assertTrue(result.getElapsedTime() >= 0);
+
+        ArgumentCaptor<SolrQuery> argument = ArgumentCaptor.forClass(SolrQuery.class);
+        verify(solrClient).query(argument.capture());
+        assertEquals(Integer.valueOf(200), argument.getValue().getTimeAllowed());
+    }
+
+    private QueryResponse mockCursorResponse(String nextCursorMark, long numFound, String... ids) {
+        final SolrDocumentList results = new SolrDocumentList();
+        results.setNumFound(numFound);
+        for (String id : ids) {
+            final SolrDocument document = new SolrDocument();
+            document.setField(SolrUtils.Fieldname.ID, id);
+            document.setField(SolrUtils.Fieldname.TYPE, "asset");
+            results.add(document);
+        }
+        final QueryResponse cursorResponse = mock(QueryResponse.class);
+        when(cursorResponse.getResults()).thenReturn(results);
+        when(cursorResponse.getNextCursorMark()).thenReturn(nextCursorMark);
+        return cursorResponse;
+    }
+
+
     public static <T> Matcher<SolrInputField> solrInputField(String fieldName, T value) {
         return new TypeSafeMatcher<SolrInputField>() {
             @Override
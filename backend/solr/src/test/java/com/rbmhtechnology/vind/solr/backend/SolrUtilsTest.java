@@ -1,14 +1,38 @@
 package com.rbmhtechnology.vind.solr.backend;
 
+import com.rbmhtechnology.vind.api.Document;
+import com.rbmhtechnology.vind.api.query.Search;
+import com.rbmhtechnology.vind.api.query.FulltextSearch;
+import com.rbmhtechnology.vind.api.query.facet.Facets;
+import com.rbmhtechnology.vind.api.result.FacetResults;
+import com.rbmhtechnology.vind.api.result.facet.PivotFacetResult;
+import com.rbmhtechnology.vind.api.result.facet.StatsFacetResult;
+import com.rbmhtechnology.vind.model.DocumentFactory;
+import com.rbmhtechnology.vind.model.DocumentFactoryBuilder;
 import com.rbmhtechnology.vind.model.FieldDescriptor;
 import com.rbmhtechnology.vind.model.FieldDescriptorBuilder;
+import com.rbmhtechnology.vind.model.SingleValueFieldDescriptor;
 import com.rbmhtechnology.vind.solr.backend.SolrUtils;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.SolrDocument;
+import org.apache.solr.common.SolrDocumentList;
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.common.util.SimpleOrderedMap;
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * @author Thomas Kurz (tkurz@apache.org)
@@ -38,4 +62,179 @@ public class SolrUtilsTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testBuildResultList() {
+
+        FieldDescriptor<String> title = new FieldDescriptorBuilder<String>().buildTextField("title");
+        DocumentFactory factory = new DocumentFactoryBuilder("asset").addField(title).build();
+
+        SolrDocument solrDocument = new SolrDocument();
+        solrDocument.setField(SolrUtils.Fieldname.ID, "1");
+        solrDocument.setField(SolrUtils.Fieldname.TYPE, "asset");
+        solrDocument.setField("dynamic_single_string_title", "Hello World");
+        solrDocument.setField("dynamic_single_string_preview_title", "Hello Preview");
+        SolrDocumentList results = new SolrDocumentList();
+        results.add(solrDocument);
+
+        Document document = SolrUtils.Result.buildResultList(results, null, factory, null).get(0);
+        assertEquals("1", document.getId());
+        assertEquals("Hello World", document.getValue(title));
+        assertEquals(Collections.singleton(null), document.getFieldContexts(title));
+
+        document = SolrUtils.Result.buildResultList(results, null, factory, "preview").get(0);
+        assertEquals("Hello World", document.getValue(title));
+        assertEquals("Hello Preview", document.getContextualizedValue(title, "preview"));
+    }
+
+    @Test
+    public void testBuildLazyResultList() {
+
+        FieldDescriptor<String> title = new FieldDescriptorBuilder<String>().buildTextField("title");
+        FieldDescriptor<Date> created = new FieldDescriptorBuilder<Date>().buildUtilDateField("created");
+        DocumentFactory factory = new DocumentFactoryBuilder("asset").addField(title, created).build();
+
+        SolrDocument solrDocument = new SolrDocument();
+        solrDocument.setField(SolrUtils.Fieldname.ID, "1");
+        solrDocument.setField(SolrUtils.Fieldname.TYPE, "asset");
+        solrDocument.setField("dynamic_single_string_title", "Hello World");
+        solrDocument.setField("dynamic_single_string_preview_title", "Hello Preview");
+        solrDocument.setField("dynamic_single_date_created", "not a date");
+        SolrDocumentList results = new SolrDocumentList();
+        results.add(solrDocument);
+
+        //the invalid date is not converted as long as it is not accessed
+        Document document = SolrUtils.Result.buildResultList(results, null, factory, "preview", true).get(0);
+        assertEquals("1", document.getId());
+        assertEquals("Hello World", document.getValue(title));
+        assertEquals("Hello Preview", document.getContextualizedValue(title, "preview"));
+
+        //copies keep the fields not read yet pending and do not share the loaded values
+        Document copy = document.copy();
+        copy.setValue(title, "Changed");
+        assertEquals("Hello World", document.getValue(title));
+        try {
+            copy.getValue(created);
+            fail("invalid date should fail on access of the copy");
+        } catch (RuntimeException e) {
+            //expected
+        }
+
+        try {
+            document.getValue(created);
+            fail("invalid date should fail on access");
+        } catch (RuntimeException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testResultDecoderReleasesFactory() throws Exception {
+
+        FieldDescriptor<String> title = new FieldDescriptorBuilder<String>().buildTextField("title");
+        DocumentFactory factory = new DocumentFactoryBuilder("asset").addField(title).build();
+
+        SolrDocument result = new SolrDocument();
+        result.addField("_id_", "1");
+        result.addField("_type_", "asset");
+        result.addField("dynamic_single_string_title", "Hello World");
+        SolrDocumentList results = new SolrDocumentList();
+        results.add(result);
+        assertEquals("Hello World", SolrUtils.Result.buildResultList(results, null, factory, "preview").get(0).getValue(title));
+
+        //the cached decoders must not keep the factory reachable
+        final WeakReference<DocumentFactory> reference = new WeakReference<>(factory);
+        factory = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+    @Test
+    public void testBuildFieldListString() {
+
+        FieldDescriptor<String> title = new FieldDescriptorBuilder<String>().buildTextField("title");
+        title.setContextualized(true);
+        FieldDescriptor<Long> size = new FieldDescriptorBuilder<Long>().buildNumericField("size", Long.class);
+
+        assertEquals("_id_,_type_,score,dynamic_single_string_title,dynamic_single_long_size",
+                SolrUtils.Query.buildFieldListString(Arrays.asList(title, size), null, true));
+        assertEquals("_id_,_type_,dynamic_single_string_title,dynamic_single_string_preview_title",
+                SolrUtils.Query.buildFieldListString(Collections.singletonList(title), "preview", false));
+
+        //not stored fields must not fall back to their sort field
+        FieldDescriptor<Long> rank = new FieldDescriptorBuilder<Long>().setStored(false).buildNumericField("rank", Long.class);
+        assertEquals("_id_,_type_,dynamic_single_long_size",
+                SolrUtils.Query.buildFieldListString(Arrays.asList(rank, size), null, false));
+    }
+
+    @Test
+    public void testJsonFacet() {
+
+        final SingleValueFieldDescriptor.TextFieldDescriptor<String> category = new FieldDescriptorBuilder<String>().setFacet(true).buildTextField("category");
+        final SingleValueFieldDescriptor.NumericFieldDescriptor<Long> price = new FieldDescriptorBuilder<Long>().setFacet(true).buildNumericField("price", Long.class);
+        final DocumentFactory factory = new DocumentFactoryBuilder("asset").addField(category, price).build();
+
+        final FulltextSearch search = Search.fulltext().jsonFacet(true)
+                .facet(category)
+                .facet(Facets.pivot("cats", category))
+                .facet(Facets.stats("price", price, "cats").min().max());
+
+        final String json = SolrUtils.Query.buildJsonFacet(search, factory, null);
+        assertThat(json, containsString("\"category\":{\"type\":\"terms\",\"field\":\"dynamic_single_facet_string_category\""));
+        assertThat(json, containsString("\"cats\":{\"type\":\"terms\",\"field\":\"dynamic_single_facet_string_category\""));
+        assertThat(json, containsString("\"min\":\"min(dynamic_single_facet_long_price)\""));
+        assertThat(json, containsString("\"max\":\"max(dynamic_single_facet_long_price)\""));
+
+        final NamedList<Object> facets = new SimpleOrderedMap<>();
+        facets.add("count", 10);
+        facets.add("category", buckets(bucket("a", 6, null), bucket("b", 4, null)));
+        facets.add("cats", buckets(bucket("a", 6, stats(1, 5)), bucket("b", 4, stats(2, 9))));
+        facets.add("price", stats(1, 9));
+        final NamedList<Object> values = new NamedList<>();
+        values.add("facets", facets);
+        final QueryResponse response = new QueryResponse();
+        response.setResponse(values);
+
+        final FacetResults results = SolrUtils.Result.buildJsonFacetResult(response, factory, search.getFacets(), null);
+
+        assertEquals(2, results.getTermFacet(category).getValues().size());
+        assertEquals("a", results.getTermFacet(category).getValues().get(0).getValue());
+        assertEquals(6, results.getTermFacet(category).getValues().get(0).getCount());
+
+        final StatsFacetResult<Long> stats = results.getStatsFacet("price", Long.class);
+        assertEquals(Long.valueOf(1), stats.getMin());
+        assertEquals(Long.valueOf(9), stats.getMax());
+
+        final List<PivotFacetResult<String>> pivots = results.getPivotsFacet("cats", String.class);
+        assertEquals(2, pivots.size());
+        assertEquals("b", pivots.get(1).getValue());
+        assertEquals(Integer.valueOf(4), pivots.get(1).getCount());
+        assertEquals(9L, pivots.get(1).getStatsSubfacets().get("price").getMax());
+    }
+
+    private static NamedList<Object> buckets(NamedList<Object>... buckets) {
+        final NamedList<Object> facet = new SimpleOrderedMap<>();
+        facet.add("buckets", Arrays.asList(buckets));
+        return facet;
+    }
+
+    private static NamedList<Object> bucket(Object value, long count, NamedList<Object> stats) {
+        final NamedList<Object> bucket = new SimpleOrderedMap<>();
+        bucket.add("val", value);
+        bucket.add("count", count);
+        if (stats != null) {
+            bucket.add("price", stats);
+        }
+        return bucket;
+    }
+
+    private static NamedList<Object> stats(long min, long max) {
+        final NamedList<Object> stats = new SimpleOrderedMap<>();
+        stats.add("count", 10);
+        stats.add("min", (double) min);
+        stats.add("max", (double) max);
+        return stats;
+    }
+}
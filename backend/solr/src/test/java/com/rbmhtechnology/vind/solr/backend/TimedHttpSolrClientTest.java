@@ -0,0 +1,79 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.common.util.JavaBinCodec;
+import org.apache.solr.common.util.NamedList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TimedHttpSolrClientTest {
+
+    private HttpServer server;
+    private HttpSolrClient solrClient;
+    private TimedHttpSolrClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        //responds after 500ms
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/solr/core", exchange -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final NamedList<Object> body = new NamedList<>();
+            body.add("answer", 42);
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            new JavaBinCodec().marshal(body, bytes);
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, bytes.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                bytes.writeTo(out);
+            }
+        });
+        server.start();
+        solrClient = new HttpSolrClient("http://localhost:" + server.getAddress().getPort() + "/solr/core");
+        client = new TimedHttpSolrClient(solrClient, 50);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+        solrClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testTimeAllowedIsSocketTimeout() throws Exception {
+        final SolrQuery query = new SolrQuery("*:*");
+        query.setTimeAllowed(50);
+        final long start = System.currentTimeMillis();
+        try {
+            client.query(query);
+            fail("Timeout not reported");
+        } catch (SolrServerException e) {
+            assertThat(e.getCause(), instanceOf(SocketTimeoutException.class));
+            assertTrue(System.currentTimeMillis() - start < 500);
+        }
+
+        //the shared http client keeps its socket timeout
+        assertThat(client.query(new SolrQuery("*:*")).getResponse().get("answer"), is((Object) 42));
+    }
+}
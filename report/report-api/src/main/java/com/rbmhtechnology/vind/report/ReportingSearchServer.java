@@ -1,5 +1,8 @@
 package com.rbmhtechnology.vind.report;
 
+import com.rbmhtechnology.vind.api.BulkIndexer;
+import com.rbmhtechnology.vind.api.CommitCoalescer;
+import com.rbmhtechnology.vind.api.CommitPolicy;
 import com.rbmhtechnology.vind.api.Document;
 import com.rbmhtechnology.vind.api.SearchServer;
 import com.rbmhtechnology.vind.api.ServiceProvider;
@@ -11,6 +14,7 @@ import com.rbmhtechnology.vind.api.query.suggestion.SuggestionSearch;
 import com.rbmhtechnology.vind.api.query.update.Update;
 import com.rbmhtechnology.vind.api.result.BeanSearchResult;
 import com.rbmhtechnology.vind.api.result.GetResult;
+import com.rbmhtechnology.vind.api.result.ScrollIterator;
 import com.rbmhtechnology.vind.api.result.SearchResult;
 import com.rbmhtechnology.vind.api.result.SuggestionResult;
 import com.rbmhtechnology.vind.configure.SearchConfiguration;
@@ -26,6 +30,10 @@ import org.slf4j.LoggerFactory;
 
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @author Thomas Kurz (tkurz@apache.org)
@@ -89,6 +97,17 @@ public class ReportingSearchServer extends SearchServer {
         server.index(docs);
     }
 
+    @Override
+    public CompletableFuture<Void> indexAsync(Executor executor, List<Document> docs) {
+        return server.indexAsync(executor, docs);
+    }
+
+    @Override
+    public BulkIndexer bulkIndexer(BulkIndexer.Options options) {
+        //currently not logged
+        return server.bulkIndexer(options);
+    }
+
     @Override
     public void execute(Update update, DocumentFactory factory) {
         //currently not logged
@@ -106,6 +125,45 @@ public class ReportingSearchServer extends SearchServer {
         server.delete(doc);
     }
 
+    @Override
+    public void index(List<Document> docs, int commitWithin) {
+        //currently not logged
+        server.index(docs, commitWithin);
+    }
+
+    @Override
+    public void delete(Document doc, int commitWithin) {
+        //currently not logged
+        server.delete(doc, commitWithin);
+    }
+
+    @Override
+    public void commit() {
+        //currently not logged
+        server.commit();
+    }
+
+    @Override
+    public void softCommit() {
+        //currently not logged
+        server.softCommit();
+    }
+
+    @Override
+    public CommitPolicy getCommitPolicy() {
+        return server.getCommitPolicy();
+    }
+
+    @Override
+    public void setCommitPolicy(CommitPolicy commitPolicy) {
+        server.setCommitPolicy(commitPolicy);
+    }
+
+    @Override
+    public CommitCoalescer getCommitCoalescer() {
+        return server.getCommitCoalescer();
+    }
+
     @Override
     public void commit(boolean optimize) {
         //currently not logged
@@ -130,6 +188,34 @@ public class ReportingSearchServer extends SearchServer {
         return result;
     }
 
+    @Override
+    public CompletableFuture<SearchResult> executeAsync(FulltextSearch search, DocumentFactory factory, Executor executor) {
+        final ZonedDateTime start = ZonedDateTime.now();
+        return server.executeAsync(search, factory, executor).thenApply(result -> {
+            final ZonedDateTime end = ZonedDateTime.now();
+            logger.log(new Log(new FullTextEntry(application, source ,search, result, start, end, session)));
+            return result;
+        });
+    }
+
+    @Override
+    public ScrollIterator scroll(FulltextSearch search, DocumentFactory factory) {
+        //currently not logged
+        return server.scroll(search, factory);
+    }
+
+    @Override
+    public long export(FulltextSearch search, DocumentFactory factory, Consumer<Document> consumer) {
+        //currently not logged
+        return server.export(search, factory, consumer);
+    }
+
+    @Override
+    public <T> Stream<T> scroll(FulltextSearch search, Class<T> c) {
+        //currently not logged
+        return server.scroll(search, c);
+    }
+
     @Override
     public <T> SuggestionResult execute(ExecutableSuggestionSearch search, Class<T> c) {
         final ZonedDateTime start = ZonedDateTime.now();
@@ -148,6 +234,16 @@ public class ReportingSearchServer extends SearchServer {
         return result;
     }
 
+    @Override
+    public CompletableFuture<SuggestionResult> executeAsync(ExecutableSuggestionSearch search, DocumentFactory assets, Executor executor) {
+        final ZonedDateTime start = ZonedDateTime.now();
+        return server.executeAsync(search, assets, executor).thenApply(result -> {
+            final ZonedDateTime end = ZonedDateTime.now();
+            logger.log(new Log(application, (SuggestionSearch) search, result, start, end, session));
+            return result;
+        });
+    }
+
     @Override
     public SuggestionResult execute(ExecutableSuggestionSearch search, DocumentFactory assets, DocumentFactory childFactory) {
         final ZonedDateTime start = ZonedDateTime.now();
@@ -3,6 +3,7 @@
  */
 package com.rbmhtechnology.vind.report.model.request;
 
+import com.rbmhtechnology.vind.api.query.division.Cursor;
 import com.rbmhtechnology.vind.api.query.division.Page;
 import com.rbmhtechnology.vind.api.query.division.ResultSubset;
 import com.rbmhtechnology.vind.api.query.division.Slice;
@@ -29,6 +30,10 @@ public class Paging {
                 size = ((Slice)resultSet).getSliceSize();
                 break;
 
+            case cursor:
+                size = ((Cursor)resultSet).getSize();
+                break;
+
             default: break;
         }
     }
@@ -0,0 +1,342 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.client.solrj.request.QueryRequest;
+import org.apache.solr.common.util.NamedList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link SolrClient} sending hedged read requests to a set of replicas: if a query (search, suggestion or real time
+ * get) has not been answered within a percentile of the recent query latencies, the same query is sent to the next
+ * replica. The first successful response wins and the other request is aborted. Queries are distributed round robin
+ * over the replicas, all other requests (updates, deletes, commits, pings, streamed queries) go to the first one.
+ * <p>
+ * Hedgeable queries to {@link HttpSolrClient} replicas are sent with a non-blocking client with the settings of the
+ * replica client, so they don't hold a thread and the losing request is aborted on its connection. Their responses are
+ * decoded on a bounded number of threads, which also send the queries to other clients. The losing request of those
+ * can't be aborted and runs to its end. If all the threads are busy, queries are sent without hedging. Like the
+ * {@link TimedHttpSolrClient}, requests to http replicas wait for the response at most the timeAllowed of the query
+ * plus a grace period.
+ * <p>
+ * With a single client (e.g. a {@link org.apache.solr.client.solrj.impl.CloudSolrClient}) the hedge is sent through
+ * the same client, which picks a replica by itself. No query is hedged before a full window of latencies has been
+ * recorded.
+ */
+public class HedgingSolrClient extends SolrClient {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingSolrClient.class);
+
+    private static final int DEFAULT_WINDOW = 1000;
+    private static final int DEFAULT_MAX_THREADS = 64;
+
+    private final List<SolrClient> replicas;
+    //clients sending the queries to the replicas, waiting at most the timeAllowed of a query plus a grace period
+    private final List<SolrClient> queryReplicas;
+    //non-blocking clients of the http replicas, null for the other replicas
+    private final List<NonBlockingSolrClient> nonBlockingReplicas;
+    private final LatencyPercentile latency;
+    private final long minDelay;
+    private final ExecutorService executor;
+
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong hedged = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    /**
+     * Creates a new hedging client.
+     * @param replicas the clients of the replicas, the first one receives all the non query requests.
+     * @param percentile percentile of the recent query latencies after which a query is hedged, e.g. 95.
+     * @param minDelay minimum delay before a query is hedged.
+     * @param unit {@link TimeUnit} of the minimum delay.
+     */
+    public HedgingSolrClient(List<SolrClient> replicas, double percentile, long minDelay, TimeUnit unit) {
+        this(replicas, percentile, minDelay, unit, DEFAULT_WINDOW, DEFAULT_MAX_THREADS);
+    }
+
+    HedgingSolrClient(List<SolrClient> replicas, double percentile, long minDelay, TimeUnit unit, int window, int maxThreads) {
+        if (replicas.isEmpty()) {
+            log.error("At least one solr client has to be set");
+            throw new IllegalArgumentException("At least one solr client has to be set");
+        }
+        this.replicas = new ArrayList<>(replicas);
+        this.queryReplicas = new ArrayList<>();
+        this.nonBlockingReplicas = new ArrayList<>();
+        for (SolrClient replica : replicas) {
+            queryReplicas.add(TimedHttpSolrClient.supports(replica) ? new TimedHttpSolrClient((HttpSolrClient) replica, TimedHttpSolrClient.DEFAULT_GRACE) : replica);
+            nonBlockingReplicas.add(NonBlockingSolrClient.supports(replica) ? new NonBlockingSolrClient((HttpSolrClient) replica, 1) : null);
+        }
+        this.latency = new LatencyPercentile(window, percentile);
+        this.minDelay = unit.toNanos(minDelay);
+
+        final AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            final Thread thread = new Thread(runnable, "vind-hedged-request-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gets the number of queries sent through this client.
+     * @return number of queries.
+     */
+    public long getQueries() {
+        return queries.get();
+    }
+
+    /**
+     * Gets the number of queries which have been hedged.
+     * @return number of hedged queries.
+     */
+    public long getHedged() {
+        return hedged.get();
+    }
+
+    /**
+     * Gets the number of hedged queries which have been answered by the hedge first.
+     * @return number of won hedges.
+     */
+    public long getHedgeWins() {
+        return hedgeWins.get();
+    }
+
+    /**
+     * Gets the share of the queries which have been hedged.
+     * @return the hedge rate, between 0 and 1.
+     */
+    public double getHedgeRate() {
+        final long total = queries.get();
+        return total == 0 ? 0 : (double) hedged.get() / total;
+    }
+
+    /**
+     * Gets the share of the hedged queries which have been answered by the hedge first.
+     * @return the hedge win rate, between 0 and 1.
+     */
+    public double getHedgeWinRate() {
+        final long total = hedged.get();
+        return total == 0 ? 0 : (double) hedgeWins.get() / total;
+    }
+
+    /**
+     * Gets the current delay after which a query is hedged.
+     * @param unit the {@link TimeUnit} of the result.
+     * @return the delay or -1 if queries are not hedged yet.
+     */
+    public long getHedgeDelay(TimeUnit unit) {
+        final long percentile = latency.get();
+        return percentile < 0 ? -1 : unit.convert(Math.max(minDelay, percentile), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public NamedList<Object> request(SolrRequest request, String collection) throws SolrServerException, IOException {
+        if (!isHedgeable(request)) {
+            return replicas.get(0).request(request, collection);
+        }
+
+        queries.incrementAndGet();
+        final int first = Math.floorMod(next.getAndIncrement(), replicas.size());
+
+        final long delay = getHedgeDelay(TimeUnit.NANOSECONDS);
+        if (delay < 0) {
+            return requestUnhedged(first, request, collection);
+        }
+
+        final CompletableFuture<NamedList<Object>> primary;
+        try {
+            primary = send(first, request, collection);
+        } catch (RejectedExecutionException e) {
+            log.debug("All threads sending queries are busy, sending the query without hedging");
+            return requestUnhedged(first, request, collection);
+        }
+        try {
+            return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Query not answered within {}ms, sending hedged request", TimeUnit.NANOSECONDS.toMillis(delay));
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SolrServerException("Interrupted while waiting for the query response", e);
+        }
+
+        final CompletableFuture<NamedList<Object>> hedge;
+        try {
+            hedge = send((first + 1) % replicas.size(), request, collection);
+        } catch (RejectedExecutionException e) {
+            log.debug("All threads sending queries are busy, waiting for the query without hedging");
+            return await(primary);
+        }
+        hedged.incrementAndGet();
+
+        final CompletableFuture<CompletableFuture<NamedList<Object>>> winner = new CompletableFuture<>();
+        final AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<NamedList<Object>> attempt : Arrays.asList(primary, hedge)) {
+            attempt.whenComplete((response, error) -> {
+                if (error == null) {
+                    winner.complete(attempt);
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+        }
+
+        try {
+            final CompletableFuture<NamedList<Object>> won = winner.get();
+            if (won == hedge) {
+                hedgeWins.incrementAndGet();
+                primary.cancel(true);
+            } else {
+                hedge.cancel(true);
+            }
+            return won.join();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            hedge.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SolrServerException("Interrupted while waiting for the query response", e);
+        }
+    }
+
+    private boolean isHedgeable(SolrRequest request) {
+        //streamed responses are pushed to a callback and can't be sent twice
+        return request instanceof QueryRequest && request.getStreamingResponseCallback() == null;
+    }
+
+    private NamedList<Object> requestUnhedged(int replica, SolrRequest request, String collection) throws SolrServerException, IOException {
+        final long start = System.nanoTime();
+        final NamedList<Object> response = queryReplicas.get(replica).request(request, collection);
+        latency.record(System.nanoTime() - start);
+        return response;
+    }
+
+    /**
+     * Sends a query to a replica without waiting for the response: with the non-blocking client of an http replica,
+     * or on a thread otherwise. Cancelling the future of a non-blocking request aborts it.
+     * @throws RejectedExecutionException if no thread is available to send the query.
+     */
+    private CompletableFuture<NamedList<Object>> send(int replica, SolrRequest request, String collection) {
+        final long start = System.nanoTime();
+        final NonBlockingSolrClient nonBlocking = nonBlockingReplicas.get(replica);
+        final CompletableFuture<NamedList<Object>> response;
+        if (nonBlocking != null) {
+            final SolrQuery query = new SolrQuery();
+            query.add(request.getParams());
+            query.setRequestHandler(request.getPath());
+            response = nonBlocking.query(query, collection, TimedHttpSolrClient.timeout(request.getParams(), TimedHttpSolrClient.DEFAULT_GRACE), this::decode);
+        } else {
+            final SolrClient client = queryReplicas.get(replica);
+            response = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return client.request(request, collection);
+                } catch (SolrServerException | IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        }
+        //a cancelled loser took at least until its cancellation, leaving it out would bias the percentile low
+        response.whenComplete((result, error) -> {
+            if (error == null || error instanceof CancellationException) {
+                latency.record(System.nanoTime() - start);
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Decodes a response of a non-blocking client on the threads of the hedging client, so a large response does not
+     * hold up the io thread of its replica. If all the threads are busy it is decoded on the io thread.
+     */
+    private void decode(Runnable decoding) {
+        try {
+            executor.execute(decoding);
+        } catch (RejectedExecutionException e) {
+            decoding.run();
+        }
+    }
+
+    private NamedList<Object> await(CompletableFuture<NamedList<Object>> response) throws SolrServerException, IOException {
+        try {
+            return response.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SolrServerException("Interrupted while waiting for the query response", e);
+        }
+    }
+
+    private SolrServerException unwrap(Throwable error) {
+        final Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof SolrServerException) {
+            return (SolrServerException) cause;
+        } else if (cause instanceof IOException) {
+            //reported like the http solr client does, e.g. a socket timeout
+            return new SolrServerException("IOException occured when talking to server", cause);
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new SolrServerException(cause);
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdownNow();
+        for (NonBlockingSolrClient replica : nonBlockingReplicas) {
+            if (replica != null) {
+                replica.close();
+            }
+        }
+        for (SolrClient replica : replicas) {
+            replica.close();
+        }
+    }
+
+    @Override
+    @Deprecated
+    public void shutdown() {
+        try {
+            close();
+        } catch (IOException e) {
+            log.error("Cannot close solr clients", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingSolrClient{" +
+                "replicas=" + replicas.size() +
+                ", queries=" + getQueries() +
+                ", hedged=" + getHedged() +
+                ", hedgeWins=" + getHedgeWins() +
+                ", hedgeDelayMs=" + getHedgeDelay(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+}
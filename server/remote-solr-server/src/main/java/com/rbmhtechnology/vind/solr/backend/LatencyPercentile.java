@@ -0,0 +1,58 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks a percentile of the latencies of the last requests in a fixed size window. The percentile is recomputed
+ * every tenth of the window, so reading it is cheap.
+ */
+final class LatencyPercentile {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+    private final int recomputeInterval;
+    private final double percentile;
+
+    private volatile long value = -1;
+
+    /**
+     * @param window number of latencies the percentile is computed on.
+     * @param percentile the percentile to track, between 0 and 100.
+     */
+    LatencyPercentile(int window, double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in (0, 100]");
+        }
+        this.samples = new AtomicLongArray(window);
+        this.recomputeInterval = Math.max(1, window / 10);
+        this.percentile = percentile;
+    }
+
+    void record(long nanos) {
+        final long index = count.getAndIncrement();
+        samples.set((int) (index % samples.length()), nanos);
+        if ((index + 1) % recomputeInterval == 0 && index + 1 >= samples.length()) {
+            recompute();
+        }
+    }
+
+    /**
+     * Gets the tracked percentile.
+     * @return the percentile in nanoseconds or -1 if less than a full window has been recorded yet.
+     */
+    long get() {
+        return value;
+    }
+
+    private void recompute() {
+        final long[] sorted = new long[samples.length()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        final int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        value = sorted[Math.max(0, rank)];
+    }
+}
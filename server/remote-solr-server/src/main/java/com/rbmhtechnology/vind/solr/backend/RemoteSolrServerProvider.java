@@ -8,6 +8,12 @@ import org.apache.solr.client.solrj.impl.HttpSolrClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * @author Thomas Kurz (tkurz@apache.org)
  * @since 21.06.16.
@@ -44,7 +50,7 @@ public class RemoteSolrServerProvider implements SolrServerProvider {
             if(collection != null) {
                 CloudSolrClient client = new CloudSolrClient(host);
                 client.setDefaultCollection(collection);
-                return client;
+                return hedge(Collections.singletonList(client), log);
             } else {
                 log.error(SearchConfiguration.SERVER_COLLECTION + " has to be set");
                 throw new RuntimeException(SearchConfiguration.SERVER_COLLECTION + " has to be set");
@@ -52,13 +58,42 @@ public class RemoteSolrServerProvider implements SolrServerProvider {
 
         } else {
 
-            if(collection != null) {
-                host = String.join("/",host,collection);
+            final List<SolrClient> clients = new ArrayList<>();
+            for(String replica : getHosts(host)) {
+                if(collection != null) {
+                    replica = String.join("/",replica,collection);
+                }
+                log.info("Instantiating solr http client: {}", replica);
+                clients.add(new HttpSolrClient(replica));
             }
-            log.info("Instantiating solr http client: {}", host);
-            return new HttpSolrClient(host);
+            return hedge(clients, log);
 
         }
 
     }
+
+    private List<String> getHosts(String host) {
+        final List<String> hosts = new ArrayList<>();
+        hosts.add(host);
+        if(SearchConfiguration.get(SearchConfiguration.SERVER_HEDGE_ENABLED, false)) {
+            final String replicas = SearchConfiguration.get(SearchConfiguration.SERVER_HEDGE_REPLICAS);
+            if(replicas != null) {
+                Arrays.stream(replicas.split(","))
+                        .map(String::trim)
+                        .filter(replica -> !replica.isEmpty())
+                        .forEach(hosts::add);
+            }
+        }
+        return hosts;
+    }
+
+    private SolrClient hedge(List<SolrClient> clients, Logger log) {
+        if(!SearchConfiguration.get(SearchConfiguration.SERVER_HEDGE_ENABLED, false)) {
+            return clients.get(0);
+        }
+        final int percentile = SearchConfiguration.get(SearchConfiguration.SERVER_HEDGE_PERCENTILE, 95);
+        final int minDelay = SearchConfiguration.get(SearchConfiguration.SERVER_HEDGE_MIN_DELAY, 10);
+        log.info("Hedging queries over {} solr clients after the {}th latency percentile (min {}ms)", clients.size(), percentile, minDelay);
+        return new HedgingSolrClient(clients, percentile, minDelay, TimeUnit.MILLISECONDS);
+    }
 }
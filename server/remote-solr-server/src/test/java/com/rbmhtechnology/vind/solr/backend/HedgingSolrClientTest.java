@@ -0,0 +1,273 @@
+package com.rbmhtechnology.vind.solr.backend;
+
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrRequest;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.impl.HttpSolrClient;
+import org.apache.solr.client.solrj.request.UpdateRequest;
+import org.apache.solr.common.util.JavaBinCodec;
+import org.apache.solr.common.util.NamedList;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HedgingSolrClientTest {
+
+    @Test
+    public void testHedgedQuery() throws Exception {
+        final ReplicaClient first = new ReplicaClient("first");
+        final ReplicaClient second = new ReplicaClient("second");
+        final HedgingSolrClient client = new HedgingSolrClient(Arrays.asList(first, second), 95, 20, TimeUnit.MILLISECONDS, 10, 4);
+
+        //warm up the latency percentile
+        for (int i = 0; i < 10; i++) {
+            client.query(new SolrQuery("*:*"));
+        }
+        assertEquals(0, client.getHedged());
+        assertEquals(20, client.getHedgeDelay(TimeUnit.MILLISECONDS));
+
+        first.delay = 1000;
+        final long start = System.currentTimeMillis();
+        assertEquals("second", client.query(new SolrQuery("*:*")).getResponse().get("replica"));
+        assertTrue(System.currentTimeMillis() - start < 500);
+        assertEquals("second", client.query(new SolrQuery("*:*")).getResponse().get("replica"));
+
+        assertEquals(12, client.getQueries());
+        assertEquals(1, client.getHedged());
+        assertEquals(1, client.getHedgeWins());
+
+        //updates are not hedged and always go to the first replica
+        first.delay = 0;
+        new UpdateRequest().deleteByQuery("*:*").process(client);
+        assertEquals(1, first.updates.get());
+        assertEquals(0, second.updates.get());
+
+        client.close();
+    }
+
+    @Test
+    public void testLatencyOfCancelledQueryIsRecorded() throws Exception {
+        final ReplicaClient first = new ReplicaClient("first");
+        final ReplicaClient second = new ReplicaClient("second");
+        first.delay = 20;
+        second.delay = 20;
+        final HedgingSolrClient client = new HedgingSolrClient(Arrays.asList(first, second), 100, 1, TimeUnit.MILLISECONDS, 2, 4);
+        client.query(new SolrQuery("*:*"));
+        client.query(new SolrQuery("*:*"));
+        assertTrue(client.getHedgeDelay(TimeUnit.MILLISECONDS) < 35);
+
+        //the primary is cancelled after the hedge has been answered, about 40ms after it was sent
+        first.delay = 1000;
+        assertEquals("second", client.query(new SolrQuery("*:*")).getResponse().get("replica"));
+        assertEquals(1, client.getHedgeWins());
+        assertTrue(client.getHedgeDelay(TimeUnit.MILLISECONDS) >= 35);
+
+        client.close();
+    }
+
+    @Test
+    public void testQueryIsNotHedgedWithoutThreads() throws Exception {
+        final ReplicaClient first = new ReplicaClient("first");
+        final ReplicaClient second = new ReplicaClient("second");
+        final HedgingSolrClient client = new HedgingSolrClient(Arrays.asList(first, second), 95, 20, TimeUnit.MILLISECONDS, 1, 1);
+        client.query(new SolrQuery("*:*"));
+
+        //the only thread is busy with the query to the second replica
+        second.delay = 200;
+        assertEquals("second", client.query(new SolrQuery("*:*")).getResponse().get("replica"));
+        assertEquals(0, client.getHedged());
+
+        client.close();
+    }
+
+    @Test
+    public void testLosingHttpRequestIsAborted() throws Exception {
+        try (HttpReplica fast = new HttpReplica("fast"); HttpReplica slow = new HttpReplica("slow")) {
+            final HedgingSolrClient client = new HedgingSolrClient(Arrays.asList(fast.client(), slow.client()), 95, 20, TimeUnit.MILLISECONDS, 1, 1);
+            assertEquals("fast", client.query(new SolrQuery("*:*")).getResponse().get("replica"));
+
+            //the query is sent to the slow replica first, which never responds
+            slow.hang = true;
+            assertEquals("fast", client.query(new SolrQuery("*:*")).getResponse().get("replica"));
+            assertEquals(1, client.getHedgeWins());
+            assertTrue(slow.aborted.await(5, TimeUnit.SECONDS));
+
+            client.close();
+        }
+    }
+
+    @Test
+    public void testTimeAllowedIsSocketTimeout() throws Exception {
+        try (HttpReplica first = new HttpReplica("first"); HttpReplica second = new HttpReplica("second")) {
+            final HedgingSolrClient client = new HedgingSolrClient(Arrays.asList(first.client(), second.client()), 95, 20, TimeUnit.MILLISECONDS, 2, 1);
+            first.hang = true;
+            second.hang = true;
+            final SolrQuery query = new SolrQuery("*:*");
+            query.setTimeAllowed(50);
+
+            //not hedged yet
+            assertSocketTimeout(client, query);
+
+            first.hang = false;
+            second.hang = false;
+            client.query(new SolrQuery("*:*"));
+            client.query(new SolrQuery("*:*"));
+            first.hang = true;
+            second.hang = true;
+
+            //hedged
+            assertSocketTimeout(client, query);
+            assertEquals(1, client.getHedged());
+
+            client.close();
+        }
+    }
+
+    private static void assertSocketTimeout(HedgingSolrClient client, SolrQuery query) throws IOException {
+        final long start = System.currentTimeMillis();
+        try {
+            client.query(query);
+            fail("Timeout not reported");
+        } catch (SolrServerException e) {
+            assertThat(e.getCause(), instanceOf(SocketTimeoutException.class));
+            assertTrue(System.currentTimeMillis() - start < 5000);
+        }
+    }
+
+    /**
+     * Replica answering http requests with its name, or never if it hangs. Counts down when a hanging request is
+     * aborted by the client.
+     */
+    private static class HttpReplica implements AutoCloseable {
+
+        private final String name;
+        private final ServerSocket server;
+        private final CountDownLatch aborted = new CountDownLatch(1);
+        private volatile boolean hang;
+
+        private HttpReplica(String name) throws IOException {
+            this.name = name;
+            this.server = new ServerSocket(0);
+            final Thread acceptor = new Thread(() -> {
+                while (!server.isClosed()) {
+                    try {
+                        final Socket socket = server.accept();
+                        final Thread connection = new Thread(() -> serve(socket));
+                        connection.setDaemon(true);
+                        connection.start();
+                    } catch (IOException e) {
+                        return;
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private HttpSolrClient client() {
+            return new HttpSolrClient("http://localhost:" + server.getLocalPort() + "/solr/core");
+        }
+
+        private void serve(Socket socket) {
+            try (Socket s = socket; InputStream in = s.getInputStream(); OutputStream out = s.getOutputStream()) {
+                while (true) {
+                    final String head = readHead(in);
+                    if (head == null) {
+                        return;
+                    }
+                    if (head.contains("Content-Length: ")) {
+                        final int length = Integer.parseInt(head.replaceAll("(?s).*Content-Length: (\\d+).*", "$1"));
+                        for (int i = 0; i < length; i++) {
+                            in.read();
+                        }
+                    }
+                    if (hang) {
+                        //blocks until the client closes the connection
+                        while (in.read() >= 0) {
+                        }
+                        aborted.countDown();
+                        return;
+                    }
+                    final NamedList<Object> body = new NamedList<>();
+                    body.add("replica", name);
+                    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    new JavaBinCodec().marshal(body, bytes);
+                    out.write(("HTTP/1.1 200 OK\r\nContent-Type: application/octet-stream\r\nContent-Length: " + bytes.size() + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                    bytes.writeTo(out);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                //connection closed by the client
+            }
+        }
+
+        private static String readHead(InputStream in) throws IOException {
+            final ByteArrayOutputStream head = new ByteArrayOutputStream();
+            int c;
+            while ((c = in.read()) >= 0) {
+                head.write(c);
+                if (head.toString("ISO-8859-1").endsWith("\r\n\r\n")) {
+                    return head.toString("ISO-8859-1");
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+
+    private static class ReplicaClient extends SolrClient {
+
+        private final String name;
+        private final AtomicInteger updates = new AtomicInteger();
+        private volatile long delay = 1;
+
+        private ReplicaClient(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public NamedList<Object> request(SolrRequest request, String collection) {
+            if (request instanceof UpdateRequest) {
+                updates.incrementAndGet();
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final NamedList<Object> response = new NamedList<>();
+            response.add("replica", name);
+            return response;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}